@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.caches.benchmarks;
+
+import io.telicent.smart.cache.projectors.utils.LatencyHistogram;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH profiler that reports the per-event latencies recorded by a benchmark, via {@link #record(long)}, as secondary
+ * results of each iteration
+ * <p>
+ * Enable it by adding {@code -prof io.telicent.smart.caches.benchmarks.LatencyProfiler} when running the benchmarks.
+ * The p50 and p99 latencies are averaged across iterations, while the maximum latency is the maximum of any iteration.
+ * </p>
+ */
+public class LatencyProfiler implements InternalProfiler {
+
+    private static final LatencyHistogram LATENCIES = new LatencyHistogram();
+    private static final double NANOS_PER_MICROSECOND = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final String UNIT = "us";
+
+    /**
+     * Records the latency of an event
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    static void record(long nanos) {
+        LATENCIES.record(nanos);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Reports the p50, p99 and maximum per-event latency recorded by the benchmark";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        LATENCIES.reset();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        if (LATENCIES.isEmpty()) {
+            return List.of();
+        }
+        return List.of(new ScalarResult("latency.p50", toMicros(LATENCIES.getValueAtPercentile(50)), UNIT,
+                                        AggregationPolicy.AVG),
+                       new ScalarResult("latency.p99", toMicros(LATENCIES.getValueAtPercentile(99)), UNIT,
+                                        AggregationPolicy.AVG),
+                       new ScalarResult("latency.max", toMicros(LATENCIES.getMax()), UNIT, AggregationPolicy.MAX));
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / NANOS_PER_MICROSECOND;
+    }
+}
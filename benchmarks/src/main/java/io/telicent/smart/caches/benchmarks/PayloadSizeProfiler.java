@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.caches.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A JMH profiler that reports the size of the serialised payload recorded by a benchmark, via
+ * {@link #record(long, long)}, as secondary results of each iteration
+ * <p>
+ * Enable it by adding {@code -prof io.telicent.smart.caches.benchmarks.PayloadSizeProfiler} when running the
+ * benchmarks.  The payload size is reported in bytes, along with the bytes per quad, and is averaged across iterations.
+ * </p>
+ */
+public class PayloadSizeProfiler implements InternalProfiler {
+
+    private static volatile long bytes = -1;
+    private static volatile long quads = 0;
+
+    /**
+     * Records the size of the serialised payload used by the current trial
+     *
+     * @param size  Payload size in bytes
+     * @param count Number of quads in the payload
+     */
+    static void record(long size, long count) {
+        quads = count;
+        bytes = size;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Reports the size, and bytes per quad, of the serialised payload used by the benchmark";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        // Payload size is recorded once per trial so nothing to reset
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        long size = bytes;
+        long count = quads;
+        if (size < 0 || count <= 0) {
+            return List.of();
+        }
+        return List.of(new ScalarResult("payload.size", size, "bytes", AggregationPolicy.AVG),
+                       new ScalarResult("payload.bytesPerQuad", (double) size / count, "bytes/quad",
+                                        AggregationPolicy.AVG));
+    }
+}
@@ -0,0 +1,313 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.caches.benchmarks;
+
+import io.telicent.smart.cache.projectors.NoOpProjector;
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.driver.ProjectorDriver;
+import io.telicent.smart.cache.projectors.sinks.NullSink;
+import io.telicent.smart.cache.projectors.sinks.events.EventProcessedSink;
+import io.telicent.smart.cache.projectors.sinks.events.file.EventCapturingSink;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventSource;
+import io.telicent.smart.cache.sources.file.FileEventFormatProvider;
+import io.telicent.smart.cache.sources.file.FileEventFormats;
+import io.telicent.smart.cache.sources.file.FileEventSource;
+import io.telicent.smart.cache.sources.memory.InMemoryEventSource;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end benchmarks of a {@link ProjectorDriver} projecting events from an event source through to its sinks,
+ * including reporting events as processed and thus committing offsets where applicable
+ * <p>
+ * Each invocation projects {@value #EVENTS} pre-generated events so throughput is reported in events per second.
+ * Kafka is simulated in-process via Kafka's {@code MockConsumer}, with configurable poll and commit latencies, so no
+ * broker is required.  Run with {@code -prof io.telicent.smart.caches.benchmarks.LatencyProfiler} to also report the
+ * p50, p99 and maximum per-event latency, i.e. the time between successive events reaching the end of the pipeline
+ * which includes any time spent polling and committing, and with {@code -prof gc} to report allocation rates and GC
+ * pressure.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ProjectorDriverBenchmark.EVENTS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProjectorDriverBenchmark {
+
+    static final int EVENTS = 10_000;
+    private static final int VALUE_SIZE = 1024;
+
+    /**
+     * A terminal sink that records the time between successive events reaching it into the {@link LatencyProfiler}
+     */
+    static final class LatencySink implements Sink<Event<String, String>> {
+        private final Sink<Event<String, String>> destination;
+        private long last;
+
+        LatencySink(Sink<Event<String, String>> destination) {
+            this.destination = destination;
+        }
+
+        void start() {
+            this.last = System.nanoTime();
+        }
+
+        @Override
+        public void send(Event<String, String> event) {
+            this.destination.send(event);
+            long now = System.nanoTime();
+            LatencyProfiler.record(now - this.last);
+            this.last = now;
+        }
+
+        @Override
+        public void close() {
+            this.destination.close();
+        }
+    }
+
+    /**
+     * Common state for running a driver against a fresh event source on each invocation
+     */
+    @State(Scope.Benchmark)
+    public abstract static class DriverState {
+        @Param({"1", "100"})
+        public int pollBatchSize;
+
+        private LatencySink sink;
+        private ProjectorDriver<String, String, Event<String, String>> driver;
+
+        /**
+         * Creates a fresh event source from which the pre-generated events will be read
+         *
+         * @return Event source
+         */
+        protected abstract EventSource<String, String> createSource();
+
+        /**
+         * Creates the terminal sink for the pipeline
+         *
+         * @return Terminal sink
+         */
+        protected Sink<Event<String, String>> createTerminalSink() {
+            return NullSink.of();
+        }
+
+        // NB - The driver stops once it has projected all the events so the generous poll timeout only guards against
+        //      a slow source being mistaken for an exhausted one, which would inflate the reported throughput
+        @Setup(Level.Invocation)
+        public void prepareDriver() {
+            this.sink = new LatencySink(createTerminalSink());
+            //@formatter:off
+            this.driver = ProjectorDriver.<String, String, Event<String, String>>create()
+                                         .source(createSource())
+                                         .projector(new NoOpProjector<>())
+                                         .destination(this.sink)
+                                         .limit(EVENTS)
+                                         .maxStalls(1)
+                                         .pollTimeout(Duration.ofSeconds(1))
+                                         .pollBatchSize(this.pollBatchSize)
+                                         .reportBatchSize(EVENTS * 100L)
+                                         .disabledProcessingSpeedWarnings()
+                                         .build();
+            //@formatter:on
+        }
+
+        void run() {
+            this.sink.start();
+            this.driver.run();
+        }
+
+        @TearDown(Level.Invocation)
+        public void closeSink() {
+            this.sink.close();
+        }
+    }
+
+    /**
+     * Events read from a simulated Kafka topic
+     */
+    @State(Scope.Benchmark)
+    public static class KafkaState extends DriverState {
+        /**
+         * How events are committed:
+         * <ul>
+         *     <li>{@code auto} - The source automatically commits all events it has returned</li>
+         *     <li>{@code per-event} - Each event is reported as processed, and synchronously committed, individually</li>
+         *     <li>{@code batched} - Events are reported as processed, and synchronously committed, in batches of 100</li>
+         *     <li>{@code async} - Each event is reported as processed and offsets asynchronously committed</li>
+         * </ul>
+         */
+        @Param({"auto", "per-event", "batched", "async"})
+        public String commits;
+
+        @Param({"0", "5"})
+        public int pollLatencyMillis;
+
+        @Param({"0", "200"})
+        public int commitLatencyMicros;
+
+        private List<ConsumerRecord<String, String>> records;
+
+        @Setup(Level.Trial)
+        public void generateRecords() {
+            List<Event<String, String>> events = generateEvents();
+            this.records = new ArrayList<>(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                Event<String, String> event = events.get(i);
+                this.records.add(new ConsumerRecord<>(SimulatedKafkaEventSource.TOPIC, 0, i, event.key(),
+                                                      event.value()));
+            }
+        }
+
+        @Override
+        protected EventSource<String, String> createSource() {
+            return new SimulatedKafkaEventSource<>(this.records, 500, "auto".equals(this.commits),
+                                                   "async".equals(this.commits) ? Duration.ofSeconds(1) : null,
+                                                   Duration.ofMillis(this.pollLatencyMillis),
+                                                   Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(
+                                                           this.commitLatencyMicros)));
+        }
+
+        @Override
+        protected Sink<Event<String, String>> createTerminalSink() {
+            return switch (this.commits) {
+                case "auto" -> NullSink.of();
+                case "batched" -> EventProcessedSink.<String, String>create().batchSize(100).build();
+                default -> EventProcessedSink.<String, String>create().noBatching().build();
+            };
+        }
+    }
+
+    /**
+     * Events read from memory, giving the baseline overhead of the driver itself
+     */
+    @State(Scope.Benchmark)
+    public static class InMemoryState extends DriverState {
+        private List<Event<String, String>> events;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            this.events = generateEvents();
+        }
+
+        @Override
+        protected EventSource<String, String> createSource() {
+            return new InMemoryEventSource<>(this.events);
+        }
+    }
+
+    /**
+     * Events read from a directory of event files
+     */
+    @State(Scope.Benchmark)
+    public static class FileState extends DriverState {
+        @Param({"yaml", "binary"})
+        public String format;
+
+        @Param({"1", "4"})
+        public int parserThreads;
+
+        private File directory;
+        private FileEventFormatProvider provider;
+
+        @Setup(Level.Trial)
+        public void writeEvents() throws IOException {
+            this.directory = Files.createTempDirectory("driver-benchmark").toFile();
+            this.provider = FileEventFormats.get(this.format);
+            try (Sink<Event<String, String>> capture = EventCapturingSink.<String, String>create()
+                                                                         .directory(this.directory)
+                                                                         .writer(this.provider.createWriter(
+                                                                                 new StringSerializer(),
+                                                                                 new StringSerializer()))
+                                                                         .extension(
+                                                                                 this.provider.defaultFileExtension())
+                                                                         .discard()
+                                                                         .build()) {
+                for (Event<String, String> event : generateEvents()) {
+                    capture.send(event);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteEvents() throws IOException {
+            try (Stream<Path> paths = Files.walk(this.directory.toPath())) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+
+        @Override
+        protected EventSource<String, String> createSource() {
+            return this.provider.createSource(new StringDeserializer(), new StringDeserializer(), this.directory,
+                                              this.parserThreads, FileEventSource.DEFAULT_MAX_BUFFERED_EVENTS);
+        }
+    }
+
+    /**
+     * Generates the events to be projected
+     *
+     * @return Events
+     */
+    static List<Event<String, String>> generateEvents() {
+        Random random = new Random(12345);
+        List<Event<String, String>> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            char[] value = new char[VALUE_SIZE];
+            for (int j = 0; j < value.length; j++) {
+                value[j] = (char) ('a' + random.nextInt(26));
+            }
+            events.add(new SimpleEvent<>(Collections.emptyList(), "key-" + i, new String(value)));
+        }
+        return events;
+    }
+
+    @Benchmark
+    public void kafka(KafkaState state) {
+        state.run();
+    }
+
+    @Benchmark
+    public void inMemory(InMemoryState state) {
+        state.run();
+    }
+
+    @Benchmark
+    public void file(FileState state) {
+        state.run();
+    }
+}
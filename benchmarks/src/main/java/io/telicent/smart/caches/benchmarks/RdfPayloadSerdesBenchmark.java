@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.caches.benchmarks;
+
+import io.telicent.smart.cache.payloads.RdfPayload;
+import io.telicent.smart.cache.sources.kafka.serializers.DatasetGraphDeserializer;
+import io.telicent.smart.cache.sources.kafka.serializers.RdfPayloadDeserializer;
+import io.telicent.smart.cache.sources.kafka.serializers.RdfPayloadSerializer;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdfpatch.RDFPatch;
+import org.apache.jena.rdfpatch.changes.RDFChangesCollector;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.lang.StreamRDFCounting;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.web.HttpNames;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serialising and deserialising RDF datasets and patches, as carried on Knowledge topics, via the Kafka
+ * serdes for each supported serialisation
+ * <p>
+ * The size of each serialised payload, and its bytes per quad, is reported when run with
+ * {@code -prof io.telicent.smart.caches.benchmarks.PayloadSizeProfiler}.  Run with {@code -prof gc} to also report
+ * allocation rates.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RdfPayloadSerdesBenchmark {
+
+    private static final String TOPIC = "knowledge";
+
+    /**
+     * Serialised RDF datasets, roughly 1 KB to 50 MB in size depending upon the number of quads
+     */
+    @State(Scope.Benchmark)
+    public static class DatasetState {
+        @Param({"nquads", "trig", "thrift", "protobuf"})
+        public String lang;
+
+        @Param({"10", "1000", "100000", "400000"})
+        public int quads;
+
+        private DatasetGraph dataset;
+        private Headers headers;
+        private byte[] data;
+        private final RdfPayloadSerializer serializer = new RdfPayloadSerializer();
+        private final RdfPayloadDeserializer deserializer = new RdfPayloadDeserializer();
+        private final DatasetGraphDeserializer datasetDeserializer = new DatasetGraphDeserializer();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.dataset = generateDataset(this.quads);
+            this.headers = contentTypeHeaders(toLang(this.lang).getContentType().getContentTypeStr());
+            this.data = this.serializer.serialize(TOPIC, this.headers, RdfPayload.of(this.dataset));
+            PayloadSizeProfiler.record(this.data.length, this.quads);
+        }
+    }
+
+    /**
+     * Serialised RDF patches, roughly 1 KB to 50 MB in size depending upon the number of quads
+     */
+    @State(Scope.Benchmark)
+    public static class PatchState {
+        @Param({"application/rdf-patch", "application/rdf-patch+thrift"})
+        public String contentType;
+
+        @Param({"10", "1000", "100000", "400000"})
+        public int quads;
+
+        private RDFPatch patch;
+        private Headers headers;
+        private byte[] data;
+        private final RdfPayloadSerializer serializer = new RdfPayloadSerializer();
+        private final RdfPayloadDeserializer deserializer = new RdfPayloadDeserializer();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.patch = datasetToPatch(generateDataset(this.quads));
+            this.headers = contentTypeHeaders(this.contentType);
+            this.data = this.serializer.serialize(TOPIC, this.headers, RdfPayload.of(this.patch));
+            PayloadSizeProfiler.record(this.data.length, this.quads);
+        }
+    }
+
+    static Lang toLang(String name) {
+        return switch (name) {
+            case "nquads" -> Lang.NQUADS;
+            case "trig" -> Lang.TRIG;
+            case "thrift" -> Lang.RDFTHRIFT;
+            case "protobuf" -> Lang.RDFPROTO;
+            default -> throw new IllegalArgumentException("Unknown RDF serialisation " + name);
+        };
+    }
+
+    private static Headers contentTypeHeaders(String contentType) {
+        return new RecordHeaders(new Header[] {
+                new RecordHeader(HttpNames.hContentType, contentType.getBytes(StandardCharsets.UTF_8))
+        });
+    }
+
+    /**
+     * Generates a synthetic dataset, spread across the default graph and several named graphs, that mixes URI and
+     * literal objects in a similar manner to typical Knowledge data
+     *
+     * @param quads Number of quads
+     * @return Dataset
+     */
+    static DatasetGraph generateDataset(int quads) {
+        DatasetGraph dataset = DatasetGraphFactory.create();
+        dataset.prefixes().add("ex", "http://example.org/");
+        Node[] predicates = new Node[8];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = NodeFactory.createURI("http://example.org/ontology#predicate" + i);
+        }
+        for (int i = 0; i < quads; i++) {
+            Node graph = i % 4 == 0 ? Quad.defaultGraphIRI : NodeFactory.createURI("http://example.org/graphs/" + i % 3);
+            Node subject = NodeFactory.createURI("http://example.org/subjects/" + i / 8);
+            Node object = switch (i % 4) {
+                case 0 -> NodeFactory.createURI("http://example.org/objects/" + i);
+                case 1 -> NodeFactory.createLiteralDT(Integer.toString(i), XSDDatatype.XSDinteger);
+                case 2 -> NodeFactory.createLiteralLang("Label for item " + i, "en");
+                default -> NodeFactory.createLiteralString("A longer literal value describing item number " + i);
+            };
+            dataset.add(graph, subject, predicates[i % predicates.length], object);
+        }
+        return dataset;
+    }
+
+    /**
+     * Converts a dataset into a patch that adds all its quads
+     *
+     * @param dataset Dataset
+     * @return Patch
+     */
+    static RDFPatch datasetToPatch(DatasetGraph dataset) {
+        RDFChangesCollector collector = new RDFChangesCollector();
+        collector.start();
+        collector.txnBegin();
+        Iterator<Quad> quads = dataset.find();
+        while (quads.hasNext()) {
+            Quad q = quads.next();
+            collector.add(q.getGraph(), q.getSubject(), q.getPredicate(), q.getObject());
+        }
+        collector.txnCommit();
+        collector.finish();
+        return collector.getRDFPatch();
+    }
+
+    @Benchmark
+    public byte[] serializeDataset(DatasetState state) {
+        return state.serializer.serialize(TOPIC, state.headers, RdfPayload.of(state.dataset));
+    }
+
+    @Benchmark
+    public DatasetGraph deserializeDatasetPayload(DatasetState state) {
+        return state.deserializer.deserialize(TOPIC, state.headers, state.data).getDataset();
+    }
+
+    @Benchmark
+    public long streamDatasetPayload(DatasetState state) {
+        StreamRDFCounting counter = StreamRDFLib.count();
+        state.deserializer.deserialize(TOPIC, state.headers, state.data).streamDataset(counter);
+        return counter.count();
+    }
+
+    @Benchmark
+    public DatasetGraph deserializeDatasetGraph(DatasetState state) {
+        return state.datasetDeserializer.deserialize(TOPIC, state.headers, state.data);
+    }
+
+    @Benchmark
+    public byte[] serializePatch(PatchState state) {
+        return state.serializer.serialize(TOPIC, state.headers, RdfPayload.of(state.patch));
+    }
+
+    @Benchmark
+    public RDFPatch deserializePatchPayload(PatchState state) {
+        return state.deserializer.deserialize(TOPIC, state.headers, state.data).getPatch();
+    }
+}
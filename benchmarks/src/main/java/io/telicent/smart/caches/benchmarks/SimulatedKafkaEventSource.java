@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.caches.benchmarks;
+
+import io.telicent.smart.cache.sources.kafka.KafkaEventSource;
+import io.telicent.smart.cache.sources.kafka.policies.KafkaReadPolicies;
+import io.telicent.smart.cache.sources.kafka.policies.KafkaReadPolicy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.*;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * A Kafka event source for benchmarking that uses Kafka's {@link MockConsumer}, preloaded with pre-generated records,
+ * in place of a real consumer, optionally simulating the latency of polling and committing offsets
+ *
+ * @param <TKey>   Key type
+ * @param <TValue> Value type
+ */
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class SimulatedKafkaEventSource<TKey, TValue> extends KafkaEventSource<TKey, TValue> {
+
+    /**
+     * The topic from which simulated records are read
+     */
+    public static final String TOPIC = "benchmark";
+
+    /**
+     * Creates a new simulated event source
+     *
+     * @param records             Pre-generated records, these must all be for partition 0 of {@link #TOPIC} with
+     *                            sequential offsets starting from 0
+     * @param maxPollRecords      Maximum records returned by each poll of the consumer
+     * @param autoCommit          Whether the event source will automatically commit offsets
+     * @param asyncCommitInterval Asynchronous commit interval, {@code null} for synchronous commits
+     * @param pollLatency         Simulated latency of each poll of the consumer
+     * @param commitLatency       Simulated latency of each synchronous offset commit
+     */
+    public SimulatedKafkaEventSource(List<ConsumerRecord<TKey, TValue>> records, int maxPollRecords,
+                                     boolean autoCommit, Duration asyncCommitInterval, Duration pollLatency,
+                                     Duration commitLatency) {
+        // NB - The consumer is created by the super constructor, before any fields of this class are set, so the read
+        //      policy is used to carry the latencies through to the consumer.  The deserializers are never used as the
+        //      mock consumer returns the pre-generated records as-is.
+        super(KafkaEventSource.<TKey, TValue>create()
+                              .bootstrapServers("localhost:9092")
+                              .topic(TOPIC)
+                              .consumerGroup("benchmark")
+                              .keyDeserializer(StringDeserializer.class)
+                              .valueDeserializer(StringDeserializer.class)
+                              .maxPollRecords(maxPollRecords)
+                              .readPolicy(new PreloadingReadPolicy<>(records, pollLatency, commitLatency))
+                              .autoCommit(autoCommit)
+                              .ignoreTombstones(false)
+                              .asyncCommits(asyncCommitInterval));
+    }
+
+    @Override
+    protected Consumer<TKey, TValue> createConsumer(Properties props) {
+        return new SimulatedConsumer<>(Integer.parseInt(props.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)));
+    }
+
+    @Override
+    protected AdminClient createAdminClient(Properties props) {
+        return null;
+    }
+
+    /**
+     * A mock consumer that simulates the latency of a real broker
+     *
+     * @param <TKey>   Key type
+     * @param <TValue> Value type
+     */
+    static final class SimulatedConsumer<TKey, TValue> extends MockConsumer<TKey, TValue> {
+        private long pollLatencyNanos;
+        private long commitLatencyNanos;
+
+        SimulatedConsumer(int maxPollRecords) {
+            super(OffsetResetStrategy.EARLIEST);
+            this.setMaxPollRecords(maxPollRecords);
+        }
+
+        void setLatencies(Duration pollLatency, Duration commitLatency) {
+            this.pollLatencyNanos = pollLatency.toNanos();
+            this.commitLatencyNanos = commitLatency.toNanos();
+        }
+
+        private static void simulateLatency(long nanos) {
+            if (nanos > 0) {
+                try {
+                    Thread.sleep(Duration.ofNanos(nanos));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public ConsumerRecords<TKey, TValue> poll(Duration timeout) {
+            simulateLatency(this.pollLatencyNanos);
+            return super.poll(timeout);
+        }
+
+        @Override
+        public void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+            simulateLatency(this.commitLatencyNanos);
+            super.commitSync(offsets);
+        }
+
+        @Override
+        public void commitSync() {
+            simulateLatency(this.commitLatencyNanos);
+            super.commitSync();
+        }
+    }
+
+    /**
+     * A read policy that assigns the simulated partition to the mock consumer, and preloads it with the records, when
+     * events are first requested
+     *
+     * @param <TKey>   Key type
+     * @param <TValue> Value type
+     */
+    private static final class PreloadingReadPolicy<TKey, TValue> implements KafkaReadPolicy<TKey, TValue> {
+        private final KafkaReadPolicy<TKey, TValue> policy = KafkaReadPolicies.fromBeginning();
+        private final List<ConsumerRecord<TKey, TValue>> records;
+        private final Duration pollLatency;
+        private final Duration commitLatency;
+        private SimulatedConsumer<TKey, TValue> consumer;
+
+        PreloadingReadPolicy(List<ConsumerRecord<TKey, TValue>> records, Duration pollLatency,
+                             Duration commitLatency) {
+            this.records = Objects.requireNonNull(records, "Records cannot be null");
+            this.pollLatency = Objects.requireNonNull(pollLatency, "Poll Latency cannot be null");
+            this.commitLatency = Objects.requireNonNull(commitLatency, "Commit Latency cannot be null");
+        }
+
+        @Override
+        public boolean isSubscriptionBased() {
+            return this.policy.isSubscriptionBased();
+        }
+
+        @Override
+        public void prepareConsumerConfiguration(Properties props) {
+            this.policy.prepareConsumerConfiguration(props);
+        }
+
+        @Override
+        public void setConsumer(Consumer<TKey, TValue> consumer) {
+            this.policy.setConsumer(consumer);
+            this.consumer = (SimulatedConsumer<TKey, TValue>) consumer;
+            this.consumer.setLatencies(this.pollLatency, this.commitLatency);
+        }
+
+        @Override
+        public void startEvents(String topic) {
+            TopicPartition partition = new TopicPartition(topic, 0);
+            this.consumer.updateBeginningOffsets(Map.of(partition, 0L));
+            this.consumer.updateEndOffsets(Map.of(partition, (long) this.records.size()));
+
+            this.policy.startEvents(topic);
+            this.consumer.rebalance(Collections.singletonList(partition));
+            for (ConsumerRecord<TKey, TValue> record : this.records) {
+                this.consumer.addRecord(record);
+            }
+        }
+
+        @Override
+        public void logReadPositions(String topic) {
+            this.policy.logReadPositions(topic);
+        }
+
+        @Override
+        public Long currentLag(String topic) {
+            return this.policy.currentLag(topic);
+        }
+
+        @Override
+        public void stopEvents(String topic) {
+            this.policy.stopEvents(topic);
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            this.policy.onPartitionsRevoked(partitions);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            this.policy.onPartitionsAssigned(partitions);
+        }
+
+        @Override
+        public void resetOffsets(Map<TopicPartition, Long> offsets) {
+            this.policy.resetOffsets(offsets);
+        }
+
+        @Override
+        public void addRebalanceListener(ConsumerRebalanceListener listener) {
+            this.policy.addRebalanceListener(listener);
+        }
+    }
+}
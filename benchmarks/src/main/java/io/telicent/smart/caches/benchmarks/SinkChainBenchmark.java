@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.caches.benchmarks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.sinks.Sinks;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks realistic chains of sinks, as built via {@link Sinks}, over items of varying sizes and duplicate ratios
+ * <p>
+ * Run with {@code -prof gc} to also report allocation rates.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SinkChainBenchmark {
+
+    private static final int ITEM_COUNT = 1 << 16;
+    private static final int ITEM_MASK = ITEM_COUNT - 1;
+
+    /**
+     * A benchmark item, comparable to a simple event with a key and a value
+     *
+     * @param id      Identifier
+     * @param payload Payload
+     */
+    public record Item(String id, String payload) {
+    }
+
+    /**
+     * Pre-generated items that are cycled through by the benchmarks
+     */
+    public abstract static class Items {
+        private Item[] items;
+        private int next = 0;
+
+        protected void generate(int size, double duplicateRatio) {
+            this.items = generateItems(ITEM_COUNT, size, duplicateRatio);
+        }
+
+        Item nextItem() {
+            Item item = this.items[this.next];
+            this.next = (this.next + 1) & ITEM_MASK;
+            return item;
+        }
+    }
+
+    /**
+     * A filter, duplicate suppression, unmodified suppression, throughput tracking and terminal sink chain
+     */
+    @State(Scope.Benchmark)
+    public static class ChainState extends Items {
+        @Param({"64", "1024", "16384"})
+        public int itemSize;
+
+        @Param({"0.0", "0.5", "0.9"})
+        public double duplicateRatio;
+
+        @Param({"1000", "100000"})
+        public int cacheSize;
+
+        @Param({"discard", "json"})
+        public String terminal;
+
+        private Sink<Item> sink;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            generate(this.itemSize, this.duplicateRatio);
+
+            Sink<Item> terminalSink = "json".equals(this.terminal) ?
+                                      Sinks.<Item>toJson().toStream(OutputStream.nullOutputStream()).build() :
+                                      Sinks.<Item>discard().build();
+            //@formatter:off
+            this.sink = Sinks.<Item>filter()
+                             .predicate(i -> i.id().hashCode() % 10 != 0)
+                             .suppressDuplicates(d -> d.cacheSize(this.cacheSize)
+                                 .<String, String>suppressUnmodified(u -> u.cacheSize(this.cacheSize)
+                                     .keyFunction(Item::id)
+                                     .valueFunction(Item::payload)
+                                     .comparator(Comparator.naturalOrder())
+                                     .throughput(t -> t.tracker(x -> x.logger(SinkChainBenchmark.class)
+                                                                      .reportBatchSize(Long.MAX_VALUE)
+                                                                      .itemsName("Items"))
+                                                       .destination(terminalSink))))
+                             .build();
+            //@formatter:on
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() {
+            this.sink.close();
+        }
+    }
+
+    /**
+     * A chain of always passing filter sinks, isolating the per sink overhead of forwarding an item
+     */
+    @State(Scope.Benchmark)
+    public static class PassThroughState extends Items {
+        @Param({"1", "5", "10"})
+        public int depth;
+
+        private Sink<Item> sink;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            generate(64, 0.0);
+
+            Sink<Item> sink = Sinks.<Item>discard().build();
+            for (int i = 0; i < this.depth; i++) {
+                sink = Sinks.<Item>filter().destination(sink).build();
+            }
+            this.sink = sink;
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() {
+            this.sink.close();
+        }
+    }
+
+    /**
+     * Generates items where roughly the given ratio of items are exact duplicates of an earlier item
+     *
+     * @param count          Number of items
+     * @param size           Payload size
+     * @param duplicateRatio Duplicate ratio
+     * @return Items
+     */
+    static Item[] generateItems(int count, int size, double duplicateRatio) {
+        Random random = new Random(12345);
+        Item[] items = new Item[count];
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && random.nextDouble() < duplicateRatio) {
+                items[i] = items[random.nextInt(i)];
+            } else {
+                items[i] = new Item("item-" + i, randomPayload(random, size));
+            }
+        }
+        return items;
+    }
+
+    private static String randomPayload(Random random, int size) {
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public void chain(ChainState state) {
+        state.sink.send(state.nextItem());
+    }
+
+    @Benchmark
+    public void passThrough(PassThroughState state) {
+        state.sink.send(state.nextItem());
+    }
+}
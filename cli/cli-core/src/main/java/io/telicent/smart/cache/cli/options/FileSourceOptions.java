@@ -17,6 +17,7 @@ package io.telicent.smart.cache.cli.options;
 
 import com.github.rvesse.airline.annotations.Option;
 import com.github.rvesse.airline.annotations.restrictions.Directory;
+import com.github.rvesse.airline.annotations.restrictions.ranges.IntegerRange;
 import io.telicent.smart.cache.cli.restrictions.AllowedEventFileFormats;
 import io.telicent.smart.cache.cli.restrictions.SourceRequired;
 import io.telicent.smart.cache.projectors.Sink;
@@ -26,6 +27,7 @@ import io.telicent.smart.cache.sources.EventHeader;
 import io.telicent.smart.cache.sources.EventSource;
 import io.telicent.smart.cache.sources.file.FileEventFormatProvider;
 import io.telicent.smart.cache.sources.file.FileEventFormats;
+import io.telicent.smart.cache.sources.file.FileEventSource;
 import io.telicent.smart.cache.sources.file.yaml.YamlFormat;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serializer;
@@ -66,6 +68,14 @@ public class FileSourceOptions<TKey, TValue> {
     @AllowedEventFileFormats
     private String sourceFormat = YamlFormat.NAME;
 
+    @Option(name = { "--source-parser-threads" }, title = "SourceParserThreads", description = "Specifies how many threads should be used to parse event files in parallel, events are still returned in file order.  Defaults to 1.  Only relevant when a file event source is used via the --source-directory option")
+    @IntegerRange(min = 1)
+    private int sourceParserThreads = FileEventSource.DEFAULT_PARSER_THREADS;
+
+    @Option(name = { "--source-max-buffered-events" }, title = "SourceMaxBufferedEvents", description = "Specifies the maximum number of parsed events that may be buffered ahead of being read when parsing event files in parallel.  Defaults to 1000.  Only relevant when the --source-parser-threads option is greater than 1")
+    @IntegerRange(min = 1)
+    private int sourceMaxBufferedEvents = FileEventSource.DEFAULT_MAX_BUFFERED_EVENTS;
+
     @Option(name = {
             "--capture-dir", "--capture-directory"
     }, title = "CaptureDirectory", description = "Specifies a directory to which events should be captured, this will allow them to later be replayed via the --source-directory option.")
@@ -110,6 +120,11 @@ public class FileSourceOptions<TKey, TValue> {
                     String.format("Source format '%s' is not a valid event file format", this.sourceFormat));
         }
         if (this.sourceDirectory != null) {
+            if (this.sourceParserThreads > 1) {
+                LOGGER.info("Parsing events with {} parser threads", this.sourceParserThreads);
+                return format.createSource(keyDeserializer, valueDeserializer, this.sourceDirectory,
+                                           this.sourceParserThreads, this.sourceMaxBufferedEvents);
+            }
             return format.createSource(keyDeserializer, valueDeserializer, this.sourceDirectory);
         } else {
             return format.createSingleFileSource(keyDeserializer, valueDeserializer, this.sourceFile);
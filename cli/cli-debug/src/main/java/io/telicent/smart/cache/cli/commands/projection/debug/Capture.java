@@ -23,7 +23,10 @@ import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.sinks.NullSink;
 import io.telicent.smart.cache.server.jaxrs.model.HealthStatus;
 import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventHeader;
 import io.telicent.smart.cache.sources.EventSource;
+import io.telicent.smart.cache.sources.Header;
+import io.telicent.smart.cache.sources.kafka.KafkaEvent;
 import io.telicent.smart.cache.sources.kafka.KafkaEventSource;
 import org.apache.kafka.common.serialization.BytesDeserializer;
 import org.apache.kafka.common.serialization.BytesSerializer;
@@ -31,6 +34,8 @@ import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 
+import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -39,6 +44,12 @@ import java.util.function.Supplier;
 @Command(name = "capture", description = "Captures the contents of a topic to a directory without any interpretation of the the event contents.")
 public class Capture extends AbstractKafkaProjectorCommand<Bytes, Bytes, Event<Bytes, Bytes>> {
 
+    /**
+     * Header added to captured events recording the original timestamp of the Kafka record, in milliseconds since the
+     * epoch, used by the {@link Replay} command to reproduce the original timing of events
+     */
+    public static final String CAPTURE_TIMESTAMP = "Capture-Timestamp";
+
     @Override
     protected Serializer<Bytes> keySerializer() {
         return new BytesSerializer();
@@ -85,6 +96,18 @@ public class Capture extends AbstractKafkaProjectorCommand<Bytes, Bytes, Event<B
                 .build();
     }
 
+    @Override
+    protected List<Function<Event<Bytes, Bytes>, EventHeader>> additionalCaptureHeaderGenerators() {
+        // Record the original timestamp of each event so that replay can optionally reproduce the original timing
+        Function<Event<Bytes, Bytes>, EventHeader> generator = e -> {
+            if (e instanceof KafkaEvent<Bytes, Bytes> kafkaEvent && kafkaEvent.getConsumerRecord().timestamp() >= 0) {
+                return new Header(CAPTURE_TIMESTAMP, Long.toString(kafkaEvent.getConsumerRecord().timestamp()));
+            }
+            return null;
+        };
+        return List.of(generator);
+    }
+
     @Override
     protected Projector<Event<Bytes, Bytes>, Event<Bytes, Bytes>> getProjector() {
         return new NoOpProjector<>();
@@ -17,20 +17,29 @@ package io.telicent.smart.cache.cli.commands.projection.debug;
 
 import com.github.rvesse.airline.annotations.AirlineModule;
 import com.github.rvesse.airline.annotations.Command;
+import com.github.rvesse.airline.annotations.Option;
+import com.github.rvesse.airline.annotations.restrictions.ranges.LongRange;
+import com.github.rvesse.airline.annotations.restrictions.ranges.Positive;
 import io.telicent.smart.cache.cli.commands.projection.AbstractProjectorCommand;
 import io.telicent.smart.cache.cli.options.KafkaOutputOptions;
 import io.telicent.smart.cache.projectors.NoOpProjector;
 import io.telicent.smart.cache.projectors.Projector;
 import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.sinks.AbstractTransformingSink;
+import io.telicent.smart.cache.projectors.sinks.RateLimitSink;
 import io.telicent.smart.cache.server.jaxrs.model.HealthStatus;
 import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventHeader;
 import io.telicent.smart.cache.sources.EventSource;
 import io.telicent.smart.cache.sources.kafka.sinks.KafkaSink;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.common.serialization.BytesDeserializer;
 import org.apache.kafka.common.serialization.BytesSerializer;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.function.Supplier;
 
@@ -40,9 +49,23 @@ import java.util.function.Supplier;
 @Command(name = "replay", description = "Replays a previously obtained event capture back onto a Kafka topic without any interpretation of its contents.")
 public class Replay extends AbstractProjectorCommand<Bytes, Bytes, Event<Bytes, Bytes>> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Replay.class);
+
     @AirlineModule
     private final KafkaOutputOptions kafkaOutputOptions = new KafkaOutputOptions();
 
+    @Option(name = "--rate", title = "EventsPerSecond", description = "Specifies the maximum number of events per second to replay.  If not specified events are replayed as fast as possible.")
+    @Positive
+    private Double rate = null;
+
+    @Option(name = "--byte-rate", title = "BytesPerSecond", description = "Specifies the maximum number of bytes per second to replay, calculated from the size of each events key, value and headers.  If not specified events are replayed as fast as possible.")
+    @LongRange(min = 1)
+    private Long byteRate = null;
+
+    @Option(name = "--time-scale", title = "Multiplier", description = "Specifies that events should be replayed according to their original timestamps, as recorded by the capture command, sped up by the given multiplier e.g. 1 to replay at the original pace, 10 to replay ten times faster.  Events without an original timestamp are replayed immediately.  May be combined with the --rate and --byte-rate options.")
+    @Positive
+    private Double timeScale = null;
+
     @Override
     protected Serializer<Bytes> keySerializer() {
         return new BytesSerializer();
@@ -86,13 +109,111 @@ public class Replay extends AbstractProjectorCommand<Bytes, Bytes, Event<Bytes,
 
     @Override
     protected Sink<Event<Bytes, Bytes>> prepareWorkSink() {
-        return KafkaSink.<Bytes, Bytes>create()
-                        .bootstrapServers(this.kafkaOutputOptions.bootstrapServers)
-                        .topic(this.kafkaOutputOptions.topic)
-                        .keySerializer(BytesSerializer.class)
-                        .valueSerializer(BytesSerializer.class)
-                        .producerConfig(this.kafkaOutputOptions.getAdditionalProperties())
-                        .lingerMs(5)
-                        .build();
+        Sink<Event<Bytes, Bytes>> kafkaSink = KafkaSink.<Bytes, Bytes>create()
+                                                       .bootstrapServers(this.kafkaOutputOptions.bootstrapServers)
+                                                       .topic(this.kafkaOutputOptions.topic)
+                                                       .keySerializer(BytesSerializer.class)
+                                                       .valueSerializer(BytesSerializer.class)
+                                                       .producerConfig(this.kafkaOutputOptions.getAdditionalProperties())
+                                                       .lingerMs(5)
+                                                       .build();
+        // The capture timestamp header is only needed to control the pace of the replay, so strip it before sending
+        // events so replayed events carry the same headers as the originally captured events
+        Sink<Event<Bytes, Bytes>> stripSink = new CaptureHeaderStrippingSink(kafkaSink);
+        if (this.rate == null && this.byteRate == null && this.timeScale == null) {
+            return stripSink;
+        }
+
+        RateLimitSink.Builder<Event<Bytes, Bytes>> builder = RateLimitSink.create();
+        if (this.rate != null) {
+            LOGGER.info("Replaying at most {} events per second", this.rate);
+            builder.maxItemsPerSecond(this.rate);
+        }
+        if (this.byteRate != null) {
+            LOGGER.info("Replaying at most {} bytes per second", this.byteRate);
+            builder.maxBytesPerSecond(this.byteRate, Replay::eventSize);
+        }
+        if (this.timeScale != null) {
+            LOGGER.info("Replaying events according to their original timestamps at {}x speed", this.timeScale);
+            builder.timeScaled(Replay::originalTimestamp, this.timeScale);
+        }
+        return builder.destination(stripSink).build();
+    }
+
+    /**
+     * Removes the {@link Capture#CAPTURE_TIMESTAMP} header, if present, from an event
+     *
+     * @param event Event
+     * @return Event without the capture timestamp header
+     */
+    static Event<Bytes, Bytes> stripCaptureHeaders(Event<Bytes, Bytes> event) {
+        if (event.lastRawHeader(Capture.CAPTURE_TIMESTAMP) == null) {
+            return event;
+        }
+        return event.replaceHeaders(event.headers().filter(h -> !isCaptureHeader(h)));
+    }
+
+    private static boolean isCaptureHeader(EventHeader header) {
+        return Capture.CAPTURE_TIMESTAMP.equals(header.key());
+    }
+
+    /**
+     * A sink that strips the {@link Capture#CAPTURE_TIMESTAMP} header from events before forwarding them
+     */
+    static final class CaptureHeaderStrippingSink
+            extends AbstractTransformingSink<Event<Bytes, Bytes>, Event<Bytes, Bytes>> {
+
+        /**
+         * Creates a new sink
+         *
+         * @param destination Destination sink
+         */
+        CaptureHeaderStrippingSink(Sink<Event<Bytes, Bytes>> destination) {
+            super(destination);
+        }
+
+        @Override
+        protected Event<Bytes, Bytes> transform(Event<Bytes, Bytes> event) {
+            return stripCaptureHeaders(event);
+        }
+    }
+
+    /**
+     * Calculates the approximate size in bytes of an event as it will be replayed, i.e. excluding the
+     * {@link Capture#CAPTURE_TIMESTAMP} header that is stripped before sending
+     *
+     * @param event Event
+     * @return Size in bytes
+     */
+    public static long eventSize(Event<Bytes, Bytes> event) {
+        long size = sizeOf(event.key()) + sizeOf(event.value());
+        return size + event.headers().filter(h -> !isCaptureHeader(h)).mapToLong(Replay::sizeOf).sum();
+    }
+
+    private static long sizeOf(Bytes bytes) {
+        return bytes != null ? bytes.get().length : 0;
+    }
+
+    private static long sizeOf(EventHeader header) {
+        return StringUtils.length(header.key()) + (header.rawValue() != null ? header.rawValue().length : 0);
+    }
+
+    /**
+     * Gets the original timestamp of an event, as recorded in its {@link Capture#CAPTURE_TIMESTAMP} header by the
+     * {@link Capture} command
+     *
+     * @param event Event
+     * @return Original timestamp, or {@code -1} if not known
+     */
+    public static long originalTimestamp(Event<Bytes, Bytes> event) {
+        String timestamp = event.lastHeader(Capture.CAPTURE_TIMESTAMP);
+        if (StringUtils.isBlank(timestamp)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(timestamp.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.cli.commands.projection.debug;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventHeader;
+import io.telicent.smart.cache.sources.kafka.KafkaEvent;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.utils.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+public class TestCapture {
+
+    private static Function<Event<Bytes, Bytes>, EventHeader> captureHeaderGenerator() {
+        List<Function<Event<Bytes, Bytes>, EventHeader>> generators = new Capture().additionalCaptureHeaderGenerators();
+        Assert.assertEquals(generators.size(), 1);
+        return generators.get(0);
+    }
+
+    private static KafkaEvent<Bytes, Bytes> kafkaEvent(long timestamp) {
+        ConsumerRecord<Bytes, Bytes> record =
+                new ConsumerRecord<>("test", 0, 0, timestamp, TimestampType.CREATE_TIME, 0, 0, null, null,
+                                     new RecordHeaders(), Optional.empty());
+        return new KafkaEvent<>(record, null);
+    }
+
+    @Test
+    public void givenKafkaEventWithTimestamp_whenGeneratingCaptureHeaders_thenTimestampRecorded() {
+        // Given
+        KafkaEvent<Bytes, Bytes> event = kafkaEvent(1234567890L);
+
+        // When
+        EventHeader header = captureHeaderGenerator().apply(event);
+
+        // Then
+        Assert.assertNotNull(header);
+        Assert.assertEquals(header.key(), Capture.CAPTURE_TIMESTAMP);
+        Assert.assertEquals(header.value(), "1234567890");
+    }
+
+    @Test
+    public void givenCapturedKafkaEvent_whenReplaying_thenOriginalTimestampRecovered() {
+        // Given
+        KafkaEvent<Bytes, Bytes> event = kafkaEvent(1234567890L);
+        EventHeader header = captureHeaderGenerator().apply(event);
+
+        // When
+        Event<Bytes, Bytes> captured = new SimpleEvent<>(List.of(header), null, Bytes.wrap(new byte[0]));
+
+        // Then
+        Assert.assertEquals(Replay.originalTimestamp(captured), 1234567890L);
+    }
+
+    @Test
+    public void givenKafkaEventWithoutTimestamp_whenGeneratingCaptureHeaders_thenNoHeader() {
+        // Given
+        KafkaEvent<Bytes, Bytes> event = kafkaEvent(-1);
+
+        // When and Then
+        Assert.assertNull(captureHeaderGenerator().apply(event));
+    }
+
+    @Test
+    public void givenNonKafkaEvent_whenGeneratingCaptureHeaders_thenNoHeader() {
+        // Given
+        Event<Bytes, Bytes> event = new SimpleEvent<>(List.of(), null, Bytes.wrap(new byte[0]));
+
+        // When and Then
+        Assert.assertNull(captureHeaderGenerator().apply(event));
+    }
+}
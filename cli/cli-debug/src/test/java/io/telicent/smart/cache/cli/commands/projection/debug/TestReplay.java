@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.cli.commands.projection.debug;
+
+import io.telicent.smart.cache.projectors.sinks.CollectorSink;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventHeader;
+import io.telicent.smart.cache.sources.Header;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.common.utils.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class TestReplay {
+
+    private static Bytes bytes(String value) {
+        return Bytes.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Event<Bytes, Bytes> event(List<EventHeader> headers, String key, String value) {
+        return new SimpleEvent<>(headers, key != null ? bytes(key) : null, value != null ? bytes(value) : null);
+    }
+
+    @Test
+    public void givenEventWithKeyValueAndHeaders_whenCalculatingSize_thenAllIncluded() {
+        // Given
+        Event<Bytes, Bytes> event = event(List.of(new Header("Content-Type", "text/plain")), "key", "value");
+
+        // When
+        long size = Replay.eventSize(event);
+
+        // Then
+        Assert.assertEquals(size, "key".length() + "value".length() + "Content-Type".length() + "text/plain".length());
+    }
+
+    @Test
+    public void givenEventWithoutValue_whenCalculatingSize_thenOnlyKeyIncluded() {
+        // Given
+        Event<Bytes, Bytes> event = event(List.of(), "key", null);
+
+        // When and Then
+        Assert.assertEquals(Replay.eventSize(event), "key".length());
+    }
+
+    @Test
+    public void givenEventWithCaptureTimestamp_whenCalculatingSize_thenCaptureHeaderExcluded() {
+        // Given
+        Event<Bytes, Bytes> event = event(List.of(new Header(Capture.CAPTURE_TIMESTAMP, "1234567890")), "key", "value");
+
+        // When
+        long size = Replay.eventSize(event);
+
+        // Then
+        Assert.assertEquals(size, "key".length() + "value".length());
+    }
+
+    @Test
+    public void givenEventWithCaptureTimestamp_whenGettingOriginalTimestamp_thenParsed() {
+        // Given
+        Event<Bytes, Bytes> event = event(List.of(new Header(Capture.CAPTURE_TIMESTAMP, " 1234567890 ")), null, "value");
+
+        // When and Then
+        Assert.assertEquals(Replay.originalTimestamp(event), 1234567890L);
+    }
+
+    @DataProvider(name = "invalidTimestamps")
+    public Object[][] invalidTimestamps() {
+        return new Object[][] { { List.of() }, { List.of(new Header(Capture.CAPTURE_TIMESTAMP, "")) }, {
+                List.of(new Header(Capture.CAPTURE_TIMESTAMP, "not-a-number"))
+        } };
+    }
+
+    @Test(dataProvider = "invalidTimestamps")
+    public void givenEventWithoutValidCaptureTimestamp_whenGettingOriginalTimestamp_thenUnknown(
+            List<EventHeader> headers) {
+        // Given
+        Event<Bytes, Bytes> event = event(headers, null, "value");
+
+        // When and Then
+        Assert.assertEquals(Replay.originalTimestamp(event), -1L);
+    }
+
+    @Test
+    public void givenEventWithCaptureTimestamp_whenStrippingCaptureHeaders_thenOnlyCaptureHeaderRemoved() {
+        // Given
+        Event<Bytes, Bytes> event = event(List.of(new Header("Content-Type", "text/plain"),
+                                                  new Header(Capture.CAPTURE_TIMESTAMP, "1234567890")), "key",
+                                          "value");
+
+        // When
+        Event<Bytes, Bytes> stripped = Replay.stripCaptureHeaders(event);
+
+        // Then
+        Assert.assertNull(stripped.lastHeader(Capture.CAPTURE_TIMESTAMP));
+        Assert.assertEquals(stripped.lastHeader("Content-Type"), "text/plain");
+        Assert.assertEquals(stripped.key(), event.key());
+        Assert.assertEquals(stripped.value(), event.value());
+    }
+
+    @Test
+    public void givenEventWithoutCaptureTimestamp_whenStrippingCaptureHeaders_thenUnmodified() {
+        // Given
+        Event<Bytes, Bytes> event = event(List.of(new Header("Content-Type", "text/plain")), "key", "value");
+
+        // When and Then
+        Assert.assertSame(Replay.stripCaptureHeaders(event), event);
+    }
+
+    @Test
+    public void givenCaptureHeaderStrippingSink_whenSendingEvents_thenForwardedWithoutCaptureHeader() {
+        // Given
+        CollectorSink<Event<Bytes, Bytes>> collector = CollectorSink.of();
+        Replay.CaptureHeaderStrippingSink sink = new Replay.CaptureHeaderStrippingSink(collector);
+
+        // When
+        sink.send(event(List.of(new Header(Capture.CAPTURE_TIMESTAMP, "1")), "a", "1"));
+        sink.sendAll(List.of(event(List.of(new Header(Capture.CAPTURE_TIMESTAMP, "2")), "b", "2"),
+                             event(List.of(), "c", "3")));
+
+        // Then
+        Assert.assertEquals(collector.get().size(), 3);
+        for (Event<Bytes, Bytes> event : collector.get()) {
+            Assert.assertNull(event.lastHeader(Capture.CAPTURE_TIMESTAMP));
+        }
+    }
+}
@@ -17,13 +17,52 @@ package io.telicent.smart.cache.security.data;
 
 import lombok.AllArgsConstructor;
 
+import java.util.Arrays;
+
+/**
+ * Abstract base for security primitives that holds their raw encoded bytes
+ * <p>
+ * Parsed primitives may be interned and shared between many callers, so {@link #encoded()} returns a copy of the
+ * encoded bytes.  Derived classes can use {@link #encodedEquals(AbstractSecurityPrimitive)},
+ * {@link #encodedHashCode()} and {@link #encodedLength()} to implement {@code equals()}, {@code hashCode()} and
+ * {@code toString()} without copying them.
+ * </p>
+ */
 @AllArgsConstructor
 public class AbstractSecurityPrimitive implements SecurityPrimitive {
     private final byte[] encoded;
 
     @Override
     public byte[] encoded() {
-        return this.encoded;
+        return this.encoded.clone();
+    }
+
+    /**
+     * Gets whether this primitive has the same encoded bytes as another
+     *
+     * @param other Other primitive
+     * @return True if the encoded bytes are equal, false otherwise
+     */
+    protected final boolean encodedEquals(AbstractSecurityPrimitive other) {
+        return Arrays.equals(this.encoded, other.encoded);
+    }
+
+    /**
+     * Gets a hash code calculated from the encoded bytes
+     *
+     * @return Hash code
+     */
+    protected final int encodedHashCode() {
+        return Arrays.hashCode(this.encoded);
+    }
+
+    /**
+     * Gets the length of the encoded bytes
+     *
+     * @return Encoded length
+     */
+    protected final int encodedLength() {
+        return this.encoded.length;
     }
 
     @Override
@@ -22,6 +22,10 @@ public interface SecurityPrimitive {
 
     /**
      * Raw encoded bytes
+     * <p>
+     * Callers <strong>MUST NOT</strong> modify the returned array, implementations may return a copy to guard against
+     * this.
+     * </p>
      *
      * @return Encoded bytes
      */
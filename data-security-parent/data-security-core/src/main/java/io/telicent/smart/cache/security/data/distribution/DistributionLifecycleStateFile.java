@@ -28,8 +28,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -39,7 +43,26 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-/** Reads the active distribution set from the lifecycle state file. */
+/**
+ * Reads the active distribution set from the lifecycle state file.
+ * <p>
+ * Callers may query this on every event, so the parsed state is cached and published immutably, readers never block
+ * unless the state files have changed.  The candidate files are checked for changes at most once per check interval,
+ * by default {@link #DEFAULT_CHECK_INTERVAL}, with the cached state returned without touching the file system in
+ * between, so a change to the state files may take up to the check interval to be observed.  Changes are detected
+ * cheaply from the last modified time, size and file key (inode) of each candidate file, the files are only re-read
+ * when these change.  Since some file systems have coarse modification time granularity a file modified very recently
+ * is treated as unsettled, and is re-read on every check until it has been unmodified for long enough that a further
+ * same-sized rewrite would be detectable.
+ * </p>
+ * <p>
+ * <strong>NB:</strong> Since changes are detected solely from file metadata, a settled file whose content is rewritten
+ * in place without changing its size, and with its last modified time preserved or restored, e.g. by a copy tool that
+ * preserves timestamps, is not detected and the previously cached state continues to be returned.  State files
+ * <strong>SHOULD</strong> therefore be updated by atomically replacing them, or by any means that updates their last
+ * modified time.
+ * </p>
+ */
 // java:S3077 - false positive: the value is an immutable record / a thread-safe Caffeine cache, so volatile is correct
 @SuppressWarnings("java:S3077")
 public class DistributionLifecycleStateFile {
@@ -48,25 +71,57 @@ public class DistributionLifecycleStateFile {
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String TMP_EXTENSION = ".tmp";
     private static final String BAK_EXTENSION = ".bak";
-    private static final Cache EMPTY_CACHE = new Cache(null, null, Set.of(), Map.of(), false);
+    /**
+     * How long after its last modification a state file must go unmodified before its metadata alone is trusted to
+     * detect further changes
+     */
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(2);
+    private static final Cache EMPTY_CACHE = new Cache(null, null, Set.of(), Map.of(), false, null, false);
+
+    /**
+     * Default interval at which the state files are checked for changes
+     */
+    public static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(1);
 
     private final Path stateFile;
+    private final List<Path> candidatePaths;
     private final String applicationId;
+    private final long checkIntervalNanos;
     private volatile Cache cache = EMPTY_CACHE;
+    private volatile long lastChecked;
 
     public DistributionLifecycleStateFile(Path stateFile, String applicationId) {
+        this(stateFile, applicationId, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Creates a new lifecycle state file reader
+     *
+     * @param stateFile     State file
+     * @param applicationId Application ID the state file must be for, {@code null} to accept any application
+     * @param checkInterval Minimum interval between checks of the state files for changes, {@link Duration#ZERO} to
+     *                      check on every call
+     */
+    public DistributionLifecycleStateFile(Path stateFile, String applicationId, Duration checkInterval) {
         this.stateFile = Objects.requireNonNull(stateFile, "stateFile cannot be null");
+        Objects.requireNonNull(checkInterval, "checkInterval cannot be null");
+        if (checkInterval.isNegative()) {
+            throw new IllegalArgumentException("checkInterval cannot be negative");
+        }
+        this.candidatePaths = List.of(this.stateFile, Path.of(this.stateFile + TMP_EXTENSION),
+                                      Path.of(this.stateFile + BAK_EXTENSION));
         this.applicationId = StringUtils.trimToNull(applicationId);
+        this.checkIntervalNanos = checkInterval.toNanos();
+        // Ensure the first call always checks the state files
+        this.lastChecked = System.nanoTime() - this.checkIntervalNanos - 1;
     }
 
     public Set<Node> activeGraphNodes() {
-        refresh();
-        return this.cache.activeGraphs();
+        return current().activeGraphs();
     }
 
     public boolean available() {
-        refresh();
-        return this.cache.available();
+        return current().available();
     }
 
     public String distributionState(String distributionId) {
@@ -74,52 +129,95 @@ public class DistributionLifecycleStateFile {
     }
 
     public DistributionStateResult distributionStateResult(String distributionId) {
-        refresh();
+        final Cache current = current();
         if (StringUtils.isBlank(distributionId)) {
-            return new DistributionStateResult(null, this.cache.available());
+            return new DistributionStateResult(null, current.available());
+        }
+        return new DistributionStateResult(current.distributionStates().get(distributionId), current.available());
+    }
+
+    /**
+     * Gets the current cached state, refreshing it first only if the check interval has elapsed and the candidate state
+     * files have changed
+     *
+     * @return Current state
+     */
+    private Cache current() {
+        final long now = System.nanoTime();
+        if (now - this.lastChecked < this.checkIntervalNanos) {
+            return this.cache;
         }
-        return new DistributionStateResult(this.cache.distributionStates().get(distributionId), this.cache.available());
+        final List<FileStamp> stamps = stamps();
+        final Cache current = this.cache;
+        final Cache result = current.isCurrent(stamps) ? current : refresh(stamps);
+        this.lastChecked = now;
+        return result;
     }
 
-    private synchronized void refresh() {
-        final List<Path> candidates = candidateFiles();
+    private synchronized Cache refresh(List<FileStamp> stamps) {
+        // Another thread may already have refreshed while we were waiting for the lock
+        Cache current = this.cache;
+        if (current.isCurrent(stamps)) {
+            return current;
+        }
+        current = load(stamps, current);
+        this.cache = current;
+        return current;
+    }
+
+    private Cache load(List<FileStamp> stamps, Cache current) {
+        final boolean settled = settled(stamps);
+        final List<Path> candidates = candidateFiles(stamps);
         if (candidates.isEmpty()) {
-            this.cache = EMPTY_CACHE;
-            return;
+            return EMPTY_CACHE.withStamps(stamps, settled);
         }
 
         for (final Path candidate : candidates) {
             try {
                 final byte[] content = Files.readAllBytes(candidate);
                 final String fingerprint = fingerprint(content);
-                final Cache current = this.cache;
                 if (Objects.equals(current.source(), candidate) && Objects.equals(current.fingerprint(), fingerprint)) {
-                    return;
+                    return current.withStamps(stamps, settled);
                 }
 
-                this.cache = loadState(candidate, fingerprint, content);
-                return;
+                return loadState(candidate, fingerprint, content).withStamps(stamps, settled);
             } catch (IOException | IllegalArgumentException e) {
                 LOGGER.warn("Failed to load distribution lifecycle state from {}", candidate, e);
             }
         }
         LOGGER.warn("All candidate lifecycle state files for {} failed to parse - dropping cached active set",
                 this.stateFile);
-        this.cache = EMPTY_CACHE;
+        return EMPTY_CACHE.withStamps(stamps, settled);
     }
 
-    private List<Path> candidateFiles() {
-        final List<Path> candidates = new ArrayList<>(3);
-        addCandidate(candidates, this.stateFile);
-        addCandidate(candidates, Path.of(this.stateFile + TMP_EXTENSION));
-        addCandidate(candidates, Path.of(this.stateFile + BAK_EXTENSION));
-        return candidates;
+    /**
+     * Takes a stamp of the metadata of each candidate file, this is cheap relative to reading and parsing the files
+     *
+     * @return File stamps, in the same order as the candidate paths
+     */
+    private List<FileStamp> stamps() {
+        final List<FileStamp> stamps = new ArrayList<>(this.candidatePaths.size());
+        for (Path path : this.candidatePaths) {
+            stamps.add(FileStamp.of(path));
+        }
+        return stamps;
+    }
+
+    private static boolean settled(List<FileStamp> stamps) {
+        final Instant settledBefore = Instant.now().minus(SETTLE_TIME);
+        return stamps.stream()
+                     .filter(FileStamp::exists)
+                     .allMatch(stamp -> stamp.lastModified().toInstant().isBefore(settledBefore));
     }
 
-    private static void addCandidate(List<Path> candidates, Path path) {
-        if (Files.isRegularFile(path)) {
-            candidates.add(path);
+    private List<Path> candidateFiles(List<FileStamp> stamps) {
+        final List<Path> candidates = new ArrayList<>(3);
+        for (int i = 0; i < this.candidatePaths.size(); i++) {
+            if (stamps.get(i).exists()) {
+                candidates.add(this.candidatePaths.get(i));
+            }
         }
+        return candidates;
     }
 
     private Cache loadState(Path candidate, String fingerprint, byte[] content) throws IOException {
@@ -129,7 +227,7 @@ public class DistributionLifecycleStateFile {
 
             final JsonNode distributions = root.path("distributions");
             if (!distributions.isObject()) {
-                return new Cache(candidate, fingerprint, Set.of(), Map.of(), true);
+                return new Cache(candidate, fingerprint, Set.of(), Map.of(), true, null, false);
             }
 
             final Set<Node> activeGraphs = new LinkedHashSet<>();
@@ -144,7 +242,7 @@ public class DistributionLifecycleStateFile {
                 activeGraphs.add(NodeFactory.createURI(entry.getKey()));
             });
             return new Cache(candidate, fingerprint, Collections.unmodifiableSet(activeGraphs),
-                    Collections.unmodifiableMap(distributionStates), true);
+                    Collections.unmodifiableMap(distributionStates), true, null, false);
         }
     }
 
@@ -179,8 +277,61 @@ public class DistributionLifecycleStateFile {
     public record DistributionStateResult(String state, boolean available) {
     }
 
+    /**
+     * The cached state
+     *
+     * @param source             Candidate file the state was loaded from, if any
+     * @param fingerprint        Fingerprint of the content the state was loaded from, if any
+     * @param activeGraphs       Active graphs
+     * @param distributionStates Distribution states
+     * @param available          Whether the state is available
+     * @param stamps             Stamps of the candidate files at the time the state was loaded
+     * @param settled            Whether the candidate files had settled at the time the state was loaded, if not the
+     *                           stamps alone can't be trusted to detect further changes
+     */
     private record Cache(Path source, String fingerprint, Set<Node> activeGraphs,
-                         Map<String, String> distributionStates, boolean available) {
+                         Map<String, String> distributionStates, boolean available, List<FileStamp> stamps,
+                         boolean settled) {
+
+        Cache withStamps(List<FileStamp> stamps, boolean settled) {
+            return new Cache(source, fingerprint, activeGraphs, distributionStates, available, stamps, settled);
+        }
+
+        boolean isCurrent(List<FileStamp> currentStamps) {
+            return this.settled && Objects.equals(this.stamps, currentStamps);
+        }
+    }
+
+    /**
+     * Metadata of a candidate file used to cheaply detect changes to it
+     *
+     * @param lastModified Last modified time, {@code null} if the file does not exist
+     * @param size         Size in bytes
+     * @param fileKey      File key e.g. the inode, if supported by the file system, this changes when a file is
+     *                     atomically replaced
+     */
+    private record FileStamp(FileTime lastModified, long size, Object fileKey) {
+
+        private static final FileStamp MISSING = new FileStamp(null, -1, null);
+
+        static FileStamp of(Path path) {
+            try {
+                // NB - The .tmp and .bak candidates are normally absent, so use the provider method that returns null
+                //      for a missing file rather than incurring the cost of throwing and catching an exception
+                final BasicFileAttributes attributes =
+                        path.getFileSystem().provider().readAttributesIfExists(path, BasicFileAttributes.class);
+                if (attributes == null || !attributes.isRegularFile()) {
+                    return MISSING;
+                }
+                return new FileStamp(attributes.lastModifiedTime(), attributes.size(), attributes.fileKey());
+            } catch (IOException e) {
+                return MISSING;
+            }
+        }
+
+        boolean exists() {
+            return this.lastModified != null;
+        }
     }
 
 }
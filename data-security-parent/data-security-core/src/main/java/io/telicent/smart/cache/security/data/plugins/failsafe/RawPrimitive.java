@@ -18,7 +18,6 @@ package io.telicent.smart.cache.security.data.plugins.failsafe;
 import io.telicent.smart.cache.security.data.AbstractSecurityPrimitive;
 import io.telicent.smart.cache.security.data.labels.SecurityLabels;
 
-import java.util.Arrays;
 import java.util.Base64;
 
 /**
@@ -62,7 +61,7 @@ public final class RawPrimitive extends AbstractSecurityPrimitive
             return true;
         }
         if (obj instanceof RawPrimitive primitive) {
-            return Arrays.equals(this.encoded(), primitive.encoded());
+            return this.encodedEquals(primitive);
         } else {
             return false;
         }
@@ -70,6 +69,6 @@ public final class RawPrimitive extends AbstractSecurityPrimitive
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(this.encoded());
+        return this.encodedHashCode();
     }
 }
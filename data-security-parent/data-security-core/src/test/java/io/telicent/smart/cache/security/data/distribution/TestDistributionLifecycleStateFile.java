@@ -24,6 +24,10 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Set;
 
 public class TestDistributionLifecycleStateFile {
@@ -38,7 +42,8 @@ public class TestDistributionLifecycleStateFile {
         this.stateFile = Files.createTempFile("scg-test-lifecycle-", ".json");
         this.tmpFile = Path.of(this.stateFile + ".tmp");
         this.bakFile = Path.of(this.stateFile + ".bak");
-        this.reader = new DistributionLifecycleStateFile(this.stateFile, null);
+        // Tests rewrite the state file between calls so check for changes on every call
+        this.reader = new DistributionLifecycleStateFile(this.stateFile, null, Duration.ZERO);
     }
 
     @AfterClass
@@ -186,4 +191,92 @@ public class TestDistributionLifecycleStateFile {
         Assert.assertTrue(stateResult.available());
     }
 
+    @Test
+    public void givenSettledStateFile_whenAtomicallyReplaced_thenNewStateLoaded() throws IOException {
+        // Given
+        final Path file = Files.createTempFile("scg-test-lifecycle-replaced-", ".json");
+        final Path replacement = Path.of(file + ".new");
+        try {
+            final FileTime settledTime = FileTime.from(Instant.now().minus(Duration.ofMinutes(1)));
+            Files.writeString(file, stateJson("http://example/a"), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, settledTime);
+            final DistributionLifecycleStateFile settledReader =
+                    new DistributionLifecycleStateFile(file, null, Duration.ZERO);
+            Assert.assertEquals(settledReader.activeGraphNodes(), Set.of(NodeFactory.createURI("http://example/a")));
+
+            // When
+            Files.writeString(replacement, stateJson("http://example/b"), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(replacement, settledTime);
+            Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Then
+            Assert.assertEquals(settledReader.activeGraphNodes(), Set.of(NodeFactory.createURI("http://example/b")));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(replacement);
+        }
+    }
+
+    @Test
+    public void givenSettledStateFile_whenDeleted_thenNotAvailable() throws IOException {
+        // Given
+        final Path file = Files.createTempFile("scg-test-lifecycle-deleted-", ".json");
+        Files.writeString(file, stateJson("http://example/a"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofMinutes(1))));
+        final DistributionLifecycleStateFile settledReader =
+                new DistributionLifecycleStateFile(file, null, Duration.ZERO);
+        Assert.assertTrue(settledReader.available());
+
+        // When
+        Files.delete(file);
+
+        // Then
+        Assert.assertFalse(settledReader.available());
+        Assert.assertTrue(settledReader.activeGraphNodes().isEmpty());
+    }
+
+    @Test
+    public void givenCheckInterval_whenStateFileReplacedWithinInterval_thenCachedStateReturnedUntilIntervalElapses() throws
+            IOException, InterruptedException {
+        // Given
+        final Path file = Files.createTempFile("scg-test-lifecycle-interval-", ".json");
+        final Path replacement = Path.of(file + ".new");
+        try {
+            final FileTime settledTime = FileTime.from(Instant.now().minus(Duration.ofMinutes(1)));
+            Files.writeString(file, stateJson("http://example/a"), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, settledTime);
+            final DistributionLifecycleStateFile intervalReader =
+                    new DistributionLifecycleStateFile(file, null, Duration.ofMillis(500));
+            Assert.assertEquals(intervalReader.activeGraphNodes(), Set.of(NodeFactory.createURI("http://example/a")));
+
+            // When
+            Files.writeString(replacement, stateJson("http://example/b"), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(replacement, settledTime);
+            Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Then
+            Assert.assertEquals(intervalReader.activeGraphNodes(), Set.of(NodeFactory.createURI("http://example/a")));
+            Thread.sleep(600);
+            Assert.assertEquals(intervalReader.activeGraphNodes(), Set.of(NodeFactory.createURI("http://example/b")));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(replacement);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "checkInterval.*")
+    public void givenNegativeCheckInterval_whenCreating_thenIllegalArgument() {
+        // Given, When and Then
+        new DistributionLifecycleStateFile(this.stateFile, null, Duration.ofSeconds(-1));
+    }
+
+    private static String stateJson(String activeDistribution) {
+        return """
+                {
+                  "distributions" : {
+                    "%s" : "Active"
+                  }
+                }
+                """.formatted(activeDistribution);
+    }
 }
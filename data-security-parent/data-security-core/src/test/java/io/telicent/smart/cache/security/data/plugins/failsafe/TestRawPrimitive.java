@@ -84,4 +84,22 @@ public class TestRawPrimitive {
         Assert.assertFalse(raw.equals(other));
         Assert.assertFalse(raw.equals(null));
     }
+
+    @Test
+    public void givenRawPrimitive_whenModifyingEncodedBytes_thenPrimitiveUnchanged() {
+        // Given
+        byte[] random = RandomUtils.insecure().randomBytes(10);
+        RawPrimitive raw = new RawPrimitive(random.clone());
+        int hashCode = raw.hashCode();
+
+        // When
+        byte[] encoded = raw.encoded();
+        Arrays.fill(encoded, (byte) 0);
+
+        // Then
+        Assert.assertNotSame(raw.encoded(), encoded);
+        Assert.assertEquals(raw.encoded(), random);
+        Assert.assertEquals(raw.hashCode(), hashCode);
+        Assert.assertEquals(raw, new RawPrimitive(random));
+    }
 }
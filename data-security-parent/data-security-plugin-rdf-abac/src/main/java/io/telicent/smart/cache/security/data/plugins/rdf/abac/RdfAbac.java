@@ -20,6 +20,7 @@ import io.telicent.jena.abac.attributes.Attribute;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.time.Duration;
 import java.util.Objects;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -36,9 +37,30 @@ public final class RdfAbac {
     public static final String ENV_PARSER_CACHE_DURATION = "RDF_ABAC_LABEL_PARSER_CACHE_DURATION";
     /**
      * Environment variable controlling the label evaluation cache size for the label evaluation caches that are
-     * maintained by each unique instance of the {@link RdfAbacAuthorizer}
+     * maintained by each unique instance of the {@link RdfAbacAuthorizer}, only used when the shared evaluation cache is
+     * disabled via {@link #ENV_LABEL_EVALUATION_CACHE_DURATION}
      */
     public static final String ENV_LABEL_EVALUATION_CACHE_SIZE = "RDF_ABAC_LABEL_EVALUATION_CACHE_SIZE";
+    /**
+     * Environment variable controlling the size of the {@link RdfAbacEvaluationCache} that is shared across all
+     * requests
+     */
+    public static final String ENV_SHARED_EVALUATION_CACHE_SIZE = "RDF_ABAC_SHARED_LABEL_EVALUATION_CACHE_SIZE";
+    /**
+     * Environment variable controlling how long label evaluation decisions are held in the
+     * {@link RdfAbacEvaluationCache} that is shared across all requests, a zero duration disables the shared cache
+     */
+    public static final String ENV_LABEL_EVALUATION_CACHE_DURATION = "RDF_ABAC_LABEL_EVALUATION_CACHE_DURATION";
+    /**
+     * Default size for the shared label evaluation cache if not configured via
+     * {@link #ENV_SHARED_EVALUATION_CACHE_SIZE}
+     */
+    public static final int DEFAULT_SHARED_EVALUATION_CACHE_SIZE = 100_000;
+    /**
+     * Default duration for the shared label evaluation cache if not configured via
+     * {@link #ENV_LABEL_EVALUATION_CACHE_DURATION}
+     */
+    public static final Duration DEFAULT_EVALUATION_CACHE_DURATION = Duration.ofMinutes(5);
     /**
      * Default size for the label evaluation cache if not configured via {@link #ENV_LABEL_EVALUATION_CACHE_SIZE}
      */
@@ -47,6 +69,10 @@ public final class RdfAbac {
      * Default size for the label parser cache if not configured via {@link #ENV_PARSER_CACHE_SIZE}
      */
     public static final int DEFAULT_PARSER_CACHE_SIZE = 10_000;
+    /**
+     * Default duration for the label parser cache if not configured via {@link #ENV_PARSER_CACHE_DURATION}
+     */
+    public static final Duration DEFAULT_PARSER_CACHE_DURATION = Duration.ofMinutes(5);
     /**
      * Default initial size for the label parser cache, in practise the initial size is the lesser of this or 1/10th of
      * the configured {@link #DEFAULT_PARSER_CACHE_SIZE}
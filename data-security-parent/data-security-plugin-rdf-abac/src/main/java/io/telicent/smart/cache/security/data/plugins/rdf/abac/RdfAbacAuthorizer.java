@@ -24,7 +24,6 @@ import io.telicent.jena.abac.fuseki.ABAC_Request;
 import io.telicent.jena.abac.fuseki.ServerABAC;
 import io.telicent.smart.cache.security.data.DataAccessAuthorizer;
 import io.telicent.smart.cache.security.data.labels.SecurityLabels;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import org.apache.jena.fuseki.servlets.HttpAction;
 import org.apache.jena.sparql.core.DatasetGraph;
@@ -33,14 +32,44 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
-@AllArgsConstructor
 public class RdfAbacAuthorizer implements DataAccessAuthorizer {
-    @NonNull
     private final CxtABAC context;
 
-    @NonNull
     private final Cache<AttributeExpr, Boolean> evaluationCache;
 
+    private final RdfAbacEvaluationCache sharedCache;
+
+    private final String userFingerprint;
+
+    /**
+     * Creates a new authorizer that caches evaluation decisions only for its own lifetime
+     *
+     * @param context         ABAC context for the user
+     * @param evaluationCache Evaluation cache
+     */
+    public RdfAbacAuthorizer(@NonNull CxtABAC context, @NonNull Cache<AttributeExpr, Boolean> evaluationCache) {
+        this.context = context;
+        this.evaluationCache = evaluationCache;
+        this.sharedCache = null;
+        this.userFingerprint = null;
+    }
+
+    /**
+     * Creates a new authorizer that caches evaluation decisions in a cache shared across requests
+     *
+     * @param context         ABAC context for the user
+     * @param sharedCache     Shared evaluation cache
+     * @param userFingerprint Fingerprint of the users attributes, see
+     *                        {@link RdfAbacEvaluationCache#fingerprint(java.util.Collection)}
+     */
+    public RdfAbacAuthorizer(@NonNull CxtABAC context, @NonNull RdfAbacEvaluationCache sharedCache,
+                             @NonNull String userFingerprint) {
+        this.context = context;
+        this.evaluationCache = null;
+        this.sharedCache = sharedCache;
+        this.userFingerprint = userFingerprint;
+    }
+
     /**
      * Gets the user attributes for this authorizer
      * @return User Attributes
@@ -81,8 +110,7 @@ public class RdfAbacAuthorizer implements DataAccessAuthorizer {
                 if (expressions.size() != list.size()) {
                     return FORBIDDEN;
                 }
-                return expressions.stream()
-                                  .allMatch(e -> evaluationCache.get(e, x -> x.eval(this.context).getBoolean()));
+                return expressions.stream().allMatch(this::evaluate);
             } else {
                 // Can't make access decisions if the labels have been decoded into a different data structure than we expect
                 return FORBIDDEN;
@@ -93,9 +121,19 @@ public class RdfAbacAuthorizer implements DataAccessAuthorizer {
         }
     }
 
+    private boolean evaluate(AttributeExpr expression) {
+        if (this.sharedCache != null) {
+            return this.sharedCache.evaluate(this.userFingerprint, expression, this.context);
+        } else {
+            return this.evaluationCache.get(expression, x -> x.eval(this.context).getBoolean());
+        }
+    }
+
     @Override
     public void close() {
-        // Proactively clean up the evaluation cache
-        this.evaluationCache.invalidateAll();
+        // Proactively clean up the evaluation cache, the shared cache outlives this authorizer so is left as-is
+        if (this.evaluationCache != null) {
+            this.evaluationCache.invalidateAll();
+        }
     }
 }
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.security.data.plugins.rdf.abac;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.telicent.jena.abac.attributes.AttributeExpr;
+import io.telicent.jena.abac.core.CxtABAC;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A process-wide cache of label evaluation decisions that is shared across requests
+ * <p>
+ * Entries are keyed by a fingerprint of a user's attributes, see {@link #fingerprint(Collection)}, together with the
+ * label expression evaluated, so repeated requests from the same user, or from different users with identical
+ * attributes, can reuse previous decisions.  Since the decision for an expression depends only upon the attributes it
+ * is evaluated against a user whose attributes change simply gets a different fingerprint, and thus cannot see stale
+ * decisions, while entries for their previous attributes expire after the configured duration.
+ * </p>
+ */
+public class RdfAbacEvaluationCache {
+
+    /**
+     * Key for a cached evaluation decision
+     *
+     * @param user       User attributes fingerprint
+     * @param expression Label expression
+     */
+    record Key(String user, AttributeExpr expression) {
+    }
+
+    private final Cache<Key, Boolean> cache;
+    @Getter
+    private final long maximumSize;
+    @Getter
+    private final Duration duration;
+
+    /**
+     * Creates a new evaluation cache
+     *
+     * @param maximumSize Maximum number of decisions to cache
+     * @param duration    How long a decision is cached for after it was evaluated
+     */
+    public RdfAbacEvaluationCache(long maximumSize, @NonNull Duration duration) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be greater than zero");
+        }
+        this.maximumSize = maximumSize;
+        this.duration = duration;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(duration).build();
+    }
+
+    /**
+     * Evaluates a label expression for a user, returning a cached decision if one is available
+     *
+     * @param user       User attributes fingerprint
+     * @param expression Label expression
+     * @param context    ABAC context for the user, used if the expression must be evaluated
+     * @return True if the expression permits access, false otherwise
+     */
+    public boolean evaluate(String user, AttributeExpr expression, CxtABAC context) {
+        return this.cache.get(new Key(user, expression), k -> k.expression().eval(context).getBoolean());
+    }
+
+    /**
+     * Invalidates all cached decisions for the given user
+     *
+     * @param user User attributes fingerprint
+     */
+    public void invalidate(String user) {
+        this.cache.asMap().keySet().removeIf(k -> Objects.equals(k.user(), user));
+    }
+
+    /**
+     * Invalidates all cached decisions
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets the estimated number of cached decisions
+     *
+     * @return Estimated size
+     */
+    public long estimatedSize() {
+        return this.cache.estimatedSize();
+    }
+
+    /**
+     * Gets the canonical string form of a single user attribute value, for use with {@link #fingerprint(Collection)}
+     * <p>
+     * The key and the value are each length prefixed so that no two distinct attribute values can produce the same
+     * canonical form, regardless of what characters the keys and values contain, e.g. a key {@code a} with value
+     * {@code b=s:c} is distinct from a key {@code a=s:b} with value {@code c}.
+     * </p>
+     *
+     * @param key   Attribute key
+     * @param type  Value type indicator
+     * @param value Attribute value
+     * @return Canonical string form
+     */
+    public static String canonicalAttribute(String key, char type, String value) {
+        return key.length() + ":" + key + "=" + type + value.length() + ":" + value;
+    }
+
+    /**
+     * Calculates a fingerprint for a users attributes
+     * <p>
+     * The fingerprint is independent of the order in which the attributes are supplied, and is a SHA-256 digest so
+     * cached keys do not retain the users attributes themselves.
+     * </p>
+     *
+     * @param attributes Canonical string forms of each of the users attribute values, as produced by
+     *                   {@link #canonicalAttribute(String, char, String)}
+     * @return Fingerprint
+     */
+    public static String fingerprint(Collection<String> attributes) {
+        try {
+            List<String> sorted = new ArrayList<>(attributes);
+            sorted.sort(null);
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String attribute : sorted) {
+                byte[] data = attribute.getBytes(StandardCharsets.UTF_8);
+                // Length prefix each attribute so distinct attribute sets can't produce the same digest input
+                digest.update(new byte[] {
+                        (byte) (data.length >>> 24), (byte) (data.length >>> 16), (byte) (data.length >>> 8),
+                        (byte) data.length
+                });
+                digest.update(data);
+            }
+            final byte[] hash = digest.digest();
+            final StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest unavailable", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RdfAbacEvaluationCache{maximumSize=" + this.maximumSize + ", duration=" + this.duration + "}";
+    }
+}
@@ -22,7 +22,6 @@ import org.apache.jena.atlas.io.IndentedWriter;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -63,7 +62,7 @@ public class RdfAbacLabels extends AbstractSecurityPrimitive implements Security
             return true;
         }
         if (obj instanceof RdfAbacLabels labels) {
-            return Arrays.equals(this.encoded(), labels.encoded());
+            return this.encodedEquals(labels);
         } else {
             return false;
         }
@@ -71,12 +70,12 @@ public class RdfAbacLabels extends AbstractSecurityPrimitive implements Security
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(this.encoded());
+        return this.encodedHashCode();
     }
 
     @Override
     public String toString() {
         return this.getClass()
-                   .getSimpleName() + "{ encodedSize=" + this.encoded().length + ", labels=" + this.toDebugString() + "}";
+                   .getSimpleName() + "{ encodedSize=" + this.encodedLength() + ", labels=" + this.toDebugString() + "}";
     }
 }
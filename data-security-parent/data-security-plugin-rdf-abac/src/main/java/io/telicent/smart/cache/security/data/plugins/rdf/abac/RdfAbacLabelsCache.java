@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.security.data.plugins.rdf.abac;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+import io.telicent.smart.cache.observability.TelicentMetrics;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * A bounded cache that interns parsed labels so that each distinct label is parsed once and the resulting object shared
+ * by every subsequent lookup of that label
+ * <p>
+ * Real data generally has only a small set of distinct labels applied to it, so interning avoids both the CPU cost of
+ * repeatedly parsing the same labels and the heap cost of holding many identical parsed label objects.  Cache hits and
+ * misses are recorded via the underlying caches statistics, and exposed via the
+ * {@link RdfAbacMetricNames#LABELS_CACHE_HITS} and {@link RdfAbacMetricNames#LABELS_CACHE_MISSES} metrics labelled with
+ * the caches name.
+ * </p>
+ *
+ * @param <K> Raw label type
+ * @param <V> Parsed label type
+ */
+public class RdfAbacLabelsCache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final ObservableLongCounter hitsMetric, missesMetric;
+
+    /**
+     * Creates a new labels cache
+     *
+     * @param name        Name of the cache, used to label its metrics
+     * @param maximumSize Maximum number of distinct labels to cache
+     * @param duration    How long a label is cached after it was last accessed
+     */
+    public RdfAbacLabelsCache(@NonNull String name, int maximumSize, @NonNull Duration duration) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than zero");
+        }
+        int initialCapacity = Math.min(RdfAbac.DEFAULT_PARSER_CACHE_MIN_SIZE, Math.max(1, maximumSize / 10));
+        this.cache = Caffeine.newBuilder()
+                             .expireAfterAccess(duration)
+                             .initialCapacity(initialCapacity)
+                             .maximumSize(maximumSize)
+                             .recordStats()
+                             .build();
+
+        Meter meter = TelicentMetrics.getMeter(Library.NAME);
+        Attributes metricAttributes = TelicentMetrics.getMetricAttributes(name);
+        this.hitsMetric = meter.counterBuilder(RdfAbacMetricNames.LABELS_CACHE_HITS)
+                               .setDescription(RdfAbacMetricNames.LABELS_CACHE_HITS_DESCRIPTION)
+                               .buildWithCallback(measure -> measure.record(hits(), metricAttributes));
+        this.missesMetric = meter.counterBuilder(RdfAbacMetricNames.LABELS_CACHE_MISSES)
+                                 .setDescription(RdfAbacMetricNames.LABELS_CACHE_MISSES_DESCRIPTION)
+                                 .buildWithCallback(measure -> measure.record(misses(), metricAttributes));
+    }
+
+    /**
+     * Gets the interned parsed form of a raw label, parsing it only if it is not already cached
+     * <p>
+     * The key that is looked up is not itself retained by the cache, on a miss the key copier is used to create the key
+     * that is retained.  This allows callers to look up labels via keys that wrap mutable data, e.g. a
+     * {@link java.nio.ByteBuffer} wrapping a callers byte array, without the cache being corrupted if that data is
+     * later modified.  Only the initial lookup is recorded in the caches statistics, so each call counts as exactly one
+     * hit or one miss.
+     * </p>
+     *
+     * @param key       Raw label
+     * @param keyCopier Function that produces an immutable copy of the raw label for retaining in the cache
+     * @param parser    Function that parses the copy of the raw label
+     * @return Parsed label
+     */
+    public V intern(K key, Function<K, K> keyCopier, Function<? super K, ? extends V> parser) {
+        V value = this.cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        // NB - Insert via the map view, which does not record statistics, so that the miss recorded by the lookup above
+        //      is not double counted.  If another thread interned the same label concurrently then its value is used.
+        K copy = keyCopier.apply(key);
+        V parsed = parser.apply(copy);
+        if (parsed == null) {
+            return null;
+        }
+        V existing = this.cache.asMap().putIfAbsent(copy, parsed);
+        return existing != null ? existing : parsed;
+    }
+
+    /**
+     * Gets the interned parsed form of an immutable raw label, parsing it only if it is not already cached
+     *
+     * @param key    Raw label
+     * @param parser Function that parses the raw label
+     * @return Parsed label
+     */
+    public V intern(K key, Function<? super K, ? extends V> parser) {
+        return intern(key, Function.identity(), parser);
+    }
+
+    /**
+     * Gets the number of lookups that were satisfied from the cache
+     *
+     * @return Hits
+     */
+    public long hits() {
+        return this.cache.stats().hitCount();
+    }
+
+    /**
+     * Gets the number of lookups that required parsing
+     *
+     * @return Misses
+     */
+    public long misses() {
+        return this.cache.stats().missCount();
+    }
+
+    /**
+     * Gets the estimated number of distinct labels currently cached
+     *
+     * @return Estimated size
+     */
+    public long estimatedSize() {
+        return this.cache.estimatedSize();
+    }
+
+    /**
+     * Invalidates all cached labels
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.security.data.plugins.rdf.abac;
+
+/**
+ * Provides constants for exposed metrics for the RDF-ABAC Data Security Plugin
+ */
+public class RdfAbacMetricNames {
+
+    private RdfAbacMetricNames() {
+        // Utility class, not meant to be instantiated
+    }
+
+    /**
+     * Metric for number of label lookups satisfied from a labels cache
+     */
+    public static final String LABELS_CACHE_HITS = "security.labels.cache_hits";
+
+    /**
+     * Description for the labels cache hits metric
+     */
+    public static final String LABELS_CACHE_HITS_DESCRIPTION =
+            "Number of label lookups satisfied from a labels cache i.e. that did not require parsing";
+
+    /**
+     * Metric for number of label lookups not satisfied from a labels cache
+     */
+    public static final String LABELS_CACHE_MISSES = "security.labels.cache_misses";
+
+    /**
+     * Description for the labels cache misses metric
+     */
+    public static final String LABELS_CACHE_MISSES_DESCRIPTION =
+            "Number of label lookups not satisfied from a labels cache i.e. that required parsing";
+}
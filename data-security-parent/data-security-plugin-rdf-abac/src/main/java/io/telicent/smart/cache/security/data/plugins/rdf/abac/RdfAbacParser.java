@@ -15,8 +15,6 @@
  */
 package io.telicent.smart.cache.security.data.plugins.rdf.abac;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import io.telicent.jena.abac.AE;
 import io.telicent.jena.abac.attributes.AttributeExpr;
 import io.telicent.smart.cache.configuration.Configurator;
@@ -25,13 +23,14 @@ import io.telicent.smart.cache.security.data.labels.SecurityLabels;
 import io.telicent.smart.cache.security.data.labels.SecurityLabelsParser;
 import io.telicent.smart.cache.security.data.labels.SecurityLabelsValidator;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 
 public class RdfAbacParser implements SecurityLabelsParser, SecurityLabelsValidator {
 
-    private final Cache<String, List<AttributeExpr>> labelParserCache;
+    private final RdfAbacLabelsCache<ByteBuffer, RdfAbacLabels> labelParserCache;
     private final int cacheSize;
     private final Duration cacheDuration;
 
@@ -42,23 +41,29 @@ public class RdfAbacParser implements SecurityLabelsParser, SecurityLabelsValida
         this.cacheSize = Configurator.get(new String[] { RdfAbac.ENV_PARSER_CACHE_SIZE }, Integer::parseInt,
                                           RdfAbac.DEFAULT_PARSER_CACHE_SIZE);
         this.cacheDuration = Configurator.get(new String[] { RdfAbac.ENV_PARSER_CACHE_DURATION }, Duration::parse,
-                                              Duration.ofMinutes(5));
-        int initialCacheSize =
-                Math.min(RdfAbac.DEFAULT_PARSER_CACHE_MIN_SIZE, Math.max(this.cacheSize, this.cacheSize / 10));
-        this.labelParserCache = Caffeine.newBuilder()
-                                        .expireAfterAccess(this.cacheDuration)
-                                        .initialCapacity(initialCacheSize)
-                                        .maximumSize(this.cacheSize)
-                                        .build();
+                                              RdfAbac.DEFAULT_PARSER_CACHE_DURATION);
+        this.labelParserCache = new RdfAbacLabelsCache<>("rdf_abac_labels", this.cacheSize, this.cacheDuration);
+    }
+
+    /**
+     * Gets the cache of interned parsed labels
+     *
+     * @return Labels cache
+     */
+    RdfAbacLabelsCache<ByteBuffer, RdfAbacLabels> labelsCache() {
+        return this.labelParserCache;
     }
 
     @Override
     public SecurityLabels<List<AttributeExpr>> parseSecurityLabels(byte[] rawLabels) {
         if(rawLabels != null) {
             try {
-                // Convert byte sequence into a string ignoring schema prefix if present
-                final String labelStr = getLabelsString(rawLabels);
-                return new RdfAbacLabels(rawLabels, this.labelParserCache.get(labelStr, AE::parseExprList));
+                // Parsed labels are interned so each distinct label is only parsed once, and the cache retains its own
+                // copy of the bytes so callers modifying their array later can't corrupt it
+                return this.labelParserCache.intern(ByteBuffer.wrap(rawLabels),
+                                                    k -> ByteBuffer.wrap(rawLabels.clone()),
+                                                    k -> new RdfAbacLabels(k.array(), AE.parseExprList(
+                                                            getLabelsString(k.array()))));
             } catch (Exception e) {
                 throw new MalformedLabelsException("Failed to parse security labels", e);
             }
@@ -73,10 +78,15 @@ public class RdfAbacParser implements SecurityLabelsParser, SecurityLabelsValida
 
     @Override
     public boolean validate(byte[] rawLabels) {
+        if (rawLabels == null) {
+            return false;
+        }
         try {
-            AE.parseExprList(getLabelsString(rawLabels));
+            // Validating via the parse cache means labels that are validated and then subsequently parsed, as is
+            // common during ingest, are only parsed once
+            parseSecurityLabels(rawLabels);
             return true;
-        } catch (Exception e) {
+        } catch (MalformedLabelsException e) {
             return false;
         }
     }
@@ -37,6 +37,7 @@ import io.telicent.smart.cache.security.data.plugins.DataSecurityPlugin;
 import io.telicent.smart.cache.security.data.plugins.failsafe.FailSafeAuthorizer;
 import io.telicent.smart.cache.security.data.plugins.rdf.abac.distribution.RdfAbacDistributionLifecycleFilters;
 import io.telicent.smart.cache.security.data.requests.RequestContext;
+import io.telicent.smart.caches.configuration.auth.UserInfo;
 import lombok.Getter;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.jena.fuseki.main.sys.FusekiModule;
@@ -49,6 +50,7 @@ import org.apache.jena.sys.JenaSystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -70,6 +72,8 @@ public class RdfAbacPlugin implements DataSecurityPlugin {
     @Getter
     private final int evaluationCacheSize;
 
+    private final RdfAbacEvaluationCache sharedEvaluationCache;
+
     /**
      * Creates a new RDF-ABAC security plugin
      */
@@ -77,15 +81,55 @@ public class RdfAbacPlugin implements DataSecurityPlugin {
         this.evaluationCacheSize =
                 Configurator.get(new String[] { RdfAbac.ENV_LABEL_EVALUATION_CACHE_SIZE }, Integer::parseInt,
                                  RdfAbac.DEFAULT_EVALUATION_CACHE_SIZE);
+        Duration evaluationCacheDuration =
+                Configurator.get(new String[] { RdfAbac.ENV_LABEL_EVALUATION_CACHE_DURATION }, Duration::parse,
+                                 RdfAbac.DEFAULT_EVALUATION_CACHE_DURATION);
+        if (evaluationCacheDuration.isZero() || evaluationCacheDuration.isNegative()) {
+            this.sharedEvaluationCache = null;
+        } else {
+            this.sharedEvaluationCache = new RdfAbacEvaluationCache(
+                    Configurator.get(new String[] { RdfAbac.ENV_SHARED_EVALUATION_CACHE_SIZE }, Integer::parseInt,
+                                     RdfAbac.DEFAULT_SHARED_EVALUATION_CACHE_SIZE), evaluationCacheDuration);
+        }
         logPluginInfo();
     }
 
+    /**
+     * Gets the label evaluation cache that is shared across requests, if enabled
+     *
+     * @return Shared evaluation cache, empty if disabled
+     */
+    public Optional<RdfAbacEvaluationCache> getSharedEvaluationCache() {
+        return Optional.ofNullable(this.sharedEvaluationCache);
+    }
+
+    /**
+     * Invalidates any cached label evaluation decisions for the given user
+     * <p>
+     * Decisions are cached based upon a users attributes so a user whose attributes have changed will never see stale
+     * decisions, however applications may wish to call this when they know a users attributes have changed to free up
+     * cache space sooner.
+     * </p>
+     *
+     * @param userInfo User Info
+     */
+    public void invalidateEvaluations(UserInfo userInfo) {
+        if (this.sharedEvaluationCache != null && userInfo != null) {
+            UserAttributes attributes = toUserAttributes(userInfo.getAttributes());
+            this.sharedEvaluationCache.invalidate(attributes.fingerprint());
+        }
+    }
+
     /**
      * Logs diagnostic information about the security plugin
      */
     private void logPluginInfo() {
-        LOGGER.info("RDF-ABAC Plugin Version {}", LibraryVersion.get("data-security-plugin-rdf-abac"));
-        LOGGER.info("Label Evaluation Cache size is {}", this.evaluationCacheSize);
+        LOGGER.info("RDF-ABAC Plugin Version {}", LibraryVersion.get(Library.NAME));
+        if (this.sharedEvaluationCache != null) {
+            LOGGER.info("Label Evaluation Cache is shared across requests: {}", this.sharedEvaluationCache);
+        } else {
+            LOGGER.info("Label Evaluation Cache size is {}", this.evaluationCacheSize);
+        }
         LOGGER.info("Label Parser Configuration is {}", PARSER);
     }
 
@@ -128,9 +172,13 @@ public class RdfAbacPlugin implements DataSecurityPlugin {
             return FailSafeAuthorizer.INSTANCE;
         } else {
             if (context.userInfo() != null) {
-                final AttributeValueSet attributes = toAttributeValueSet(context.userInfo().getAttributes());
-                CxtABAC abacContext =
-                        CxtABAC.context(attributes, RdfAbac::getClassificationHierarchy, DatasetGraphFactory.empty());
+                final UserAttributes attributes = toUserAttributes(context.userInfo().getAttributes());
+                CxtABAC abacContext = CxtABAC.context(AttributeValueSet.of(attributes.values()),
+                                                      RdfAbac::getClassificationHierarchy,
+                                                      DatasetGraphFactory.empty());
+                if (this.sharedEvaluationCache != null) {
+                    return new RdfAbacAuthorizer(abacContext, this.sharedEvaluationCache, attributes.fingerprint());
+                }
                 return new RdfAbacAuthorizer(abacContext,
                                              Caffeine.newBuilder().maximumSize(this.evaluationCacheSize).build());
             } else {
@@ -198,46 +246,63 @@ public class RdfAbacPlugin implements DataSecurityPlugin {
 
     @Override
     public void close() {
-        // No-op
+        if (this.sharedEvaluationCache != null) {
+            this.sharedEvaluationCache.invalidateAll();
+        }
+    }
+
+    /**
+     * A users attributes converted into RDF-ABAC compatible attributes
+     *
+     * @param values      RDF-ABAC Attribute Values
+     * @param fingerprint Fingerprint of the attribute values
+     */
+    private record UserAttributes(List<AttributeValue> values, String fingerprint) {
     }
 
     /**
      * Converts users raw attributes into RDF-ABAC compatible attributes
      *
      * @param attributes Raw attributes
-     * @return RDF-ABAC Attribute Value set
+     * @return RDF-ABAC Attribute Values and their fingerprint
      */
-    private AttributeValueSet toAttributeValueSet(Map<String, Object> attributes) {
+    private UserAttributes toUserAttributes(Map<String, Object> attributes) {
         List<AttributeValue> attrs = new ArrayList<>();
-        convertMapToAttributes(attrs, "", attributes);
-        return AttributeValueSet.of(attrs);
+        List<String> canonical = new ArrayList<>();
+        convertMapToAttributes(attrs, canonical, "", attributes);
+        return new UserAttributes(attrs, RdfAbacEvaluationCache.fingerprint(canonical));
     }
 
-    private static void convertMapToAttributes(List<AttributeValue> attrs, String prefix, Map<String, Object> map) {
+    private static void convertMapToAttributes(List<AttributeValue> attrs, List<String> canonical, String prefix,
+                                               Map<String, Object> map) {
         if (MapUtils.isEmpty(map)) {
             return;
         }
         for (Map.Entry<String, Object> entry : map.entrySet()) {
-            convertValue(attrs, !prefix.isEmpty() ? prefix + "." + entry.getKey() : entry.getKey(), entry.getValue());
+            convertValue(attrs, canonical, !prefix.isEmpty() ? prefix + "." + entry.getKey() : entry.getKey(),
+                         entry.getValue());
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static void convertValue(List<AttributeValue> attrs, String key, Object value) {
+    private static void convertValue(List<AttributeValue> attrs, List<String> canonical, String key, Object value) {
         // TODO Once we upgrade to JDK 21+ can simplify this into a switch statement
         if (value instanceof String strValue) {
             attrs.add(AttributeValue.of(key, ValueTerm.value(strValue)));
+            canonical.add(RdfAbacEvaluationCache.canonicalAttribute(key, 's', strValue));
         } else if (value instanceof Number numberValue) {
             attrs.add(AttributeValue.of(key, ValueTerm.value(numberValue.toString())));
+            canonical.add(RdfAbacEvaluationCache.canonicalAttribute(key, 's', numberValue.toString()));
         } else if (value instanceof Boolean boolValue) {
             attrs.add(AttributeValue.of(key, ValueTerm.value(boolValue)));
+            canonical.add(RdfAbacEvaluationCache.canonicalAttribute(key, 'b', boolValue.toString()));
         } else if (value instanceof Map<?, ?> map) {
             Map<String, Object> values = (Map<String, Object>) map;
-            convertMapToAttributes(attrs, key, values);
+            convertMapToAttributes(attrs, canonical, key, values);
         } else if (value instanceof Collection<?> collection) {
             Collection<Object> values = (Collection<Object>) collection;
             for (Object v : values) {
-                convertValue(attrs, key, v);
+                convertValue(attrs, canonical, key, v);
             }
         } else {
             LOGGER.warn("Unsupported value type for attribute {} ignored: {}", key, value.getClass());
@@ -19,22 +19,29 @@ import io.telicent.jena.abac.core.DatasetGraphABAC;
 import io.telicent.jena.abac.core.VocabAuthz;
 import io.telicent.jena.abac.labels.Label;
 import io.telicent.jena.abac.labels.LabelsStore;
+import io.telicent.smart.cache.configuration.Configurator;
 import io.telicent.smart.cache.distribution.lifecycle.DistributionLifecycleState;
 import io.telicent.smart.cache.payloads.RdfPayload;
 import io.telicent.smart.cache.security.data.distribution.DistributionLifecycleStateFile;
 import io.telicent.smart.cache.sources.Event;
 import io.telicent.smart.cache.sources.TelicentHeaders;
+import lombok.NonNull;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.kafka.common.FusekiSink;
 import org.apache.jena.rdfpatch.RDFChanges;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
 import org.apache.kafka.common.utils.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -46,8 +53,17 @@ public class RdfAbacSink extends FusekiSink<DatasetGraphABAC> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RdfAbacSink.class);
 
+    /**
+     * Holds the default per-event security labels cache, shared across all sinks not given their own cache, so that it
+     * is only created, and its configuration only read, when the first such sink is created
+     */
+    private static final class DefaultEventLabelsCache {
+        private static final RdfAbacLabelsCache<String, Label> INSTANCE = createEventLabelsCache();
+    }
+
     private final boolean routeToNamedGraphs;
     private final DistributionLifecycleStateFile lifecycleStateFile;
+    private final RdfAbacLabelsCache<String, Label> eventLabelsCache;
     // Tracks distributions whose first event we have already rejected (DLQ'd). The first event for a deleted
     // distribution throws so it is dead-lettered with a clear reason; subsequent events for the same distribution are
     // silently dropped. NB - this is in-memory only, so after a restart the first new event for a still-deleted
@@ -59,9 +75,40 @@ public class RdfAbacSink extends FusekiSink<DatasetGraphABAC> {
     }
 
     public RdfAbacSink(DatasetGraphABAC dataset, boolean routeToNamedGraphs, DistributionLifecycleStateFile lifecycleStateFile){
+        this(dataset, routeToNamedGraphs, lifecycleStateFile, DefaultEventLabelsCache.INSTANCE);
+    }
+
+    /**
+     * Creates a new sink
+     *
+     * @param dataset            Dataset to apply events to
+     * @param routeToNamedGraphs Whether to route each events data to a named graph for its distribution
+     * @param lifecycleStateFile Distribution lifecycle state file, may be {@code null}
+     * @param eventLabelsCache   Cache used to intern the per-event security labels, so events with the same label share a
+     *                           single {@link Label} instance in the labels store rather than each event creating its
+     *                           own
+     */
+    public RdfAbacSink(DatasetGraphABAC dataset, boolean routeToNamedGraphs,
+                       DistributionLifecycleStateFile lifecycleStateFile,
+                       @NonNull RdfAbacLabelsCache<String, Label> eventLabelsCache) {
         super(dataset);
         this.routeToNamedGraphs = routeToNamedGraphs;
         this.lifecycleStateFile = lifecycleStateFile;
+        this.eventLabelsCache = eventLabelsCache;
+    }
+
+    /**
+     * Creates a new per-event security labels cache configured from the {@link RdfAbac#ENV_PARSER_CACHE_SIZE} and
+     * {@link RdfAbac#ENV_PARSER_CACHE_DURATION} settings
+     *
+     * @return Event labels cache
+     */
+    public static RdfAbacLabelsCache<String, Label> createEventLabelsCache() {
+        return new RdfAbacLabelsCache<>("rdf_abac_event_labels",
+                                        Configurator.get(new String[] { RdfAbac.ENV_PARSER_CACHE_SIZE },
+                                                         Integer::parseInt, RdfAbac.DEFAULT_PARSER_CACHE_SIZE),
+                                        Configurator.get(new String[] { RdfAbac.ENV_PARSER_CACHE_DURATION },
+                                                         Duration::parse, RdfAbac.DEFAULT_PARSER_CACHE_DURATION));
     }
 
     @Override
@@ -75,7 +122,8 @@ public class RdfAbacSink extends FusekiSink<DatasetGraphABAC> {
             return;
         }
         final RDFChanges apply =
-                new RdfAbacChangesApplyWithLabels(this.dataset, getEventSecurityLabel(event), distributionId);
+                new RdfAbacChangesApplyWithLabels(this.dataset, getEventSecurityLabel(event, this.eventLabelsCache),
+                                                  distributionId);
         event.value().getPatch().apply(apply);
     }
 
@@ -87,44 +135,87 @@ public class RdfAbacSink extends FusekiSink<DatasetGraphABAC> {
             return;
         }
         // Find the Security-Label for this event, if any
-        final Label eventSecurityLabel = getEventSecurityLabel(event);
+        final Label eventSecurityLabel = getEventSecurityLabel(event, this.eventLabelsCache);
         final LabelsStore labelsStore = this.dataset.labelsStore();
         final Node targetGraph = this.routeToNamedGraphs ? NodeFactory.createURI(distributionId) : null;
 
-        // Copy across quads, updating the labels store as needed
-        event.value().getDataset().stream().forEach(q -> {
-            if (q.getGraph().equals(VocabAuthz.graphForLabels)) {
-                // Ignore, labels graph is only metadata and not written to target dataset
-                return;
-            }
-            if (routeToNamedGraphs) {
-                final Quad rerouted = Quad.create(targetGraph, q.getSubject(), q.getPredicate(), q.getObject());
-                this.dataset.add(rerouted);
-                if (eventSecurityLabel != null) {
-                    labelsStore.add(rerouted, eventSecurityLabel);
-                }
+        // Where possible stream the quads straight from the raw payload into the target dataset, only buffering the
+        // fine-grained labels graph (if any), rather than first parsing the entire payload into an in-memory dataset
+        // that we then copy from.  NB - Any parse error part way through leaves the quads streamed thus far in the
+        //      dataset, as with patch events we rely on the caller aborting its write transaction upon error.
+        //      Unlike a parsed dataset a stream may repeat a quad, we deliberately don't track which quads have been
+        //      labelled since that would need memory proportional to the payload, and labelling the same quad with the
+        //      same label again leaves the labels store unchanged.
+        final Graph bufferedLabelsGraph = GraphFactory.createDefaultGraph();
+        final boolean streamed = event.value().streamDataset(new StreamRDFBase() {
+            @Override
+            public void triple(Triple triple) {
+                quad(Quad.create(Quad.defaultGraphIRI, triple));
             }
-            else {
-                this.dataset.add(q);
-                if (eventSecurityLabel != null) {
-                    // Specific label for this event
-                    labelsStore.add(q, eventSecurityLabel);
+
+            @Override
+            public void quad(Quad quad) {
+                if (quad.getGraph().equals(VocabAuthz.graphForLabels)) {
+                    bufferedLabelsGraph.add(quad.asTriple());
+                } else {
+                    applyQuad(quad, targetGraph, eventSecurityLabel, labelsStore);
                 }
             }
-            // NB - If no specific label for this event, dataset default will apply at read time, no need to set
-            //      anything in the labels store
         });
 
+        // If the payload was already deserialised then copy across quads from it instead
+        final Graph labelsGraph = streamed ? bufferedLabelsGraph :
+                                  copyDataset(event.value().getDataset(), targetGraph, eventSecurityLabel, labelsStore);
+
         // Apply fine-grained labels graph (if any) to the labels store
-        final Graph labelsGraph = event.value().getDataset().getGraph(VocabAuthz.graphForLabels);
         if (labelsGraph != null && !labelsGraph.isEmpty()) {
             labelsStore.addGraph(labelsGraph);
         }
     }
 
-    private static Label getEventSecurityLabel(Event<Bytes, RdfPayload> event) {
-        return StringUtils.isNotBlank(event.lastHeader(TelicentHeaders.SECURITY_LABEL)) ?
-                Label.fromText(event.lastHeader(TelicentHeaders.SECURITY_LABEL)) : null;
+    /**
+     * Copies the quads of an already deserialised dataset to the target dataset, updating the labels store as needed
+     *
+     * @param dsg                Dataset
+     * @param targetGraph        Target graph when routing to named graphs, otherwise {@code null}
+     * @param eventSecurityLabel Security label for the event, if any
+     * @param labelsStore        Labels store
+     * @return Fine-grained labels graph from the dataset, if any
+     */
+    private Graph copyDataset(DatasetGraph dsg, Node targetGraph, Label eventSecurityLabel, LabelsStore labelsStore) {
+        dsg.stream().forEach(q -> {
+            if (q.getGraph().equals(VocabAuthz.graphForLabels)) {
+                // Ignore, labels graph is only metadata and not written to target dataset
+                return;
+            }
+            applyQuad(q, targetGraph, eventSecurityLabel, labelsStore);
+        });
+        return dsg.getGraph(VocabAuthz.graphForLabels);
+    }
+
+    /**
+     * Applies a single quad to the target dataset, updating the labels store as needed
+     *
+     * @param q                  Quad
+     * @param targetGraph        Target graph when routing to named graphs, otherwise {@code null}
+     * @param eventSecurityLabel Security label for the event, if any
+     * @param labelsStore        Labels store
+     */
+    private void applyQuad(Quad q, Node targetGraph, Label eventSecurityLabel, LabelsStore labelsStore) {
+        final Quad applied =
+                this.routeToNamedGraphs ? Quad.create(targetGraph, q.getSubject(), q.getPredicate(), q.getObject()) : q;
+        this.dataset.add(applied);
+        if (eventSecurityLabel != null) {
+            // Specific label for this event
+            labelsStore.add(applied, eventSecurityLabel);
+        }
+        // NB - If no specific label for this event, dataset default will apply at read time, no need to set anything in
+        //      the labels store
+    }
+
+    static Label getEventSecurityLabel(Event<Bytes, RdfPayload> event, RdfAbacLabelsCache<String, Label> cache) {
+        final String securityLabel = event.lastHeader(TelicentHeaders.SECURITY_LABEL);
+        return StringUtils.isNotBlank(securityLabel) ? cache.intern(securityLabel, Label::fromText) : null;
     }
 
     /*
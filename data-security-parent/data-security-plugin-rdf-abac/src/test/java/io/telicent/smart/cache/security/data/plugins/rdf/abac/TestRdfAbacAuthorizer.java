@@ -30,6 +30,7 @@ import org.apache.jena.sparql.core.DatasetGraphFactory;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -159,4 +160,28 @@ public class TestRdfAbacAuthorizer {
             }
         }
     }
+
+    @Test
+    public void givenSharedCache_whenAuthorizingAcrossAuthorizers_thenDecisionsShared() {
+        // Given
+        AttributeExpr expr = mockAttributeExpr();
+        List<Object> decoded = new ArrayList<>();
+        decoded.add(expr);
+        SecurityLabels<?> labels = mock(SecurityLabels.class);
+        when(labels.decodedLabels()).thenAnswer(invocationOnMock -> decoded);
+        RdfAbacEvaluationCache cache = new RdfAbacEvaluationCache(100, Duration.ofMinutes(1));
+        CxtABAC context =
+                CxtABAC.context(AttributeValueSet.EMPTY, new AttributesStoreLocal(), DatasetGraphFactory.empty());
+
+        // When
+        for (int i = 1; i <= 10; i++) {
+            try (RdfAbacAuthorizer authorizer = new RdfAbacAuthorizer(context, cache, "user")) {
+                Assert.assertTrue(authorizer.canRead(labels));
+            }
+        }
+
+        // Then
+        verify(expr, times(1)).eval(any());
+        Assert.assertEquals(cache.estimatedSize(), 1);
+    }
 }
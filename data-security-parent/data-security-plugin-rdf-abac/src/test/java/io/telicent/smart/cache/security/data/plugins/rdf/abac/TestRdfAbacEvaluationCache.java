@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.security.data.plugins.rdf.abac;
+
+import io.telicent.jena.abac.AttributeValueSet;
+import io.telicent.jena.abac.attributes.AttributeExpr;
+import io.telicent.jena.abac.attributes.ValueTerm;
+import io.telicent.jena.abac.core.AttributesStoreLocal;
+import io.telicent.jena.abac.core.CxtABAC;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class TestRdfAbacEvaluationCache {
+
+    private static final CxtABAC CONTEXT =
+            CxtABAC.context(AttributeValueSet.EMPTY, new AttributesStoreLocal(), DatasetGraphFactory.empty());
+
+    private static AttributeExpr mockAttributeExpr() {
+        AttributeExpr expr = mock(AttributeExpr.class);
+        when(expr.eval(any())).thenReturn(ValueTerm.TRUE);
+        return expr;
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Maximum size.*")
+    public void givenZeroSize_whenCreatingCache_thenIllegalArgument() {
+        // Given, When and Then
+        new RdfAbacEvaluationCache(0, Duration.ofMinutes(1));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Duration.*")
+    public void givenZeroDuration_whenCreatingCache_thenIllegalArgument() {
+        // Given, When and Then
+        new RdfAbacEvaluationCache(100, Duration.ZERO);
+    }
+
+    @Test
+    public void givenCache_whenEvaluatingRepeatedly_thenEvaluatedOnce() {
+        // Given
+        RdfAbacEvaluationCache cache = new RdfAbacEvaluationCache(100, Duration.ofMinutes(1));
+        AttributeExpr expr = mockAttributeExpr();
+
+        // When
+        for (int i = 1; i <= 100; i++) {
+            Assert.assertTrue(cache.evaluate("user", expr, CONTEXT));
+        }
+
+        // Then
+        verify(expr, times(1)).eval(any());
+        Assert.assertEquals(cache.estimatedSize(), 1);
+    }
+
+    @Test
+    public void givenCache_whenEvaluatingForDifferentUsers_thenEvaluatedForEach() {
+        // Given
+        RdfAbacEvaluationCache cache = new RdfAbacEvaluationCache(100, Duration.ofMinutes(1));
+        AttributeExpr expr = mockAttributeExpr();
+
+        // When
+        cache.evaluate("a", expr, CONTEXT);
+        cache.evaluate("b", expr, CONTEXT);
+        cache.evaluate("a", expr, CONTEXT);
+
+        // Then
+        verify(expr, times(2)).eval(any());
+    }
+
+    @Test
+    public void givenPopulatedCache_whenInvalidatingUser_thenOnlyThatUserReEvaluated() {
+        // Given
+        RdfAbacEvaluationCache cache = new RdfAbacEvaluationCache(100, Duration.ofMinutes(1));
+        AttributeExpr expr = mockAttributeExpr();
+        cache.evaluate("a", expr, CONTEXT);
+        cache.evaluate("b", expr, CONTEXT);
+
+        // When
+        cache.invalidate("a");
+        cache.evaluate("a", expr, CONTEXT);
+        cache.evaluate("b", expr, CONTEXT);
+
+        // Then
+        verify(expr, times(3)).eval(any());
+    }
+
+    @Test
+    public void givenPopulatedCache_whenInvalidatingAll_thenEmpty() {
+        // Given
+        RdfAbacEvaluationCache cache = new RdfAbacEvaluationCache(100, Duration.ofMinutes(1));
+        cache.evaluate("a", mockAttributeExpr(), CONTEXT);
+        cache.evaluate("b", mockAttributeExpr(), CONTEXT);
+
+        // When
+        cache.invalidateAll();
+
+        // Then
+        Assert.assertEquals(cache.estimatedSize(), 0);
+    }
+
+    @Test
+    public void givenShortDuration_whenEvaluatingAfterExpiry_thenReEvaluated() throws InterruptedException {
+        // Given
+        RdfAbacEvaluationCache cache = new RdfAbacEvaluationCache(100, Duration.ofMillis(50));
+        AttributeExpr expr = mockAttributeExpr();
+        cache.evaluate("a", expr, CONTEXT);
+
+        // When
+        Thread.sleep(100);
+        cache.evaluate("a", expr, CONTEXT);
+
+        // Then
+        verify(expr, times(2)).eval(any());
+    }
+
+    @Test
+    public void givenSameAttributesInDifferentOrder_whenFingerprinting_thenSameFingerprint() {
+        // Given
+        List<String> a = List.of(RdfAbacEvaluationCache.canonicalAttribute("clearance", 's', "S"),
+                                 RdfAbacEvaluationCache.canonicalAttribute("org", 's', "Telicent"));
+        List<String> b = List.of(RdfAbacEvaluationCache.canonicalAttribute("org", 's', "Telicent"),
+                                 RdfAbacEvaluationCache.canonicalAttribute("clearance", 's', "S"));
+
+        // When and Then
+        Assert.assertEquals(RdfAbacEvaluationCache.fingerprint(a), RdfAbacEvaluationCache.fingerprint(b));
+    }
+
+    @Test
+    public void givenDifferentAttributes_whenFingerprinting_thenDifferentFingerprints() {
+        // Given
+        List<String> a = List.of(RdfAbacEvaluationCache.canonicalAttribute("clearance", 's', "S"),
+                                 RdfAbacEvaluationCache.canonicalAttribute("org", 's', "Telicent"));
+        List<String> b = List.of(RdfAbacEvaluationCache.canonicalAttribute("clearance", 's', "TS"),
+                                 RdfAbacEvaluationCache.canonicalAttribute("org", 's', "Telicent"));
+        List<String> c = List.of(RdfAbacEvaluationCache.canonicalAttribute("clearance", 's', "S"));
+
+        // When and Then
+        Assert.assertNotEquals(RdfAbacEvaluationCache.fingerprint(a), RdfAbacEvaluationCache.fingerprint(b));
+        Assert.assertNotEquals(RdfAbacEvaluationCache.fingerprint(a), RdfAbacEvaluationCache.fingerprint(c));
+        Assert.assertNotEquals(RdfAbacEvaluationCache.fingerprint(c), RdfAbacEvaluationCache.fingerprint(List.of()));
+    }
+
+    @Test
+    public void givenKeysAndValuesContainingSeparators_whenFingerprinting_thenNoCollision() {
+        // Given
+        String a = RdfAbacEvaluationCache.canonicalAttribute("a", 's', "b=s:c");
+        String b = RdfAbacEvaluationCache.canonicalAttribute("a=s:b", 's', "c");
+
+        // When and Then
+        Assert.assertNotEquals(a, b);
+        Assert.assertNotEquals(RdfAbacEvaluationCache.fingerprint(List.of(a)),
+                               RdfAbacEvaluationCache.fingerprint(List.of(b)));
+    }
+
+    @Test
+    public void givenSameValueWithDifferentTypes_whenFingerprinting_thenNoCollision() {
+        // Given
+        String a = RdfAbacEvaluationCache.canonicalAttribute("admin", 's', "true");
+        String b = RdfAbacEvaluationCache.canonicalAttribute("admin", 'b', "true");
+
+        // When and Then
+        Assert.assertNotEquals(RdfAbacEvaluationCache.fingerprint(List.of(a)),
+                               RdfAbacEvaluationCache.fingerprint(List.of(b)));
+    }
+}
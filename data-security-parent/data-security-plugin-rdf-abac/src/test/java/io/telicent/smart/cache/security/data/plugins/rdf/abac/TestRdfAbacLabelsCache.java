@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.security.data.plugins.rdf.abac;
+
+import io.telicent.jena.abac.labels.Label;
+import io.telicent.smart.cache.payloads.RdfPayload;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.Header;
+import io.telicent.smart.cache.sources.TelicentHeaders;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.common.utils.Bytes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class TestRdfAbacLabelsCache {
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Maximum size.*")
+    public void givenZeroSize_whenCreatingCache_thenIllegalArgument() {
+        // Given, When and Then
+        new RdfAbacLabelsCache<String, String>("test", 0, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void givenCache_whenInterningSameLabelRepeatedly_thenParsedOnceAndShared() {
+        // Given
+        RdfAbacLabelsCache<String, StringBuilder> cache = new RdfAbacLabelsCache<>("test", 100, Duration.ofMinutes(1));
+        AtomicInteger parses = new AtomicInteger();
+        Function<String, StringBuilder> parser = k -> {
+            parses.incrementAndGet();
+            return new StringBuilder(k);
+        };
+
+        // When
+        StringBuilder first = cache.intern("clearance=S", parser);
+        for (int i = 0; i < 100; i++) {
+            // Then
+            Assert.assertSame(cache.intern("clearance=S", parser), first);
+        }
+        Assert.assertEquals(parses.get(), 1);
+        Assert.assertEquals(cache.misses(), 1);
+        Assert.assertEquals(cache.hits(), 100);
+        Assert.assertEquals(cache.estimatedSize(), 1);
+    }
+
+    @Test
+    public void givenCache_whenInterningDistinctLabels_thenEachParsed() {
+        // Given
+        RdfAbacLabelsCache<String, String> cache = new RdfAbacLabelsCache<>("test", 100, Duration.ofMinutes(1));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            cache.intern("username=user" + i, Function.identity());
+        }
+
+        // Then
+        Assert.assertEquals(cache.misses(), 10);
+        Assert.assertEquals(cache.hits(), 0);
+    }
+
+    @Test
+    public void givenCacheWithParseFailure_whenInterning_thenFailureNotCached() {
+        // Given
+        RdfAbacLabelsCache<String, String> cache = new RdfAbacLabelsCache<>("test", 100, Duration.ofMinutes(1));
+
+        // When
+        Assert.assertThrows(IllegalStateException.class, () -> cache.intern("bad", k -> {
+            throw new IllegalStateException("bad");
+        }));
+
+        // Then
+        Assert.assertEquals(cache.estimatedSize(), 0);
+        Assert.assertEquals(cache.intern("bad", Function.identity()), "bad");
+    }
+
+    @Test
+    public void givenCache_whenInvalidatingAll_thenEmpty() {
+        // Given
+        RdfAbacLabelsCache<String, String> cache = new RdfAbacLabelsCache<>("test", 100, Duration.ofMinutes(1));
+        cache.intern("a", Function.identity());
+
+        // When
+        cache.invalidateAll();
+
+        // Then
+        Assert.assertEquals(cache.estimatedSize(), 0);
+    }
+
+    @Test
+    public void givenCacheMiss_whenInterningWithKeyCopier_thenCopyRetainedAndOneMissRecorded() {
+        // Given
+        RdfAbacLabelsCache<StringBuilder, String> cache = new RdfAbacLabelsCache<>("test", 100, Duration.ofMinutes(1));
+        StringBuilder key = new StringBuilder("clearance=S");
+
+        // When
+        String parsed = cache.intern(key, k -> new StringBuilder(k.toString()), StringBuilder::toString);
+
+        // Then
+        Assert.assertEquals(parsed, "clearance=S");
+        Assert.assertEquals(cache.misses(), 1);
+        Assert.assertEquals(cache.hits(), 0);
+        Assert.assertEquals(cache.estimatedSize(), 1);
+    }
+
+    private static Event<Bytes, RdfPayload> labelledEvent(String label) {
+        return new SimpleEvent<>(List.of(new Header(TelicentHeaders.SECURITY_LABEL, label)), null, null);
+    }
+
+    @Test
+    public void givenEventsWithSameLabel_whenGettingEventLabels_thenSameLabelInstance() {
+        // Given
+        RdfAbacLabelsCache<String, Label> cache = RdfAbacSink.createEventLabelsCache();
+        String label = "clearance=S&&org=" + System.nanoTime();
+
+        // When
+        Label first = RdfAbacSink.getEventSecurityLabel(labelledEvent(label), cache);
+        Label second = RdfAbacSink.getEventSecurityLabel(labelledEvent(new String(label.toCharArray())), cache);
+
+        // Then
+        Assert.assertNotNull(first);
+        Assert.assertSame(second, first);
+        Assert.assertEquals(first.data(), label.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(cache.misses(), 1);
+        Assert.assertEquals(cache.hits(), 1);
+    }
+
+    @Test
+    public void givenEventWithoutLabel_whenGettingEventLabel_thenNull() {
+        // Given
+        RdfAbacLabelsCache<String, Label> cache = RdfAbacSink.createEventLabelsCache();
+        Event<Bytes, RdfPayload> event = new SimpleEvent<>(List.of(), null, null);
+
+        // When and Then
+        Assert.assertNull(RdfAbacSink.getEventSecurityLabel(event, cache));
+        Assert.assertEquals(cache.misses(), 0);
+        Assert.assertEquals(cache.hits(), 0);
+    }
+}
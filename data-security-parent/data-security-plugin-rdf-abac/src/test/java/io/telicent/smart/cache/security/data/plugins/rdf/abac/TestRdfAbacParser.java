@@ -42,12 +42,61 @@ public class TestRdfAbacParser {
 
         for (int i = 0; i < 10_000; i++) {
             // Then
-            SecurityLabels<?> parsedAgain = parser.parseSecurityLabels(rawLabels);
-            Assert.assertNotSame(parsed, parsedAgain);
+            SecurityLabels<?> parsedAgain = parser.parseSecurityLabels(rawLabels.clone());
+            Assert.assertSame(parsed, parsedAgain);
             Assert.assertSame(parsed.decodedLabels(), parsedAgain.decodedLabels());
         }
     }
 
+    @Test
+    public void givenAbacParser_whenParsingSameLabelManyTimes_thenCacheHitsRecorded() {
+        // Given
+        RdfAbacParser parser = new RdfAbacParser();
+        byte[] rawLabels = "clearance=S".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            parser.parseSecurityLabels(rawLabels);
+        }
+
+        // Then
+        Assert.assertEquals(parser.labelsCache().misses(), 1);
+        Assert.assertEquals(parser.labelsCache().hits(), 99);
+    }
+
+    @Test
+    public void givenAbacParser_whenCallerModifiesParsedBytes_thenCachedLabelsUnaffected() {
+        // Given
+        RdfAbacParser parser = new RdfAbacParser();
+        byte[] rawLabels = "clearance=S".getBytes(StandardCharsets.UTF_8);
+        SecurityLabels<?> parsed = parser.parseSecurityLabels(rawLabels);
+
+        // When
+        rawLabels[rawLabels.length - 1] = 'O';
+
+        // Then
+        Assert.assertEquals(parsed.encoded(), "clearance=S".getBytes(StandardCharsets.UTF_8));
+        Assert.assertSame(parser.parseSecurityLabels("clearance=S".getBytes(StandardCharsets.UTF_8)), parsed);
+        Assert.assertNotSame(parser.parseSecurityLabels(rawLabels), parsed);
+    }
+
+    @Test
+    public void givenAbacParser_whenValidatingThenParsing_thenParsedOnce() {
+        // Given
+        RdfAbacParser parser = new RdfAbacParser();
+        byte[] rawLabels = "clearance=S".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Assert.assertTrue(parser.validate(rawLabels));
+        Assert.assertFalse(parser.validate("clearance=".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertFalse(parser.validate(null));
+        parser.parseSecurityLabels(rawLabels);
+
+        // Then
+        Assert.assertEquals(parser.labelsCache().hits(), 1);
+        Assert.assertEquals(parser.labelsCache().estimatedSize(), 1);
+    }
+
     @Test
     public void givenAbacParser_whenParsingUniqueLabels_thenParsedLabelIsUnique() {
         // Given
@@ -15,12 +15,18 @@
  */
 package io.telicent.smart.cache.security.data.plugins.rdf.abac;
 
+import io.jsonwebtoken.Jws;
 import io.telicent.jena.abac.core.DatasetGraphABAC;
 import io.telicent.jena.abac.core.VocabAuthz;
+import io.telicent.smart.cache.configuration.Configurator;
+import io.telicent.smart.cache.configuration.sources.PropertiesSource;
+import io.telicent.smart.cache.security.data.DataAccessAuthorizer;
 import io.telicent.smart.cache.security.data.distribution.DistributionLifecycleStateFile;
 import io.telicent.smart.cache.security.data.labels.SecurityLabelsApplicator;
 import io.telicent.smart.cache.security.data.plugins.AbstractDataSecurityPluginTests;
 import io.telicent.smart.cache.security.data.plugins.DataSecurityPlugin;
+import io.telicent.smart.cache.security.data.requests.MinimalRequestContext;
+import io.telicent.smart.cache.security.data.requests.RequestContext;
 import io.telicent.smart.caches.configuration.auth.UserInfo;
 import org.apache.jena.graph.Graph;
 import org.apache.jena.graph.NodeFactory;
@@ -33,6 +39,7 @@ import org.testng.annotations.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Properties;
 
 import static org.mockito.Mockito.mock;
 
@@ -144,4 +151,109 @@ public class TestRdfAbacPlugin extends AbstractDataSecurityPluginTests {
         Assert.assertFalse(plugin.getReadOperations().isEmpty());
         Assert.assertFalse(plugin.getReadWriteOperations().isEmpty());
     }
+
+    private static long evaluateForUser(RdfAbacPlugin plugin, UserInfo userInfo, String label) {
+        RequestContext context =
+                MinimalRequestContext.builder().username(userInfo.getSub()).userInfo(userInfo).jwt(mock(Jws.class))
+                                     .build();
+        try (DataAccessAuthorizer authorizer = plugin.prepareAuthorizer(context)) {
+            authorizer.canRead(plugin.labelsParser().parseSecurityLabels(labelBytes(label)));
+        }
+        return plugin.getSharedEvaluationCache().orElseThrow().estimatedSize();
+    }
+
+    @Test
+    public void givenPlugin_whenAuthorizingRepeatedRequests_thenSharedCacheReused() {
+        // Given
+        RdfAbacPlugin plugin = new RdfAbacPlugin();
+        UserInfo user = getTestUserInfo("test");
+
+        // When
+        evaluateForUser(plugin, user, "clearance=S");
+        long size = evaluateForUser(plugin, user, "clearance=S");
+
+        // Then
+        Assert.assertEquals(size, 1);
+    }
+
+    @Test
+    public void givenPlugin_whenAuthorizingUsersWithDifferentAttributes_thenSeparateDecisionsCached() {
+        // Given
+        RdfAbacPlugin plugin = new RdfAbacPlugin();
+        UserInfo user = getTestUserInfo("test");
+        UserInfo other = UserInfo.builder().sub("other").attributes(Map.of("clearance", "TS")).build();
+
+        // When
+        evaluateForUser(plugin, user, "clearance=S");
+        long size = evaluateForUser(plugin, other, "clearance=S");
+
+        // Then
+        Assert.assertEquals(size, 2);
+    }
+
+    @Test
+    public void givenPlugin_whenAuthorizingUsersWithAmbiguousAttributes_thenSeparateDecisionsCached() {
+        // Given
+        RdfAbacPlugin plugin = new RdfAbacPlugin();
+        UserInfo user = UserInfo.builder().sub("user").attributes(Map.of("a", "b=s:c")).build();
+        UserInfo other = UserInfo.builder().sub("other").attributes(Map.of("a=s:b", "c")).build();
+
+        // When
+        evaluateForUser(plugin, user, "clearance=S");
+        long size = evaluateForUser(plugin, other, "clearance=S");
+
+        // Then
+        Assert.assertEquals(size, 2);
+    }
+
+    @Test
+    public void givenPlugin_whenInvalidatingUser_thenUsersDecisionsRemoved() {
+        // Given
+        RdfAbacPlugin plugin = new RdfAbacPlugin();
+        UserInfo user = getTestUserInfo("test");
+        UserInfo other = UserInfo.builder().sub("other").attributes(Map.of("clearance", "TS")).build();
+        evaluateForUser(plugin, user, "clearance=S");
+        evaluateForUser(plugin, other, "clearance=S");
+
+        // When
+        plugin.invalidateEvaluations(getTestUserInfo("test"));
+
+        // Then
+        Assert.assertEquals(plugin.getSharedEvaluationCache().orElseThrow().estimatedSize(), 1);
+    }
+
+    @Test
+    public void givenPlugin_whenClosed_thenSharedCacheEmptied() {
+        // Given
+        RdfAbacPlugin plugin = new RdfAbacPlugin();
+        evaluateForUser(plugin, getTestUserInfo("test"), "clearance=S");
+
+        // When
+        plugin.close();
+
+        // Then
+        Assert.assertEquals(plugin.getSharedEvaluationCache().orElseThrow().estimatedSize(), 0);
+    }
+
+    @Test
+    public void givenZeroEvaluationCacheDuration_whenCreatingPlugin_thenSharedCacheDisabled() {
+        // Given
+        Properties properties = new Properties();
+        properties.put(RdfAbac.ENV_LABEL_EVALUATION_CACHE_DURATION, "PT0S");
+        Configurator.setSingleSource(new PropertiesSource(properties));
+
+        try {
+            // When
+            RdfAbacPlugin plugin = new RdfAbacPlugin();
+
+            // Then
+            Assert.assertTrue(plugin.getSharedEvaluationCache().isEmpty());
+            try (DataAccessAuthorizer authorizer = plugin.prepareAuthorizer(this.getTestContext())) {
+                Assert.assertTrue(
+                        authorizer.canRead(plugin.labelsParser().parseSecurityLabels(labelBytes("clearance=S"))));
+            }
+        } finally {
+            Configurator.reset();
+        }
+    }
 }
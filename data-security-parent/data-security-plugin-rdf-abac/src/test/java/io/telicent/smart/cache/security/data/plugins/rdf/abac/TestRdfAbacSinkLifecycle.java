@@ -23,6 +23,7 @@ import io.telicent.jena.abac.core.DatasetGraphABAC;
 import io.telicent.jena.abac.core.VocabAuthz;
 import io.telicent.jena.abac.labels.Label;
 import io.telicent.jena.abac.labels.Labels;
+import io.telicent.jena.abac.labels.LabelsStore;
 import io.telicent.smart.cache.payloads.RdfPayload;
 import io.telicent.smart.cache.security.data.distribution.DistributionLifecycleStateFile;
 import io.telicent.smart.cache.sources.Event;
@@ -34,6 +35,9 @@ import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.kafka.JenaKafkaException;
 import org.apache.jena.rdfpatch.changes.RDFChangesCollector;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.WebContent;
 import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.DatasetGraphFactory;
 import org.apache.jena.sparql.core.Quad;
@@ -45,10 +49,12 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -62,9 +68,9 @@ public class TestRdfAbacSinkLifecycle {
     private static final String[] NON_VIABLE_STATES = { "Deleted", "Unregistered" };
 
     /**
-     * The two payload shapes a {@link RdfAbacSink} can receive. Both are gated by the same lifecycle logic but flow
-     * through different code paths ({@code applyDatasetEvent} vs {@code applyRdfPatchEvent}), so every scenario is run
-     * against both.
+     * The payload shapes a {@link RdfAbacSink} can receive. All are gated by the same lifecycle logic but flow through
+     * different code paths ({@code applyDatasetEvent}, either streamed from raw data or copied from an already
+     * deserialised dataset, vs {@code applyRdfPatchEvent}), so every scenario is run against each.
      */
     private enum PayloadType {
         DATASET {
@@ -75,6 +81,12 @@ public class TestRdfAbacSinkLifecycle {
                 return RdfPayload.of(dsg);
             }
         },
+        LAZY_DATASET {
+            @Override
+            RdfPayload payload() {
+                return lazyNQuads(Quad.create(Quad.defaultGraphIRI, TRIPLE_S, TRIPLE_P, TRIPLE_O));
+            }
+        },
         PATCH {
             @Override
             RdfPayload payload() {
@@ -102,7 +114,7 @@ public class TestRdfAbacSinkLifecycle {
 
     @DataProvider(name = "payloadTypes")
     public static Object[][] payloadTypes() {
-        return new Object[][] { { PayloadType.DATASET }, { PayloadType.PATCH } };
+        return new Object[][] { { PayloadType.DATASET }, { PayloadType.LAZY_DATASET }, { PayloadType.PATCH } };
     }
 
     @DataProvider(name = "viableStatesAndPayloads")
@@ -308,10 +320,84 @@ public class TestRdfAbacSinkLifecycle {
                                                        PayloadType.TRIPLE_O)), Label.fromText("clearance=O"));
     }
 
+    @Test
+    public void givenLazyPayloadWithQuadsInLabelsGraph_whenEventsReceived_thenNotAppliedToDataset() {
+        // Given
+        RdfPayload payload = lazyNQuads(
+                Quad.create(VocabAuthz.graphForLabels, PayloadType.TRIPLE_S, PayloadType.TRIPLE_P,
+                            PayloadType.TRIPLE_O));
+
+        // When
+        final RdfAbacSink sink = new RdfAbacSink(this.dataset, true);
+        sink.send(new SimpleEvent<>(
+                List.of(new Header(TelicentHeaders.DISTRIBUTION_ID, DISTRIBUTION_ID)), null, payload));
+
+        // Then
+        Assert.assertTrue(datasetIsEmpty());
+        Assert.assertFalse(payload.isReady(), "Lazy payload should have been streamed rather than deserialised");
+    }
+
+    @Test
+    public void givenLazyPayloadWithEventSecurityLabels_whenEventsReceived_thenLabelAppliedToCorrectGraph() {
+        // Given
+        RdfPayload payload = lazyNQuads(
+                Quad.create(Quad.defaultGraphIRI, PayloadType.TRIPLE_S, PayloadType.TRIPLE_P, PayloadType.TRIPLE_O));
+
+        // When
+        final RdfAbacSink sink = new RdfAbacSink(this.dataset, true);
+        sink.send(new SimpleEvent<>(
+                List.of(new Header(TelicentHeaders.DISTRIBUTION_ID, DISTRIBUTION_ID),
+                        new Header(TelicentHeaders.SECURITY_LABEL, "clearance=O")), null, payload));
+
+        // Then
+        Assert.assertFalse(datasetIsEmpty());
+        Assert.assertFalse(payload.isReady(), "Lazy payload should have been streamed rather than deserialised");
+        Assert.assertEquals(dataset.labelsStore()
+                                   .labelForQuad(
+                                           Quad.create(NodeFactory.createURI(DISTRIBUTION_ID), PayloadType.TRIPLE_S,
+                                                       PayloadType.TRIPLE_P,
+                                                       PayloadType.TRIPLE_O)), Label.fromText("clearance=O"));
+    }
+
+    @Test
+    public void givenLazyPayloadWithDuplicateQuads_whenEventsReceived_thenQuadLabelledOnceInStore() {
+        // Given
+        final LabelsStore labelsStore = Labels.createLabelsStoreMem();
+        final DatasetGraphABAC labelled = ABAC.authzDataset(DatasetGraphFactory.createTxnMem(), AEX.strALLOW,
+                                                            labelsStore, SysABAC.denyLabel,
+                                                            new AttributesStoreLocal());
+        final String nquads = "<http://example/s> <http://example/p> <http://example/o> .\n";
+        final RdfPayload payload = RdfPayload.of(WebContent.contentTypeNQuads,
+                                                 (nquads + nquads).getBytes(StandardCharsets.UTF_8));
+
+        // When
+        final RdfAbacSink sink = new RdfAbacSink(labelled, false);
+        sink.send(new SimpleEvent<>(List.of(new Header(TelicentHeaders.SECURITY_LABEL, "clearance=O")), null,
+                                    payload));
+
+        // Then
+        Assert.assertFalse(payload.isReady(), "Lazy payload should have been streamed rather than deserialised");
+        final Quad quad =
+                Quad.create(Quad.defaultGraphIRI, PayloadType.TRIPLE_S, PayloadType.TRIPLE_P, PayloadType.TRIPLE_O);
+        Assert.assertEquals(labelled.getDefaultGraph().size(), 1);
+        Assert.assertEquals(labelsStore.labelForQuad(quad), Label.fromText("clearance=O"));
+    }
+
     // --- Helpers ----------------------------------------------------------------------------------------------------
 
+    private static RdfPayload lazyNQuads(Quad... quads) {
+        final DatasetGraph dsg = DatasetGraphFactory.create();
+        for (Quad quad : quads) {
+            dsg.add(quad);
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RDFDataMgr.write(output, dsg, Lang.NQUADS);
+        return RdfPayload.of(WebContent.contentTypeNQuads, output.toByteArray());
+    }
+
     private DistributionLifecycleStateFile lifecycleStateFile() {
-        return new DistributionLifecycleStateFile(this.stateFile, null);
+        // Check for changes on every call since some tests change the state part way through
+        return new DistributionLifecycleStateFile(this.stateFile, null, Duration.ZERO);
     }
 
     private static String stateJson(String state) {
@@ -23,12 +23,14 @@ import io.telicent.smart.cache.sources.Event;
 import io.telicent.smart.cache.sources.EventHeader;
 import io.telicent.smart.cache.sources.Header;
 import io.telicent.smart.cache.sources.file.FileEventWriter;
+import io.telicent.smart.cache.sources.file.segment.SegmentedEventWriter;
 import io.telicent.smart.cache.sources.file.yaml.YamlEventReaderWriter;
 import lombok.ToString;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,6 +47,12 @@ import static org.apache.commons.lang3.Strings.CS;
  * This is primarily intended for capturing events for future reuse in integration tests, it's implemented as a
  * forwarding sink so it can be inserted into relevant points of a pipeline to capture events as they flow through.
  * </p>
+ * <p>
+ * By default each event is captured to its own file, optionally events may instead be captured to a segmented event
+ * log via a {@link SegmentedEventWriter}, which appends many events to each segment file, and replayed using a
+ * {@link io.telicent.smart.cache.sources.file.segment.SegmentedEventSource}.  This is far more efficient when capturing
+ * large numbers of events.
+ * </p>
  *
  * @param <TKey>   Key type
  * @param <TValue> Value type
@@ -65,6 +73,7 @@ public class EventCapturingSink<TKey, TValue>
     private final List<EventHeader> additionalHeaders;
     @ToString.Exclude
     private final List<Function<Event<TKey, TValue>, EventHeader>> additionalHeaderGenerators;
+    private final SegmentedEventWriter<TKey, TValue> segmentWriter;
 
     /**
      * Creates a new sink
@@ -80,6 +89,27 @@ public class EventCapturingSink<TKey, TValue>
                        FileEventWriter<TKey, TValue> writer, String prefix, int padding, String extension,
                        List<EventHeader> additionalHeaders,
                        List<Function<Event<TKey, TValue>, EventHeader>> additionalHeaderGenerators) {
+        this(destination, targetDirectory, writer, prefix, padding, extension, additionalHeaders,
+             additionalHeaderGenerators, -1);
+    }
+
+    /**
+     * Creates a new sink
+     *
+     * @param destination     Destination sink
+     * @param targetDirectory Target directory to which events will be written
+     * @param writer          Event writer
+     * @param prefix          Filename prefix
+     * @param padding         How many characters to pad the numeric portion of the generated filename to
+     * @param extension       Filename extension
+     * @param maxSegmentBytes Maximum segment size in bytes when capturing to a segmented event log, zero or negative
+     *                        to capture each event to its own file
+     */
+    EventCapturingSink(Sink<Event<TKey, TValue>> destination, File targetDirectory,
+                       FileEventWriter<TKey, TValue> writer, String prefix, int padding, String extension,
+                       List<EventHeader> additionalHeaders,
+                       List<Function<Event<TKey, TValue>, EventHeader>> additionalHeaderGenerators,
+                       long maxSegmentBytes) {
         super(destination);
         Objects.requireNonNull(targetDirectory, "Target directory cannot be null");
         Objects.requireNonNull(writer, "Event writer cannot be null");
@@ -94,6 +124,9 @@ public class EventCapturingSink<TKey, TValue>
         this.additionalHeaderGenerators =
                 additionalHeaderGenerators != null ? new ArrayList<>(additionalHeaderGenerators) :
                 Collections.emptyList();
+        this.segmentWriter = maxSegmentBytes > 0 ?
+                             new SegmentedEventWriter<>(targetDirectory, prefix, writer, maxSegmentBytes,
+                                                        SegmentedEventWriter.DEFAULT_INDEX_INTERVAL_BYTES) : null;
     }
 
     @Override
@@ -115,6 +148,11 @@ public class EventCapturingSink<TKey, TValue>
         }
 
         try {
+            if (this.segmentWriter != null) {
+                this.segmentWriter.append(event);
+                return event;
+            }
+
             // Prepare the next filename
             nextFileNumber++;
             StringBuilder filename = new StringBuilder();
@@ -134,9 +172,28 @@ public class EventCapturingSink<TKey, TValue>
         return event;
     }
 
+    @Override
+    public void flush() {
+        if (this.segmentWriter != null) {
+            try {
+                this.segmentWriter.flush();
+            } catch (IOException e) {
+                throw new SinkException(e);
+            }
+        }
+        super.flush();
+    }
+
     @Override
     public void close() {
         this.nextFileNumber = -1;
+        if (this.segmentWriter != null) {
+            try {
+                this.segmentWriter.close();
+            } catch (IOException e) {
+                throw new SinkException(e);
+            }
+        }
     }
 
     /**
@@ -166,6 +223,7 @@ public class EventCapturingSink<TKey, TValue>
         private FileEventWriter<TKey, TValue> writer;
         private final List<EventHeader> additionalHeaders = new ArrayList<>();
         private final List<Function<Event<TKey, TValue>, EventHeader>> additionalHeaderGenerators = new ArrayList<>();
+        private long maxSegmentBytes = -1;
 
         /**
          * Sets the target directory to which event files will be written
@@ -307,11 +365,36 @@ public class EventCapturingSink<TKey, TValue>
             return this;
         }
 
+        /**
+         * Sets the sink to capture events to a segmented event log, rolling over to a new segment once a segment
+         * reaches {@link SegmentedEventWriter#DEFAULT_MAX_SEGMENT_BYTES}
+         *
+         * @return Builder
+         */
+        public Builder<TKey, TValue> segmented() {
+            return segmented(SegmentedEventWriter.DEFAULT_MAX_SEGMENT_BYTES);
+        }
+
+        /**
+         * Sets the sink to capture events to a segmented event log, rather than capturing each event to its own file
+         * <p>
+         * In this mode the configured padding and extension are not used, segment files are named using the prefix
+         * followed by the offset of the first event within them.
+         * </p>
+         *
+         * @param maxSegmentBytes Size in bytes at which a segment is rolled over to a new segment
+         * @return Builder
+         */
+        public Builder<TKey, TValue> segmented(long maxSegmentBytes) {
+            this.maxSegmentBytes = maxSegmentBytes;
+            return this;
+        }
+
         @Override
         public EventCapturingSink<TKey, TValue> build() {
             return new EventCapturingSink<>(this.getDestination(), this.targetDirectory, this.writer, this.prefix,
                                             this.padding, this.extension, this.additionalHeaders,
-                                            this.additionalHeaderGenerators);
+                                            this.additionalHeaderGenerators, this.maxSegmentBytes);
         }
     }
 }
@@ -15,6 +15,8 @@
  */
 package io.telicent.smart.cache.sources.file;
 
+import io.telicent.smart.cache.sources.EventSource;
+import io.telicent.smart.cache.sources.file.segment.SegmentedEventSource;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serializer;
 
@@ -112,6 +114,31 @@ public interface FileEventFormatProvider {
         return createSource(keyDeserializer, valueDeserializer, source);
     }
 
+    /**
+     * Creates a new directory event source for the format that parses files asynchronously using a pool of parser
+     * threads, see {@link FileEventSource#FileEventSource(File, java.io.FileFilter, java.util.Comparator,
+     * FileEventReader, int, int)} for details
+     * <p>
+     * The default implementation ignores the parser pool configuration and creates an asynchronous source that uses
+     * the default configuration.
+     * </p>
+     *
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param source            Source directory
+     * @param parserThreads     Number of parser threads
+     * @param maxBufferedEvents Maximum number of parsed events to buffer
+     * @param <TKey>            Key type
+     * @param <TValue>          Value type
+     * @return Event source
+     */
+    default <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                      Deserializer<TValue> valueDeserializer,
+                                                                      File source, int parserThreads,
+                                                                      int maxBufferedEvents) {
+        return createSource(keyDeserializer, valueDeserializer, source, true);
+    }
+
     /**
      * Creates a new single file event source for the format
      *
@@ -144,4 +171,20 @@ public interface FileEventFormatProvider {
         return createSingleFileSource(keyDeserializer, valueDeserializer, source);
     }
 
+    /**
+     * Creates a new segmented event log source for the format i.e. a source that reads events, encoded in this format,
+     * from segment files written by a {@link io.telicent.smart.cache.sources.file.segment.SegmentedEventWriter}
+     *
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param source            Source directory containing the segments
+     * @param <TKey>            Key type
+     * @param <TValue>          Value type
+     * @return Event source
+     */
+    default <TKey, TValue> EventSource<TKey, TValue> createSegmentedSource(Deserializer<TKey> keyDeserializer,
+                                                                           Deserializer<TValue> valueDeserializer,
+                                                                           File source) {
+        return new SegmentedEventSource<>(source, createReader(keyDeserializer, valueDeserializer));
+    }
 }
@@ -27,7 +27,8 @@ import java.io.FileFilter;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * An event source where the events are files on disk in a directory
@@ -60,24 +61,41 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
         }
     }
 
-    private final Object stateLock = new Object();
+    /**
+     * The default number of parser threads used when parsing files asynchronously
+     */
+    public static final int DEFAULT_PARSER_THREADS = 1;
+    /**
+     * The default maximum number of parsed events that may be buffered when parsing files asynchronously
+     */
+    public static final int DEFAULT_MAX_BUFFERED_EVENTS = 1_000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition eventAvailable = this.lock.newCondition();
+    private final Condition windowAvailable = this.lock.newCondition();
     @ToString.Include
     private final File sourceDir;
     private final List<File> eventFiles = new ArrayList<>();
-    private final Queue<BufferedFileEvent<TKey, TValue>> bufferedEvents = new ArrayDeque<>();
     @ToString.Include
     private final FileEventReader<TKey, TValue> eventReader;
     @ToString.Include
     private final boolean asyncProcessing;
     @ToString.Include
+    private final int parserThreads;
+    @ToString.Include
     private final int totalEvents;
+    /**
+     * Ring of parsed events, indexed by the position of their file within {@link #eventFiles}, used to reassemble the
+     * events in file order regardless of the order in which the parser threads finish parsing them
+     */
+    private final BufferedFileEvent<TKey, TValue>[] window;
     @ToString.Include
-    private final AtomicInteger consumedEvents = new AtomicInteger();
+    private int nextEvent = 0;
+    private int nextToParse = 0;
+    private int interruptions = 0;
     @ToString.Include
     private volatile boolean closed = false;
-    @ToString.Include
-    private volatile boolean parsingComplete = false;
-    private Thread parserThread;
+    private final List<Thread> parsers = new ArrayList<>();
 
     /**
      * Creates a new file event source using the legacy synchronous per-poll parsing behaviour.
@@ -103,6 +121,35 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
      */
     public FileEventSource(File sourceDir, FileFilter eventFileFilter, Comparator<File> fileComparator,
                            FileEventReader<TKey, TValue> reader, boolean asyncProcessing) {
+        this(sourceDir, eventFileFilter, fileComparator, reader, asyncProcessing, DEFAULT_PARSER_THREADS,
+             DEFAULT_MAX_BUFFERED_EVENTS);
+    }
+
+    /**
+     * Creates a new file event source that parses files asynchronously using a pool of parser threads
+     * <p>
+     * Files are parsed concurrently but events are always returned in the order given by the file comparator.  At
+     * most {@code maxBufferedEvents} files are parsed ahead of the event that will next be returned, parsers wait for
+     * events to be consumed before parsing further files.  When more than one parser thread is used the file event
+     * reader <strong>MUST</strong> be thread-safe.
+     * </p>
+     *
+     * @param sourceDir         Source directory containing the events
+     * @param eventFileFilter   Filter used to identify files that represent events
+     * @param fileComparator    File comparator used to sort events into the desired order
+     * @param reader            File event reader to use to convert the files into events
+     * @param parserThreads     Number of parser threads
+     * @param maxBufferedEvents Maximum number of parsed events to buffer
+     */
+    public FileEventSource(File sourceDir, FileFilter eventFileFilter, Comparator<File> fileComparator,
+                           FileEventReader<TKey, TValue> reader, int parserThreads, int maxBufferedEvents) {
+        this(sourceDir, eventFileFilter, fileComparator, reader, true, parserThreads, maxBufferedEvents);
+    }
+
+    @SuppressWarnings("unchecked")
+    private FileEventSource(File sourceDir, FileFilter eventFileFilter, Comparator<File> fileComparator,
+                            FileEventReader<TKey, TValue> reader, boolean asyncProcessing, int parserThreads,
+                            int maxBufferedEvents) {
         Objects.requireNonNull(sourceDir, "Source directory cannot be null");
         Objects.requireNonNull(eventFileFilter, "Event filter filter cannot be null");
         Objects.requireNonNull(fileComparator, "File comparator cannot be null");
@@ -113,6 +160,12 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
         if (!sourceDir.isDirectory()) {
             throw new IllegalArgumentException(sourceDir.getAbsolutePath() + " is not a directory");
         }
+        if (parserThreads < 1) {
+            throw new IllegalArgumentException("Parser Threads must be >= 1");
+        }
+        if (maxBufferedEvents < 1) {
+            throw new IllegalArgumentException("Max Buffered Events must be >= 1");
+        }
         this.sourceDir = sourceDir;
         this.eventReader = reader;
         this.asyncProcessing = asyncProcessing;
@@ -120,52 +173,53 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
         this.eventFiles.addAll(obtainEventFiles(sourceDir, eventFileFilter));
         this.eventFiles.sort(fileComparator);
         this.totalEvents = this.eventFiles.size();
-        this.parsingComplete = !this.asyncProcessing && this.eventFiles.isEmpty();
+        this.parserThreads = this.asyncProcessing ? Math.min(parserThreads, Math.max(1, this.totalEvents)) : 0;
+        this.window = this.asyncProcessing ?
+                      new BufferedFileEvent[Math.min(maxBufferedEvents, Math.max(1, this.totalEvents))] : null;
 
-        if (this.asyncProcessing) {
-            if (this.eventFiles.isEmpty()) {
-                this.parsingComplete = true;
-            } else {
-                startParserThread();
-            }
+        if (this.asyncProcessing && this.totalEvents > 0) {
+            startParserThreads();
         }
     }
 
     @Override
     public boolean availableImmediately() {
-        synchronized (this.stateLock) {
-            if (this.closed) {
+        this.lock.lock();
+        try {
+            if (this.closed || this.nextEvent >= this.totalEvents) {
                 return false;
             }
-            return this.asyncProcessing ? !this.bufferedEvents.isEmpty() : !this.eventFiles.isEmpty();
+            return !this.asyncProcessing || this.window[this.nextEvent % this.window.length] != null;
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
     public boolean isExhausted() {
-        synchronized (this.stateLock) {
-            if (this.closed) {
-                return true;
-            }
-            if (!this.asyncProcessing) {
-                return this.eventFiles.isEmpty();
-            }
-            return this.parsingComplete && this.bufferedEvents.isEmpty();
+        this.lock.lock();
+        try {
+            return this.closed || this.nextEvent >= this.totalEvents;
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
     public void close() {
         this.closed = true;
-        synchronized (this.stateLock) {
+        this.lock.lock();
+        try {
             this.eventFiles.clear();
-            this.bufferedEvents.clear();
-            this.parsingComplete = true;
-            this.stateLock.notifyAll();
-        }
-        if (this.parserThread != null) {
-            this.parserThread.interrupt();
+            if (this.window != null) {
+                Arrays.fill(this.window, null);
+            }
+            this.eventAvailable.signalAll();
+            this.windowAvailable.signalAll();
+        } finally {
+            this.lock.unlock();
         }
+        this.parsers.forEach(Thread::interrupt);
     }
 
     @Override
@@ -184,11 +238,14 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
 
     private Event<TKey, TValue> pollSynchronously() {
         File nextFile;
-        synchronized (this.stateLock) {
-            if (this.eventFiles.isEmpty()) {
+        this.lock.lock();
+        try {
+            if (this.nextEvent >= this.totalEvents) {
                 return null;
             }
-            nextFile = this.eventFiles.remove(0);
+            nextFile = this.eventFiles.get(this.nextEvent++);
+        } finally {
+            this.lock.unlock();
         }
 
         return readEvent(nextFile);
@@ -196,38 +253,41 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
 
     private Event<TKey, TValue> pollAsync(Duration timeout) {
         BufferedFileEvent<TKey, TValue> bufferedEvent;
-        synchronized (this.stateLock) {
-            if (!this.bufferedEvents.isEmpty()) {
-                bufferedEvent = this.bufferedEvents.poll();
-            } else if (this.parsingComplete) {
-                return null;
-            } else {
-                long timeoutMillis = timeout.toMillis();
-                long start = System.currentTimeMillis();
-                while (!this.closed && this.bufferedEvents.isEmpty() && !this.parsingComplete) {
-                    long remainingWait = timeoutMillis - (System.currentTimeMillis() - start);
-                    if (remainingWait <= 0) {
-                        return null;
-                    }
-                    try {
-                        this.stateLock.wait(remainingWait);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return null;
-                    }
-                }
-
+        this.lock.lock();
+        try {
+            long remainingWait = timeout.toNanos();
+            int interruptedAt = this.interruptions;
+            int slot;
+            while (true) {
                 if (this.closed) {
                     throw new IllegalStateException("Event source is closed");
                 }
-                if (this.bufferedEvents.isEmpty()) {
+                if (this.nextEvent >= this.totalEvents) {
+                    return null;
+                }
+                slot = this.nextEvent % this.window.length;
+                if (this.window[slot] != null) {
+                    break;
+                }
+                if (remainingWait <= 0 || this.interruptions != interruptedAt) {
+                    return null;
+                }
+                try {
+                    remainingWait = this.eventAvailable.awaitNanos(remainingWait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                     return null;
                 }
-                bufferedEvent = this.bufferedEvents.poll();
             }
+
+            bufferedEvent = this.window[slot];
+            this.window[slot] = null;
+            this.nextEvent++;
+            this.windowAvailable.signalAll();
+        } finally {
+            this.lock.unlock();
         }
 
-        this.consumedEvents.incrementAndGet();
         if (bufferedEvent.error != null) {
             throw bufferedEvent.error;
         }
@@ -236,14 +296,14 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
 
     @Override
     public Long remaining() {
-        synchronized (this.stateLock) {
+        this.lock.lock();
+        try {
             if (this.closed) {
                 return 0L;
             }
-            if (!this.asyncProcessing) {
-                return (long) this.eventFiles.size();
-            }
-            return (long) Math.max(0, this.totalEvents - this.consumedEvents.get());
+            return (long) Math.max(0, this.totalEvents - this.nextEvent);
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -256,11 +316,14 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
 
     @Override
     public void interrupt() {
-        if (this.parserThread != null) {
-            this.parserThread.interrupt();
-        }
-        synchronized (this.stateLock) {
-            this.stateLock.notifyAll();
+        this.parsers.forEach(Thread::interrupt);
+        this.lock.lock();
+        try {
+            this.interruptions++;
+            this.eventAvailable.signalAll();
+            this.windowAvailable.signalAll();
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -279,36 +342,53 @@ public class FileEventSource<TKey, TValue> implements EventSource<TKey, TValue>
         return Collections.emptyList();
     }
 
-    private void startParserThread() {
-        this.parserThread = new Thread(this::runParser, "file-event-source-parser");
-        this.parserThread.setDaemon(true);
-        this.parserThread.start();
+    private void startParserThreads() {
+        for (int i = 0; i < this.parserThreads; i++) {
+            Thread parser = new Thread(this::runParser,
+                                       this.parserThreads == 1 ? "file-event-source-parser" :
+                                       "file-event-source-parser-" + (i + 1));
+            parser.setDaemon(true);
+            this.parsers.add(parser);
+        }
+        this.parsers.forEach(Thread::start);
     }
 
     private void runParser() {
-        try {
-            while (!this.closed) {
-                File nextFile;
-                synchronized (this.stateLock) {
-                    if (this.eventFiles.isEmpty()) {
-                        return;
+        while (true) {
+            int index;
+            File nextFile;
+            this.lock.lock();
+            try {
+                // Wait until the next file to parse falls within the window of events that may be buffered
+                while (!this.closed && this.nextToParse < this.totalEvents
+                       && this.nextToParse - this.nextEvent >= this.window.length) {
+                    try {
+                        this.windowAvailable.await();
+                    } catch (InterruptedException e) {
+                        // Interruptions only abort a wait, the loop condition determines whether to continue
                     }
-                    nextFile = this.eventFiles.remove(0);
                 }
-
-                BufferedFileEvent<TKey, TValue> bufferedEvent = readBufferedEvent(nextFile);
-                synchronized (this.stateLock) {
-                    if (this.closed) {
-                        return;
-                    }
-                    this.bufferedEvents.add(bufferedEvent);
-                    this.stateLock.notifyAll();
+                if (this.closed || this.nextToParse >= this.totalEvents) {
+                    return;
                 }
+                index = this.nextToParse++;
+                nextFile = this.eventFiles.get(index);
+            } finally {
+                this.lock.unlock();
             }
-        } finally {
-            synchronized (this.stateLock) {
-                this.parsingComplete = true;
-                this.stateLock.notifyAll();
+
+            BufferedFileEvent<TKey, TValue> bufferedEvent = readBufferedEvent(nextFile);
+            this.lock.lock();
+            try {
+                if (this.closed) {
+                    return;
+                }
+                this.window[index % this.window.length] = bufferedEvent;
+                if (index == this.nextEvent) {
+                    this.eventAvailable.signalAll();
+                }
+            } finally {
+                this.lock.unlock();
             }
         }
     }
@@ -0,0 +1,309 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.binary;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventHeader;
+import io.telicent.smart.cache.sources.RawHeader;
+import io.telicent.smart.cache.sources.file.FileEventAccessMode;
+import io.telicent.smart.cache.sources.file.kafka.AbstractKafkaDelegatingEventReaderWriter;
+import io.telicent.smart.cache.sources.kafka.sinks.KafkaSink;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import lombok.ToString;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A file event reader/writer that uses a compact length prefixed binary layout, optionally compressed with LZ4
+ * <p>
+ * Each event starts with the 4 byte magic {@code TEVB}, a version byte and a flags byte.  This is followed by the body
+ * of the event which holds the number of headers, then for each header its length prefixed UTF-8 key and raw value,
+ * then the length prefixed key bytes and finally the length prefixed value bytes, all lengths being 4 byte big endian
+ * integers with {@code -1} denoting a {@code null}.  Keys and values are the bytes produced by the configured Kafka
+ * serializers, so unlike the text based formats they are never re-encoded.  When the compressed flag is set the body is
+ * instead stored as a single LZ4 block preceded by its uncompressed and compressed lengths.  When reading, a declared
+ * uncompressed length greater than LZ4's maximum compression ratio permits for the compressed length is rejected.
+ * </p>
+ * <p>
+ * Compression only applies when writing, reading detects whether each event was compressed so an instance configured
+ * for reading can read events written either way.
+ * </p>
+ *
+ * @param <TKey>   Key type
+ * @param <TValue> Value type
+ */
+@ToString(callSuper = true)
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class BinaryEventReaderWriter<TKey, TValue> extends AbstractKafkaDelegatingEventReaderWriter<TKey, TValue> {
+
+    private static final byte[] MAGIC = "TEVB".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int FLAG_LZ4 = 1;
+    private static final int NULL_LENGTH = -1;
+    /**
+     * The maximum compression ratio an LZ4 block can achieve, a block can never decompress to more than this multiple of
+     * its compressed length
+     */
+    static final int MAX_LZ4_COMPRESSION_RATIO = 255;
+
+    private final boolean compress;
+
+    /**
+     * Creates a new binary event reader/writer
+     *
+     * @param mode              File event access mode
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param keySerializer     Key serializer
+     * @param valueSerializer   Value serializer
+     * @param compress          Whether to compress written events with LZ4
+     */
+    BinaryEventReaderWriter(FileEventAccessMode mode, Deserializer<TKey> keyDeserializer,
+                            Deserializer<TValue> valueDeserializer, Serializer<TKey> keySerializer,
+                            Serializer<TValue> valueSerializer, boolean compress) {
+        super(mode, keyDeserializer, valueDeserializer, keySerializer, valueSerializer);
+        this.compress = compress;
+    }
+
+    /**
+     * Creates a new binary event reader/writer
+     *
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param keySerializer     Key serializer
+     * @param valueSerializer   Value serializer
+     * @param compress          Whether to compress written events with LZ4
+     */
+    public BinaryEventReaderWriter(Deserializer<TKey> keyDeserializer, Deserializer<TValue> valueDeserializer,
+                                   Serializer<TKey> keySerializer, Serializer<TValue> valueSerializer,
+                                   boolean compress) {
+        this(FileEventAccessMode.ReadWrite, keyDeserializer, valueDeserializer, keySerializer, valueSerializer,
+             compress);
+    }
+
+    /**
+     * Creates a new binary event reader
+     *
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     */
+    public BinaryEventReaderWriter(Deserializer<TKey> keyDeserializer, Deserializer<TValue> valueDeserializer) {
+        this(FileEventAccessMode.ReadOnly, keyDeserializer, valueDeserializer, null, null, false);
+    }
+
+    /**
+     * Creates a new binary event writer
+     *
+     * @param keySerializer   Key serializer
+     * @param valueSerializer Value serializer
+     * @param compress        Whether to compress written events with LZ4
+     */
+    public BinaryEventReaderWriter(Serializer<TKey> keySerializer, Serializer<TValue> valueSerializer,
+                                   boolean compress) {
+        this(FileEventAccessMode.WriteOnly, null, null, keySerializer, valueSerializer, compress);
+    }
+
+    @Override
+    public Event<TKey, TValue> read(File f) throws IOException {
+        ensureReadsPermitted(this.mode);
+
+        try (InputStream input = new BufferedInputStream(new FileInputStream(f))) {
+            return read(input);
+        }
+    }
+
+    @Override
+    public Event<TKey, TValue> read(InputStream input) throws IOException {
+        ensureReadsPermitted(this.mode);
+
+        DataInputStream data = new DataInputStream(input);
+        byte[] magic = readBytes(data, MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary event, expected magic bytes not found");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary event version " + version);
+        }
+        int flags = data.readUnsignedByte();
+        if ((flags & FLAG_LZ4) != 0) {
+            data = new DataInputStream(new ByteArrayInputStream(decompress(data)));
+        }
+        return readBody(data);
+    }
+
+    private static byte[] decompress(DataInputStream data) throws IOException {
+        int uncompressedLength = data.readInt();
+        int compressedLength = data.readInt();
+        if (uncompressedLength < 0 || compressedLength < 0) {
+            throw new IOException("Invalid compressed block lengths");
+        }
+        // Don't trust the declared uncompressed length, a corrupt, or malicious, length could otherwise cause us to
+        // allocate an arbitrarily large buffer
+        long maxUncompressedLength = (long) compressedLength * MAX_LZ4_COMPRESSION_RATIO;
+        if (uncompressedLength > maxUncompressedLength) {
+            throw new IOException(
+                    "Declared uncompressed length " + uncompressedLength + " exceeds the maximum of " +
+                    maxUncompressedLength + " for a compressed block of " + compressedLength + " bytes");
+        }
+        byte[] compressed = readBytes(data, compressedLength);
+        byte[] uncompressed = new byte[uncompressedLength];
+        try {
+            LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+            if (decompressor.decompress(compressed, 0, uncompressed, 0, uncompressedLength) != compressedLength) {
+                throw new IOException("Compressed block length did not match its declared length");
+            }
+        } catch (LZ4Exception e) {
+            throw new IOException("Corrupt compressed block", e);
+        }
+        return uncompressed;
+    }
+
+    private Event<TKey, TValue> readBody(DataInputStream data) throws IOException {
+        int headerCount = data.readInt();
+        if (headerCount < 0) {
+            throw new IOException("Invalid header count " + headerCount);
+        }
+        List<EventHeader> headers = new ArrayList<>(Math.min(headerCount, 16));
+        for (int i = 0; i < headerCount; i++) {
+            byte[] key = readLengthPrefixed(data);
+            if (key == null) {
+                throw new IOException("Header keys cannot be null");
+            }
+            headers.add(new RawHeader(new String(key, StandardCharsets.UTF_8), readLengthPrefixed(data)));
+        }
+        byte[] rawKey = readLengthPrefixed(data);
+        byte[] rawValue = readLengthPrefixed(data);
+
+        Headers kafkaHeaders = new RecordHeaders(KafkaSink.toKafkaHeaders(headers.stream()));
+        TKey key = rawKey != null ? this.keyDeserializer.deserialize(FAKE_TOPIC_FILE, kafkaHeaders, rawKey) : null;
+        TValue value =
+                rawValue != null ? this.valueDeserializer.deserialize(FAKE_TOPIC_FILE, kafkaHeaders, rawValue) : null;
+        return new SimpleEvent<>(headers, key, value);
+    }
+
+    private static byte[] readLengthPrefixed(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        } else if (length < 0) {
+            throw new IOException("Invalid length " + length);
+        }
+        return readBytes(data, length);
+    }
+
+    private static byte[] readBytes(DataInputStream data, int length) throws IOException {
+        byte[] bytes = data.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Expected " + length + " bytes but only " + bytes.length + " bytes were available");
+        }
+        return bytes;
+    }
+
+    @Override
+    public void write(Event<TKey, TValue> event, File f) throws IOException {
+        ensureWritesPermitted(this.mode);
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(f))) {
+            write(event, output);
+        }
+    }
+
+    @Override
+    public void write(Event<TKey, TValue> event, OutputStream output) throws IOException {
+        ensureWritesPermitted(this.mode);
+
+        BodyBuffer body = new BodyBuffer();
+        writeBody(event, new DataOutputStream(body));
+
+        DataOutputStream data = new DataOutputStream(output);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(this.compress ? FLAG_LZ4 : 0);
+        if (this.compress) {
+            LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+            byte[] compressed = new byte[compressor.maxCompressedLength(body.size())];
+            int compressedLength = compressor.compress(body.buffer(), 0, body.size(), compressed, 0, compressed.length);
+            data.writeInt(body.size());
+            data.writeInt(compressedLength);
+            data.write(compressed, 0, compressedLength);
+        } else {
+            data.write(body.buffer(), 0, body.size());
+        }
+        data.flush();
+    }
+
+    private void writeBody(Event<TKey, TValue> event, DataOutputStream data) throws IOException {
+        List<EventHeader> headers = event.headers().toList();
+        data.writeInt(headers.size());
+        for (EventHeader header : headers) {
+            writeLengthPrefixed(data, header.key().getBytes(StandardCharsets.UTF_8));
+            writeLengthPrefixed(data, header.rawValue());
+        }
+
+        Headers kafkaHeaders = new RecordHeaders(KafkaSink.toKafkaHeaders(headers.stream()));
+        writeLengthPrefixed(data, event.key() != null ?
+                                  this.keySerializer.serialize(FAKE_TOPIC_FILE, kafkaHeaders, event.key()) : null);
+        writeLengthPrefixed(data, event.value() != null ?
+                                  this.valueSerializer.serialize(FAKE_TOPIC_FILE, kafkaHeaders, event.value()) :
+                                  null);
+    }
+
+    private static void writeLengthPrefixed(DataOutputStream data, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            data.writeInt(NULL_LENGTH);
+        } else {
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+    }
+
+    /**
+     * Gets whether this instance compresses the events it writes
+     *
+     * @return True if compressing, false otherwise
+     */
+    public boolean isCompressing() {
+        return this.compress;
+    }
+
+    /**
+     * A byte array output stream that exposes its internal buffer so the body can be written, or compressed, without
+     * an additional copy
+     */
+    private static final class BodyBuffer extends ByteArrayOutputStream {
+        private BodyBuffer() {
+            super(1024);
+        }
+
+        private byte[] buffer() {
+            return this.buf;
+        }
+    }
+}
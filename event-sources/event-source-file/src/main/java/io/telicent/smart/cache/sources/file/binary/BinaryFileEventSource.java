@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.binary;
+
+import io.telicent.smart.cache.sources.file.FileEventSource;
+import io.telicent.smart.cache.sources.file.NumericFilenameComparator;
+import io.telicent.smart.cache.sources.file.NumericallyNamedWithExtensionFilter;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.File;
+import java.io.FileFilter;
+
+/**
+ * A file event source where the files are encoded with the binary event format, compressed or otherwise
+ *
+ * @param <TKey>   Key type
+ * @param <TValue> Value type
+ */
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class BinaryFileEventSource<TKey, TValue> extends FileEventSource<TKey, TValue> {
+    /**
+     * The default file filter used to select binary event files
+     */
+    public static final FileFilter BINARY_FILTER = new NumericallyNamedWithExtensionFilter(BinaryFormat.EXTENSION);
+
+    /**
+     * Creates a new file event source
+     *
+     * @param sourceDir         Source directory containing the events
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     */
+    public BinaryFileEventSource(File sourceDir, Deserializer<TKey> keyDeserializer,
+                                 Deserializer<TValue> valueDeserializer) {
+        this(sourceDir, keyDeserializer, valueDeserializer, false);
+    }
+
+    /**
+     * Creates a new file event source
+     *
+     * @param sourceDir         Source directory containing the events
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param asyncProcessing   Whether to parse event files asynchronously in a background thread
+     */
+    public BinaryFileEventSource(File sourceDir, Deserializer<TKey> keyDeserializer,
+                                 Deserializer<TValue> valueDeserializer, boolean asyncProcessing) {
+        super(sourceDir, BINARY_FILTER, new NumericFilenameComparator(),
+              new BinaryEventReaderWriter<>(keyDeserializer, valueDeserializer), asyncProcessing);
+    }
+
+    /**
+     * Creates a new file event source that parses event files asynchronously using a pool of parser threads
+     *
+     * @param sourceDir         Source directory containing the events
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param parserThreads     Number of parser threads
+     * @param maxBufferedEvents Maximum number of parsed events to buffer
+     */
+    public BinaryFileEventSource(File sourceDir, Deserializer<TKey> keyDeserializer,
+                                 Deserializer<TValue> valueDeserializer, int parserThreads, int maxBufferedEvents) {
+        super(sourceDir, BINARY_FILTER, new NumericFilenameComparator(),
+              new BinaryEventReaderWriter<>(keyDeserializer, valueDeserializer), parserThreads, maxBufferedEvents);
+    }
+}
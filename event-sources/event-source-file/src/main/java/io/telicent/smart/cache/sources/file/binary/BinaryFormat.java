@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.binary;
+
+import io.telicent.smart.cache.sources.file.*;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.File;
+
+/**
+ * Binary file event format provider, see {@link BinaryEventReaderWriter} for details of the format
+ */
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings({"java:S1845", "java:S119"})
+public class BinaryFormat implements FileEventFormatProvider {
+
+    /**
+     * Name of the binary event format
+     */
+    public static final String NAME = "binary";
+
+    /**
+     * File extension used for binary event files, whether compressed or not
+     */
+    public static final String EXTENSION = ".bin";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Gets whether events written in this format are compressed
+     *
+     * @return True if compressed, false otherwise
+     */
+    protected boolean compress() {
+        return false;
+    }
+
+    @Override
+    public <TKey, TValue> FileEventReader<TKey, TValue> createReader(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer) {
+        return new BinaryEventReaderWriter<>(keyDeserializer, valueDeserializer);
+    }
+
+    @Override
+    public <TKey, TValue> FileEventWriter<TKey, TValue> createWriter(Serializer<TKey> keySerializer,
+                                                                     Serializer<TValue> valueSerializer) {
+        return new BinaryEventReaderWriter<>(keySerializer, valueSerializer, compress());
+    }
+
+    @Override
+    public <TKey, TValue> FileEventReaderWriter<TKey, TValue> createReaderWriter(Deserializer<TKey> keyDeserializer,
+                                                                                 Deserializer<TValue> valueDeserializer,
+                                                                                 Serializer<TKey> keySerializer,
+                                                                                 Serializer<TValue> valueSerializer) {
+        return new BinaryEventReaderWriter<>(keyDeserializer, valueDeserializer, keySerializer, valueSerializer,
+                                             compress());
+    }
+
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer,
+                                                                     File source) {
+        return new BinaryFileEventSource<>(source, keyDeserializer, valueDeserializer);
+    }
+
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer,
+                                                                     File source,
+                                                                     boolean asyncProcessing) {
+        return new BinaryFileEventSource<>(source, keyDeserializer, valueDeserializer, asyncProcessing);
+    }
+
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer,
+                                                                     File source, int parserThreads,
+                                                                     int maxBufferedEvents) {
+        return new BinaryFileEventSource<>(source, keyDeserializer, valueDeserializer, parserThreads,
+                                           maxBufferedEvents);
+    }
+
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSingleFileSource(Deserializer<TKey> keyDeserializer,
+                                                                               Deserializer<TValue> valueDeserializer,
+                                                                               File source) {
+        return new SingleFileEventSource<>(source, new BinaryEventReaderWriter<>(keyDeserializer, valueDeserializer));
+    }
+
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSingleFileSource(Deserializer<TKey> keyDeserializer,
+                                                                                Deserializer<TValue> valueDeserializer,
+                                                                                File source,
+                                                                                boolean asyncProcessing) {
+        return new SingleFileEventSource<>(source, new BinaryEventReaderWriter<>(keyDeserializer, valueDeserializer),
+                                           asyncProcessing);
+    }
+
+    @Override
+    public String defaultFileExtension() {
+        return EXTENSION;
+    }
+}
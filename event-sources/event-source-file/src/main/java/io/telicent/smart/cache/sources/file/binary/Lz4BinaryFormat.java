@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.binary;
+
+/**
+ * LZ4 compressed binary file event format provider
+ * <p>
+ * This differs from the {@link BinaryFormat} only in that events are written compressed, as both formats detect
+ * compression when reading events either format can read files written by the other.
+ * </p>
+ */
+public class Lz4BinaryFormat extends BinaryFormat {
+
+    /**
+     * Name of the LZ4 compressed binary event format
+     */
+    public static final String NAME = "binary-lz4";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    protected boolean compress() {
+        return true;
+    }
+}
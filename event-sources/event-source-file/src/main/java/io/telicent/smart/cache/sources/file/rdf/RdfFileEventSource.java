@@ -52,4 +52,20 @@ public class RdfFileEventSource<TKey, TValue> extends FileEventSource<TKey, TVal
         super(sourceDir, new NumericallyNamedRdfFilter(), new NumericFilenameComparator(),
               new RdfEventReaderWriter<>(keyDeserializer, valueDeserializer), asyncProcessing);
     }
+
+    /**
+     * Creates a new file event source that reads RDF files directly, parsing them asynchronously using a pool of
+     * parser threads
+     *
+     * @param sourceDir         Source directory containing the RDF files to treat as events
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param parserThreads     Number of parser threads
+     * @param maxBufferedEvents Maximum number of parsed events to buffer
+     */
+    public RdfFileEventSource(File sourceDir, Deserializer<TKey> keyDeserializer,
+                              Deserializer<TValue> valueDeserializer, int parserThreads, int maxBufferedEvents) {
+        super(sourceDir, new NumericallyNamedRdfFilter(), new NumericFilenameComparator(),
+              new RdfEventReaderWriter<>(keyDeserializer, valueDeserializer), parserThreads, maxBufferedEvents);
+    }
 }
@@ -73,6 +73,15 @@ public class RdfFormat implements FileEventFormatProvider {
         return new RdfFileEventSource<>(source, keyDeserializer, valueDeserializer, asyncProcessing);
     }
 
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer,
+                                                                     File source, int parserThreads,
+                                                                     int maxBufferedEvents) {
+        return new RdfFileEventSource<>(source, keyDeserializer, valueDeserializer, parserThreads,
+                                        maxBufferedEvents);
+    }
+
     @Override
     public <TKey, TValue> FileEventSource<TKey, TValue> createSingleFileSource(Deserializer<TKey> keyDeserializer,
                                                                                Deserializer<TValue> valueDeserializer,
@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.segment;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Constants and helpers describing the on-disk layout of segmented event logs
+ * <p>
+ * A segmented event log is a directory of segment files, each holding many events appended one after another, and a
+ * sparse index file alongside each segment.  A segment file begins with a header holding {@link #SEGMENT_MAGIC}, the
+ * format {@link #VERSION} and the offset of the first event within the segment i.e. its base offset.  This is then
+ * followed by a sequence of records, each record is a 4 byte length, a 4 byte CRC32C checksum of the record payload,
+ * and then the payload itself which is the event encoded by a {@link io.telicent.smart.cache.sources.file.FileEventWriter}.
+ * </p>
+ * <p>
+ * The index file is a sequence of fixed size entries, each holding an 8 byte event offset and the 4 byte position
+ * within the segment of the record for that event.  Entries are only written periodically, so the index is sparse, it
+ * allows a reader to seek close to a desired offset and to count the events in a segment without reading all of it.
+ * </p>
+ */
+public final class SegmentFiles {
+
+    private SegmentFiles() {
+        // Constants and helpers only
+    }
+
+    /**
+     * Magic bytes at the start of every segment file
+     */
+    static final byte[] SEGMENT_MAGIC = new byte[] { 'T', 'S', 'E', 'G' };
+    /**
+     * Current format version
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the segment file header in bytes
+     */
+    static final int HEADER_SIZE = SEGMENT_MAGIC.length + Integer.BYTES + Long.BYTES;
+    /**
+     * Size of the header of each record in bytes
+     */
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    /**
+     * Size of each index entry in bytes
+     */
+    static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Default file extension for segment files
+     */
+    public static final String SEGMENT_EXTENSION = ".seg";
+    /**
+     * Default file extension for index files
+     */
+    public static final String INDEX_EXTENSION = ".idx";
+    /**
+     * Number of digits the base offset is padded to in segment filenames
+     */
+    static final int OFFSET_DIGITS = 20;
+
+    /**
+     * Gets the filename for a segment
+     *
+     * @param prefix     Filename prefix
+     * @param baseOffset Base offset of the segment
+     * @param extension  Filename extension
+     * @return Filename
+     */
+    static String filename(String prefix, long baseOffset, String extension) {
+        String offset = Long.toString(baseOffset);
+        return (prefix != null ? prefix : "") + "0".repeat(Math.max(0, OFFSET_DIGITS - offset.length())) + offset
+               + extension;
+    }
+
+    /**
+     * Gets the index file for a segment file
+     *
+     * @param segment Segment file
+     * @return Index file
+     */
+    static File indexFor(File segment) {
+        String name = segment.getName();
+        if (name.endsWith(SEGMENT_EXTENSION)) {
+            name = name.substring(0, name.length() - SEGMENT_EXTENSION.length());
+        }
+        return new File(segment.getParentFile(), name + INDEX_EXTENSION);
+    }
+
+    /**
+     * Reads and validates the header of a segment file
+     *
+     * @param segment Segment file
+     * @return Base offset of the segment
+     * @throws IOException Thrown if the file cannot be read, or is not a segment file
+     */
+    static long readHeader(File segment) throws IOException {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(segment))) {
+            byte[] magic = new byte[SEGMENT_MAGIC.length];
+            input.readFully(magic);
+            if (!Arrays.equals(magic, SEGMENT_MAGIC)) {
+                throw new IOException(segment.getAbsolutePath() + " is not an event segment file");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException(
+                        segment.getAbsolutePath() + " has unsupported event segment format version " + version);
+            }
+            return input.readLong();
+        } catch (EOFException e) {
+            throw new IOException(segment.getAbsolutePath() + " is not an event segment file", e);
+        }
+    }
+
+    /**
+     * Writes the header of a segment file
+     *
+     * @param output     Output stream
+     * @param baseOffset Base offset of the segment
+     * @throws IOException Thrown if the header cannot be written
+     */
+    static void writeHeader(DataOutputStream output, long baseOffset) throws IOException {
+        output.write(SEGMENT_MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(baseOffset);
+    }
+
+    /**
+     * Reads the entries of an index file, ignoring any trailing partial entry
+     *
+     * @param index Index file
+     * @return Index entries, empty if the index file does not exist
+     * @throws IOException Thrown if the index file cannot be read
+     */
+    static List<IndexEntry> readIndex(File index) throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        if (!index.exists()) {
+            return entries;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index.toPath()));
+        while (buffer.remaining() >= INDEX_ENTRY_SIZE) {
+            entries.add(new IndexEntry(buffer.getLong(), buffer.getInt()));
+        }
+        return entries;
+    }
+
+    /**
+     * An entry in a segment index
+     *
+     * @param offset   Event offset
+     * @param position Position of the record for the event within the segment file
+     */
+    record IndexEntry(long offset, int position) {
+    }
+}
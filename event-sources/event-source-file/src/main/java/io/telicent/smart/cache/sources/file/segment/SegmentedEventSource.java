@@ -0,0 +1,326 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.segment;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventSource;
+import io.telicent.smart.cache.sources.EventSourceException;
+import io.telicent.smart.cache.sources.file.FileEventReader;
+import lombok.ToString;
+import org.apache.jena.atlas.logging.FmtLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * An event source that reads events from a segmented event log, as written by a {@link SegmentedEventWriter}
+ * <p>
+ * Each segment is memory mapped when it is reached and its records read sequentially, so replaying a log requires only
+ * one file open per segment rather than one per event, and sequential access allows the operating system to read ahead
+ * of the records being decoded.  The events within each record are decoded using the supplied
+ * {@link FileEventReader}, which must be able to read an event from an {@link java.io.InputStream}.
+ * </p>
+ * <p>
+ * Like the {@link io.telicent.smart.cache.sources.file.FileEventSource} the segments are discovered <strong>ONCE</strong>
+ * when the source is created, and the source is exhausted once all of those segments have been read.  If the final
+ * record of the final segment is incomplete, e.g. because the writer was not cleanly closed, then it is ignored.
+ * </p>
+ *
+ * @param <TKey>   Key type
+ * @param <TValue> Value type
+ */
+@ToString(onlyExplicitlyIncluded = true)
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class SegmentedEventSource<TKey, TValue> implements EventSource<TKey, TValue> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedEventSource.class);
+
+    private record Segment(File file, long baseOffset) {
+    }
+
+    private final Object stateLock = new Object();
+    @ToString.Include
+    private final File sourceDir;
+    private final FileEventReader<TKey, TValue> eventReader;
+    private final List<Segment> segments = new ArrayList<>();
+    private final CRC32C checksum = new CRC32C();
+    @ToString.Include
+    private final long totalEvents;
+    @ToString.Include
+    private long nextOffset;
+    private int segmentIndex = -1;
+    private ByteBuffer segmentBuffer;
+    @ToString.Include
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a new segmented event source that reads from the start of the log
+     *
+     * @param sourceDir Source directory containing the segments
+     * @param reader    File event reader used to decode each event
+     */
+    public SegmentedEventSource(File sourceDir, FileEventReader<TKey, TValue> reader) {
+        this(sourceDir, reader, 0);
+    }
+
+    /**
+     * Creates a new segmented event source that reads from the given offset within the log
+     * <p>
+     * The segment indexes are used to seek to the nearest indexed record at or before the offset, so only a small
+     * number of records need be skipped to reach it.
+     * </p>
+     *
+     * @param sourceDir   Source directory containing the segments
+     * @param reader      File event reader used to decode each event
+     * @param startOffset Offset of the first event to read
+     */
+    public SegmentedEventSource(File sourceDir, FileEventReader<TKey, TValue> reader, long startOffset) {
+        Objects.requireNonNull(sourceDir, "Source directory cannot be null");
+        Objects.requireNonNull(reader, "File event reader cannot be null");
+        if (!sourceDir.exists()) {
+            throw new IllegalArgumentException("No such directory " + sourceDir.getAbsolutePath());
+        }
+        if (!sourceDir.isDirectory()) {
+            throw new IllegalArgumentException(sourceDir.getAbsolutePath() + " is not a directory");
+        }
+        if (startOffset < 0) {
+            throw new IllegalArgumentException("Start Offset must be >= 0");
+        }
+        this.sourceDir = sourceDir;
+        this.eventReader = reader;
+
+        File[] files = sourceDir.listFiles(f -> f.isFile() && f.getName().endsWith(SegmentFiles.SEGMENT_EXTENSION));
+        for (File file : files != null ? files : new File[0]) {
+            try {
+                this.segments.add(new Segment(file, SegmentFiles.readHeader(file)));
+            } catch (IOException e) {
+                throw new EventSourceException("Failed to read event segment " + file.getAbsolutePath(), e);
+            }
+        }
+        this.segments.sort(Comparator.comparingLong(Segment::baseOffset));
+        this.totalEvents = this.segments.isEmpty() ? 0 : countEvents(this.segments.get(this.segments.size() - 1));
+
+        seek(startOffset);
+    }
+
+    /**
+     * Counts the events in the log, this is the base offset of the final segment plus the number of complete records
+     * it contains, using its index to avoid reading all of it
+     *
+     * @param last Final segment
+     * @return Total events
+     */
+    private long countEvents(Segment last) {
+        ByteBuffer buffer = map(last);
+        long count = positionFromIndex(last, buffer, Long.MAX_VALUE);
+        while (skipRecord(buffer)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Positions the buffer at the latest indexed record whose offset is at or before the given offset
+     *
+     * @param segment Segment
+     * @param buffer  Buffer for the segment
+     * @param offset  Desired offset
+     * @return Offset of the record the buffer is now positioned at
+     */
+    private static long positionFromIndex(Segment segment, ByteBuffer buffer, long offset) {
+        long indexedOffset = segment.baseOffset();
+        try {
+            for (SegmentFiles.IndexEntry entry : SegmentFiles.readIndex(SegmentFiles.indexFor(segment.file()))) {
+                if (entry.offset() > offset || entry.position() < SegmentFiles.HEADER_SIZE
+                    || entry.position() > buffer.limit()) {
+                    break;
+                }
+                indexedOffset = entry.offset();
+                buffer.position(entry.position());
+            }
+        } catch (IOException e) {
+            FmtLog.warn(LOGGER, "Failed to read index for event segment %s, reading the whole segment instead: %s",
+                        segment.file().getAbsolutePath(), e.getMessage());
+            buffer.position(SegmentFiles.HEADER_SIZE);
+            indexedOffset = segment.baseOffset();
+        }
+        return indexedOffset;
+    }
+
+    private void seek(long offset) {
+        if (offset >= this.totalEvents) {
+            this.segmentIndex = this.segments.size();
+            this.nextOffset = this.totalEvents;
+            return;
+        }
+        int i = this.segments.size() - 1;
+        while (i > 0 && this.segments.get(i).baseOffset() > offset) {
+            i--;
+        }
+        this.segmentIndex = i;
+        this.segmentBuffer = map(this.segments.get(i));
+        this.nextOffset = positionFromIndex(this.segments.get(i), this.segmentBuffer, offset);
+        while (this.nextOffset < offset && skipRecord(this.segmentBuffer)) {
+            this.nextOffset++;
+        }
+    }
+
+    /**
+     * Skips over the next record in the buffer if it is complete
+     *
+     * @param buffer Buffer
+     * @return True if a record was skipped, false if there are no further complete records
+     */
+    private static boolean skipRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < SegmentFiles.RECORD_HEADER_SIZE) {
+            return false;
+        }
+        int length = buffer.getInt(buffer.position());
+        if (length < 0 || length > buffer.remaining() - SegmentFiles.RECORD_HEADER_SIZE) {
+            return false;
+        }
+        buffer.position(buffer.position() + SegmentFiles.RECORD_HEADER_SIZE + length);
+        return true;
+    }
+
+    private static ByteBuffer map(Segment segment) {
+        try (FileChannel channel = FileChannel.open(segment.file().toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(SegmentFiles.HEADER_SIZE);
+            return buffer;
+        } catch (IOException e) {
+            throw new EventSourceException("Failed to read event segment " + segment.file().getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public boolean availableImmediately() {
+        synchronized (this.stateLock) {
+            return !this.closed && this.nextOffset < this.totalEvents;
+        }
+    }
+
+    @Override
+    public boolean isExhausted() {
+        synchronized (this.stateLock) {
+            return this.closed || this.nextOffset >= this.totalEvents;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        synchronized (this.stateLock) {
+            this.segmentBuffer = null;
+            this.segmentIndex = this.segments.size();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public Event<TKey, TValue> poll(Duration timeout) {
+        if (this.closed) {
+            throw new IllegalStateException("Event source is closed");
+        }
+
+        byte[] record;
+        long offset;
+        Segment segment;
+        synchronized (this.stateLock) {
+            if (this.nextOffset >= this.totalEvents) {
+                return null;
+            }
+            while (this.segmentBuffer == null || !this.segmentBuffer.hasRemaining()) {
+                this.segmentIndex++;
+                if (this.segmentIndex >= this.segments.size()) {
+                    this.nextOffset = this.totalEvents;
+                    return null;
+                }
+                this.segmentBuffer = map(this.segments.get(this.segmentIndex));
+                this.nextOffset = this.segments.get(this.segmentIndex).baseOffset();
+            }
+            segment = this.segments.get(this.segmentIndex);
+            offset = this.nextOffset;
+            try {
+                record = nextRecord(segment, offset);
+            } finally {
+                // NB - Always advance the offset, even if the record was corrupt, since the buffer has moved past it
+                this.nextOffset++;
+            }
+        }
+
+        try {
+            return this.eventReader.read(new ByteArrayInputStream(record));
+        } catch (IOException e) {
+            throw new EventSourceException(
+                    "Failed to parse an Event at offset " + offset + " from event segment " + segment.file()
+                                                                                                 .getAbsolutePath(),
+                    e);
+        } catch (Exception e) {
+            throw new EventSourceException(
+                    "Invalid Event at offset " + offset + " in event segment " + segment.file().getAbsolutePath(), e);
+        }
+    }
+
+    private byte[] nextRecord(Segment segment, long offset) {
+        ByteBuffer buffer = this.segmentBuffer;
+        int length = buffer.remaining() >= SegmentFiles.RECORD_HEADER_SIZE ? buffer.getInt() : -1;
+        if (length < 0 || length > buffer.remaining() - Integer.BYTES) {
+            // Can't continue reading this segment, so move onto the next segment, if any, before failing
+            this.segmentBuffer = null;
+            throw new EventSourceException(
+                    "Truncated record at offset " + offset + " in event segment " + segment.file().getAbsolutePath());
+        }
+        int expectedChecksum = buffer.getInt();
+        byte[] record = new byte[length];
+        buffer.get(record);
+        this.checksum.reset();
+        this.checksum.update(record);
+        if ((int) this.checksum.getValue() != expectedChecksum) {
+            throw new EventSourceException(
+                    "Corrupt record at offset " + offset + " in event segment " + segment.file().getAbsolutePath());
+        }
+        return record;
+    }
+
+    @Override
+    public Long remaining() {
+        synchronized (this.stateLock) {
+            return this.closed ? 0L : Math.max(0, this.totalEvents - this.nextOffset);
+        }
+    }
+
+    @Override
+    public void processed(Collection<Event<?, ?>> processedEvents) {
+        // No-op
+        LOGGER.trace("Received {} processed events in processed() callback, this is ignored by the SegmentedEventSource",
+                     processedEvents.size());
+    }
+}
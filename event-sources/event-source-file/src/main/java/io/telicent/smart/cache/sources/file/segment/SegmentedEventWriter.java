@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.segment;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.file.FileEventWriter;
+import lombok.ToString;
+
+import java.io.*;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes events to a segmented event log, appending many events to each segment file and rolling over to a new segment
+ * file once a segment reaches a configured size
+ * <p>
+ * Each event is encoded using the supplied {@link FileEventWriter}, so any existing event file format may be used to
+ * encode the events within the segments.  See {@link SegmentFiles} for details of the on-disk layout.  Events may be
+ * read back using a {@link SegmentedEventSource}.
+ * </p>
+ * <p>
+ * This class is <strong>NOT</strong> thread-safe.
+ * </p>
+ *
+ * @param <TKey>   Key type
+ * @param <TValue> Value type
+ */
+@ToString(onlyExplicitlyIncluded = true)
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class SegmentedEventWriter<TKey, TValue> implements Closeable, Flushable {
+
+    /**
+     * Default maximum segment size in bytes
+     */
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+    /**
+     * Largest permitted maximum segment size in bytes, this ensures that segments can be memory mapped when read
+     */
+    public static final long MAX_SEGMENT_BYTES = 1L << 30;
+    /**
+     * Default number of bytes between index entries
+     */
+    public static final int DEFAULT_INDEX_INTERVAL_BYTES = 4096;
+
+    @ToString.Include
+    private final File directory;
+    @ToString.Include
+    private final String prefix;
+    @ToString.Include
+    private final long maxSegmentBytes;
+    @ToString.Include
+    private final int indexIntervalBytes;
+    private final FileEventWriter<TKey, TValue> writer;
+    private final EncodingBuffer encoded = new EncodingBuffer();
+    private final CRC32C checksum = new CRC32C();
+
+    private DataOutputStream segment;
+    private DataOutputStream index;
+    private long segmentBytes;
+    private long bytesSinceIndexEntry;
+    @ToString.Include
+    private long nextOffset;
+    @ToString.Include
+    private int segmentsWritten;
+
+    /**
+     * Creates a new segmented event writer
+     * <p>
+     * Since a {@link SegmentedEventSource} reads every segment within a directory the directory <strong>MUST</strong>
+     * either not exist, or be empty, otherwise the events written would be interleaved with whatever was already present
+     * in the directory when it is read back.
+     * </p>
+     *
+     * @param directory          Directory to write segments to, created if it does not exist, must be empty if it
+     *                           already exists
+     * @param prefix             Filename prefix for segment files
+     * @param writer             Event writer used to encode each event
+     * @param maxSegmentBytes    Size at which a segment is rolled over to a new segment
+     * @param indexIntervalBytes Approximate number of bytes of records between index entries
+     */
+    public SegmentedEventWriter(File directory, String prefix, FileEventWriter<TKey, TValue> writer,
+                                long maxSegmentBytes, int indexIntervalBytes) {
+        Objects.requireNonNull(directory, "Directory cannot be null");
+        Objects.requireNonNull(writer, "Event writer cannot be null");
+        if (maxSegmentBytes < 1 || maxSegmentBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Max Segment Bytes must be in the range 1 to " + MAX_SEGMENT_BYTES);
+        }
+        if (indexIntervalBytes < 1) {
+            throw new IllegalArgumentException("Index Interval Bytes must be >= 1");
+        }
+        if (directory.exists()) {
+            if (!directory.isDirectory()) {
+                throw new IllegalArgumentException(directory.getAbsolutePath() + " is not a directory");
+            }
+            String[] existing = directory.list();
+            if (existing != null && existing.length > 0) {
+                throw new IllegalArgumentException(
+                        "Directory " + directory.getAbsolutePath() + " is not empty, segmented event logs must be " +
+                        "written to an empty directory");
+            }
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.writer = writer;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+    }
+
+    /**
+     * Appends an event to the log, rolling over to a new segment first if the current segment is full
+     *
+     * @param event Event
+     * @return Offset of the event within the log
+     * @throws IOException Thrown if the event cannot be encoded or written
+     */
+    public long append(Event<TKey, TValue> event) throws IOException {
+        this.encoded.reset();
+        this.writer.write(event, this.encoded);
+        int length = this.encoded.size();
+        if (length > MAX_SEGMENT_BYTES) {
+            throw new IOException("Encoded event of " + length + " bytes exceeds the maximum segment size");
+        }
+
+        // Roll over to a new segment if the record won't fit in the current segment, though a segment always gets at
+        // least one record so that records larger than the configured segment size can still be written
+        long recordSize = SegmentFiles.RECORD_HEADER_SIZE + (long) length;
+        if (this.segment == null || (this.segmentBytes > SegmentFiles.HEADER_SIZE
+                                     && this.segmentBytes + recordSize > this.maxSegmentBytes)) {
+            roll();
+        }
+
+        // Periodically index the position of the record we're about to write
+        if (this.bytesSinceIndexEntry >= this.indexIntervalBytes) {
+            this.index.writeLong(this.nextOffset);
+            this.index.writeInt((int) this.segmentBytes);
+            this.bytesSinceIndexEntry = 0;
+        }
+
+        this.checksum.reset();
+        this.checksum.update(this.encoded.buffer(), 0, length);
+        this.segment.writeInt(length);
+        this.segment.writeInt((int) this.checksum.getValue());
+        this.encoded.writeTo(this.segment);
+        this.segmentBytes += recordSize;
+        this.bytesSinceIndexEntry += recordSize;
+        return this.nextOffset++;
+    }
+
+    private void roll() throws IOException {
+        closeSegment();
+        if (!this.directory.exists() && !this.directory.mkdirs()) {
+            throw new IOException("Failed to create directory " + this.directory.getAbsolutePath());
+        }
+        File segmentFile = new File(this.directory,
+                                    SegmentFiles.filename(this.prefix, this.nextOffset,
+                                                          SegmentFiles.SEGMENT_EXTENSION));
+        this.segment = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segmentFile), 64 * 1024));
+        this.index = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(SegmentFiles.indexFor(segmentFile))));
+        SegmentFiles.writeHeader(this.segment, this.nextOffset);
+        this.segmentBytes = SegmentFiles.HEADER_SIZE;
+        this.bytesSinceIndexEntry = 0;
+        this.segmentsWritten++;
+    }
+
+    private void closeSegment() throws IOException {
+        try {
+            if (this.segment != null) {
+                this.segment.close();
+            }
+        } finally {
+            this.segment = null;
+            if (this.index != null) {
+                this.index.close();
+                this.index = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the offset that the next event appended will be given
+     *
+     * @return Next offset
+     */
+    public long getNextOffset() {
+        return this.nextOffset;
+    }
+
+    /**
+     * Gets how many segments have been written, including the current segment
+     *
+     * @return Segments written
+     */
+    public int getSegmentsWritten() {
+        return this.segmentsWritten;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.segment != null) {
+            this.segment.flush();
+            this.index.flush();
+        }
+    }
+
+    /**
+     * Closes the current segment, if any further events are appended then they are written to a new segment
+     *
+     * @throws IOException Thrown if the current segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    /**
+     * A byte array output stream that exposes its buffer, avoiding copying each encoded event
+     */
+    private static final class EncodingBuffer extends ByteArrayOutputStream {
+        private byte[] buffer() {
+            return this.buf;
+        }
+    }
+}
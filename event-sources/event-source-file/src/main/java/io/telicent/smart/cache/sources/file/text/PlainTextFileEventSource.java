@@ -58,4 +58,18 @@ public class PlainTextFileEventSource<TKey, TValue> extends FileEventSource<TKey
         super(sourceDir, PLAINTEXT_FILTER, new NumericFilenameComparator(),
               new PlainTextEventReaderWriter<>(valueDeserializer), asyncProcessing);
     }
+
+    /**
+     * Creates a new file event source that parses event files asynchronously using a pool of parser threads
+     *
+     * @param sourceDir         Source directory containing the events
+     * @param valueDeserializer Value deserializer
+     * @param parserThreads     Number of parser threads
+     * @param maxBufferedEvents Maximum number of parsed events to buffer
+     */
+    public PlainTextFileEventSource(File sourceDir, Deserializer<TValue> valueDeserializer, int parserThreads,
+                                    int maxBufferedEvents) {
+        super(sourceDir, PLAINTEXT_FILTER, new NumericFilenameComparator(),
+              new PlainTextEventReaderWriter<>(valueDeserializer), parserThreads, maxBufferedEvents);
+    }
 }
@@ -73,6 +73,14 @@ public class PlainTextFormat implements FileEventFormatProvider {
         return new PlainTextFileEventSource<>(source, valueDeserializer, asyncProcessing);
     }
 
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer,
+                                                                     File source, int parserThreads,
+                                                                     int maxBufferedEvents) {
+        return new PlainTextFileEventSource<>(source, valueDeserializer, parserThreads, maxBufferedEvents);
+    }
+
     @Override
     public <TKey, TValue> FileEventSource<TKey, TValue> createSingleFileSource(Deserializer<TKey> keyDeserializer,
                                                                                Deserializer<TValue> valueDeserializer,
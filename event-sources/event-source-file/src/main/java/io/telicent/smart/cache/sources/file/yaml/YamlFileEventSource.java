@@ -97,6 +97,22 @@ public class YamlFileEventSource<TKey, TValue> extends FileEventSource<TKey, TVa
               selectReader(gzip, keyDeserializer, valueDeserializer), asyncProcessing);
     }
 
+    /**
+     * Creates a new file event source that parses event files asynchronously using a pool of parser threads
+     *
+     * @param sourceDir         Source directory containing the events
+     * @param gzip              Whether the event files are GZipped
+     * @param keyDeserializer   Key deserializer
+     * @param valueDeserializer Value deserializer
+     * @param parserThreads     Number of parser threads
+     * @param maxBufferedEvents Maximum number of parsed events to buffer
+     */
+    public YamlFileEventSource(File sourceDir, boolean gzip, Deserializer<TKey> keyDeserializer,
+                               Deserializer<TValue> valueDeserializer, int parserThreads, int maxBufferedEvents) {
+        super(sourceDir, selectFilter(gzip), new NumericFilenameComparator(),
+              selectReader(gzip, keyDeserializer, valueDeserializer), parserThreads, maxBufferedEvents);
+    }
+
     private static FileFilter selectFilter(boolean gzip) {
         return gzip ? YAML_GZIPPED_FILTER : YAML_FILTER;
     }
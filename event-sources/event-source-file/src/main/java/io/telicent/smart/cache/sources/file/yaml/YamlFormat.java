@@ -73,6 +73,15 @@ public class YamlFormat implements FileEventFormatProvider {
         return new YamlFileEventSource<>(source, keyDeserializer, valueDeserializer, asyncProcessing);
     }
 
+    @Override
+    public <TKey, TValue> FileEventSource<TKey, TValue> createSource(Deserializer<TKey> keyDeserializer,
+                                                                     Deserializer<TValue> valueDeserializer,
+                                                                     File source, int parserThreads,
+                                                                     int maxBufferedEvents) {
+        return new YamlFileEventSource<>(source, false, keyDeserializer, valueDeserializer, parserThreads,
+                                         maxBufferedEvents);
+    }
+
     @Override
     public <TKey, TValue> FileEventSource<TKey, TValue> createSingleFileSource(Deserializer<TKey> keyDeserializer,
                                                                                Deserializer<TValue> valueDeserializer,
@@ -23,6 +23,7 @@ import io.telicent.smart.cache.sources.Header;
 import io.telicent.smart.cache.sources.file.FileEventFormatProvider;
 import io.telicent.smart.cache.sources.file.FileEventFormats;
 import io.telicent.smart.cache.sources.file.Serdes;
+import io.telicent.smart.cache.sources.file.segment.SegmentFiles;
 import io.telicent.smart.cache.sources.file.yaml.YamlEventReaderWriter;
 import io.telicent.smart.cache.sources.file.yaml.YamlFileEventSource;
 import io.telicent.smart.cache.sources.file.yaml.YamlFormat;
@@ -115,6 +116,43 @@ public class TestEventCapturingSink {
         verifyExpectedFiles(targetDir, 100, padding, prefix, extension, filter);
     }
 
+    @Test
+    public void givenSegmentedCapture_whenCapturingEvents_thenEventsReplayableFromSegments() throws IOException {
+        // Given
+        File targetDir = Files.createTempDirectory("segmented-events").toFile();
+        EventCapturingSink<Integer, String> sink = EventCapturingSink.<Integer, String>create()
+                                                                     .directory(targetDir)
+                                                                     .segmented(4_096)
+                                                                     .writeYaml(y -> y.keySerializer(
+                                                                                              Serdes.INTEGER_SERIALIZER)
+                                                                                      .valueSerializer(
+                                                                                              Serdes.STRING_SERIALIZER))
+                                                                     .build();
+
+        // When
+        generateEvents(sink, 100);
+        sink.flush();
+        sink.close();
+
+        // Then
+        File[] segments = targetDir.listFiles(f -> f.getName().endsWith(SegmentFiles.SEGMENT_EXTENSION));
+        Assert.assertNotNull(segments);
+        Assert.assertTrue(segments.length > 1);
+        Assert.assertEquals(targetDir.listFiles(YamlFileEventSource.YAML_FILTER).length, 0);
+        FileEventFormatProvider format = FileEventFormats.get(YamlFormat.NAME);
+        EventSource<Integer, String> source =
+                format.createSegmentedSource(new IntegerDeserializer(), new StringDeserializer(), targetDir);
+        Assert.assertEquals(source.remaining(), 100L);
+        for (int i = 0; i < 100; i++) {
+            Event<Integer, String> event = source.poll(Duration.ZERO);
+            Assert.assertNotNull(event);
+            Assert.assertEquals(event.key(), i);
+            Assert.assertEquals(event.value(), "Item " + i);
+        }
+        Assert.assertTrue(source.isExhausted());
+        source.close();
+    }
+
     private static void generateEvents(EventCapturingSink<Integer, String> sink, int total) {
         for (int i = 0; i < total; i++) {
             SimpleEvent<Integer, String> event = new SimpleEvent<>(Collections.emptyList(), i, "Item " + i);
@@ -22,6 +22,7 @@ import io.telicent.smart.cache.sources.EventSourceException;
 import io.telicent.smart.cache.sources.file.rdf.RdfFileEventSource;
 import io.telicent.smart.cache.sources.file.yaml.YamlEventReaderWriter;
 import io.telicent.smart.cache.sources.file.yaml.YamlFileEventSource;
+import io.telicent.smart.cache.sources.file.yaml.YamlFormat;
 import io.telicent.smart.cache.sources.memory.SimpleEvent;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.sparql.core.DatasetGraph;
@@ -38,6 +39,8 @@ import java.nio.file.Files;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 // java:S2925 - Thread.sleep is required when waiting on real Kafka/Docker in integration tests
@@ -421,6 +424,147 @@ public class TestFileEventSource extends AbstractEventSourceTests<Integer, Strin
         }
     }
 
+    /**
+     * A file event reader that takes a random amount of time to read each file, so that parser threads complete files
+     * out of order, and counts how many files it has read
+     */
+    private static final class SlowReader implements FileEventReader<String, String> {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public Event<String, String> read(File f) throws IOException {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.reads.incrementAndGet();
+            if (f.getName().startsWith("bad")) {
+                throw new IOException("bad file");
+            }
+            return new SimpleEvent<>(Collections.emptyList(), f.getName(), "value");
+        }
+
+        @Override
+        public Event<String, String> read(InputStream input) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private File createDirWithNumberedFiles(int count) throws IOException {
+        final File tempDir = Files.createTempDirectory("parallel-file-events").toFile();
+        for (int i = 0; i < count; i++) {
+            Files.createFile(new File(tempDir, String.format("event%04d.yaml", i)).toPath());
+        }
+        return tempDir;
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Parser Threads.*")
+    public void givenZeroParserThreads_whenCreatingSource_thenIllegalArgument() throws IOException {
+        // Given
+        File dir = createDirWithFiles(1);
+
+        // When and Then
+        new FileEventSource<>(dir, f -> true, Comparator.comparing(File::getName), new SlowReader(), 0, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Max Buffered.*")
+    public void givenZeroMaxBufferedEvents_whenCreatingSource_thenIllegalArgument() throws IOException {
+        // Given
+        File dir = createDirWithFiles(1);
+
+        // When and Then
+        new FileEventSource<>(dir, f -> true, Comparator.comparing(File::getName), new SlowReader(), 2, 0);
+    }
+
+    @DataProvider(name = "parserPools")
+    public Object[][] parserPools() {
+        return new Object[][] { { 1, 1 }, { 4, 4 }, { 4, 16 }, { 8, 1_000 } };
+    }
+
+    @Test(dataProvider = "parserPools")
+    public void givenParserPool_whenPollingEvents_thenEventsReturnedInFileOrder(int parserThreads,
+                                                                                int maxBufferedEvents) throws
+            IOException {
+        // Given
+        File dir = createDirWithNumberedFiles(200);
+        Files.createFile(new File(dir, "bad0100.yaml").toPath());
+        FileEventSource<String, String> source =
+                new FileEventSource<>(dir, f -> true, Comparator.comparing(File::getName), new SlowReader(),
+                                      parserThreads, maxBufferedEvents);
+
+        // When
+        List<String> keys = new ArrayList<>();
+        int errors = 0;
+        while (!source.isExhausted()) {
+            try {
+                Event<String, String> event = source.poll(Duration.ofSeconds(5));
+                Assert.assertNotNull(event, "Expected to receive all events");
+                keys.add(event.key());
+            } catch (EventSourceException e) {
+                // The bad file sorts before all the good files so its error must be received first
+                Assert.assertTrue(keys.isEmpty());
+                errors++;
+            }
+        }
+
+        // Then
+        Assert.assertEquals(errors, 1);
+        Assert.assertEquals(keys.size(), 200);
+        List<String> expected = new ArrayList<>(keys);
+        Collections.sort(expected);
+        Assert.assertEquals(keys, expected);
+        Assert.assertEquals(source.remaining(), 0L);
+        source.close();
+    }
+
+    @Test
+    public void givenParserPool_whenNotPolling_thenBufferedEventsBoundedByWindow() throws IOException,
+            InterruptedException {
+        // Given
+        File dir = createDirWithNumberedFiles(100);
+        SlowReader reader = new SlowReader();
+
+        // When
+        FileEventSource<String, String> source =
+                new FileEventSource<>(dir, f -> true, Comparator.comparing(File::getName), reader, 4, 10);
+        try {
+            Thread.sleep(500);
+
+            // Then
+            Assert.assertEquals(reader.reads.get(), 10);
+            Assert.assertTrue(source.availableImmediately());
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+            Thread.sleep(250);
+            Assert.assertEquals(reader.reads.get(), 11);
+            Assert.assertEquals(source.remaining(), 99L);
+        } finally {
+            source.close();
+        }
+    }
+
+    @Test
+    public void givenParserPoolViaFormat_whenPollingYamlEvents_thenEventsReturnedInOrder() throws IOException {
+        // Given
+        File dir = Files.createTempDirectory("parallel-yaml-events").toFile();
+        for (int i = 1; i <= 50; i++) {
+            Serdes.YAML_INTEGER_STRING.write(new SimpleEvent<>(Collections.emptyList(), i, "Item " + i),
+                                             new File(dir, "event-" + i + ".yaml"));
+        }
+        FileEventFormatProvider format = FileEventFormats.get(YamlFormat.NAME);
+        EventSource<Integer, String> source =
+                format.createSource(Serdes.INTEGER_DESERIALIZER, Serdes.STRING_DESERIALIZER, dir, 4, 8);
+
+        // When and Then
+        for (int i = 1; i <= 50; i++) {
+            Event<Integer, String> event = source.poll(Duration.ofSeconds(5));
+            Assert.assertNotNull(event);
+            Assert.assertEquals(event.key(), i);
+        }
+        Assert.assertTrue(source.isExhausted());
+        source.close();
+    }
+
     @Test(expectedExceptions = NullPointerException.class, expectedExceptionsMessageRegExp = ".*cannot be null")
     public void single_file_event_source_bad_01() {
         new SingleFileEventSource<>(new File("test-data"), Serdes.YAML_STRING_STRING);
@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.binary;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventHeader;
+import io.telicent.smart.cache.sources.EventSource;
+import io.telicent.smart.cache.sources.Header;
+import io.telicent.smart.cache.sources.RawHeader;
+import io.telicent.smart.cache.sources.file.FileEventFormatProvider;
+import io.telicent.smart.cache.sources.file.FileEventFormats;
+import io.telicent.smart.cache.sources.file.FileEventWriter;
+import io.telicent.smart.cache.sources.file.Serdes;
+import io.telicent.smart.cache.sources.file.yaml.TestYamlEventReaderWriter;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class TestBinaryEventReaderWriter {
+
+    private static BinaryEventReaderWriter<Integer, String> readerWriter(boolean compress) {
+        return new BinaryEventReaderWriter<>(Serdes.INTEGER_DESERIALIZER, Serdes.STRING_DESERIALIZER,
+                                             Serdes.INTEGER_SERIALIZER, Serdes.STRING_SERIALIZER, compress);
+    }
+
+    private static byte[] write(BinaryEventReaderWriter<Integer, String> writer, Event<Integer, String> event) throws
+            IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(event, output);
+        return output.toByteArray();
+    }
+
+    @DataProvider(name = "events")
+    public Object[][] events() {
+        List<EventHeader> headers =
+                List.of(new Header("Content-Type", "text/plain"), new RawHeader("Null", null),
+                        new Header("Unicode", "évènement"));
+        return new Object[][] {
+                { new SimpleEvent<>(Collections.emptyList(), 1, "test"), false },
+                { new SimpleEvent<>(Collections.emptyList(), 1, "test"), true },
+                { new SimpleEvent<>(headers, 12345, "test"), false },
+                { new SimpleEvent<>(headers, 12345, "test"), true },
+                { new SimpleEvent<>(headers, null, "no key"), false },
+                { new SimpleEvent<>(headers, 1, null), true },
+                { new SimpleEvent<>(Collections.emptyList(), 1, StringUtils.repeat("test", 10_000)), true }
+        };
+    }
+
+    @Test(dataProvider = "events")
+    public void givenEvent_whenWritingAndReading_thenRoundTrips(Event<Integer, String> event, boolean compress) throws
+            IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> readerWriter = readerWriter(compress);
+
+        // When
+        Event<Integer, String> retrieved = readerWriter.read(new ByteArrayInputStream(write(readerWriter, event)));
+
+        // Then
+        Assert.assertEquals(retrieved.key(), event.key());
+        Assert.assertEquals(retrieved.value(), event.value());
+        Assert.assertEquals(retrieved.headers().map(EventHeader::key).toList(),
+                            event.headers().map(EventHeader::key).toList());
+        Assert.assertEquals(retrieved.headers().map(EventHeader::value).toList(),
+                            event.headers().map(EventHeader::value).toList());
+    }
+
+    @Test
+    public void givenRepetitiveValue_whenWritingCompressed_thenSmallerThanUncompressed() throws IOException {
+        // Given
+        Event<Integer, String> event =
+                new SimpleEvent<>(Collections.emptyList(), 1, StringUtils.repeat("compressible ", 1_000));
+
+        // When
+        byte[] uncompressed = write(readerWriter(false), event);
+        byte[] compressed = write(readerWriter(true), event);
+
+        // Then
+        Assert.assertTrue(compressed.length < uncompressed.length / 10,
+                          "Expected compressed event (" + compressed.length
+                          + " bytes) to be much smaller than uncompressed (" + uncompressed.length + " bytes)");
+    }
+
+    @Test
+    public void givenReader_whenReadingCompressedAndUncompressed_thenBothRead() throws IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> reader =
+                new BinaryEventReaderWriter<>(Serdes.INTEGER_DESERIALIZER, Serdes.STRING_DESERIALIZER);
+        Event<Integer, String> event = new SimpleEvent<>(Collections.emptyList(), 1, "test");
+
+        // When
+        Event<Integer, String> fromUncompressed =
+                reader.read(new ByteArrayInputStream(write(readerWriter(false), event)));
+        Event<Integer, String> fromCompressed =
+                reader.read(new ByteArrayInputStream(write(readerWriter(true), event)));
+
+        // Then
+        Assert.assertEquals(fromUncompressed.value(), "test");
+        Assert.assertEquals(fromCompressed.value(), "test");
+        Assert.assertFalse(reader.isCompressing());
+    }
+
+    @Test
+    public void givenRdfEvent_whenWritingAndReading_thenRoundTrips() throws IOException {
+        // Given
+        Event<Integer, DatasetGraph> event =
+                Serdes.RDF_INTEGER_STRING.read(new File("test-data/rdf/rdf3.trig"));
+        BinaryEventReaderWriter<Integer, DatasetGraph> readerWriter =
+                new BinaryEventReaderWriter<>(Serdes.INTEGER_DESERIALIZER, Serdes.DATASET_GRAPH_DESERIALIZER,
+                                              Serdes.INTEGER_SERIALIZER, Serdes.DATASET_GRAPH_SERIALIZER, true);
+        File f = Files.createTempFile("binary-event", BinaryFormat.EXTENSION).toFile();
+
+        // When
+        readerWriter.write(event, f);
+        Event<Integer, DatasetGraph> retrieved = readerWriter.read(f);
+
+        // Then
+        TestYamlEventReaderWriter.verifySameEvent(event, retrieved);
+        f.delete();
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Not a binary event.*")
+    public void givenNonBinaryEvent_whenReading_thenError() throws IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> reader = readerWriter(false);
+
+        // When and Then
+        reader.read(new File("test-data/event.yaml"));
+    }
+
+    @Test(dataProvider = "compression", expectedExceptions = EOFException.class)
+    public void givenTruncatedEvent_whenReading_thenError(boolean compress) throws IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> readerWriter = readerWriter(compress);
+        byte[] data = write(readerWriter, new SimpleEvent<>(Collections.emptyList(), 1, "test"));
+
+        // When and Then
+        readerWriter.read(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 2)));
+    }
+
+    @DataProvider(name = "compression")
+    public Object[][] compression() {
+        return new Object[][] { { false }, { true } };
+    }
+
+    @Test(expectedExceptions = IOException.class,
+            expectedExceptionsMessageRegExp = "Corrupt compressed block|Compressed block length.*")
+    public void givenCorruptCompressedEvent_whenReading_thenError() throws IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> readerWriter = readerWriter(true);
+        byte[] data = write(readerWriter, new SimpleEvent<>(Collections.emptyList(), 1, "test"));
+        // Corrupt the declared uncompressed length
+        data[9] = (byte) 0x7f;
+
+        // When and Then
+        readerWriter.read(new ByteArrayInputStream(data));
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Declared uncompressed length.*")
+    public void givenCompressedEventWithHugeUncompressedLength_whenReading_thenErrorWithoutAllocating() throws
+            IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> readerWriter = readerWriter(true);
+        byte[] data = write(readerWriter, new SimpleEvent<>(Collections.emptyList(), 1, "test"));
+        // Corrupt the declared uncompressed length so that it is close to the maximum array size
+        data[6] = (byte) 0x7f;
+
+        // When and Then
+        readerWriter.read(new ByteArrayInputStream(data));
+    }
+
+    @Test
+    public void givenHighlyCompressibleValue_whenWritingAndReading_thenWithinMaximumCompressionRatio() throws
+            IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> readerWriter = readerWriter(true);
+        Event<Integer, String> event = new SimpleEvent<>(Collections.emptyList(), 1, StringUtils.repeat('a', 1_000_000));
+
+        // When
+        Event<Integer, String> retrieved = readerWriter.read(new ByteArrayInputStream(write(readerWriter, event)));
+
+        // Then
+        Assert.assertEquals(retrieved.value(), event.value());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void givenReadOnlyInstance_whenWriting_thenError() throws IOException {
+        // Given
+        BinaryEventReaderWriter<Integer, String> reader =
+                new BinaryEventReaderWriter<>(Serdes.INTEGER_DESERIALIZER, Serdes.STRING_DESERIALIZER);
+
+        // When and Then
+        reader.write(new SimpleEvent<>(Collections.emptyList(), 1, "test"), new ByteArrayOutputStream());
+    }
+
+    @Test(dataProvider = "formats")
+    public void givenFormat_whenCapturingAndReplayingDirectory_thenEventsReadInOrder(String formatName) throws
+            IOException {
+        // Given
+        FileEventFormatProvider format = FileEventFormats.get(formatName);
+        Assert.assertNotNull(format);
+        File dir = Files.createTempDirectory("binary-events").toFile();
+        FileEventWriter<Integer, String> writer =
+                format.createWriter(Serdes.INTEGER_SERIALIZER, Serdes.STRING_SERIALIZER);
+        for (int i = 1; i <= 25; i++) {
+            writer.write(new SimpleEvent<>(Collections.emptyList(), i, "Item " + i),
+                         new File(dir, "event-" + i + format.defaultFileExtension()));
+        }
+
+        // When
+        EventSource<Integer, String> source =
+                format.createSource(Serdes.INTEGER_DESERIALIZER, Serdes.STRING_DESERIALIZER, dir);
+
+        // Then
+        Assert.assertEquals(source.remaining(), 25L);
+        for (int i = 1; i <= 25; i++) {
+            Event<Integer, String> event = source.poll(Duration.ZERO);
+            Assert.assertNotNull(event);
+            Assert.assertEquals(event.key(), i);
+            Assert.assertEquals(event.value(), "Item " + i);
+        }
+        Assert.assertTrue(source.isExhausted());
+        source.close();
+    }
+
+    @DataProvider(name = "formats")
+    public Object[][] formats() {
+        return new Object[][] { { BinaryFormat.NAME }, { Lz4BinaryFormat.NAME } };
+    }
+}
@@ -0,0 +1,329 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.file.segment;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.EventSource;
+import io.telicent.smart.cache.sources.EventSourceException;
+import io.telicent.smart.cache.sources.file.FileEventFormatProvider;
+import io.telicent.smart.cache.sources.file.FileEventFormats;
+import io.telicent.smart.cache.sources.file.FileEventWriter;
+import io.telicent.smart.cache.sources.file.Serdes;
+import io.telicent.smart.cache.sources.file.binary.BinaryFormat;
+import io.telicent.smart.cache.sources.file.binary.Lz4BinaryFormat;
+import io.telicent.smart.cache.sources.file.text.PlainTextFormat;
+import io.telicent.smart.cache.sources.file.yaml.YamlFormat;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+
+public class TestSegmentedEventLog {
+
+    private static File writeLog(int events, long maxSegmentBytes) throws IOException {
+        File dir = Files.createTempDirectory("segments").toFile();
+        try (SegmentedEventWriter<Integer, String> writer = new SegmentedEventWriter<>(dir, "events-",
+                                                                                      Serdes.YAML_INTEGER_STRING,
+                                                                                      maxSegmentBytes, 256)) {
+            for (int i = 0; i < events; i++) {
+                Assert.assertEquals(writer.append(new SimpleEvent<>(Collections.emptyList(), i, "Item " + i)), i);
+            }
+        }
+        return dir;
+    }
+
+    private static File[] segmentFiles(File dir) {
+        File[] segments = dir.listFiles(f -> f.getName().endsWith(SegmentFiles.SEGMENT_EXTENSION));
+        Assert.assertNotNull(segments);
+        Arrays.sort(segments);
+        return segments;
+    }
+
+    private static void verifyEvents(EventSource<Integer, String> source, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Assert.assertEquals(source.remaining(), (long) (to - i));
+            Event<Integer, String> event = source.poll(Duration.ZERO);
+            Assert.assertNotNull(event, "Expected event at offset " + i);
+            Assert.assertEquals(event.key(), i);
+            Assert.assertEquals(event.value(), "Item " + i);
+        }
+        Assert.assertNull(source.poll(Duration.ZERO));
+        Assert.assertTrue(source.isExhausted());
+        Assert.assertFalse(source.availableImmediately());
+        Assert.assertEquals(source.remaining(), 0L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Max Segment.*")
+    public void givenZeroMaxSegmentBytes_whenCreatingWriter_thenIllegalArgument() {
+        // Given, When and Then
+        new SegmentedEventWriter<>(new File("target"), null, Serdes.YAML_INTEGER_STRING, 0, 256);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*is not empty.*")
+    public void givenNonEmptyDirectory_whenCreatingWriter_thenIllegalArgument() throws IOException {
+        // Given
+        File dir = writeLog(10, 4_096);
+
+        // When and Then
+        new SegmentedEventWriter<>(dir, "events-", Serdes.YAML_INTEGER_STRING, 4_096, 256);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*is not a directory")
+    public void givenFile_whenCreatingWriter_thenIllegalArgument() throws IOException {
+        // Given
+        File file = Files.createTempFile("segments", ".seg").toFile();
+
+        // When and Then
+        new SegmentedEventWriter<>(file, "events-", Serdes.YAML_INTEGER_STRING, 4_096, 256);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Start Offset.*")
+    public void givenNegativeStartOffset_whenCreatingSource_thenIllegalArgument() throws IOException {
+        // Given
+        File dir = Files.createTempDirectory("segments").toFile();
+
+        // When and Then
+        new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING, -1);
+    }
+
+    @Test
+    public void givenEmptyDirectory_whenReading_thenExhausted() throws IOException {
+        // Given
+        File dir = Files.createTempDirectory("segments").toFile();
+
+        // When
+        SegmentedEventSource<Integer, String> source = new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+
+        // Then
+        Assert.assertTrue(source.isExhausted());
+        Assert.assertNull(source.poll(Duration.ZERO));
+        source.close();
+    }
+
+    @Test
+    public void givenLogWithManySegments_whenReading_thenAllEventsReadInOrder() throws IOException {
+        // Given
+        File dir = writeLog(1_000, 4_096);
+        Assert.assertTrue(segmentFiles(dir).length > 1, "Expected the log to have rolled over to multiple segments");
+
+        // When
+        SegmentedEventSource<Integer, String> source = new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+
+        // Then
+        Assert.assertTrue(source.availableImmediately());
+        verifyEvents(source, 0, 1_000);
+        source.close();
+    }
+
+    @DataProvider(name = "startOffsets")
+    public Object[][] startOffsets() {
+        return new Object[][] { { 0 }, { 1 }, { 537 }, { 999 } };
+    }
+
+    @Test(dataProvider = "startOffsets")
+    public void givenLog_whenReadingFromOffset_thenEventsReadFromThatOffset(int startOffset) throws IOException {
+        // Given
+        File dir = writeLog(1_000, 4_096);
+
+        // When
+        SegmentedEventSource<Integer, String> source =
+                new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING, startOffset);
+
+        // Then
+        verifyEvents(source, startOffset, 1_000);
+        source.close();
+    }
+
+    @Test(dataProvider = "startOffsets")
+    public void givenLogWithoutIndexes_whenReadingFromOffset_thenEventsReadFromThatOffset(int startOffset) throws
+            IOException {
+        // Given
+        File dir = writeLog(1_000, 4_096);
+        for (File index : Objects.requireNonNull(
+                dir.listFiles(f -> f.getName().endsWith(SegmentFiles.INDEX_EXTENSION)))) {
+            Assert.assertTrue(index.delete());
+        }
+
+        // When
+        SegmentedEventSource<Integer, String> source =
+                new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING, startOffset);
+
+        // Then
+        verifyEvents(source, startOffset, 1_000);
+        source.close();
+    }
+
+    @Test
+    public void givenLog_whenReadingFromBeyondEnd_thenExhausted() throws IOException {
+        // Given
+        File dir = writeLog(100, 4_096);
+
+        // When
+        SegmentedEventSource<Integer, String> source =
+                new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING, 1_000);
+
+        // Then
+        Assert.assertTrue(source.isExhausted());
+        Assert.assertEquals(source.remaining(), 0L);
+        source.close();
+    }
+
+    @Test
+    public void givenLogWithTruncatedFinalRecord_whenReading_thenCompleteEventsRead() throws IOException {
+        // Given
+        File dir = writeLog(100, 4_096);
+        File[] segments = segmentFiles(dir);
+        Files.write(segments[segments.length - 1].toPath(), new byte[] { 0, 0, 1, 0, 0, 0, 0, 0, 1, 2, 3 },
+                    StandardOpenOption.APPEND);
+
+        // When
+        SegmentedEventSource<Integer, String> source = new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+
+        // Then
+        verifyEvents(source, 0, 100);
+        source.close();
+    }
+
+    @Test
+    public void givenLogWithCorruptRecord_whenReading_thenErrorForCorruptEvent_andSubsequentEventsRead() throws
+            IOException {
+        // Given
+        File dir = writeLog(10, 1_000_000);
+        File segment = segmentFiles(dir)[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            // Flip a byte within the payload of the first record
+            long position = SegmentFiles.HEADER_SIZE + SegmentFiles.RECORD_HEADER_SIZE + 5;
+            file.seek(position);
+            int b = file.read();
+            file.seek(position);
+            file.write(b ^ 0xFF);
+        }
+
+        SegmentedEventSource<Integer, String> source = new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+        // When and Then
+        Assert.assertThrows(EventSourceException.class, () -> source.poll(Duration.ZERO));
+        Event<Integer, String> next = source.poll(Duration.ZERO);
+        Assert.assertNotNull(next);
+        Assert.assertEquals(next.key(), 1);
+        source.close();
+    }
+
+    @Test
+    public void givenLogWithCorruptRecords_whenReading_thenOffsetsAdvancePastCorruptEvents() throws IOException {
+        // Given
+        File dir = writeLog(10, 1_000_000);
+        File segment = segmentFiles(dir)[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            // Flip a byte within the payload of the first and second records
+            long position = SegmentFiles.HEADER_SIZE;
+            for (int i = 0; i < 2; i++) {
+                file.seek(position);
+                int length = file.readInt();
+                file.seek(position + SegmentFiles.RECORD_HEADER_SIZE + 5);
+                int b = file.read();
+                file.seek(position + SegmentFiles.RECORD_HEADER_SIZE + 5);
+                file.write(b ^ 0xFF);
+                position += SegmentFiles.RECORD_HEADER_SIZE + length;
+            }
+        }
+        SegmentedEventSource<Integer, String> source = new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+
+        // When
+        EventSourceException first =
+                Assert.expectThrows(EventSourceException.class, () -> source.poll(Duration.ZERO));
+        EventSourceException second =
+                Assert.expectThrows(EventSourceException.class, () -> source.poll(Duration.ZERO));
+
+        // Then
+        Assert.assertTrue(first.getMessage().contains("at offset 0 "), first.getMessage());
+        Assert.assertTrue(second.getMessage().contains("at offset 1 "), second.getMessage());
+        verifyEvents(source, 2, 10);
+        source.close();
+    }
+
+    @Test(expectedExceptions = EventSourceException.class,
+            expectedExceptionsMessageRegExp = "Failed to read event segment.*")
+    public void givenNonSegmentFile_whenCreatingSource_thenError() throws IOException {
+        // Given
+        File dir = Files.createTempDirectory("segments").toFile();
+        Files.writeString(new File(dir, "bad" + SegmentFiles.SEGMENT_EXTENSION).toPath(), "not a segment file");
+
+        // When and Then
+        new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+    }
+
+    @Test
+    public void givenSourceClosed_whenPolling_thenIllegalState() throws IOException {
+        // Given
+        File dir = writeLog(10, 4_096);
+        SegmentedEventSource<Integer, String> source = new SegmentedEventSource<>(dir, Serdes.YAML_INTEGER_STRING);
+
+        // When
+        source.close();
+
+        // Then
+        Assert.assertTrue(source.isClosed());
+        Assert.assertTrue(source.isExhausted());
+        Assert.assertThrows(IllegalStateException.class, () -> source.poll(Duration.ZERO));
+    }
+
+    @DataProvider(name = "formats")
+    public Object[][] formats() {
+        return new Object[][] {
+                { YamlFormat.NAME }, { PlainTextFormat.NAME }, { BinaryFormat.NAME }, { Lz4BinaryFormat.NAME }
+        };
+    }
+
+    @Test(dataProvider = "formats")
+    public void givenFormat_whenCapturingAndReplayingSegments_thenEventsRoundTrip(String formatName) throws
+            IOException {
+        // Given
+        FileEventFormatProvider format = FileEventFormats.get(formatName);
+        File dir = Files.createTempDirectory("segments").toFile();
+        FileEventWriter<Integer, String> eventWriter =
+                format.createWriter(Serdes.INTEGER_SERIALIZER, Serdes.STRING_SERIALIZER);
+        try (SegmentedEventWriter<Integer, String> writer = new SegmentedEventWriter<>(dir, null, eventWriter,
+                                                                                      SegmentedEventWriter.DEFAULT_MAX_SEGMENT_BYTES,
+                                                                                      256)) {
+            for (int i = 0; i < 100; i++) {
+                writer.append(new SimpleEvent<>(Collections.emptyList(), i, "Item " + i));
+            }
+        }
+
+        // When
+        EventSource<Integer, String> source =
+                format.createSegmentedSource(Serdes.INTEGER_DESERIALIZER, Serdes.STRING_DESERIALIZER, dir);
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            Event<Integer, String> event = source.poll(Duration.ZERO);
+            Assert.assertNotNull(event);
+            Assert.assertEquals(event.value(), "Item " + i);
+        }
+        Assert.assertTrue(source.isExhausted());
+        source.close();
+    }
+}
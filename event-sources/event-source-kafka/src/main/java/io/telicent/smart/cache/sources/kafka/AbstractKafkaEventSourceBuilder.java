@@ -53,6 +53,12 @@ public abstract class AbstractKafkaEventSourceBuilder<TKey, TValue, TSource exte
     boolean autoCommit = true;
     boolean ignoreTombstones = true;
     OffsetStore externalOffsetStore = null;
+    int decodeAheadWindow = 0;
+    int decodeAheadThreads = 1;
+    long maxBufferedBytes = 0;
+    Duration asyncCommitInterval = null;
+    boolean strictWatermarks = false;
+    int fetchQueueSize = 0;
     Properties properties = new Properties();
 
     /**
@@ -278,6 +284,52 @@ public abstract class AbstractKafkaEventSourceBuilder<TKey, TValue, TSource exte
         return autoCommit(false);
     }
 
+    /**
+     * Enables asynchronous offset commits, coalesced to at most one commit per the given interval
+     * <p>
+     * By default offsets are committed synchronously which blocks the polling thread for a round trip to the Kafka
+     * brokers each time offsets are committed.  With asynchronous commits enabled offsets are instead committed in the
+     * background, at most once per interval, and are only committed synchronously when the source is closed, or when
+     * partitions are revoked from it as a result of a consumer group rebalance.
+     * </p>
+     * <p>
+     * When combined with {@link #commitOnProcessed()} the source tracks, for each partition, the watermark of events
+     * that have been reported as processed via {@link io.telicent.smart.cache.sources.EventSource#processed(Collection)}
+     * and commits that watermark.  By default, as with Kafka's own commits, reporting an event as processed implies that
+     * all earlier events on its partition were also processed, see {@link #strictWatermarks()} if events may be
+     * processed out of order.
+     * </p>
+     *
+     * @param interval Commit interval, {@code null} to use synchronous commits
+     * @return Builder
+     */
+    public TBuilder asyncCommits(Duration interval) {
+        this.asyncCommitInterval = interval;
+        return (TBuilder) this;
+    }
+
+    /**
+     * Enables strict watermarks when combining {@link #asyncCommits(Duration)} with {@link #commitOnProcessed()}
+     * <p>
+     * With strict watermarks the source tracks every event it delivers as outstanding until that specific event is
+     * reported as processed, and only ever commits up to the earliest outstanding event on each partition.  This means
+     * it is safe for events to be reported as processed out of order, and from any thread, e.g. when using parallel
+     * projection or asynchronous sinks, without risking committing offsets beyond events that have yet to be processed.
+     * </p>
+     * <p>
+     * However, the application <strong>MUST</strong> then report <strong>every</strong> event it receives as processed,
+     * including any it filters out or otherwise discards.  An event that is never reported as processed stalls the
+     * watermark for its partition, so no further offsets are committed for that partition, and a warning is logged if
+     * this is detected.
+     * </p>
+     *
+     * @return Builder
+     */
+    public TBuilder strictWatermarks() {
+        this.strictWatermarks = true;
+        return (TBuilder) this;
+    }
+
     /**
      * Sets an external offset store to be used to store Kafka offsets in addition to Kafka's own consumer group offset
      * storage
@@ -320,6 +372,89 @@ public abstract class AbstractKafkaEventSourceBuilder<TKey, TValue, TSource exte
         return (TBuilder) this;
     }
 
+    /**
+     * Enables decode-ahead of lazy payloads using a single background thread
+     *
+     * @param window Maximum number of buffered events whose lazy payloads may be decoded ahead of them being polled
+     * @return Builder
+     * @see #decodeAhead(int, int)
+     */
+    public TBuilder decodeAhead(int window) {
+        return decodeAhead(window, 1);
+    }
+
+    /**
+     * Configures decode-ahead of lazy payloads
+     * <p>
+     * When the value of an event is a {@link io.telicent.smart.cache.payloads.LazyPayload} its value is normally only
+     * deserialised when application code first accesses it, i.e. on the thread that is processing events.  With
+     * decode-ahead enabled the source instead deserialises the values of up to {@code window} buffered events, beyond
+     * the event most recently polled, on a pool of background threads.  Thus, by the time the application reaches those
+     * events their values will often already be available.  Any deserialisation error is still surfaced as a
+     * {@link io.telicent.smart.cache.payloads.LazyPayloadException} when the application accesses the value of the
+     * relevant event.
+     * </p>
+     * <p>
+     * This has no effect on events whose values are not lazy payloads.  Decode-ahead is disabled by default, and may be
+     * explicitly disabled by setting a window of {@code 0}.
+     * </p>
+     *
+     * @param window  Maximum number of buffered events whose lazy payloads may be decoded ahead of them being polled
+     * @param threads Number of background threads used for decoding
+     * @return Builder
+     */
+    public TBuilder decodeAhead(int window, int threads) {
+        this.decodeAheadWindow = window;
+        this.decodeAheadThreads = threads;
+        return (TBuilder) this;
+    }
+
+    /**
+     * Sets a memory budget, in bytes, for the events the source buffers
+     * <p>
+     * By default, the memory a Kafka event source uses for buffered events is governed only by
+     * {@link #maxPollRecords(int)} multiplied by the size of the events, so a topic with large events can consume a lot
+     * of memory.  When a budget is set the source limits the size of its Kafka fetch requests to the budget, and if a
+     * {@link #fetchThread(int) fetch thread} is used it stops fetching while the events it has queued, plus those the
+     * source has buffered, reach the budget.  Event sizes are taken from the serialized key and value sizes reported
+     * by Kafka, or from
+     * {@link io.telicent.smart.cache.payloads.LazyPayload#sizeInBytes()} where those are not known.
+     * </p>
+     * <p>
+     * Defaults to {@code 0} which means no budget is enforced.
+     * </p>
+     *
+     * @param bytes Memory budget in bytes, {@code 0} to disable
+     * @return Builder
+     */
+    public TBuilder maxBufferedBytes(long bytes) {
+        this.maxBufferedBytes = bytes;
+        return (TBuilder) this;
+    }
+
+    /**
+     * Enables a dedicated fetch thread that owns the underlying Kafka consumer
+     * <p>
+     * By default, the source only polls Kafka for more events once the application has processed all the previously
+     * buffered events, and does so on the application thread, so the time spent waiting for Kafka to return the next
+     * batch of events never overlaps with the application processing events.  With a fetch thread enabled the consumer
+     * is instead polled continuously on a background thread, and up to {@code queueSize} batches of fetched events,
+     * each of at most {@link #maxPollRecords(int)} events, are queued ready for the application to consume.  All other
+     * interactions with the consumer, e.g. committing offsets, resetting offsets and calculating lag, are marshalled to
+     * the fetch thread since a Kafka consumer is not thread-safe.
+     * </p>
+     * <p>
+     * Defaults to {@code 0} which means no fetch thread is used.
+     * </p>
+     *
+     * @param queueSize Maximum number of fetched batches to queue, {@code 0} to disable the fetch thread
+     * @return Builder
+     */
+    public TBuilder fetchThread(int queueSize) {
+        this.fetchQueueSize = queueSize;
+        return (TBuilder) this;
+    }
+
     /**
      * Sets a Kafka Consumer configuration property that will be used to configure the underlying
      * {@link org.apache.kafka.clients.consumer.KafkaConsumer}.  Note that some properties are always overridden by the
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.payloads.LazyPayload;
+import io.telicent.smart.cache.payloads.LazyPayloadException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decodes the {@link LazyPayload} values of buffered Kafka records ahead of them being consumed
+ * <p>
+ * Each time a {@link KafkaEventSource} fills its buffer it passes the newly buffered records to
+ * {@link #buffered(Collection)}, and each time it hands a buffered record back to the caller it calls
+ * {@link #consumed()}.  The decoder keeps a bounded look-ahead window of records, beyond the last consumed record, whose
+ * lazy payloads are deserialised on a background thread pool so that by the time the caller reaches those events their
+ * values are, ideally, already available.
+ * </p>
+ * <p>
+ * Deserialisation failures are cached by the payload itself, as with any other {@link LazyPayload}, so are surfaced as
+ * a {@link LazyPayloadException} when the caller actually accesses the value of the relevant event.
+ * </p>
+ * <p>
+ * This class is not thread-safe, it <strong>MUST</strong> only be used from the thread that is polling the owning
+ * event source.
+ * </p>
+ */
+class DecodeAhead implements AutoCloseable {
+
+    private final int window;
+    private final ExecutorService executor;
+    private final List<ConsumerRecord<?, ?>> records = new ArrayList<>();
+    private int consumed = 0;
+    private int submitted = 0;
+
+    /**
+     * Creates a new decoder
+     *
+     * @param window     Look-ahead window i.e. maximum number of records beyond the last consumed record that may be
+     *                   decoded ahead of time
+     * @param threads    Number of background threads to use for decoding
+     * @param threadName Base thread name, background threads are named with a numeric suffix
+     */
+    DecodeAhead(int window, int threads, String threadName) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Decode Ahead window must be >= 1");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Decode Ahead threads must be >= 1");
+        }
+        this.window = window;
+        this.executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform()
+                                                                   .name(threadName + "-DecodeAhead-", 0)
+                                                                   .daemon()
+                                                                   .factory());
+    }
+
+    /**
+     * Informs the decoder that the buffer has been filled with new records, any records from a previous buffer that
+     * were yet to be decoded are forgotten
+     *
+     * @param newRecords Newly buffered records, in the order they will be consumed
+     */
+    void buffered(Collection<? extends ConsumerRecord<?, ?>> newRecords) {
+        this.records.clear();
+        this.records.addAll(newRecords);
+        this.consumed = 0;
+        this.submitted = 0;
+        submitWithinWindow();
+    }
+
+    /**
+     * Informs the decoder that the next buffered record has been consumed, moving the look-ahead window forwards
+     */
+    void consumed() {
+        this.consumed++;
+        this.submitted = Math.max(this.submitted, this.consumed);
+        submitWithinWindow();
+    }
+
+    /**
+     * Informs the decoder that any buffered records were discarded, e.g. due to an offset reset
+     */
+    void reset() {
+        this.records.clear();
+        this.consumed = 0;
+        this.submitted = 0;
+    }
+
+    private void submitWithinWindow() {
+        int limit = Math.min(this.records.size(), this.consumed + this.window);
+        while (this.submitted < limit) {
+            // Release our reference to the record once submitted, the buffer itself still holds it
+            ConsumerRecord<?, ?> record = this.records.set(this.submitted, null);
+            this.submitted++;
+            if (record != null && record.value() instanceof LazyPayload<?> payload && payload.hasRawData()) {
+                this.executor.execute(() -> decode(payload));
+            }
+        }
+    }
+
+    private static void decode(LazyPayload<?> payload) {
+        // Any error is cached by the payload, and rethrown when the consumer of the event tries to access its value.
+        // Preloading, rather than accessing the value, also means the raw data is retained so serializers can still
+        // write it out unchanged should the consumer merely forward the event.
+        payload.preload();
+    }
+
+    @Override
+    public void close() {
+        // Let any in-flight decoding finish, interrupting it could cause a payload to cache a spurious error
+        this.executor.shutdown();
+        this.records.clear();
+    }
+}
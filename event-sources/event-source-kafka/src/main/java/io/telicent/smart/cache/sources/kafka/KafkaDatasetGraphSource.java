@@ -15,15 +15,9 @@
  */
 package io.telicent.smart.cache.sources.kafka;
 
-import io.telicent.smart.cache.sources.kafka.policies.KafkaReadPolicy;
 import io.telicent.smart.cache.sources.kafka.serializers.DatasetGraphDeserializer;
-import io.telicent.smart.cache.sources.offsets.OffsetStore;
 import org.apache.jena.sparql.core.DatasetGraph;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 
-import java.time.Duration;
-import java.util.Properties;
-import java.util.Set;
 
 /**
  * A Kafka event source that reads RDF Datasets from a Kafka topic
@@ -53,27 +47,10 @@ public class KafkaDatasetGraphSource<TKey> extends KafkaEventSource<TKey, Datase
     /**
      * Creates a new event source backed by a Kafka topic
      *
-     * @param bootstrapServers     Kafka Bootstrap servers
-     * @param topics               Kafka topic(s) to subscribe to
-     * @param groupId              Kafka Consumer Group ID
-     * @param keyDeserializerClass Key Deserializer class
-     * @param maxPollRecords       Maximum events to retrieve and buffer in one Kafka
-     *                             {@link KafkaConsumer#poll(Duration)} request.
-     * @param policy               Kafka read policy to use
-     * @param autoCommit           Whether the event source will automatically commit Kafka positions
-     * @param offsetStore          An external offset store to commit offsets to in addition to committing them to
-     *                             Kafka
-     * @param lagReportInterval    Lag reporting interval
-     * @param properties           Kafka Consumer Configuration properties, these may be overridden by explicit
-     *                             configuration parameters passed to this constructor
+     * @param builder Builder that holds the event source configuration
      */
-    KafkaDatasetGraphSource(String bootstrapServers, Set<String> topics, String groupId, String keyDeserializerClass,
-                            int maxPollRecords, KafkaReadPolicy<TKey, DatasetGraph> policy, boolean autoCommit,
-                            boolean ignoreTombstones, OffsetStore offsetStore, Duration lagReportInterval,
-                            Properties properties) {
-        super(bootstrapServers, topics, groupId, keyDeserializerClass,
-              DatasetGraphDeserializer.class.getCanonicalName(), maxPollRecords, policy, autoCommit, ignoreTombstones,
-              offsetStore, lagReportInterval, properties);
+    KafkaDatasetGraphSource(Builder<TKey> builder) {
+        super(builder);
     }
 
     /**
@@ -93,10 +70,9 @@ public class KafkaDatasetGraphSource<TKey> extends KafkaEventSource<TKey, Datase
 
         @Override
         public KafkaDatasetGraphSource<TKey> build() {
-            return new KafkaDatasetGraphSource<>(this.bootstrapServers, this.topics, this.groupId,
-                                                 this.keyDeserializerClass, this.maxPollRecords, this.readPolicy,
-                                                 this.autoCommit, this.ignoreTombstones, this.externalOffsetStore,
-                                                 this.lagReportInterval, this.properties);
+            // NB - Always use our value deserializer regardless of any value deserializer configured on this builder
+            this.valueDeserializerClass = DatasetGraphDeserializer.class.getCanonicalName();
+            return new KafkaDatasetGraphSource<>(this);
         }
     }
 }
@@ -20,6 +20,7 @@ import io.telicent.smart.cache.sources.kafka.sinks.KafkaSink;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.SetUtils;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 
@@ -159,6 +160,23 @@ public class KafkaEvent<TKey, TValue> implements Event<TKey, TValue> {
         return this.record;
     }
 
+    /**
+     * Gets the Kafka topic partition that an event was read from
+     * <p>
+     * This is primarily useful as a lane key function for a parallel {@code ProjectorDriver} where events should be
+     * assigned to lanes by partition, rather than by key, in order to preserve per-partition ordering.
+     * </p>
+     *
+     * @param event Event
+     * @return Topic partition, or {@code null} if the event is not a Kafka event
+     */
+    public static TopicPartition partitionOf(Event<?, ?> event) {
+        if (event instanceof KafkaEvent<?, ?> kafkaEvent) {
+            return new TopicPartition(kafkaEvent.record.topic(), kafkaEvent.record.partition());
+        }
+        return null;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null) {
@@ -22,6 +22,7 @@ import io.opentelemetry.api.metrics.LongHistogram;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.telicent.smart.cache.observability.TelicentMetrics;
+import io.telicent.smart.cache.payloads.LazyPayload;
 import io.telicent.smart.cache.projectors.utils.PeriodicAction;
 import io.telicent.smart.cache.sources.Event;
 import io.telicent.smart.cache.sources.EventSourceException;
@@ -46,6 +47,7 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.Strings.CI;
 
@@ -99,7 +101,7 @@ public class KafkaEventSource<TKey, TValue>
     private final boolean autoCommit;
     @Getter
     private final boolean ignoreTombstones;
-    private final Map<TopicPartition, OffsetAndMetadata> autoCommitOffsets = new HashMap<>();
+    private final Map<TopicPartition, OffsetAndMetadata> autoCommitOffsets = new ConcurrentHashMap<>();
     private final Queue<Map<TopicPartition, OffsetAndMetadata>> delayedOffsetCommits = new ConcurrentLinkedDeque<>();
     private final Map<TopicPartition, Long> delayedOffsetResets = new ConcurrentHashMap<>();
     private final OffsetStore externalOffsetStore;
@@ -111,33 +113,46 @@ public class KafkaEventSource<TKey, TValue>
     @SuppressWarnings("unused")
     private final ObservableLongGauge lagMetric;
     private volatile boolean resetInProgress = false;
+    private final DecodeAhead decodeAhead;
+    @Getter
+    private final long maxBufferedBytes;
+    /**
+     * Only ever updated by the polling thread, volatile since our fetch thread (if any) reads it to enforce our memory
+     * budget
+     */
+    @Getter
+    @SuppressWarnings("java:S3078")
+    private volatile long bufferedBytes = 0;
+    @Getter
+    private final Duration asyncCommitInterval;
+    private final OffsetWatermarks watermarks;
+    private long lastAsyncCommit;
+    private final KafkaFetcher<TKey, TValue> fetcher;
 
     private Long lastObservedLag = null;
 
     /**
      * Creates a new event source backed by a Kafka topic
+     * <p>
+     * This is protected so that subclasses, e.g. those overriding {@link #createConsumer(Properties)} to introduce a
+     * {@link org.apache.kafka.clients.consumer.MockConsumer}, may be created from a builder.
+     * </p>
      *
-     * @param bootstrapServers       Kafka Bootstrap servers
-     * @param topics                 Kafka topic(s) to subscribe to
-     * @param groupId                Kafka Consumer Group ID
-     * @param keyDeserializerClass   Key deserializer class
-     * @param valueDeserializerClass Value deserializer class
-     * @param maxPollRecords         Maximum events to retrieve and buffer in one Kafka
-     *                               {@link KafkaConsumer#poll(Duration)} request.
-     * @param policy                 Kafka Read Policy to control what events to read from the configured topic
-     * @param autoCommit             Whether the event source will automatically commit Kafka positions
-     * @param ignoreTombstones       Whether to ignore tombstone events and not return them from poll() calls
-     * @param offsetStore            An external offset store to commit offsets to in addition to committing them to
-     *                               Kafka
-     * @param lagReportInterval      Lag reporting interval
-     * @param properties             Kafka Consumer Properties, these may be overwritten by explicit configuration
-     *                               passed as other parameters
-     */
-    KafkaEventSource(final String bootstrapServers, final Set<String> topics, final String groupId,
-                     final String keyDeserializerClass, final String valueDeserializerClass, final int maxPollRecords,
-                     final KafkaReadPolicy<TKey, TValue> policy, final boolean autoCommit,
-                     final boolean ignoreTombstones, final OffsetStore offsetStore, final Duration lagReportInterval,
-                     final Properties properties) {
+     * @param builder Builder that holds the event source configuration
+     */
+    protected KafkaEventSource(final AbstractKafkaEventSourceBuilder<TKey, TValue, ?, ?> builder) {
+        final String bootstrapServers = builder.bootstrapServers;
+        final Set<String> topics = builder.topics;
+        final String groupId = builder.groupId;
+        final String keyDeserializerClass = builder.keyDeserializerClass;
+        final String valueDeserializerClass = builder.valueDeserializerClass;
+        final int maxPollRecords = builder.maxPollRecords;
+        final KafkaReadPolicy<TKey, TValue> policy = builder.readPolicy;
+        final boolean autoCommit = builder.autoCommit;
+        final int decodeAheadWindow = builder.decodeAheadWindow;
+        final long maxBufferedBytes = builder.maxBufferedBytes;
+        final Duration asyncCommitInterval = builder.asyncCommitInterval;
+        final int fetchQueueSize = builder.fetchQueueSize;
         if (StringUtils.isBlank(bootstrapServers)) {
             throw new IllegalArgumentException("Kafka bootstrapServers cannot be null");
         }
@@ -157,18 +172,39 @@ public class KafkaEventSource<TKey, TValue>
             throw new IllegalArgumentException("Kafka maxPollRecords must be >= 1");
         }
         Objects.requireNonNull(policy, "Kafka readPolicy cannot be null");
+        if (decodeAheadWindow < 0) {
+            throw new IllegalArgumentException("Kafka decodeAheadWindow must be >= 0");
+        }
+        if (maxBufferedBytes < 0) {
+            throw new IllegalArgumentException("Kafka maxBufferedBytes must be >= 0");
+        }
+        if (asyncCommitInterval != null && asyncCommitInterval.isNegative()) {
+            throw new IllegalArgumentException("Kafka asyncCommitInterval cannot be negative");
+        }
+        if (fetchQueueSize < 0) {
+            throw new IllegalArgumentException("Kafka fetchQueueSize must be >= 0");
+        }
         // NB - Not validating lagReportInterval because that gets validated by the PeriodicAction constructor
 
         // Configure our Kafka consumer appropriately
         Properties props = new Properties();
-        if (properties != null) {
-            props.putAll(properties);
+        if (builder.properties != null) {
+            props.putAll(builder.properties);
         }
         props.setProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.setProperty(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
         props.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(maxPollRecords));
         props.setProperty(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, Integer.toString(10 * 1024 * 1024));
+        if (maxBufferedBytes > 0) {
+            // Don't let a single fetch exceed our memory budget.  Note that Kafka always returns at least the first
+            // record batch of a partition even if it is larger than these limits so this can't prevent us making
+            // progress when there are individual records larger than our budget.
+            int fetchBytes = (int) Math.min(maxBufferedBytes, 10 * 1024 * 1024);
+            props.setProperty(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, Integer.toString(fetchBytes));
+            props.setProperty(ConsumerConfig.FETCH_MAX_BYTES_CONFIG,
+                              Long.toString(Math.min(maxBufferedBytes, ConsumerConfig.DEFAULT_FETCH_MAX_BYTES)));
+        }
         props.setProperty(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, keyDeserializerClass);
         props.setProperty(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, valueDeserializerClass);
         props.setProperty(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, "false");
@@ -176,16 +212,22 @@ public class KafkaEventSource<TKey, TValue>
         // Allow the read policy to further configure the consumer configuration as needed
         policy.prepareConsumerConfiguration(props);
 
-        this.consumer = createConsumer(props);
+        Consumer<TKey, TValue> kafkaConsumer = createConsumer(props);
+        policy.setConsumer(kafkaConsumer);
         this.server = bootstrapServers;
         this.consumerGroup = groupId;
         this.topics = new LinkedHashSet<>(topics);
         this.topicNames = StringUtils.join(this.topics, ", ");
-        this.readPolicy = policy;
-        this.readPolicy.setConsumer(this.consumer);
         this.autoCommit = autoCommit;
-        this.ignoreTombstones = ignoreTombstones;
-        this.externalOffsetStore = offsetStore;
+        this.ignoreTombstones = builder.ignoreTombstones;
+        this.externalOffsetStore = builder.externalOffsetStore;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.asyncCommitInterval = asyncCommitInterval;
+        // When auto-committing we commit everything delivered so only need to track watermarks when the application is
+        // telling us what it has processed
+        this.watermarks = asyncCommitInterval != null && !autoCommit ? new OffsetWatermarks(builder.strictWatermarks) :
+                          null;
+        this.lastAsyncCommit = System.nanoTime();
         this.topicExistenceChecker =
                 new TopicExistenceChecker(createAdminClient(props), this.server, this.topics, LOGGER);
 
@@ -211,12 +253,76 @@ public class KafkaEventSource<TKey, TValue>
                                   }
                               });
 
+        this.consumer = kafkaConsumer;
+        this.readPolicy = policy;
+        if (fetchQueueSize > 0) {
+            // When using a fetch thread it owns the consumer, so every other interaction with the consumer, and our read
+            // policy which also interacts with it, is submitted to the fetch thread, see runOnConsumerThread() and
+            // callOnConsumerThread()
+            DoubleHistogram pollTiming = this.pollTimingMetric;
+            Attributes attributes = this.metricAttributes;
+            this.fetcher = new KafkaFetcher<>(fetchQueueSize, maxBufferedBytes, this::getBufferedBytes,
+                                              t -> TelicentMetrics.time(pollTiming, attributes,
+                                                                        () -> kafkaConsumer.poll(t)),
+                                              "KafkaEventSource-" + groupId);
+        } else {
+            this.fetcher = null;
+        }
+
         // Prepare our periodic actions
         // We use one to log our current read positions, and thus lag, intermittently
         this.positionLogger = new PeriodicAction(() -> {
-            this.topics.forEach(this.readPolicy::logReadPositions);
+            runOnConsumerThread(() -> this.topics.forEach(this.readPolicy::logReadPositions));
             this.lastObservedLag = this.remaining();
-        }, lagReportInterval);
+        }, builder.lagReportInterval);
+
+        // When committing asynchronously we must still commit synchronously when partitions are revoked from us,
+        // otherwise whoever is next assigned those partitions could reprocess events we already processed.
+        // Similarly, our fetch thread (if any) must discard any records it has queued for revoked partitions since
+        // whoever is next assigned those partitions will also read them.
+        // NB - Rebalance listeners are only ever invoked from within a poll() so always on the thread that owns the
+        //      consumer
+        if (asyncCommitInterval != null || this.fetcher != null) {
+            this.readPolicy.addRebalanceListener(new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    if (fetcher != null) {
+                        fetcher.discard(partitions);
+                    }
+                    if (asyncCommitInterval != null) {
+                        commitRevokedPartitions(partitions);
+                    }
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    // Nothing to do
+                }
+            });
+        }
+
+        // Optionally decode lazy payloads of buffered events in the background
+        this.decodeAhead = decodeAheadWindow > 0 ?
+                           new DecodeAhead(decodeAheadWindow, builder.decodeAheadThreads, "KafkaEventSource-" + groupId) :
+                           null;
+    }
+
+    /**
+     * Gets whether this source decodes the lazy payloads of buffered events ahead of them being polled
+     *
+     * @return True if decode-ahead is enabled, false otherwise
+     */
+    public boolean isDecodingAhead() {
+        return this.decodeAhead != null;
+    }
+
+    /**
+     * Gets whether this source uses a dedicated fetch thread that owns the underlying Kafka consumer
+     *
+     * @return True if a fetch thread is used, false otherwise
+     */
+    public boolean isUsingFetchThread() {
+        return this.fetcher != null;
     }
 
     /**
@@ -280,6 +386,11 @@ public class KafkaEventSource<TKey, TValue>
                 // If there were any unprocessed delayed commits (because something called processed() from a background
                 // thread) then commit those now
                 processDelayedCommits();
+
+                // If we were asynchronously committing processed watermarks do a final synchronous commit of those
+                if (this.watermarks != null) {
+                    performOffsetCommits(this.watermarks.all());
+                }
             } catch (Throwable e) {
                 LOGGER.warn("[{}] Error committing offsets during close(): {}", topicNames, e.getMessage());
             }
@@ -291,11 +402,17 @@ public class KafkaEventSource<TKey, TValue>
                 // Stop events ONLY once we've done our commits (if any), otherwise attempting to do our commit
                 // operations might actually result in us not committing anything as once events have been stopped the
                 // consumer doesn't consider itself subscribed to anything and so may not commit any offsets!
-                this.topics.forEach(this.readPolicy::stopEvents);
+                runOnConsumerThread(() -> this.topics.forEach(this.readPolicy::stopEvents));
             } catch (Exception e) {
                 LOGGER.warn("[{}] Error stopping topic event consumption: {}", topicNames, e.getMessage());
             }
 
+            // Stop our fetch thread (if any) before we close the consumer as otherwise it could be in the middle of a
+            // poll() when we do so
+            if (this.fetcher != null) {
+                this.fetcher.close();
+            }
+
             try {
                 // Close our topic existence checker as if we've been configured with non-existent topics we could have
                 // in-flight checks that need terminating
@@ -313,6 +430,10 @@ public class KafkaEventSource<TKey, TValue>
 
             // Unregister the OpenTelemetry observable
             this.lagMetric.close();
+
+            if (this.decodeAhead != null) {
+                this.decodeAhead.close();
+            }
         }
         super.close();
     }
@@ -373,15 +494,122 @@ public class KafkaEventSource<TKey, TValue>
         if (this.autoCommit) {
             // If we're auto-committing track the next event we would read for each partition so that we can
             // periodically commit our offsets
-            // Remember Kafka wants us to commit the next offset to be read so have to add 1 to the offset of the record
-            // we're currently reading
-            this.autoCommitOffsets.put(new TopicPartition(internalEvent.topic(), internalEvent.partition()),
-                                       new OffsetAndMetadata(internalEvent.offset() + 1));
+            trackAutoCommitOffset(internalEvent);
+        } else if (this.watermarks != null) {
+            this.watermarks.delivered(internalEvent);
+            commitWatermarksIfDue();
+        }
+        if (this.decodeAhead != null) {
+            this.decodeAhead.consumed();
+        }
+        if (this.maxBufferedBytes > 0) {
+            this.bufferedBytes -= recordSize(internalEvent);
         }
 
         return new KafkaEvent<>(internalEvent, this);
     }
 
+    /**
+     * Decodes a batch of buffered records
+     * <p>
+     * This performs the same bookkeeping as {@link #decodeEvent(ConsumerRecord)} but only once per batch, rather than
+     * once per record, i.e. delayed offset commits are processed once and auto-commit offsets are only tracked for the
+     * last record of each partition in the batch.
+     * </p>
+     *
+     * @param internalEvents Buffered records
+     * @return Decoded events
+     */
+    @Override
+    protected List<Event<TKey, TValue>> decodeEvents(List<ConsumerRecord<TKey, TValue>> internalEvents) {
+        // As with decodeEvent() discard previously buffered events if an offset reset is in progress
+        if (this.resetInProgress) {
+            return Collections.emptyList();
+        }
+
+        processDelayedCommits();
+
+        List<Event<TKey, TValue>> decoded = new ArrayList<>(internalEvents.size());
+        ConsumerRecord<TKey, TValue> previous = null;
+        long decodedBytes = 0;
+        for (ConsumerRecord<TKey, TValue> record : internalEvents) {
+            if (this.autoCommit && previous != null && !samePartition(previous, record)) {
+                trackAutoCommitOffset(previous);
+            }
+            decoded.add(new KafkaEvent<>(record, this));
+            if (this.watermarks != null) {
+                this.watermarks.delivered(record);
+            }
+            if (this.decodeAhead != null) {
+                this.decodeAhead.consumed();
+            }
+            if (this.maxBufferedBytes > 0) {
+                decodedBytes += recordSize(record);
+            }
+            previous = record;
+        }
+        if (decodedBytes > 0) {
+            this.bufferedBytes -= decodedBytes;
+        }
+        if (this.autoCommit && previous != null) {
+            trackAutoCommitOffset(previous);
+        }
+        if (this.watermarks != null) {
+            commitWatermarksIfDue();
+        }
+        return decoded;
+    }
+
+    /**
+     * Calculates the size of a record for the purposes of enforcing our memory budget
+     * <p>
+     * This uses the serialized key and value sizes reported by Kafka where known, falling back to
+     * {@link LazyPayload#sizeInBytes()} for the value where it is a lazy payload whose serialized size is not known.
+     * </p>
+     *
+     * @param record Record
+     * @return Size in bytes, {@code 0} if not known
+     */
+    static long recordSize(ConsumerRecord<?, ?> record) {
+        long size = Math.max(record.serializedKeySize(), 0);
+        if (record.serializedValueSize() >= 0) {
+            size += record.serializedValueSize();
+        } else if (record.value() instanceof LazyPayload<?> payload && payload.sizeInBytes() > 0) {
+            size += payload.sizeInBytes();
+        }
+        return size;
+    }
+
+    /**
+     * Gets whether fetching is currently paused because buffered events reached the configured memory budget
+     * <p>
+     * This only applies when using a {@link #isUsingFetchThread() fetch thread}, without one the source only fetches
+     * more events once its buffer has drained so its buffered events are bounded by the size of a single fetch, which
+     * the memory budget limits.
+     * </p>
+     *
+     * @return True if paused, false otherwise
+     */
+    public boolean isFetchingPaused() {
+        return this.fetcher != null && this.fetcher.isOverBudget();
+    }
+
+    private static boolean samePartition(ConsumerRecord<?, ?> a, ConsumerRecord<?, ?> b) {
+        return a.partition() == b.partition() && Objects.equals(a.topic(), b.topic());
+    }
+
+    /**
+     * Tracks the next offset we would read for the record's partition so that we can periodically commit our offsets
+     *
+     * @param record Record
+     */
+    private void trackAutoCommitOffset(ConsumerRecord<TKey, TValue> record) {
+        // Remember Kafka wants us to commit the next offset to be read so have to add 1 to the offset of the record
+        // we're currently reading
+        this.autoCommitOffsets.put(new TopicPartition(record.topic(), record.partition()),
+                                   new OffsetAndMetadata(record.offset() + 1));
+    }
+
     @Override
     public Long remaining() {
         // A Kafka consumer is not thread safe so once we start consuming we can only get current directly from the
@@ -391,12 +619,17 @@ public class KafkaEventSource<TKey, TValue>
             return this.lastObservedLag;
         }
 
-        List<Long> onTopicRemaining = this.topics.stream().map(this.readPolicy::currentLag).toList();
+        List<Long> onTopicRemaining =
+                callOnConsumerThread(() -> this.topics.stream().map(this.readPolicy::currentLag).toList());
         if (onTopicRemaining.stream().allMatch(Objects::isNull)) {
             // No topics reported their remaining total so can't report right now
             return null;
         }
         Long actualRemaining = onTopicRemaining.stream().filter(Objects::nonNull).reduce(0L, Long::sum);
+        if (this.fetcher != null) {
+            // The consumers positions are beyond any records our fetch thread has queued for us
+            actualRemaining += this.fetcher.queuedRecords();
+        }
         return actualRemaining + events.size();
     }
 
@@ -422,6 +655,16 @@ public class KafkaEventSource<TKey, TValue>
      */
     @Override
     public void processed(Collection<Event<?,?>> processedEvents) {
+        // When asynchronously committing watermarks we just need to update them, they'll be committed from the polling
+        // thread in due course
+        if (this.watermarks != null) {
+            this.watermarks.processed(processedEvents);
+            if (this.pollThread == Thread.currentThread()) {
+                commitWatermarksIfDue();
+            }
+            return;
+        }
+
         // Compute the maximum processed offset for each topic partitions
         Map<TopicPartition, OffsetAndMetadata> commitOffsets = determineCommitOffsetsFromEvents(processedEvents);
 
@@ -433,15 +676,33 @@ public class KafkaEventSource<TKey, TValue>
         }
     }
 
+    /**
+     * Indicates whether events may safely be reported as processed out of order
+     * <p>
+     * This is only the case when auto-committing, since offsets are then only committed when the buffer of polled
+     * events is exhausted, or when using strict watermarks, see
+     * {@link AbstractKafkaEventSourceBuilder#strictWatermarks()}.  Otherwise the offsets committed are derived from the
+     * highest offset reported as processed on each partition, which may be beyond events that are still being
+     * processed.
+     * </p>
+     *
+     * @return True if events may be reported as processed out of order, false otherwise
+     */
+    @Override
+    public boolean supportsOutOfOrderProcessing() {
+        return this.autoCommit || (this.watermarks != null && this.watermarks.isStrict());
+    }
+
     private void performOffsetCommits(Map<TopicPartition, OffsetAndMetadata> commitOffsets) {
         // If we've been configured with an external offset store commit there first
         performExternalOffsetStoreCommits(commitOffsets);
 
         // If we are no longer assigned a given partition we aren't permitted to commit an offset for it
-        commitOffsets.entrySet().removeIf(e -> !this.consumer.assignment().contains(e.getKey()));
+        Set<TopicPartition> assigned = callOnConsumerThread(this.consumer::assignment);
+        commitOffsets.entrySet().removeIf(e -> !assigned.contains(e.getKey()));
         if (!commitOffsets.isEmpty()) {
             try {
-                this.consumer.commitSync(commitOffsets);
+                runOnConsumerThread(() -> this.consumer.commitSync(commitOffsets));
             } catch (KafkaException e) {
                 // If we've been removed from the consumer group then it's an acceptable failure, otherwise throw
                 if (isAcceptableCommitFailure(e)) {
@@ -539,15 +800,19 @@ public class KafkaEventSource<TKey, TValue>
             // Once the buffer of events has been exhausted tell Kafka we've processed them
             // Don't do this on the first run since we won't have called KafkaConsumer.poll() yet so there's nothing to
             // commit
-            if (this.autoCommit) {
+            if (this.autoCommit && this.asyncCommitInterval != null) {
+                tryAsyncAutoCommit();
+            } else if (this.autoCommit) {
                 tryAutoCommit();
+            } else if (this.watermarks != null) {
+                commitWatermarksIfDue();
             } else if (!this.delayedOffsetCommits.isEmpty()) {
                 processDelayedCommits();
             }
         } else {
             // This is the point where the consumer is actually connected to Kafka.  It is intentionally delayed to the
             // first time the user calls poll() (and thus calls into this method)
-            this.topics.forEach(this.readPolicy::startEvents);
+            runOnConsumerThread(() -> this.topics.forEach(this.readPolicy::startEvents));
 
             // Capture the current thread as only this thread will be able to commit offsets, see processed() and
             // processDelayedCommits() for more information
@@ -559,10 +824,15 @@ public class KafkaEventSource<TKey, TValue>
                 this.performOffsetReset(this.delayedOffsetResets);
             }
 
+            // Only now that our consumer is subscribed/assigned can our fetch thread (if any) start fetching
+            if (this.fetcher != null) {
+                this.fetcher.startFetching();
+            }
+
             // Also add a shutdown hook that will explicitly interrupt the consumer, otherwise if we're currently
             // blocked on a poll() call to the underlying KafkaConsumer we'll block application shutdown up to the
             // callers provided timeout
-            Runtime.getRuntime().addShutdownHook(new Thread(new Interrupter(this.consumer)));
+            Runtime.getRuntime().addShutdownHook(new Thread(new Interrupter(this)));
         }
         this.firstRun = false;
     }
@@ -572,12 +842,12 @@ public class KafkaEventSource<TKey, TValue>
      */
     protected void tryAutoCommit() {
         try {
-            this.consumer.commitSync();
+            autoCommitSync();
         } catch (WakeupException e) {
             // Ignore, this is recoverable, likely caused by a previous KafkaConsumer.wakeUp() call
             // We can try again immediately
             try {
-                this.consumer.commitSync();
+                autoCommitSync();
             } catch (KafkaException e1) {
                 if (isAcceptableCommitFailure(e1)) {
                     // Acceptable, just issue a warning
@@ -596,6 +866,144 @@ public class KafkaEventSource<TKey, TValue>
         }
     }
 
+    /**
+     * Synchronously commits the offsets of all delivered events
+     */
+    private void autoCommitSync() {
+        if (this.fetcher == null) {
+            this.consumer.commitSync();
+        } else {
+            this.fetcher.run(() -> this.consumer.commitSync(deliveredOffsets()));
+        }
+    }
+
+    /**
+     * Gets the offsets to commit for all delivered events, for use when we can't rely on the consumers current
+     * positions because our fetch thread may have fetched records beyond those we have delivered
+     * <p>
+     * <strong>MUST</strong> only be called on the fetch thread.
+     * </p>
+     *
+     * @return Offsets for the delivered events on currently assigned partitions
+     */
+    private Map<TopicPartition, OffsetAndMetadata> deliveredOffsets() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>(this.autoCommitOffsets);
+        offsets.keySet().retainAll(this.consumer.assignment());
+        return offsets;
+    }
+
+    /**
+     * Checks whether an asynchronous commit is due, i.e. the async commit interval has elapsed since the last one, and
+     * if so records that one is happening now
+     *
+     * @return True if an asynchronous commit is due, false otherwise
+     */
+    private boolean asyncCommitDue() {
+        long now = System.nanoTime();
+        if (now - this.lastAsyncCommit < this.asyncCommitInterval.toNanos()) {
+            return false;
+        }
+        this.lastAsyncCommit = now;
+        return true;
+    }
+
+    /**
+     * Tries to automatically commit offsets asynchronously, provided the async commit interval has elapsed
+     * <p>
+     * As with {@link #tryAutoCommit()} this commits the consumers current positions so <strong>MUST</strong> only be
+     * called when all buffered events have been delivered.
+     * </p>
+     */
+    private void tryAsyncAutoCommit() {
+        if (!asyncCommitDue()) {
+            return;
+        }
+        performExternalOffsetStoreCommits(new HashMap<>(this.autoCommitOffsets));
+        if (this.fetcher == null) {
+            this.consumer.commitAsync(this::onAsyncCommitCompleted);
+        } else {
+            executeOnFetchThread(() -> this.consumer.commitAsync(deliveredOffsets(), this::onAsyncCommitCompleted));
+        }
+    }
+
+    /**
+     * Asynchronously commits any processed watermarks that have advanced, provided the async commit interval has
+     * elapsed
+     */
+    private void commitWatermarksIfDue() {
+        if (!asyncCommitDue()) {
+            return;
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = this.watermarks.uncommitted();
+        performExternalOffsetStoreCommits(offsets);
+        if (offsets.isEmpty()) {
+            return;
+        }
+        if (this.fetcher == null) {
+            commitAssignedAsync(offsets);
+        } else {
+            executeOnFetchThread(() -> commitAssignedAsync(offsets));
+        }
+    }
+
+    /**
+     * Asynchronously commits the given offsets for those partitions that are still assigned to our consumer,
+     * <strong>MUST</strong> only be called on the thread that owns the consumer
+     *
+     * @param offsets Offsets to commit
+     */
+    private void commitAssignedAsync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.keySet().retainAll(this.consumer.assignment());
+        if (!offsets.isEmpty()) {
+            this.consumer.commitAsync(offsets, this::onAsyncCommitCompleted);
+        }
+    }
+
+    /**
+     * Callback for asynchronous commits
+     *
+     * @param offsets Offsets that were committed
+     * @param e       Error, {@code null} if the commit succeeded
+     */
+    private void onAsyncCommitCompleted(Map<TopicPartition, OffsetAndMetadata> offsets, Exception e) {
+        if (e == null) {
+            return;
+        }
+        if (e instanceof KafkaException kafkaError && isAcceptableCommitFailure(kafkaError)) {
+            logAcceptableCommitFailure();
+        } else {
+            LOGGER.warn("[{}] Failed to asynchronously commit offsets, will retry: {}", this.topicNames,
+                        e.getMessage());
+        }
+        if (this.watermarks != null && offsets != null) {
+            this.watermarks.commitFailed(offsets);
+        }
+    }
+
+    /**
+     * Synchronously commits offsets for partitions that are being revoked from our consumer
+     *
+     * @param partitions Revoked partitions
+     */
+    private void commitRevokedPartitions(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets;
+        if (this.watermarks != null) {
+            offsets = this.watermarks.remove(partitions);
+        } else {
+            offsets = new HashMap<>(this.autoCommitOffsets);
+            offsets.keySet().retainAll(partitions);
+        }
+        if (offsets.isEmpty()) {
+            return;
+        }
+        performExternalOffsetStoreCommits(offsets);
+        try {
+            this.consumer.commitSync(offsets);
+        } catch (KafkaException e) {
+            LOGGER.warn("[{}] Failed to commit offsets for revoked partitions: {}", this.topicNames, e.getMessage());
+        }
+    }
+
     /**
      * Logs that a commit failure was considered acceptable
      */
@@ -648,11 +1056,19 @@ public class KafkaEventSource<TKey, TValue>
                 this.performOffsetReset(this.delayedOffsetResets);
             }
 
+            // Our buffer has drained
+            this.bufferedBytes = 0;
+
             // Perform the actual Kafka poll() and store the returned ConsumerRecord instances (if any) in our local
             // buffer
             Duration finalTimeout = timeout;
-            records = TelicentMetrics.time(this.pollTimingMetric, this.metricAttributes,
-                                           () -> this.consumer.poll(finalTimeout));
+            if (this.fetcher != null) {
+                // Our fetch thread polls in the background so just take the next batch it has fetched (if any)
+                records = this.fetcher.take(finalTimeout);
+            } else {
+                records = TelicentMetrics.time(this.pollTimingMetric, this.metricAttributes,
+                                               () -> this.consumer.poll(finalTimeout));
+            }
             if (this.resetInProgress) {
                 // If a reset started while we were in a poll() then we should in principal have been interrupted by the
                 // KafkaConsumer.wakeup() call and fall into the catch block
@@ -691,6 +1107,18 @@ public class KafkaEventSource<TKey, TValue>
                 }
             }
 
+            // Start decoding ahead (if enabled) only once tombstones are pruned so the look-ahead window lines up with the
+            // buffered events that will be consumed
+            if (this.decodeAhead != null) {
+                this.decodeAhead.buffered(events);
+            }
+
+            // Track the size of the newly buffered events, if we have a fetch thread it won't fetch any more events
+            // while these, plus any it has already queued, exceed our memory budget
+            if (this.maxBufferedBytes > 0) {
+                this.bufferedBytes = events.stream().mapToLong(KafkaEventSource::recordSize).sum();
+            }
+
             this.positionLogger.run();
 
             // Return true if, and only if, we retrieved zero new events from Kafka indicating nothing was currently
@@ -791,7 +1219,7 @@ public class KafkaEventSource<TKey, TValue>
             // If there isn't a pollThread set yet then no-one has called our poll() method yet and so no need to
             // wakeup() the consumer as it isn't started yet!
             if (this.pollThread != null) {
-                this.consumer.wakeup();
+                interrupt();
             }
         } else {
             // We're on the polling thread so can apply resets immediately
@@ -813,7 +1241,23 @@ public class KafkaEventSource<TKey, TValue>
             this.events.clear();
             this.delayedOffsetCommits.clear();
             this.autoCommitOffsets.clear();
-            this.readPolicy.resetOffsets(offsets);
+            this.bufferedBytes = 0;
+            if (this.watermarks != null) {
+                this.watermarks.clear();
+            }
+            if (this.decodeAhead != null) {
+                this.decodeAhead.reset();
+            }
+            if (this.fetcher != null) {
+                // Must discard anything our fetch thread fetched from the old offsets, doing this on the fetch thread
+                // ensures it can't be in the middle of a poll() from the old offsets when we do so
+                this.fetcher.run(() -> {
+                    this.readPolicy.resetOffsets(offsets);
+                    this.fetcher.discard();
+                });
+            } else {
+                this.readPolicy.resetOffsets(offsets);
+            }
 
             // If the reset was delayed clear those now
             this.delayedOffsetResets.clear();
@@ -829,8 +1273,63 @@ public class KafkaEventSource<TKey, TValue>
 
     @Override
     public void interrupt() {
-        // Tell the consumer to wakeup in case we're waiting on a poll()
-        this.consumer.wakeup();
+        // Tell the consumer to wakeup in case we're waiting on a poll(), or if using a fetch thread wake ourselves up
+        // in case we're waiting for it to fetch something
+        if (this.fetcher != null) {
+            this.fetcher.wakeup();
+        } else {
+            this.consumer.wakeup();
+        }
+    }
+
+    /**
+     * Runs an action that interacts with our consumer, and/or our read policy which also interacts with it, on the
+     * thread that owns the consumer, waiting for it to complete
+     * <p>
+     * Without a fetch thread the polling thread owns the consumer so the action is run directly on the calling thread,
+     * otherwise it is submitted to the fetch thread which runs it in-between its polls.
+     * </p>
+     *
+     * @param action Action
+     */
+    private void runOnConsumerThread(Runnable action) {
+        if (this.fetcher == null) {
+            action.run();
+        } else {
+            this.fetcher.run(action);
+        }
+    }
+
+    /**
+     * Calls an action that interacts with our consumer, and/or our read policy which also interacts with it, on the
+     * thread that owns the consumer, waiting for its result
+     *
+     * @param action Action
+     * @param <T>    Result type
+     * @return Result
+     * @see #runOnConsumerThread(Runnable)
+     */
+    private <T> T callOnConsumerThread(Supplier<T> action) {
+        if (this.fetcher == null) {
+            return action.get();
+        }
+        return this.fetcher.get(action);
+    }
+
+    /**
+     * Submits an action to our fetch thread without waiting for it to complete, any error is logged since no-one is
+     * waiting to receive it
+     *
+     * @param action Action
+     */
+    private void executeOnFetchThread(Runnable action) {
+        this.fetcher.execute(() -> {
+            try {
+                action.run();
+            } catch (KafkaException e) {
+                LOGGER.warn("[{}] Failed to asynchronously commit offsets: {}", this.topicNames, e.getMessage());
+            }
+        });
     }
 
     @Override
@@ -854,10 +1353,7 @@ public class KafkaEventSource<TKey, TValue>
          */
         @Override
         public KafkaEventSource<TKey, TValue> build() {
-            return new KafkaEventSource<>(this.bootstrapServers, this.topics, this.groupId, this.keyDeserializerClass,
-                                          this.valueDeserializerClass, this.maxPollRecords, this.readPolicy,
-                                          this.autoCommit, this.ignoreTombstones, this.externalOffsetStore,
-                                          this.lagReportInterval, this.properties);
+            return new KafkaEventSource<>(this);
         }
     }
 
@@ -869,29 +1365,28 @@ public class KafkaEventSource<TKey, TValue>
      * is requested thus allowing our application to shut down in a timely fashion.
      * </p>
      */
-    @SuppressWarnings("rawtypes")
     private static final class Interrupter implements Runnable {
 
         private static final Logger LOGGER = LoggerFactory.getLogger(Interrupter.class);
 
-        private final WeakReference<Consumer> consumerReference;
+        private final WeakReference<KafkaEventSource<?, ?>> sourceReference;
 
         /**
          * Creates a new interrupter
          *
-         * @param consumer Consumer to hold a weak reference to
+         * @param source Event source to hold a weak reference to
          */
-        public Interrupter(Consumer consumer) {
-            this.consumerReference = new WeakReference<>(consumer);
+        public Interrupter(KafkaEventSource<?, ?> source) {
+            this.sourceReference = new WeakReference<>(source);
         }
 
         @Override
         public void run() {
             // Wake up the consumer if still valid
-            Consumer consumer = this.consumerReference.get();
-            if (consumer != null) {
+            KafkaEventSource<?, ?> source = this.sourceReference.get();
+            if (source != null) {
                 LOGGER.warn("Interrupting the KafkaConsumer due to application shutdown");
-                consumer.wakeup();
+                source.interrupt();
             }
         }
     }
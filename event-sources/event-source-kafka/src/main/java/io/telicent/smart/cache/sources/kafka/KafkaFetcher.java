@@ -0,0 +1,474 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Owns a Kafka {@link Consumer} on a dedicated fetch thread that keeps a bounded queue of fetched records filled
+ * <p>
+ * A {@link KafkaEventSource} configured with a fetch thread takes already fetched, and deserialized, batches of
+ * records from this queue via {@link #take(Duration)} rather than calling {@link Consumer#poll(Duration)} itself, so
+ * fetching the next batch of records overlaps with the application processing the current batch.  Once the queue holds
+ * the configured number of batches the fetch thread stops polling until the source takes a batch from the queue.
+ * Similarly, if a memory budget is configured, the fetch thread stops polling while the records it has queued, plus the
+ * records the source has taken but not yet returned, exceed that budget.
+ * </p>
+ * <p>
+ * Since a Kafka {@link Consumer} is not thread-safe every other interaction with it, e.g. commits, seeks and lag
+ * queries, <strong>MUST</strong> also happen on the fetch thread.  The source achieves this by explicitly submitting
+ * each such interaction, including calls to its read policy which also interacts with the consumer, as a task via
+ * {@link #run(Runnable)} or {@link #get(Supplier)}, which the fetch thread runs in-between its polls, waiting for it to
+ * complete.  Asynchronous commits are instead submitted via {@link #execute(Runnable)} since the source has no need to
+ * wait for those.
+ * </p>
+ * <p>
+ * Any error from polling is queued in place of a batch of records and rethrown to the source when it takes it from the
+ * queue, the fetch thread won't poll again until the source has taken the error.
+ * </p>
+ *
+ * @param <TKey>   Key type
+ * @param <TValue> Value type
+ */
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+class KafkaFetcher<TKey, TValue> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaFetcher.class);
+
+    /**
+     * Timeout used for the fetch threads own polls, this bounds how long a submitted task may wait for the fetch
+     * thread when no new records are currently available
+     */
+    static final Duration FETCH_POLL_TIMEOUT = Duration.ofMillis(100);
+
+    /**
+     * How long the fetch thread waits for a submitted task when it is currently unable to poll
+     */
+    private static final long IDLE_WAIT_MILLISECONDS = 10;
+
+    /**
+     * How long to wait on a submitted task before re-checking whether the fetch thread is still alive
+     */
+    private static final long CHECK_INTERVAL_MILLISECONDS = 100;
+
+    /**
+     * A batch of fetched records, or the error encountered trying to fetch them
+     *
+     * @param records Records
+     * @param error   Error
+     * @param bytes   Size of the records in bytes, only calculated when a memory budget is configured
+     */
+    private record Fetched<TKey, TValue>(ConsumerRecords<TKey, TValue> records, Throwable error, long bytes) {
+    }
+
+    /**
+     * Polls the underlying consumer
+     *
+     * @param <TKey>   Key type
+     * @param <TValue> Value type
+     */
+    @FunctionalInterface
+    interface Poller<TKey, TValue> {
+        /**
+         * Polls the underlying consumer for records
+         *
+         * @param timeout Poll timeout
+         * @return Records
+         * @throws Exception Thrown if the poll fails
+         */
+        ConsumerRecords<TKey, TValue> poll(Duration timeout) throws Exception;
+    }
+
+    private final Fetched<TKey, TValue> wakeup = new Fetched<>(ConsumerRecords.empty(), null, 0);
+    private final Poller<TKey, TValue> poller;
+    private final int capacity;
+    private final long maxBufferedBytes;
+    private final LongSupplier sourceBufferedBytes;
+    private final BlockingQueue<Fetched<TKey, TValue>> fetched = new LinkedBlockingQueue<>();
+    private final AtomicInteger queuedBatches = new AtomicInteger(0);
+    private final AtomicLong queuedRecords = new AtomicLong(0);
+    private final AtomicLong queuedBytes = new AtomicLong(0);
+    private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean fetching = false;
+    private volatile boolean running = true;
+    private volatile boolean overBudget = false;
+    private boolean failed = false;
+
+    /**
+     * Creates and starts a new fetcher, it won't actually fetch anything until {@link #startFetching()} is called
+     *
+     * @param capacity            Maximum number of fetched batches to queue
+     * @param maxBufferedBytes    Memory budget in bytes, {@code 0} for no budget
+     * @param sourceBufferedBytes Supplies the size in bytes of the records the source has taken but not yet returned
+     * @param poller              Function that polls the underlying consumer, only ever called on the fetch thread
+     * @param threadName          Base thread name, the fetch thread is named with a suffix identifying it as such
+     */
+    KafkaFetcher(int capacity, long maxBufferedBytes, LongSupplier sourceBufferedBytes, Poller<TKey, TValue> poller,
+                 String threadName) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Fetch queue capacity must be >= 1");
+        }
+        this.capacity = capacity;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.sourceBufferedBytes = sourceBufferedBytes;
+        this.poller = poller;
+        this.thread = Thread.ofPlatform().name(threadName + "-Fetcher").daemon().start(this::run);
+    }
+
+    /**
+     * The main loop of the fetch thread
+     */
+    private void run() {
+        try {
+            while (this.running) {
+                runPendingTasks();
+                if (canFetch()) {
+                    fetch();
+                } else {
+                    Runnable task = this.tasks.poll(IDLE_WAIT_MILLISECONDS, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        task.run();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Don't leave anyone waiting on a task we accepted
+            runPendingTasks();
+        }
+    }
+
+    private void runPendingTasks() {
+        Runnable task = this.tasks.poll();
+        while (task != null) {
+            task.run();
+            task = this.tasks.poll();
+        }
+    }
+
+    private boolean canFetch() {
+        if (!this.fetching) {
+            return false;
+        }
+        int queued = this.queuedBatches.get();
+        if (this.failed) {
+            // Only resume polling once the source has taken the error we previously queued
+            if (queued > 0) {
+                return false;
+            }
+            this.failed = false;
+        }
+        return queued < this.capacity && withinBudget();
+    }
+
+    /**
+     * Determines whether the records fetched, but not yet returned by the source, are within our memory budget
+     * <p>
+     * We always permit a fetch when nothing is currently buffered, otherwise a batch that is by itself larger than the
+     * budget would prevent us ever making progress.
+     * </p>
+     *
+     * @return True if we may fetch more records, false otherwise
+     */
+    private boolean withinBudget() {
+        if (this.maxBufferedBytes <= 0) {
+            return true;
+        }
+        long buffered = this.queuedBytes.get() + this.sourceBufferedBytes.getAsLong();
+        boolean exceeded = buffered > 0 && buffered >= this.maxBufferedBytes;
+        if (exceeded != this.overBudget) {
+            this.overBudget = exceeded;
+            LOGGER.debug(exceeded ? "Buffered records ({} bytes) reached memory budget ({} bytes), stopped fetching" :
+                         "Buffered records ({} bytes) within memory budget ({} bytes), resumed fetching", buffered,
+                         this.maxBufferedBytes);
+        }
+        return !exceeded;
+    }
+
+    private void fetch() {
+        try {
+            ConsumerRecords<TKey, TValue> records = this.poller.poll(FETCH_POLL_TIMEOUT);
+            if (!records.isEmpty()) {
+                enqueue(new Fetched<>(records, null, sizeOf(records)), records.count());
+            }
+        } catch (WakeupException | InterruptException e) {
+            // Recoverable, we'll just poll again
+            LOGGER.debug("Interrupted/woken while fetching from Kafka");
+        } catch (Throwable e) {
+            this.failed = true;
+            enqueue(new Fetched<>(null, e, 0), 0);
+        }
+    }
+
+    private long sizeOf(ConsumerRecords<TKey, TValue> records) {
+        if (this.maxBufferedBytes <= 0) {
+            return 0;
+        }
+        long size = 0;
+        for (ConsumerRecord<TKey, TValue> record : records) {
+            size += KafkaEventSource.recordSize(record);
+        }
+        return size;
+    }
+
+    private void enqueue(Fetched<TKey, TValue> batch, int count) {
+        this.queuedBatches.incrementAndGet();
+        this.queuedRecords.addAndGet(count);
+        this.queuedBytes.addAndGet(batch.bytes());
+        this.fetched.add(batch);
+    }
+
+    /**
+     * Tells the fetch thread to start fetching, this <strong>MUST</strong> only be called once the consumer has been
+     * subscribed/assigned to the relevant topic(s)
+     */
+    void startFetching() {
+        this.fetching = true;
+    }
+
+    /**
+     * Takes the next fetched batch of records, waiting up to the given timeout for one to become available
+     *
+     * @param timeout Timeout
+     * @return Records, empty if none were fetched within the timeout
+     * @throws WakeupException If {@link #wakeup()} was called
+     */
+    ConsumerRecords<TKey, TValue> take(Duration timeout) {
+        Fetched<TKey, TValue> batch;
+        try {
+            batch = this.fetched.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptException(e);
+        }
+        if (batch == null) {
+            return ConsumerRecords.empty();
+        } else if (batch == this.wakeup) {
+            throw new WakeupException();
+        }
+        this.queuedBatches.decrementAndGet();
+        if (batch.error() != null) {
+            if (batch.error() instanceof RuntimeException runtimeError) {
+                throw runtimeError;
+            } else if (batch.error() instanceof Error error) {
+                throw error;
+            }
+            throw new KafkaException(batch.error());
+        }
+        this.queuedRecords.addAndGet(-batch.records().count());
+        this.queuedBytes.addAndGet(-batch.bytes());
+        return batch.records();
+    }
+
+    /**
+     * Wakes up a caller that is currently waiting in {@link #take(Duration)}, if no caller is currently waiting then
+     * the next call to {@link #take(Duration)} is woken instead
+     */
+    void wakeup() {
+        if (!this.fetched.contains(this.wakeup)) {
+            this.fetched.add(this.wakeup);
+        }
+    }
+
+    /**
+     * Discards all currently queued batches, <strong>MUST</strong> be called on the fetch thread so that it is atomic
+     * with respect to the fetch threads own polls, e.g. as part of an offset reset task
+     */
+    void discard() {
+        this.fetched.clear();
+        this.queuedBatches.set(0);
+        this.queuedRecords.set(0);
+        this.queuedBytes.set(0);
+        this.failed = false;
+    }
+
+    /**
+     * Discards any currently queued records for the given partitions, e.g. because they have been revoked from the
+     * consumer, <strong>MUST</strong> be called on the fetch thread, e.g. from a consumer rebalance listener
+     *
+     * @param partitions Partitions
+     */
+    void discard(Collection<TopicPartition> partitions) {
+        List<Fetched<TKey, TValue>> batches = new ArrayList<>();
+        this.fetched.drainTo(batches);
+        for (Fetched<TKey, TValue> batch : batches) {
+            if (batch.records() == null || batch == this.wakeup) {
+                this.fetched.add(batch);
+                continue;
+            }
+            Map<TopicPartition, List<ConsumerRecord<TKey, TValue>>> retained = new HashMap<>();
+            for (TopicPartition partition : batch.records().partitions()) {
+                if (!partitions.contains(partition)) {
+                    retained.put(partition, batch.records().records(partition));
+                }
+            }
+            if (retained.size() == batch.records().partitions().size()) {
+                this.fetched.add(batch);
+                continue;
+            }
+
+            ConsumerRecords<TKey, TValue> records = new ConsumerRecords<>(retained);
+            long bytes = sizeOf(records);
+            this.queuedRecords.addAndGet(records.count() - batch.records().count());
+            this.queuedBytes.addAndGet(bytes - batch.bytes());
+            if (records.isEmpty()) {
+                this.queuedBatches.decrementAndGet();
+            } else {
+                this.fetched.add(new Fetched<>(records, null, bytes));
+            }
+        }
+        LOGGER.debug("Discarded any queued records for revoked partitions {}", partitions);
+    }
+
+    /**
+     * Gets the number of records that have been fetched but not yet taken
+     *
+     * @return Queued records
+     */
+    long queuedRecords() {
+        return this.queuedRecords.get();
+    }
+
+    /**
+     * Gets whether the fetch thread has stopped fetching because the buffered records reached the memory budget
+     *
+     * @return True if fetching is stopped due to the memory budget, false otherwise
+     */
+    boolean isOverBudget() {
+        return this.overBudget;
+    }
+
+    /**
+     * Runs an action on the fetch thread, waiting for it to complete
+     *
+     * @param action Action
+     */
+    void run(Runnable action) {
+        get(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs an action on the fetch thread, waiting for its result
+     *
+     * @param action Action
+     * @param <T>    Result type
+     * @return Result
+     */
+    <T> T get(Supplier<T> action) {
+        try {
+            return call(action::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new KafkaException(e);
+        }
+    }
+
+    /**
+     * Runs an action on the fetch thread, waiting for it to complete
+     * <p>
+     * If called on the fetch thread, or once the fetch thread has stopped, the action is run directly on the calling
+     * thread.
+     * </p>
+     *
+     * @param action Action
+     * @param <T>    Result type
+     * @return Result
+     * @throws Exception Thrown if the action fails
+     */
+    private <T> T call(Callable<T> action) throws Exception {
+        if (Thread.currentThread() == this.thread || !this.thread.isAlive()) {
+            return action.call();
+        }
+        FutureTask<T> task = new FutureTask<>(action);
+        this.tasks.add(task);
+        try {
+            while (true) {
+                try {
+                    return task.get(CHECK_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (!this.thread.isAlive()) {
+                        // Fetch thread stopped without running our task so run it ourselves, this is a no-op if the
+                        // fetch thread did in fact run it
+                        task.run();
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            throw new InterruptException(e);
+        }
+    }
+
+    /**
+     * Runs an action on the fetch thread without waiting for it to complete
+     * <p>
+     * If called on the fetch thread, or once the fetch thread has stopped, the action is run directly on the calling
+     * thread.
+     * </p>
+     *
+     * @param action Action
+     */
+    void execute(Runnable action) {
+        if (Thread.currentThread() == this.thread || !this.thread.isAlive()) {
+            action.run();
+        } else {
+            this.tasks.add(action);
+        }
+    }
+
+    /**
+     * Stops the fetch thread, any queued records are discarded
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        this.fetching = false;
+        try {
+            this.thread.join(FETCH_POLL_TIMEOUT.toMillis() * 10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.fetched.clear();
+    }
+}
@@ -16,14 +16,8 @@
 package io.telicent.smart.cache.sources.kafka;
 
 import io.telicent.smart.cache.payloads.RdfPayload;
-import io.telicent.smart.cache.sources.kafka.policies.KafkaReadPolicy;
 import io.telicent.smart.cache.sources.kafka.serializers.RdfPayloadDeserializer;
-import io.telicent.smart.cache.sources.offsets.OffsetStore;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 
-import java.time.Duration;
-import java.util.Properties;
-import java.util.Set;
 
 /**
  * A Kafka event source that reads RDF Payloads from a Kafka topic.
@@ -57,26 +51,10 @@ public class KafkaRdfPayloadSource<TKey> extends KafkaEventSource<TKey, RdfPaylo
     /**
      * Creates a new event source backed by a Kafka topic
      *
-     * @param bootstrapServers     Kafka Bootstrap servers
-     * @param topics               Kafka topic(s) to subscribe to
-     * @param groupId              Kafka Consumer Group ID
-     * @param keyDeserializerClass Key Deserializer class
-     * @param maxPollRecords       Maximum events to retrieve and buffer in one Kafka
-     *                             {@link KafkaConsumer#poll(Duration)} request.
-     * @param policy               Kafka read policy to use
-     * @param autoCommit           Whether the event source will automatically commit Kafka positions
-     * @param offsetStore          An external offset store to commit offsets to in addition to committing them to
-     *                             Kafka
-     * @param lagReportInterval    Lag reporting interval
-     * @param properties           Kafka Consumer Properties, these may be overwritten by explicit configuration passed
-     *                             as other parameters
+     * @param builder Builder that holds the event source configuration
      */
-    KafkaRdfPayloadSource(String bootstrapServers, Set<String> topics, String groupId, String keyDeserializerClass,
-                          int maxPollRecords, KafkaReadPolicy<TKey, RdfPayload> policy, boolean autoCommit,
-                          boolean ignoreTombstones, OffsetStore offsetStore, Duration lagReportInterval,
-                          Properties properties) {
-        super(bootstrapServers, topics, groupId, keyDeserializerClass, RdfPayloadDeserializer.class.getCanonicalName(),
-              maxPollRecords, policy, autoCommit, ignoreTombstones, offsetStore, lagReportInterval, properties);
+    KafkaRdfPayloadSource(Builder<TKey> builder) {
+        super(builder);
     }
 
     /**
@@ -96,10 +74,9 @@ public class KafkaRdfPayloadSource<TKey> extends KafkaEventSource<TKey, RdfPaylo
 
         @Override
         public KafkaRdfPayloadSource<TKey> build() {
-            return new KafkaRdfPayloadSource<>(this.bootstrapServers, this.topics, this.groupId,
-                                               this.keyDeserializerClass, this.maxPollRecords, this.readPolicy,
-                                               this.autoCommit, this.ignoreTombstones, this.externalOffsetStore,
-                                               this.lagReportInterval, this.properties);
+            // NB - Always use our value deserializer regardless of any value deserializer configured on this builder
+            this.valueDeserializerClass = RdfPayloadDeserializer.class.getCanonicalName();
+            return new KafkaRdfPayloadSource<>(this);
         }
     }
 }
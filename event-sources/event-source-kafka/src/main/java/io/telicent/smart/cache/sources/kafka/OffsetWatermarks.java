@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.sources.Event;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Tracks the processed watermark for each topic partition a {@link KafkaEventSource} is delivering events from
+ * <p>
+ * By default, watermarks are cumulative, as with Kafka's own offset commits, i.e. reporting the event at offset
+ * {@code N} as processed implies that every earlier event on that partition has also been processed, and the watermark
+ * is one past the highest offset reported as processed.  This means an application need not report every individual
+ * event as processed, e.g. events dropped by a filter, or only the last event of a batch.
+ * </p>
+ * <p>
+ * In strict mode every record delivered to the application is instead recorded as outstanding until the application
+ * reports that specific record as processed.  The watermark for a partition is the offset of its earliest outstanding
+ * record, or one past its most recently delivered record if nothing is outstanding.  This means events may be reported
+ * as processed in any order, e.g. by parallel or asynchronous sinks, without risking committing an offset beyond an
+ * event that has not yet been processed.  However, the application <strong>MUST</strong> then report every delivered
+ * event as processed, if it never reports an event the watermark for that partition stalls at that event and the
+ * outstanding records for the partition accumulate, a warning is logged when this is detected.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+class OffsetWatermarks {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffsetWatermarks.class);
+
+    /**
+     * Number of outstanding records a strict watermark may stall behind before we warn about it
+     */
+    static final int STALL_WARNING_THRESHOLD = 10_000;
+
+    private final Map<TopicPartition, PartitionWatermark> partitions = new HashMap<>();
+    private final boolean strict;
+
+    /**
+     * Creates new watermarks
+     *
+     * @param strict Whether watermarks are strict, i.e. every delivered event must be individually reported as
+     *               processed, or cumulative
+     */
+    OffsetWatermarks(boolean strict) {
+        this.strict = strict;
+    }
+
+    /**
+     * Gets whether watermarks are strict
+     *
+     * @return True if strict, false if cumulative
+     */
+    boolean isStrict() {
+        return this.strict;
+    }
+
+    /**
+     * Records that a record has been delivered to the application
+     *
+     * @param record Record
+     */
+    synchronized void delivered(ConsumerRecord<?, ?> record) {
+        PartitionWatermark watermark =
+                this.partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                                                p -> new PartitionWatermark(this.strict));
+        if (this.strict) {
+            watermark.outstanding.add(record.offset());
+        } else if (watermark.processedUpTo < 0) {
+            // Nothing before the first record we deliver needs processing so that's our initial watermark
+            watermark.processedUpTo = record.offset();
+        }
+        watermark.highestDelivered = Math.max(watermark.highestDelivered, record.offset());
+    }
+
+    /**
+     * Records that events have been processed by the application
+     * <p>
+     * Any events that aren't Kafka events, or are for partitions whose watermarks are not currently being tracked, are
+     * ignored.
+     * </p>
+     *
+     * @param events Processed events
+     */
+    synchronized void processed(Collection<Event<?, ?>> events) {
+        for (Event<?, ?> event : events) {
+            if (event instanceof KafkaEvent<?, ?> kafkaEvent) {
+                ConsumerRecord<?, ?> record = kafkaEvent.getConsumerRecord();
+                PartitionWatermark watermark =
+                        this.partitions.get(new TopicPartition(record.topic(), record.partition()));
+                if (watermark == null) {
+                    continue;
+                }
+                if (this.strict) {
+                    watermark.outstanding.remove(record.offset());
+                } else {
+                    watermark.processedUpTo = Math.max(watermark.processedUpTo, record.offset() + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the watermarks that have advanced since they were last returned from this method, marking them as committed
+     *
+     * @return Offsets to commit, may be empty if no watermarks have advanced
+     */
+    synchronized Map<TopicPartition, OffsetAndMetadata> uncommitted() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, PartitionWatermark> entry : this.partitions.entrySet()) {
+            PartitionWatermark watermark = entry.getValue();
+            long offset = watermark.offset();
+            if (offset > watermark.lastCommitted) {
+                offsets.put(entry.getKey(), new OffsetAndMetadata(offset));
+                watermark.lastCommitted = offset;
+            } else if (this.strict) {
+                warnIfStalled(entry.getKey(), watermark, offset);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Warns, once per stalled offset, if a strict watermark has stalled behind an event that a large number of later
+     * events have been delivered beyond, since this likely indicates that the application never reported that event as
+     * processed
+     *
+     * @param partition Partition
+     * @param watermark Watermark
+     * @param offset    Current watermark offset
+     */
+    private static void warnIfStalled(TopicPartition partition, PartitionWatermark watermark, long offset) {
+        if (offset != watermark.stallWarnedAt && watermark.outstanding.size() >= STALL_WARNING_THRESHOLD) {
+            watermark.stallWarnedAt = offset;
+            LOGGER.warn(
+                    "Processed watermark for partition {} has stalled at offset {} with {} events outstanding, when " +
+                    "using strict watermarks every delivered event MUST be reported as processed", partition, offset,
+                    watermark.outstanding.size());
+        }
+    }
+
+    /**
+     * Gets the current watermarks for all tracked partitions
+     *
+     * @return Offsets to commit
+     */
+    synchronized Map<TopicPartition, OffsetAndMetadata> all() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        this.partitions.forEach((partition, watermark) -> offsets.put(partition,
+                                                                      new OffsetAndMetadata(watermark.offset())));
+        return offsets;
+    }
+
+    /**
+     * Records that committing the given offsets failed, so that they are returned again by the next call to
+     * {@link #uncommitted()}
+     *
+     * @param offsets Offsets that failed to commit
+     */
+    synchronized void commitFailed(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet()) {
+            PartitionWatermark watermark = this.partitions.get(entry.getKey());
+            if (watermark != null && watermark.lastCommitted == entry.getValue().offset()) {
+                watermark.lastCommitted = -1;
+            }
+        }
+    }
+
+    /**
+     * Stops tracking the given partitions, e.g. because they have been revoked from our consumer
+     *
+     * @param revoked Partitions
+     * @return Final watermarks for the removed partitions
+     */
+    synchronized Map<TopicPartition, OffsetAndMetadata> remove(Collection<TopicPartition> revoked) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : revoked) {
+            PartitionWatermark watermark = this.partitions.remove(partition);
+            if (watermark != null) {
+                offsets.put(partition, new OffsetAndMetadata(watermark.offset()));
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Stops tracking all partitions, e.g. because offsets have been reset
+     */
+    synchronized void clear() {
+        this.partitions.clear();
+    }
+
+    /**
+     * Gets the number of outstanding records, i.e. those delivered but not yet reported as processed, for a partition
+     * <p>
+     * This is only tracked for strict watermarks, cumulative watermarks always report {@code 0}.
+     * </p>
+     *
+     * @param partition Partition
+     * @return Outstanding records
+     */
+    synchronized int outstanding(TopicPartition partition) {
+        PartitionWatermark watermark = this.partitions.get(partition);
+        return watermark != null && watermark.outstanding != null ? watermark.outstanding.size() : 0;
+    }
+
+    /**
+     * Watermark state for a single partition
+     */
+    private static final class PartitionWatermark {
+        private final SortedSet<Long> outstanding;
+        private long processedUpTo = -1;
+        private long highestDelivered = -1;
+        private long lastCommitted = -1;
+        private long stallWarnedAt = -1;
+
+        private PartitionWatermark(boolean strict) {
+            this.outstanding = strict ? new TreeSet<>() : null;
+        }
+
+        /**
+         * Gets the offset that is safe to commit i.e. the offset of the next record that has not been processed
+         *
+         * @return Offset
+         */
+        private long offset() {
+            if (this.outstanding == null) {
+                return this.processedUpTo;
+            }
+            return this.outstanding.isEmpty() ? this.highestDelivered + 1 : this.outstanding.first();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.jena.atlas.logging.FmtLog;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -52,6 +54,11 @@ public abstract class AbstractReadPolicy<TKey, TValue> implements KafkaReadPolic
      */
     protected final Map<TopicPartition, Long> resetOffsets = new ConcurrentHashMap<>();
 
+    /**
+     * Additional rebalance listeners registered via {@link #addRebalanceListener(ConsumerRebalanceListener)}
+     */
+    protected final List<ConsumerRebalanceListener> rebalanceListeners = new CopyOnWriteArrayList<>();
+
     /**
      * We create a basic cache to control the amount of repeated status messages logged that add no value.
      * <p>
@@ -82,6 +89,11 @@ public abstract class AbstractReadPolicy<TKey, TValue> implements KafkaReadPolic
         this.consumer = consumer;
     }
 
+    @Override
+    public void addRebalanceListener(ConsumerRebalanceListener listener) {
+        this.rebalanceListeners.add(Objects.requireNonNull(listener, "Rebalance listener cannot be null"));
+    }
+
     /**
      * Gets the set of unique topics affected by a partition re-balance operation
      *
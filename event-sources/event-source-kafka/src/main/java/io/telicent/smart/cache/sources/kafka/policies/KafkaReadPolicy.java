@@ -111,4 +111,23 @@ public interface KafkaReadPolicy<TKey, TValue> extends ConsumerRebalanceListener
      * @param offsets Offsets
      */
     void resetOffsets(Map<TopicPartition, Long> offsets);
+
+    /**
+     * Registers an additional listener that is notified of partition rebalances
+     * <p>
+     * This allows an event source to react to partitions being revoked from, or assigned to, its consumer, e.g. to
+     * commit offsets for revoked partitions before they are reassigned to another consumer.  Revocations are notified
+     * to registered listeners <strong>before</strong> the policy itself handles them, assignments are notified
+     * <strong>after</strong> the policy has handled them.
+     * </p>
+     * <p>
+     * The default implementation ignores the listener, which is appropriate for policies that do not use Kafka's
+     * automatic partition assignment since they are never notified of rebalances.
+     * </p>
+     *
+     * @param listener Rebalance listener
+     */
+    default void addRebalanceListener(ConsumerRebalanceListener listener) {
+        // No-op by default
+    }
 }
@@ -112,6 +112,10 @@ public abstract class AbstractAutoReadPolicy<TKey, TValue> extends AbstractReadP
 
     @Override
     public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        // Notify other listeners first as they may wish to do things, e.g. commit offsets, that are only permitted
+        // while the partitions are still assigned to us
+        this.rebalanceListeners.forEach(l -> l.onPartitionsRevoked(partitions));
+
         Set<String> affectedTopics = getAffectedTopics(partitions);
         String topicNames = StringUtils.join(affectedTopics, ", ");
         LOGGER.info("[{}] Revoked {} partitions for Kafka topic(s) {}", topicNames, partitions.size(), topicNames);
@@ -124,5 +128,6 @@ public abstract class AbstractAutoReadPolicy<TKey, TValue> extends AbstractReadP
         LOGGER.info("[{}] Assigned {} partitions for Kafka topic(s) {}", topicNames, partitions.size(), topicNames);
         seek(partitions);
         logPartitionPositions(partitions, LOGGER);
+        this.rebalanceListeners.forEach(l -> l.onPartitionsAssigned(partitions));
     }
 }
@@ -17,9 +17,11 @@ package io.telicent.smart.cache.sources.kafka.serializers;
 
 import io.telicent.smart.cache.payloads.RdfPayload;
 import io.telicent.smart.cache.payloads.RdfPayloadException;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.rdfpatch.RDFPatch;
 import org.apache.jena.rdfpatch.RDFPatchOps;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.WebContent;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.header.Headers;
@@ -31,6 +33,12 @@ import static org.apache.commons.lang3.Strings.CI;
 
 /**
  * A Kafka serializer that serializes RDF Payloads
+ * <p>
+ * Where a payload was lazily deserialised, and its value has never been accessed, its original raw bytes are written
+ * out unchanged provided that they are compatible with the RDF language indicated by the outgoing {@code Content-Type}
+ * header (or the default language if no such header).  This avoids the cost of parsing and reserialising payloads when
+ * an application merely forwards, filters, or dead letters, events.
+ * </p>
  */
 public class RdfPayloadSerializer extends AbstractRdfSerdes implements Serializer<RdfPayload> {
 
@@ -68,11 +76,55 @@ public class RdfPayloadSerializer extends AbstractRdfSerdes implements Serialize
                 "Cannot serialize a RDF Payload containing a Patch without a suitable Content-Type Header");
     }
 
+    /**
+     * Determines whether raw payload data in the given content type can be passed through as-is when the desired output
+     * content type is as given
+     *
+     * @param payloadContentType Content Type of the payload
+     * @param outputContentType  Desired output Content Type, if {@code null} then the default language is output
+     * @return True if passthrough is possible, false otherwise
+     */
+    boolean canPassthrough(String payloadContentType, String outputContentType) {
+        if (StringUtils.isBlank(payloadContentType)) {
+            return false;
+        }
+
+        // RDF Patches can only be passed through if the exact same patch format is requested
+        if (isPatchContentType(payloadContentType) || isPatchContentType(outputContentType)) {
+            return CI.equals(payloadContentType, outputContentType);
+        }
+
+        Lang payloadLang = RDFLanguages.contentTypeToLang(payloadContentType);
+        Lang outputLang =
+                StringUtils.isNotBlank(outputContentType) ? RDFLanguages.contentTypeToLang(outputContentType) : null;
+        if (outputLang == null) {
+            outputLang = this.defaultLang;
+        }
+        if (payloadLang == null) {
+            return false;
+        }
+        // Data in a language that is a syntactic subset of the output language can also be passed through
+        return payloadLang.equals(outputLang) || (payloadLang.equals(Lang.NTRIPLES) && outputLang.equals(Lang.NQUADS))
+               || (payloadLang.equals(Lang.TURTLE) && outputLang.equals(Lang.TRIG));
+    }
+
+    private static boolean isPatchContentType(String contentType) {
+        return CI.equalsAny(contentType, WebContent.contentTypePatch, WebContent.contentTypePatchThrift);
+    }
+
     @Override
     public byte[] serialize(String topic, Headers headers, RdfPayload payload) {
         if (payload == null) {
             return null;
         }
+
+        // If the payload is still just the raw bytes we read, and those are compatible with the desired output, then
+        // pass them through as-is
+        byte[] rawData = payload.getUnaccessedRawData();
+        if (rawData != null && canPassthrough(payload.getContentType(), findContentType(headers))) {
+            return rawData;
+        }
+
         try {
             if (payload.isDataset()) {
                 return this.dsgSerializer.serialize(topic, headers, payload.getDataset());
@@ -47,8 +47,14 @@ public class MockKafkaDatasetGraphSource extends KafkaDatasetGraphSource<Integer
     public MockKafkaDatasetGraphSource(String bootstrapServers, Set<String> topics, String groupId, int maxPollRecords,
                                        KafkaReadPolicy<Integer, DatasetGraph> policy, boolean autoCommit,
                                        Collection<Event<Integer, DatasetGraph>> events) {
-        super(bootstrapServers, topics, groupId, IntegerDeserializer.class.getCanonicalName(), maxPollRecords,
-              new MockReadPolicy<>(policy, events), autoCommit, true, null, Duration.ofMinutes(1), null);
+        super(KafkaDatasetGraphSource.<Integer>createGraph()
+                   .bootstrapServers(bootstrapServers)
+                   .topics(topics)
+                   .consumerGroup(groupId)
+                   .keyDeserializer(IntegerDeserializer.class)
+                   .maxPollRecords(maxPollRecords)
+                   .readPolicy(new MockReadPolicy<>(policy, events))
+                   .autoCommit(autoCommit));
     }
 
     @Override
@@ -54,20 +54,53 @@ public class MockKafkaEventSource<TKey, TValue> extends KafkaEventSource<TKey, T
      * @param autoCommit             Whether the event source will automatically commit Kafka positions
      * @param ignoreTombstones       Whether the event source will ignore tombstones
      */
+    @SuppressWarnings("unchecked")
     public MockKafkaEventSource(String bootstrapServers, Set<String> topics, String groupId,
                                 String keyDeserializerClass, String valueDeserializerClass, int maxPollRecords,
                                 KafkaReadPolicy policy, boolean autoCommit, boolean ignoreTombstones,
                                 Collection<Event<TKey, TValue>> events) {
-        super(bootstrapServers, topics, groupId, keyDeserializerClass, valueDeserializerClass, maxPollRecords,
-              new MockReadPolicy(policy, events), autoCommit, ignoreTombstones, null, Duration.ofMinutes(1), null);
+        this(KafkaEventSource.<TKey, TValue>create()
+                             .bootstrapServers(bootstrapServers)
+                             .topics(topics)
+                             .consumerGroup(groupId)
+                             .keyDeserializer(keyDeserializerClass)
+                             .valueDeserializer(valueDeserializerClass)
+                             .maxPollRecords(maxPollRecords)
+                             .readPolicy((KafkaReadPolicy<TKey, TValue>) policy)
+                             .autoCommit(autoCommit)
+                             .ignoreTombstones(ignoreTombstones), events);
+    }
+
+    /**
+     * Creates a new event source backed by a Kafka topic, configured by the given builder
+     * <p>
+     * This allows tests to configure any option the builder supports, the builders read policy is wrapped so that the
+     * given events are supplied to the mock consumer.
+     * </p>
+     *
+     * @param builder Builder
+     * @param events  Events the mock consumer supplies
+     */
+    public MockKafkaEventSource(KafkaEventSource.Builder<TKey, TValue> builder,
+                                Collection<Event<TKey, TValue>> events) {
+        super(builder.readPolicy(new MockReadPolicy<>(builder.readPolicy, events)));
     }
 
     @Override
     protected Consumer<TKey, TValue> createConsumer(Properties props) {
-        this.mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        this.mock = createMockConsumer();
         return this.mock;
     }
 
+    /**
+     * Creates the mock consumer, may be overridden by tests that need to customise mock behaviour
+     *
+     * @return Mock consumer
+     */
+    protected MockConsumer<TKey, TValue> createMockConsumer() {
+        return new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    }
+
     /**
      * Gets the mock consumer, used to modify mock behaviour during tests
      *
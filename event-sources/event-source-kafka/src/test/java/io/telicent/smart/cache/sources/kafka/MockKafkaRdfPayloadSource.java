@@ -47,8 +47,14 @@ public class MockKafkaRdfPayloadSource extends KafkaRdfPayloadSource<Integer> {
     public MockKafkaRdfPayloadSource(String bootstrapServers, Set<String> topics, String groupId, int maxPollRecords,
                                      KafkaReadPolicy<Integer, RdfPayload> policy, boolean autoCommit,
                                      Collection<Event<Integer, RdfPayload>> events) {
-        super(bootstrapServers, topics, groupId, IntegerDeserializer.class.getCanonicalName(), maxPollRecords,
-              new MockReadPolicy<>(policy, events), autoCommit, true, null, Duration.ofMinutes(1), null);
+        super(KafkaRdfPayloadSource.<Integer>createRdfPayload()
+                   .bootstrapServers(bootstrapServers)
+                   .topics(topics)
+                   .consumerGroup(groupId)
+                   .keyDeserializer(IntegerDeserializer.class)
+                   .maxPollRecords(maxPollRecords)
+                   .readPolicy(new MockReadPolicy<>(policy, events))
+                   .autoCommit(autoCommit));
     }
 
     @Override
@@ -18,6 +18,7 @@ package io.telicent.smart.cache.sources.kafka;
 import io.telicent.smart.cache.sources.Event;
 import io.telicent.smart.cache.sources.kafka.policies.KafkaReadPolicy;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.MockConsumer;
 import org.apache.kafka.common.TopicPartition;
@@ -110,4 +111,9 @@ public class MockReadPolicy<TKey, TValue> implements KafkaReadPolicy<TKey, TValu
     public void resetOffsets(Map<TopicPartition, Long> offsets) {
         this.policy.resetOffsets(offsets);
     }
+
+    @Override
+    public void addRebalanceListener(ConsumerRebalanceListener listener) {
+        this.policy.addRebalanceListener(listener);
+    }
 }
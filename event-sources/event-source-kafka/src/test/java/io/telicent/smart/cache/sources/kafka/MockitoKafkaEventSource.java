@@ -75,8 +75,15 @@ public class MockitoKafkaEventSource<TKey, TValue> extends KafkaEventSource<TKey
     public MockitoKafkaEventSource(String bootstrapServers, Set<String> topics, String groupId,
                                    String keyDeserializerClass, String valueDeserializerClass, int maxPollRecords,
                                    KafkaReadPolicy policy, boolean autoCommit) {
-        super(bootstrapServers, topics, groupId, keyDeserializerClass, valueDeserializerClass, maxPollRecords,
-              policy, autoCommit, true,null, Duration.ofMinutes(1), null);
+        super(KafkaEventSource.<TKey, TValue>create()
+                              .bootstrapServers(bootstrapServers)
+                              .topics(topics)
+                              .consumerGroup(groupId)
+                              .keyDeserializer(keyDeserializerClass)
+                              .valueDeserializer(valueDeserializerClass)
+                              .maxPollRecords(maxPollRecords)
+                              .readPolicy(policy)
+                              .autoCommit(autoCommit));
     }
 
     @Override
@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+public class TestKafkaEventSourceAsyncCommits {
+
+    private static final TopicPartition PARTITION = new TopicPartition(TestKafkaEventSource.TEST_TOPIC, 0);
+
+    private static List<Event<Integer, String>> createEvents(int size) {
+        List<Event<Integer, String>> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new SimpleEvent<>(Collections.emptyList(), i, "value " + i));
+        }
+        return events;
+    }
+
+    private static MockKafkaEventSource<Integer, String> createSource(List<Event<Integer, String>> events,
+                                                                      boolean autoCommit, Duration interval) {
+        return createSource(events, autoCommit, interval, false, new ArrayList<>());
+    }
+
+    /**
+     * Creates a source whose consumer records every synchronous commit, since the mock consumer itself can't be
+     * inspected once closed
+     */
+    private static MockKafkaEventSource<Integer, String> createSource(
+            List<Event<Integer, String>> events, boolean autoCommit, Duration interval, boolean strictWatermarks,
+            List<Map<TopicPartition, OffsetAndMetadata>> syncCommits) {
+        KafkaEventSource.Builder<Integer, String> builder =
+                KafkaEventSource.<Integer, String>create()
+                                .bootstrapServers(TestKafkaEventSource.DEFAULT_BOOTSTRAP_SERVERS)
+                                .topic(TestKafkaEventSource.TEST_TOPIC)
+                                .consumerGroup(TestKafkaEventSource.TEST_GROUP + "-async-commits")
+                                .keyDeserializer(StringSerializer.class)
+                                .valueDeserializer(StringSerializer.class)
+                                .fromBeginning()
+                                .autoCommit(autoCommit)
+                                .asyncCommits(interval);
+        if (strictWatermarks) {
+            builder.strictWatermarks();
+        }
+        return new MockKafkaEventSource<>(builder, events) {
+            @Override
+            protected MockConsumer<Integer, String> createMockConsumer() {
+                return new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+                    @Override
+                    public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+                        syncCommits.add(Map.copyOf(offsets));
+                        super.commitSync(offsets);
+                    }
+                };
+            }
+        };
+    }
+
+    private static Long committedOffset(MockConsumer<Integer, String> consumer) {
+        OffsetAndMetadata committed = consumer.committed(Set.of(PARTITION)).get(PARTITION);
+        return committed != null ? committed.offset() : null;
+    }
+
+    private static List<Event<Integer, String>> pollAll(MockKafkaEventSource<Integer, String> source, int count) {
+        List<Event<Integer, String>> received = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Event<Integer, String> event = source.poll(Duration.ofSeconds(1));
+            Assert.assertNotNull(event);
+            received.add(event);
+        }
+        return received;
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*asyncCommitInterval.*")
+    public void givenNegativeInterval_whenCreatingSource_thenIllegalArgument() {
+        createSource(Collections.emptyList(), false, Duration.ofSeconds(-1));
+    }
+
+    @Test
+    public void givenStrictWatermarkCommits_whenProcessingOutOfOrder_thenOnlyContiguousWatermarkCommitted() {
+        // Given
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(10), false, Duration.ZERO, true,
+                                                                         new ArrayList<>())) {
+            Assert.assertEquals(source.getAsyncCommitInterval(), Duration.ZERO);
+            List<Event<Integer, String>> received = pollAll(source, 10);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+
+            // When
+            source.processed(List.of(received.get(5), received.get(1), received.get(2)));
+
+            // Then
+            Assert.assertEquals(committedOffset(consumer), 0L);
+
+            // And
+            source.processed(List.of(received.get(0)));
+            Assert.assertEquals(committedOffset(consumer), 3L);
+            source.processed(List.of(received.get(3), received.get(4)));
+            Assert.assertEquals(committedOffset(consumer), 6L);
+        }
+    }
+
+    @Test
+    public void givenAsyncWatermarkCommits_whenOnlyLastEventProcessed_thenAllEventsCommitted() {
+        // Given
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(10), false, Duration.ZERO)) {
+            List<Event<Integer, String>> received = pollAll(source, 10);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+
+            // When
+            source.processed(List.of(received.get(9)));
+
+            // Then
+            Assert.assertEquals(committedOffset(consumer), 10L);
+        }
+    }
+
+    @Test
+    public void givenAsyncWatermarkCommits_whenProcessedOnBackgroundThread_thenCommittedOnNextPoll() throws
+            InterruptedException {
+        // Given
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(10), false, Duration.ZERO)) {
+            List<Event<Integer, String>> received = pollAll(source, 5);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+
+            // When
+            Thread thread = Thread.ofPlatform().start(() -> source.processed(List.copyOf(received)));
+            thread.join();
+
+            // Then
+            Assert.assertEquals(committedOffset(consumer), 0L);
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+            Assert.assertEquals(committedOffset(consumer), 5L);
+        }
+    }
+
+    @Test
+    public void givenLongAsyncCommitInterval_whenProcessing_thenCommitsCoalesced_andFinalWatermarkCommittedOnClose() {
+        // Given
+        List<Map<TopicPartition, OffsetAndMetadata>> syncCommits = new ArrayList<>();
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(10), false,
+                                                                         Duration.ofHours(1), false, syncCommits)) {
+            List<Event<Integer, String>> received = pollAll(source, 10);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+
+            // When
+            received.forEach(e -> source.processed(List.of(e)));
+
+            // Then
+            Assert.assertNull(committedOffset(consumer));
+            Assert.assertTrue(syncCommits.isEmpty());
+            source.close();
+            Assert.assertEquals(syncCommits, List.of(Map.of(PARTITION, new OffsetAndMetadata(10))));
+        }
+    }
+
+    @Test
+    public void givenAsyncAutoCommits_whenBufferExhausted_thenOffsetsCommitted() {
+        // Given
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(10), true, Duration.ZERO)) {
+            pollAll(source, 10);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+
+            // When
+            Assert.assertNull(source.poll(Duration.ofMillis(100)));
+
+            // Then
+            Assert.assertEquals(committedOffset(consumer), 10L);
+        }
+    }
+
+    @Test
+    public void givenAsyncWatermarkCommits_whenPartitionRevoked_thenWatermarkCommittedSynchronously() {
+        // Given
+        List<Map<TopicPartition, OffsetAndMetadata>> syncCommits = new ArrayList<>();
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(10), false,
+                                                                         Duration.ofHours(1), false, syncCommits)) {
+            List<Event<Integer, String>> received = pollAll(source, 10);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+            source.processed(List.copyOf(received.subList(0, 7)));
+            Assert.assertTrue(syncCommits.isEmpty());
+
+            // When
+            consumer.rebalance(Collections.emptyList());
+
+            // Then
+            Assert.assertEquals(syncCommits, List.of(Map.of(PARTITION, new OffsetAndMetadata(7))));
+        }
+    }
+
+    @Test
+    public void givenCommitModes_whenCheckingOutOfOrderProcessingSupport_thenOnlyAutoCommitAndStrictWatermarksSupported() {
+        // Given, When and Then
+        try (MockKafkaEventSource<Integer, String> cumulative = createSource(createEvents(1), false, Duration.ZERO)) {
+            Assert.assertFalse(cumulative.supportsOutOfOrderProcessing());
+        }
+        try (MockKafkaEventSource<Integer, String> strict = createSource(createEvents(1), false, Duration.ZERO, true,
+                                                                         new ArrayList<>())) {
+            Assert.assertTrue(strict.supportsOutOfOrderProcessing());
+        }
+        try (MockKafkaEventSource<Integer, String> autoCommit = createSource(createEvents(1), true, Duration.ZERO)) {
+            Assert.assertTrue(autoCommit.supportsOutOfOrderProcessing());
+        }
+        try (MockKafkaEventSource<Integer, String> synchronous = createSource(createEvents(1), false, null)) {
+            Assert.assertFalse(synchronous.supportsOutOfOrderProcessing());
+        }
+    }
+
+    @Test
+    public void givenStrictWatermarkCommits_whenParallelLanesAckOutOfOrder_thenCommitNeverPassesUnackedEvent() throws
+            InterruptedException {
+        // Given
+        try (MockKafkaEventSource<Integer, String> source = createSource(createEvents(20), false, Duration.ZERO, true,
+                                                                         new ArrayList<>())) {
+            List<Event<Integer, String>> received = pollAll(source, 16);
+            MockConsumer<Integer, String> consumer = source.getMockConsumer();
+            Event<Integer, String> inFlight = received.get(3);
+
+            // When
+            List<Thread> lanes = new ArrayList<>();
+            for (int lane = 0; lane < 4; lane++) {
+                List<Event<Integer, String>> laneEvents = new ArrayList<>();
+                for (int i = lane; i < received.size(); i += 4) {
+                    if (received.get(i) != inFlight) {
+                        laneEvents.add(received.get(i));
+                    }
+                }
+                Collections.reverse(laneEvents);
+                lanes.add(Thread.ofPlatform().start(() -> laneEvents.forEach(e -> source.processed(List.of(e)))));
+            }
+            for (Thread lane : lanes) {
+                lane.join();
+            }
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+
+            // Then
+            Assert.assertEquals(committedOffset(consumer), 3L);
+
+            // And
+            Thread lane = Thread.ofPlatform().start(() -> source.processed(List.of(inFlight)));
+            lane.join();
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+            Assert.assertEquals(committedOffset(consumer), 16L);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.payloads.LazyPayload;
+import io.telicent.smart.cache.payloads.LazyPayloadException;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestKafkaEventSourceDecodeAhead {
+
+    /**
+     * A lazy payload that records which thread deserialised it and fails to deserialise any malformed data
+     */
+    private static final class TrackingPayload extends LazyPayload<String> {
+        private volatile String decodedBy;
+
+        private TrackingPayload(String rawData) {
+            super("text/plain", rawData.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        protected String deserialize() {
+            this.decodedBy = Thread.currentThread().getName();
+            String value = new String(getRawData(), StandardCharsets.UTF_8);
+            if (value.startsWith("malformed")) {
+                throw new LazyPayloadException("Malformed payload");
+            }
+            return value;
+        }
+    }
+
+    private static List<Event<Integer, TrackingPayload>> createEvents(int size) {
+        List<Event<Integer, TrackingPayload>> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new SimpleEvent<>(Collections.emptyList(), i,
+                                         new TrackingPayload(i % 10 == 9 ? "malformed " + i : "value " + i)));
+        }
+        return events;
+    }
+
+    private static MockKafkaEventSource<Integer, TrackingPayload> createSource(
+            List<Event<Integer, TrackingPayload>> events, int window, int threads) {
+        return new MockKafkaEventSource<>(
+                KafkaEventSource.<Integer, TrackingPayload>create()
+                                .bootstrapServers(TestKafkaEventSource.DEFAULT_BOOTSTRAP_SERVERS)
+                                .topic(TestKafkaEventSource.TEST_TOPIC)
+                                .consumerGroup(TestKafkaEventSource.TEST_GROUP + "-decode-ahead")
+                                .keyDeserializer(StringSerializer.class)
+                                .valueDeserializer(StringSerializer.class)
+                                .fromBeginning()
+                                .decodeAhead(window, threads), events);
+    }
+
+    private static void awaitDecoded(List<TrackingPayload> payloads) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!payloads.stream().allMatch(p -> p.isReady() || p.hasError())) {
+            if (System.currentTimeMillis() > deadline) {
+                Assert.fail("Payloads were not decoded ahead in a timely fashion");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*decodeAheadWindow.*")
+    public void givenNegativeWindow_whenCreatingSource_thenIllegalArgument() {
+        createSource(Collections.emptyList(), -1, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Decode Ahead threads.*")
+    public void givenNoThreads_whenCreatingSource_thenIllegalArgument() {
+        createSource(Collections.emptyList(), 10, 0);
+    }
+
+    @Test
+    public void givenDecodeAheadDisabled_whenPolling_thenPayloadsDecodedOnPollingThread() {
+        // Given
+        List<Event<Integer, TrackingPayload>> events = createEvents(10);
+        try (MockKafkaEventSource<Integer, TrackingPayload> source = createSource(events, 0, 1)) {
+            Assert.assertFalse(source.isDecodingAhead());
+
+            // When
+            Event<Integer, TrackingPayload> event = source.poll(Duration.ofSeconds(1));
+
+            // Then
+            Assert.assertNotNull(event);
+            Assert.assertFalse(event.value().isReady());
+            Assert.assertEquals(event.value().getValue(), "value 0");
+            Assert.assertEquals(event.value().decodedBy, Thread.currentThread().getName());
+        }
+    }
+
+    @Test
+    public void givenDecodeAhead_whenPolling_thenPayloadsWithinWindowDecodedInBackground() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, TrackingPayload>> events = createEvents(50);
+        try (MockKafkaEventSource<Integer, TrackingPayload> source = createSource(events, 5, 2)) {
+            Assert.assertTrue(source.isDecodingAhead());
+
+            // When
+            Event<Integer, TrackingPayload> first = source.poll(Duration.ofSeconds(1));
+
+            // Then
+            Assert.assertNotNull(first);
+            List<TrackingPayload> payloads = events.stream().map(Event::value).toList();
+            awaitDecoded(payloads.subList(0, 6));
+            for (TrackingPayload payload : payloads.subList(0, 6)) {
+                Assert.assertNotEquals(payload.decodedBy, Thread.currentThread().getName());
+            }
+            // Nothing beyond the window should have been decoded
+            for (TrackingPayload payload : payloads.subList(6, payloads.size())) {
+                Assert.assertTrue(payload.hasRawData());
+                Assert.assertFalse(payload.isReady());
+            }
+        }
+    }
+
+    @Test
+    public void givenDecodeAhead_whenPollingAllEvents_thenAllReturnedInOrder_andMalformedPayloadsStillFail() {
+        // Given
+        List<Event<Integer, TrackingPayload>> events = createEvents(250);
+        try (MockKafkaEventSource<Integer, TrackingPayload> source = createSource(events, 20, 4)) {
+            // When
+            List<Event<Integer, TrackingPayload>> received = new ArrayList<>();
+            Event<Integer, TrackingPayload> event = source.poll(Duration.ofSeconds(1));
+            while (event != null) {
+                received.add(event);
+                event = source.poll(Duration.ofMillis(100));
+            }
+
+            // Then
+            Assert.assertEquals(received.size(), events.size());
+            for (int i = 0; i < received.size(); i++) {
+                Event<Integer, TrackingPayload> e = received.get(i);
+                Assert.assertEquals(e.key(), Integer.valueOf(i));
+                if (i % 10 == 9) {
+                    Assert.assertThrows(LazyPayloadException.class, () -> e.value().getValue());
+                    Assert.assertTrue(e.value().hasRawData());
+                } else {
+                    Assert.assertEquals(e.value().getValue(), "value " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenDecodeAhead_whenPollingBatches_thenAllReturnedInOrder() {
+        // Given
+        List<Event<Integer, TrackingPayload>> events = createEvents(100);
+        try (MockKafkaEventSource<Integer, TrackingPayload> source = createSource(events, 10, 2)) {
+            // When
+            List<Event<Integer, TrackingPayload>> received = new ArrayList<>();
+            List<Event<Integer, TrackingPayload>> batch = source.pollBatch(7, Duration.ofSeconds(1));
+            while (!batch.isEmpty()) {
+                received.addAll(batch);
+                batch = source.pollBatch(7, Duration.ofMillis(100));
+            }
+
+            // Then
+            Assert.assertEquals(received.size(), events.size());
+            for (int i = 0; i < received.size(); i++) {
+                Assert.assertEquals(received.get(i).key(), Integer.valueOf(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+public class TestKafkaEventSourceFetchThread {
+
+    private static final TopicPartition PARTITION = new TopicPartition(TestKafkaEventSource.TEST_TOPIC, 0);
+
+    private static List<Event<Integer, String>> createEvents(int size) {
+        List<Event<Integer, String>> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new SimpleEvent<>(Collections.emptyList(), i, Integer.toString(i)));
+        }
+        return events;
+    }
+
+    private static MockKafkaEventSource<Integer, String> createSource(List<Event<Integer, String>> events,
+                                                                      int fetchQueueSize) {
+        return new MockKafkaEventSource<>(
+                KafkaEventSource.<Integer, String>create()
+                                .bootstrapServers(TestKafkaEventSource.DEFAULT_BOOTSTRAP_SERVERS)
+                                .topic(TestKafkaEventSource.TEST_TOPIC)
+                                .consumerGroup(TestKafkaEventSource.TEST_GROUP + "-fetch-thread")
+                                .keyDeserializer(StringSerializer.class)
+                                .valueDeserializer(StringSerializer.class)
+                                .fromBeginning()
+                                .fetchThread(fetchQueueSize), events) {
+            @Override
+            protected MockConsumer<Integer, String> createMockConsumer() {
+                // The mock consumer ignores our max.poll.records configuration unless we explicitly set it
+                MockConsumer<Integer, String> mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+                mock.setMaxPollRecords(100);
+                return mock;
+            }
+        };
+    }
+
+    private static void verifyEvent(Event<Integer, String> event, int expected) {
+        Assert.assertNotNull(event, "Expected event " + expected + " but got null");
+        Assert.assertEquals(event.key(), expected);
+        Assert.assertEquals(event.value(), Integer.toString(expected));
+    }
+
+    private static Thread findFetchThread() {
+        return Thread.getAllStackTraces()
+                     .keySet()
+                     .stream()
+                     .filter(t -> t.getName().equals("KafkaEventSource-" + TestKafkaEventSource.TEST_GROUP
+                                                     + "-fetch-thread-Fetcher"))
+                     .filter(Thread::isAlive)
+                     .findFirst()
+                     .orElse(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*fetchQueueSize.*")
+    public void givenNegativeQueueSize_whenCreatingSource_thenIllegalArgument() {
+        createSource(Collections.emptyList(), -1);
+    }
+
+    @Test
+    public void givenNoFetchThread_whenCreatingSource_thenNotUsingFetchThread() {
+        // Given and When
+        try (MockKafkaEventSource<Integer, String> source = createSource(Collections.emptyList(), 0)) {
+            // Then
+            Assert.assertFalse(source.isUsingFetchThread());
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenPollingAllEvents_thenAllEventsReturnedInOrder() {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 2)) {
+            Assert.assertTrue(source.isUsingFetchThread());
+
+            // When and Then
+            for (int i = 0; i < events.size(); i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+            Assert.assertNull(source.poll(Duration.ofMillis(250)));
+            Assert.assertEquals(source.remaining(), 0L);
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenPollingBatches_thenAllEventsReturnedInOrder() {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 3)) {
+            // When
+            List<Event<Integer, String>> received = new ArrayList<>();
+            while (received.size() < events.size()) {
+                List<Event<Integer, String>> batch = source.pollBatch(75, Duration.ofSeconds(5));
+                Assert.assertFalse(batch.isEmpty());
+                received.addAll(batch);
+            }
+
+            // Then
+            for (int i = 0; i < received.size(); i++) {
+                verifyEvent(received.get(i), i);
+            }
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenAutoCommitting_thenOnlyDeliveredOffsetsCommitted() throws InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 2)) {
+            for (int i = 0; i < 100; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+            // Give the fetch thread time to fill its queue
+            Thread.sleep(250);
+
+            // When
+            verifyEvent(source.poll(Duration.ofSeconds(5)), 100);
+
+            // Then
+            // Fetch thread will have fetched beyond the events we have delivered, but we should only have committed up
+            // to the events delivered prior to the buffer being exhausted
+            MockConsumer<Integer, String> mock = source.getMockConsumer();
+            Assert.assertTrue(mock.position(PARTITION) > 200);
+            Map<TopicPartition, OffsetAndMetadata> committed = mock.committed(Set.of(PARTITION));
+            Assert.assertEquals(committed.get(PARTITION).offset(), 100L);
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenCalculatingRemaining_thenQueuedEventsIncluded() throws InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 2)) {
+            for (int i = 0; i < 150; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+            Thread.sleep(250);
+
+            // When
+            Long remaining = source.remaining();
+
+            // Then
+            Assert.assertEquals(remaining, 850L);
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenResettingOffsets_thenEventsFromResetOffsetReturned() throws InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 2)) {
+            for (int i = 0; i < 150; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+            Thread.sleep(250);
+
+            // When
+            // NB - MockConsumer discards records once they've been polled, so we can only meaningfully reset forwards
+            //      beyond the events the fetch thread has already queued
+            source.resetOffsets(Map.of(PARTITION, 700L));
+
+            // Then
+            for (int i = 700; i < 1_000; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenResettingOffsetsFromAnotherThread_thenEventsFromResetOffsetReturned() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 2)) {
+            for (int i = 0; i < 150; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+            Thread.sleep(250);
+
+            // When
+            Thread resetter = Thread.ofPlatform().start(() -> source.resetOffsets(Map.of(PARTITION, 700L)));
+            resetter.join();
+
+            // Then
+            Event<Integer, String> next = source.poll(Duration.ofSeconds(5));
+            while (next == null) {
+                // We may be woken up by the reset
+                next = source.poll(Duration.ofSeconds(5));
+            }
+            verifyEvent(next, 700);
+        }
+    }
+
+    @Test
+    public void givenFetchThreadWithNoEvents_whenInterrupted_thenPollReturnsPromptly() throws InterruptedException {
+        // Given
+        try (MockKafkaEventSource<Integer, String> source = createSource(Collections.emptyList(), 2)) {
+            Assert.assertNull(source.poll(Duration.ofMillis(100)));
+            Thread interrupter = Thread.ofPlatform().start(() -> {
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                source.interrupt();
+            });
+
+            // When
+            long start = System.currentTimeMillis();
+            Event<Integer, String> event = source.poll(Duration.ofSeconds(30));
+            long elapsed = System.currentTimeMillis() - start;
+            interrupter.join();
+
+            // Then
+            Assert.assertNull(event);
+            Assert.assertTrue(elapsed < 10_000, "Poll took " + elapsed + "ms despite being interrupted");
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenClosed_thenFetchThreadStopped() {
+        // Given
+        MockKafkaEventSource<Integer, String> source = createSource(createEvents(100), 2);
+        verifyEvent(source.poll(Duration.ofSeconds(5)), 0);
+        Assert.assertNotNull(findFetchThread());
+
+        // When
+        source.close();
+
+        // Then
+        Assert.assertNull(findFetchThread());
+        Assert.assertTrue(source.isClosed());
+    }
+
+    @Test
+    public void givenFetchThread_whenPartitionsRevoked_thenQueuedEventsForRevokedPartitionsDiscarded() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        try (MockKafkaEventSource<Integer, String> source = createSource(events, 2)) {
+            for (int i = 0; i < 150; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+            // Give the fetch thread time to fill its queue
+            Thread.sleep(250);
+
+            // When
+            // NB - Scheduling the rebalance as a poll task means it happens on the fetch thread during its next poll,
+            //      just as a real rebalance would, which happens once we take the next queued batch
+            MockConsumer<Integer, String> mock = source.getMockConsumer();
+            mock.schedulePollTask(() -> mock.rebalance(Collections.emptyList()));
+            for (int i = 150; i < 300; i++) {
+                verifyEvent(source.poll(Duration.ofSeconds(5)), i);
+            }
+
+            // Then
+            // The batch already taken by the source is still returned but the batch the fetch thread had queued for the
+            // revoked partition is not
+            Assert.assertNull(source.poll(Duration.ofMillis(250)));
+        }
+    }
+
+    @Test
+    public void givenFetchThread_whenClosed_thenFetchThreadStoppedBeforeConsumerClosed() {
+        // Given
+        List<Boolean> fetchThreadAliveOnClose = new ArrayList<>();
+        MockKafkaEventSource<Integer, String> source = new MockKafkaEventSource<>(
+                KafkaEventSource.<Integer, String>create()
+                                .bootstrapServers(TestKafkaEventSource.DEFAULT_BOOTSTRAP_SERVERS)
+                                .topic(TestKafkaEventSource.TEST_TOPIC)
+                                .consumerGroup(TestKafkaEventSource.TEST_GROUP + "-fetch-thread")
+                                .keyDeserializer(StringSerializer.class)
+                                .valueDeserializer(StringSerializer.class)
+                                .fromBeginning()
+                                .fetchThread(2), createEvents(100)) {
+            @Override
+            protected MockConsumer<Integer, String> createMockConsumer() {
+                return new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+                    @Override
+                    public synchronized void close() {
+                        fetchThreadAliveOnClose.add(findFetchThread() != null);
+                        super.close();
+                    }
+                };
+            }
+        };
+        verifyEvent(source.poll(Duration.ofSeconds(5)), 0);
+
+        // When
+        source.close();
+
+        // Then
+        Assert.assertEquals(fetchThreadAliveOnClose, List.of(false));
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.payloads.LazyPayload;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+public class TestKafkaEventSourceMemoryBudget {
+
+    private static final class BytesPayload extends LazyPayload<String> {
+        private BytesPayload(String rawData) {
+            super("text/plain", rawData.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        protected String deserialize() {
+            return new String(getRawData(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<Event<Integer, BytesPayload>> createEvents(int size) {
+        List<Event<Integer, BytesPayload>> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // Each payload is exactly 10 bytes
+            events.add(new SimpleEvent<>(Collections.emptyList(), i, new BytesPayload(String.format("value %04d", i))));
+        }
+        return events;
+    }
+
+    private static MockKafkaEventSource<Integer, BytesPayload> createSource(List<Event<Integer, BytesPayload>> events,
+                                                                            long maxBufferedBytes) {
+        return new MockKafkaEventSource<>(
+                KafkaEventSource.<Integer, BytesPayload>create()
+                                .bootstrapServers(TestKafkaEventSource.DEFAULT_BOOTSTRAP_SERVERS)
+                                .topic(TestKafkaEventSource.TEST_TOPIC)
+                                .consumerGroup(TestKafkaEventSource.TEST_GROUP + "-memory-budget")
+                                .keyDeserializer(StringSerializer.class)
+                                .valueDeserializer(StringSerializer.class)
+                                .fromBeginning()
+                                .maxBufferedBytes(maxBufferedBytes), events);
+    }
+
+    private static MockKafkaEventSource<Integer, BytesPayload> createFetchThreadSource(
+            List<Event<Integer, BytesPayload>> events, long maxBufferedBytes) {
+        return new MockKafkaEventSource<>(
+                KafkaEventSource.<Integer, BytesPayload>create()
+                                .bootstrapServers(TestKafkaEventSource.DEFAULT_BOOTSTRAP_SERVERS)
+                                .topic(TestKafkaEventSource.TEST_TOPIC)
+                                .consumerGroup(TestKafkaEventSource.TEST_GROUP + "-memory-budget")
+                                .keyDeserializer(StringSerializer.class)
+                                .valueDeserializer(StringSerializer.class)
+                                .fromBeginning()
+                                .fetchThread(4)
+                                .maxBufferedBytes(maxBufferedBytes), events) {
+            @Override
+            protected MockConsumer<Integer, BytesPayload> createMockConsumer() {
+                // Each fetch returns 10 events, i.e. 100 bytes
+                MockConsumer<Integer, BytesPayload> mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+                mock.setMaxPollRecords(10);
+                return mock;
+            }
+        };
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*maxBufferedBytes.*")
+    public void givenNegativeBudget_whenCreatingSource_thenIllegalArgument() {
+        createSource(Collections.emptyList(), -1);
+    }
+
+    @Test
+    public void givenRecordWithSerializedSizes_whenCalculatingSize_thenSerializedSizesUsed() {
+        // Given
+        ConsumerRecord<String, String> record =
+                new ConsumerRecord<>("test", 0, 0, 0L, TimestampType.CREATE_TIME, 3, 7, "key", "value",
+                                     new RecordHeaders(), Optional.empty());
+
+        // When and Then
+        Assert.assertEquals(KafkaEventSource.recordSize(record), 10L);
+    }
+
+    @Test
+    public void givenRecordWithLazyPayloadAndUnknownSizes_whenCalculatingSize_thenPayloadSizeUsed() {
+        // Given
+        ConsumerRecord<Integer, BytesPayload> record = new ConsumerRecord<>("test", 0, 0, 1, new BytesPayload("12345"));
+
+        // When and Then
+        Assert.assertEquals(KafkaEventSource.recordSize(record), 5L);
+    }
+
+    @Test
+    public void givenRecordWithUnknownSizes_whenCalculatingSize_thenZero() {
+        // Given
+        ConsumerRecord<Integer, String> record = new ConsumerRecord<>("test", 0, 0, 1, "value");
+
+        // When and Then
+        Assert.assertEquals(KafkaEventSource.recordSize(record), 0L);
+    }
+
+    @Test
+    public void givenNoBudget_whenPolling_thenFetchingNeverPaused() {
+        // Given
+        try (MockKafkaEventSource<Integer, BytesPayload> source = createSource(createEvents(50), 0)) {
+            // When
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+
+            // Then
+            Assert.assertFalse(source.isFetchingPaused());
+            Assert.assertEquals(source.getBufferedBytes(), 0L);
+            Assert.assertTrue(source.getMockConsumer().paused().isEmpty());
+        }
+    }
+
+    @Test
+    public void givenBudget_whenBufferExceedsBudget_thenBufferedBytesTrackedAndPartitionsNeverPaused() {
+        // Given
+        List<Event<Integer, BytesPayload>> events = createEvents(50);
+        try (MockKafkaEventSource<Integer, BytesPayload> source = createSource(events, 100)) {
+            Assert.assertEquals(source.getMaxBufferedBytes(), 100L);
+
+            // When
+            Event<Integer, BytesPayload> first = source.poll(Duration.ofSeconds(1));
+
+            // Then
+            Assert.assertNotNull(first);
+            Assert.assertEquals(source.getBufferedBytes(), 490L);
+            Assert.assertFalse(source.isFetchingPaused());
+            Assert.assertTrue(source.getMockConsumer().paused().isEmpty());
+
+            // And
+            List<Event<Integer, BytesPayload>> batch = source.pollBatch(20, Duration.ofSeconds(1));
+            Assert.assertEquals(batch.size(), 20);
+            Assert.assertEquals(source.getBufferedBytes(), 290L);
+            int received = 21;
+            while (source.getBufferedBytes() > 0) {
+                Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+                received++;
+            }
+            Assert.assertEquals(received, events.size());
+            Assert.assertNull(source.poll(Duration.ofMillis(100)));
+            Assert.assertTrue(source.getMockConsumer().paused().isEmpty());
+        }
+    }
+
+    @Test
+    public void givenBudgetAndApplicationPausedPartition_whenPolling_thenPartitionRemainsPaused() {
+        // Given
+        TopicPartition partition = new TopicPartition(TestKafkaEventSource.TEST_TOPIC, 0);
+        try (MockKafkaEventSource<Integer, BytesPayload> source = createSource(createEvents(50), 100)) {
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+            source.getMockConsumer().pause(List.of(partition));
+
+            // When
+            while (source.getBufferedBytes() > 0) {
+                Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+            }
+            Assert.assertNull(source.poll(Duration.ofMillis(100)));
+
+            // Then
+            Assert.assertEquals(source.getMockConsumer().paused(), Set.of(partition));
+        }
+    }
+
+    @Test
+    public void givenFetchThreadAndBudget_whenBufferedEventsReachBudget_thenFetchingStopsUntilDrained() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, BytesPayload>> events = createEvents(50);
+        try (MockKafkaEventSource<Integer, BytesPayload> source = createFetchThreadSource(events, 100)) {
+            // When
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(5)));
+            // Give the fetch thread time to fill its queue, were it not for the budget it could fetch 4 more batches
+            Thread.sleep(250);
+
+            // Then
+            // The fetch thread fetched one more batch while the first one was below budget, after which the buffered
+            // events reached the budget so it stopped fetching
+            Assert.assertTrue(source.isFetchingPaused());
+            Assert.assertEquals(source.getMockConsumer()
+                                      .position(new TopicPartition(TestKafkaEventSource.TEST_TOPIC, 0)), 20L);
+
+            // And
+            for (int i = 1; i < events.size(); i++) {
+                Event<Integer, BytesPayload> event = source.poll(Duration.ofSeconds(5));
+                Assert.assertNotNull(event);
+                Assert.assertEquals(event.key(), i);
+            }
+            Assert.assertNull(source.poll(Duration.ofMillis(250)));
+            Assert.assertFalse(source.isFetchingPaused());
+        }
+    }
+
+    @Test
+    public void givenBudget_whenBufferWithinBudget_thenFetchingNotPaused() {
+        // Given
+        try (MockKafkaEventSource<Integer, BytesPayload> source = createSource(createEvents(5), 1_000)) {
+            // When
+            Assert.assertNotNull(source.poll(Duration.ofSeconds(1)));
+
+            // Then
+            Assert.assertFalse(source.isFetchingPaused());
+            Assert.assertEquals(source.getBufferedBytes(), 40L);
+        }
+    }
+}
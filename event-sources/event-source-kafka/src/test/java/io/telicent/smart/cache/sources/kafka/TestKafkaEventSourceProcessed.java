@@ -32,6 +32,7 @@ import org.testng.annotations.Test;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -197,6 +198,33 @@ public class TestKafkaEventSourceProcessed extends TestKafkaEventSource {
         }
     }
 
+    @Test
+    public void givenNoBatchingProcessedSink_whenPollingAndSendingBatches_thenOffsetsCommittedPerBatch() {
+        // Given
+        EventSource<Integer, String> source = createSource(createOrGetSampleData(10_001));
+        MockConsumer<Integer, String> mock = this.kafkaEventSource.getMockConsumer();
+        TopicPartition partition = new TopicPartition(TEST_TOPIC, 0);
+        Set<TopicPartition> partitions = Set.of(partition);
+        verifyNoCommittedOffsets(mock, partitions);
+
+        try (EventProcessedSink<Integer, String> sink = EventProcessedSink.<Integer, String>create()
+                                                                          .noBatching()
+                                                                          .build()) {
+            // When
+            long total = 0;
+            List<Event<Integer, String>> batch;
+            while (!(batch = source.pollBatch(1_000, Duration.ofSeconds(1))).isEmpty()) {
+                sink.sendAll(batch);
+                total += batch.size();
+
+                // Then
+                // As with per-event processing the commit is of the next offset to be processed
+                verifyCommittedOffsets(mock, partition, partitions, total);
+            }
+            Assert.assertEquals(total, 10_001);
+        }
+    }
+
     private static void verifyNoCommittedOffsets(MockConsumer<Integer, String> mock, Set<TopicPartition> partitions) {
         Map<TopicPartition, OffsetAndMetadata> committed = mock.committed(partitions);
         Assert.assertTrue(committed.isEmpty());
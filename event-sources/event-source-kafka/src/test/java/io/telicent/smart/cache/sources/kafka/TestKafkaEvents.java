@@ -16,7 +16,9 @@
 package io.telicent.smart.cache.sources.kafka;
 
 import io.telicent.smart.cache.sources.EventHeader;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeader;
@@ -27,6 +29,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -219,4 +222,25 @@ public class TestKafkaEvents {
         Assert.assertTrue(withOtherHeadersDifferentOrder.equals(withOtherHeaders));
         Assert.assertTrue(withOtherHeaders.equals(withOtherHeadersDifferentOrder));
     }
+
+    @Test
+    public void givenKafkaEvent_whenGettingPartition_thenRecordPartitionReturned() {
+        // Given
+        KafkaEvent<Integer, String> event = new KafkaEvent<>(createConsumerRecord(TEST_KEY, TEST_VALUE), null);
+
+        // When
+        TopicPartition partition = KafkaEvent.partitionOf(event);
+
+        // Then
+        Assert.assertEquals(partition, new TopicPartition(TEST_TOPIC, TEST_PARTITION));
+    }
+
+    @Test
+    public void givenNonKafkaEvent_whenGettingPartition_thenNull() {
+        // Given
+        SimpleEvent<Integer, String> event = new SimpleEvent<>(Collections.emptyList(), TEST_KEY, TEST_VALUE);
+
+        // When and Then
+        Assert.assertNull(KafkaEvent.partitionOf(event));
+    }
 }
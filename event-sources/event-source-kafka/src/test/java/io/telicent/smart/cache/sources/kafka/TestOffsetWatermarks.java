@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.sources.kafka;
+
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TestOffsetWatermarks {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition("test", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("test", 1);
+
+    private static KafkaEvent<String, String> event(TopicPartition partition, long offset) {
+        return new KafkaEvent<>(
+                new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "key", "value"), null);
+    }
+
+    private static void deliver(OffsetWatermarks watermarks, List<KafkaEvent<String, String>> events) {
+        events.forEach(e -> watermarks.delivered(e.getConsumerRecord()));
+    }
+
+    @Test
+    public void givenNoDeliveries_whenGettingWatermarks_thenEmpty() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+
+        // When and Then
+        Assert.assertTrue(watermarks.uncommitted().isEmpty());
+        Assert.assertTrue(watermarks.all().isEmpty());
+    }
+
+    @Test
+    public void givenDeliveredButUnprocessedEvents_whenGettingWatermarks_thenWatermarkIsFirstDeliveredOffset() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        deliver(watermarks, List.of(event(PARTITION_0, 10), event(PARTITION_0, 11)));
+
+        // When
+        Map<TopicPartition, OffsetAndMetadata> offsets = watermarks.uncommitted();
+
+        // Then
+        Assert.assertEquals(offsets.get(PARTITION_0).offset(), 10L);
+        Assert.assertTrue(watermarks.uncommitted().isEmpty());
+    }
+
+    @Test
+    public void givenOutOfOrderProcessing_whenGettingWatermarks_thenOnlyContiguousProcessedEventsCommitted() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        List<KafkaEvent<String, String>> events =
+                List.of(event(PARTITION_0, 0), event(PARTITION_0, 1), event(PARTITION_0, 2), event(PARTITION_0, 3));
+        deliver(watermarks, events);
+
+        // When
+        watermarks.processed(List.of(events.get(2), events.get(1)));
+
+        // Then
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 0L);
+
+        // And
+        watermarks.processed(List.of(events.get(0)));
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 3L);
+        watermarks.processed(List.of(events.get(3)));
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 4L);
+    }
+
+    @Test
+    public void givenOffsetGaps_whenAllProcessed_thenWatermarkIsPastHighestDelivered() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        List<KafkaEvent<String, String>> events = List.of(event(PARTITION_0, 5), event(PARTITION_0, 9));
+        deliver(watermarks, events);
+
+        // When
+        watermarks.processed(List.copyOf(events));
+
+        // Then
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 10L);
+    }
+
+    @Test
+    public void givenMultiplePartitions_whenProcessing_thenWatermarksTrackedIndependently() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        List<KafkaEvent<String, String>> events =
+                List.of(event(PARTITION_0, 0), event(PARTITION_1, 0), event(PARTITION_0, 1), event(PARTITION_1, 1));
+        deliver(watermarks, events);
+        watermarks.uncommitted();
+
+        // When
+        watermarks.processed(List.of(events.get(1), events.get(3)));
+
+        // Then
+        Map<TopicPartition, OffsetAndMetadata> offsets = watermarks.uncommitted();
+        Assert.assertEquals(offsets.size(), 1);
+        Assert.assertEquals(offsets.get(PARTITION_1).offset(), 2L);
+        Assert.assertEquals(watermarks.all().get(PARTITION_0).offset(), 0L);
+    }
+
+    @Test
+    public void givenFailedCommit_whenGettingUncommitted_thenReturnedAgain() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        KafkaEvent<String, String> event = event(PARTITION_0, 0);
+        deliver(watermarks, List.of(event));
+        watermarks.processed(List.of(event));
+        Map<TopicPartition, OffsetAndMetadata> offsets = watermarks.uncommitted();
+
+        // When
+        watermarks.commitFailed(offsets);
+
+        // Then
+        Assert.assertEquals(watermarks.uncommitted(), offsets);
+    }
+
+    @Test
+    public void givenRevokedPartition_whenRemoving_thenFinalWatermarkReturned_andAcknowledgementsIgnored() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        List<KafkaEvent<String, String>> events = List.of(event(PARTITION_0, 0), event(PARTITION_1, 0));
+        deliver(watermarks, events);
+        watermarks.processed(List.of(events.get(0)));
+
+        // When
+        Map<TopicPartition, OffsetAndMetadata> removed = watermarks.remove(List.of(PARTITION_0));
+
+        // Then
+        Assert.assertEquals(removed.get(PARTITION_0).offset(), 1L);
+        watermarks.processed(List.of(events.get(0)));
+        Assert.assertFalse(watermarks.all().containsKey(PARTITION_0));
+        Assert.assertTrue(watermarks.all().containsKey(PARTITION_1));
+    }
+
+    @Test
+    public void givenNonKafkaEvents_whenProcessing_thenIgnored() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        deliver(watermarks, List.of(event(PARTITION_0, 0)));
+
+        // When
+        watermarks.processed(List.of(new SimpleEvent<>(Collections.emptyList(), "key", "value")));
+
+        // Then
+        Assert.assertEquals(watermarks.all().get(PARTITION_0).offset(), 0L);
+
+        // And
+        watermarks.clear();
+        Assert.assertTrue(watermarks.all().isEmpty());
+    }
+
+    @Test
+    public void givenCumulativeWatermarks_whenProcessingOutOfOrder_thenHighestProcessedOffsetCommitted() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(false);
+        List<KafkaEvent<String, String>> events =
+                List.of(event(PARTITION_0, 0), event(PARTITION_0, 1), event(PARTITION_0, 2), event(PARTITION_0, 3));
+        deliver(watermarks, events);
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 0L);
+
+        // When
+        watermarks.processed(List.of(events.get(2), events.get(1)));
+
+        // Then
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 3L);
+        Assert.assertEquals(watermarks.outstanding(PARTITION_0), 0);
+    }
+
+    @Test
+    public void givenCumulativeWatermarks_whenOnlyLastEventProcessed_thenWatermarkAdvancesPastAllEvents() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(false);
+        List<KafkaEvent<String, String>> events = new ArrayList<>();
+        for (int i = 100; i < 200; i++) {
+            events.add(event(PARTITION_0, i));
+        }
+        deliver(watermarks, events);
+
+        // When
+        watermarks.processed(List.of(events.get(events.size() - 1)));
+
+        // Then
+        Assert.assertEquals(watermarks.uncommitted().get(PARTITION_0).offset(), 200L);
+    }
+
+    @Test
+    public void givenCumulativeWatermarks_whenProcessingOlderEvent_thenWatermarkNeverRegresses() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(false);
+        List<KafkaEvent<String, String>> events = List.of(event(PARTITION_0, 0), event(PARTITION_0, 1));
+        deliver(watermarks, events);
+        watermarks.processed(List.of(events.get(1)));
+
+        // When
+        watermarks.processed(List.of(events.get(0)));
+
+        // Then
+        Assert.assertEquals(watermarks.all().get(PARTITION_0).offset(), 2L);
+    }
+
+    @Test
+    public void givenStrictWatermarks_whenOnlyLastEventProcessed_thenWatermarkStallsAtFirstEvent() {
+        // Given
+        OffsetWatermarks watermarks = new OffsetWatermarks(true);
+        List<KafkaEvent<String, String>> events = new ArrayList<>();
+        for (int i = 0; i < OffsetWatermarks.STALL_WARNING_THRESHOLD + 1; i++) {
+            events.add(event(PARTITION_0, i));
+        }
+        deliver(watermarks, events);
+        watermarks.uncommitted();
+
+        // When
+        watermarks.processed(List.of(events.get(events.size() - 1)));
+
+        // Then
+        Assert.assertTrue(watermarks.uncommitted().isEmpty());
+        Assert.assertEquals(watermarks.all().get(PARTITION_0).offset(), 0L);
+        Assert.assertEquals(watermarks.outstanding(PARTITION_0), OffsetWatermarks.STALL_WARNING_THRESHOLD);
+    }
+}
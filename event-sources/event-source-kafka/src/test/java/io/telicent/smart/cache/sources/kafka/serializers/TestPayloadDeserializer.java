@@ -431,6 +431,115 @@ public class TestPayloadDeserializer {
         }
     }
 
+    private static final byte[] TURTLE_DATA = """
+            # A comment that is lost if the payload is reserialized
+            <urn:subject> <urn:predicate> "object" .
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static Headers contentTypeHeaders(String contentType) {
+        Headers headers = new RecordHeaders();
+        headers.add(HttpNames.hContentType, contentType.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    @Test
+    public void givenUnaccessedLazyPayload_whenSerializingToSameContentType_thenRawDataPassedThrough() {
+        // Given
+        try (RdfPayloadSerializer serializer = new RdfPayloadSerializer()) {
+            RdfPayload payload = RdfPayload.of(WebContent.contentTypeTurtle, TURTLE_DATA);
+
+            // When
+            byte[] serialized =
+                    serializer.serialize("test", contentTypeHeaders(WebContent.contentTypeTurtle), payload);
+
+            // Then
+            Assert.assertSame(serialized, TURTLE_DATA);
+            Assert.assertFalse(payload.isReady());
+        }
+    }
+
+    @Test
+    public void givenPreloadedLazyPayload_whenSerializingToSameContentType_thenRawDataPassedThrough() {
+        // Given
+        try (RdfPayloadSerializer serializer = new RdfPayloadSerializer()) {
+            RdfPayload payload = RdfPayload.of(WebContent.contentTypeTurtle, TURTLE_DATA);
+            Assert.assertTrue(payload.preload());
+
+            // When
+            byte[] serialized =
+                    serializer.serialize("test", contentTypeHeaders(WebContent.contentTypeTurtle), payload);
+
+            // Then
+            Assert.assertSame(serialized, TURTLE_DATA);
+        }
+    }
+
+    @Test
+    public void givenAccessedLazyPayload_whenSerializingToSameContentType_thenReserialized() {
+        // Given
+        try (RdfPayloadSerializer serializer = new RdfPayloadSerializer()) {
+            RdfPayload payload = RdfPayload.of(WebContent.contentTypeTurtle, TURTLE_DATA);
+            payload.getDataset()
+                   .add(Quad.create(Quad.defaultGraphIRI, NodeFactory.createURI("urn:subject"),
+                                    NodeFactory.createURI("urn:predicate"), NodeFactory.createLiteralString("added")));
+
+            // When
+            byte[] serialized =
+                    serializer.serialize("test", contentTypeHeaders(WebContent.contentTypeTurtle), payload);
+
+            // Then
+            String output = new String(serialized, StandardCharsets.UTF_8);
+            Assert.assertFalse(output.contains("A comment"));
+            Assert.assertTrue(output.contains("added"));
+        }
+    }
+
+    @Test
+    public void givenUnaccessedLazyPayload_whenSerializingToIncompatibleContentType_thenReserialized() {
+        // Given
+        try (RdfPayloadSerializer serializer = new RdfPayloadSerializer()) {
+            RdfPayload payload = RdfPayload.of(WebContent.contentTypeTurtle, TURTLE_DATA);
+
+            // When
+            byte[] serialized = serializer.serialize("test", payload);
+
+            // Then
+            Assert.assertNotSame(serialized, TURTLE_DATA);
+            Assert.assertEquals(new String(serialized, StandardCharsets.UTF_8).trim(),
+                                "<urn:subject> <urn:predicate> \"object\" .");
+        }
+    }
+
+    @DataProvider(name = "passthrough")
+    public Object[][] passthroughContentTypes() {
+        return new Object[][] {
+                { WebContent.contentTypeNQuads, null, true },
+                { WebContent.contentTypeNQuads, WebContent.contentTypeNQuads, true },
+                { WebContent.contentTypeNTriples, WebContent.contentTypeNQuads, true },
+                { WebContent.contentTypeTurtle, WebContent.contentTypeTriG, true },
+                { WebContent.contentTypePatch, WebContent.contentTypePatch, true },
+                { WebContent.contentTypeTurtle, null, false },
+                { WebContent.contentTypeNQuads, WebContent.contentTypeNTriples, false },
+                { WebContent.contentTypeTriG, WebContent.contentTypeTurtle, false },
+                { WebContent.contentTypePatch, WebContent.contentTypePatchThrift, false },
+                { WebContent.contentTypePatch, null, false },
+                { WebContent.contentTypeNQuads, WebContent.contentTypePatch, false },
+                { "application/unknown", null, false },
+                { null, null, false }
+        };
+    }
+
+    @Test(dataProvider = "passthrough")
+    public void givenContentTypes_whenCheckingPassthrough_thenResultAsExpected(String payloadContentType,
+                                                                               String outputContentType,
+                                                                               boolean expected) {
+        // Given
+        try (RdfPayloadSerializer serializer = new RdfPayloadSerializer()) {
+            // When and Then
+            Assert.assertEquals(serializer.canPassthrough(payloadContentType, outputContentType), expected);
+        }
+    }
+
     private void verifyEquivalentPatches(RDFPatch expected, RDFPatch actual) {
         // Then
         DatasetGraph dsgExpected = DatasetGraphFactory.create();
@@ -16,9 +16,11 @@
 package io.telicent.smart.cache.payloads;
 
 import io.telicent.smart.cache.projectors.utils.WriteOnceReference;
+import io.telicent.smart.cache.sources.Event;
 import lombok.Getter;
 
 import java.util.Objects;
+import java.util.function.ToLongFunction;
 
 /**
  * Represents an abstract lazy payload
@@ -32,16 +34,29 @@ import java.util.Objects;
  * Malformed lazy payloads can also be safely serialised back to another DLQ by just copying the original raw bytes back
  * out.
  * </p>
+ * <p>
+ * Lazy deserialisation is thread-safe, so a payload may be deserialised ahead of time on a background thread, e.g. by a
+ * Kafka event source configured with decode-ahead, while the thread that eventually processes the event blocks in
+ * {@link #getValue()} until any in-flight deserialisation has completed.
+ * </p>
+ * <p>
+ * So long as the value of a lazy payload has never been accessed its original raw bytes are guaranteed to be an exact
+ * representation of it, and are available via {@link #getUnaccessedRawData()}.  This allows serializers to write those
+ * bytes back out unchanged, rather than deserialising and reserialising the value, e.g. when an application merely
+ * forwards events.
+ * </p>
  */
 public abstract class LazyPayload<T> {
 
     public static final int UNKNOWN_SIZE = -1;
     @Getter
-    private byte[] rawData;
+    private volatile byte[] rawData;
     private final long sizeInBytes;
+    @Getter
     protected final String contentType;
     private final WriteOnceReference<T> value = new WriteOnceReference<>();
     private final WriteOnceReference<Throwable> error = new WriteOnceReference<>();
+    private boolean accessed = false;
 
     /**
      * Creates a lazily deserialised payload
@@ -81,7 +96,8 @@ public abstract class LazyPayload<T> {
      * <p>
      * Note that if {@link #getValue()} method has already been called and the payload was successfully deserialised
      * then the raw data would have been cleared as a result as it is no longer needed.  Thus, this will only be
-     * {@code true} if deserialisation was never attempted, or was attempted but failed due to malformed data.
+     * {@code true} if the value was never accessed, i.e. at most it was deserialised ahead of time via
+     * {@link #preload()}, or deserialisation was attempted but failed due to malformed data.
      * </p>
      *
      * @return True if raw data is present, false otherwise
@@ -105,6 +121,22 @@ public abstract class LazyPayload<T> {
         return this.sizeInBytes;
     }
 
+    /**
+     * Gets a function that estimates the size in bytes of an event whose value is a lazy payload, e.g. for use as the
+     * sizer for a size limited {@link io.telicent.smart.cache.projectors.sinks.BatchSink}
+     * <p>
+     * The estimate is the size of the payloads original raw data, as given by {@link #sizeInBytes()}, events with no
+     * value, or whose payload size is unknown, are estimated as zero bytes.
+     * </p>
+     *
+     * @param <TKey>     Event key type
+     * @param <TPayload> Event payload type
+     * @return Event sizer function
+     */
+    public static <TKey, TPayload extends LazyPayload<?>> ToLongFunction<Event<TKey, TPayload>> eventSizer() {
+        return event -> event.value() != null ? Math.max(0, event.value().sizeInBytes()) : 0;
+    }
+
     /**
      * Gets whether this payload is ready for immediate processing i.e. if it's a lazily deserialised payload has it
      * already been deserialised?
@@ -112,7 +144,7 @@ public abstract class LazyPayload<T> {
      * @return True if ready and a value is available from {@link #getValue()}, false otherwise
      * @see #hasError()
      */
-    public boolean isReady() {
+    public synchronized boolean isReady() {
         return this.value.isSet();
     }
 
@@ -127,7 +159,7 @@ public abstract class LazyPayload<T> {
      * @see #isReady()
      * @see #getError()
      */
-    public boolean hasError() {
+    public synchronized boolean hasError() {
         return this.error.isSet();
     }
 
@@ -136,7 +168,7 @@ public abstract class LazyPayload<T> {
      *
      * @return Deserialisation error, {@code null} if no error or deserialisation has yet to be attempted
      */
-    public Throwable getError() {
+    public synchronized Throwable getError() {
         return this.error.get();
     }
 
@@ -144,13 +176,58 @@ public abstract class LazyPayload<T> {
      * Gets the value for this payload (if any) or throw an error if it cannot be deserialised
      * <p>
      * A lazy payload caches the deserialised value/deserialisation error after the first attempt so subsequent calls to
-     * this method either return the original
+     * this method either return the original value or rethrow the original error.  If another thread is concurrently
+     * deserialising this payload then this method blocks until that deserialisation has completed.
      * </p>
      *
      * @return Value
      * @throws LazyPayloadException Thrown if the raw data for this payload cannot be deserialised into a valid value
      */
-    public T getValue() {
+    public synchronized T getValue() {
+        this.accessed = true;
+        T deserialized = computeValue();
+        // Once the value has been accessed it may be modified, so the raw data is no longer guaranteed to represent it,
+        // and we don't need a copy of that as well as the deserialised value we're now holding
+        clearRawData();
+        return deserialized;
+    }
+
+    /**
+     * Deserialises the value of this payload ahead of it being accessed, e.g. on a background thread
+     * <p>
+     * Unlike {@link #getValue()} this does not count as accessing the value, so the raw data is retained and remains
+     * available via {@link #getUnaccessedRawData()} until such time as the value is actually accessed.  Any
+     * deserialisation error is cached and rethrown when the value is accessed.
+     * </p>
+     *
+     * @return True if the value is now available, false if deserialisation failed
+     */
+    public synchronized boolean preload() {
+        if (this.error.isSet()) {
+            return false;
+        }
+        try {
+            computeValue();
+            return true;
+        } catch (LazyPayloadException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the raw data for this payload provided that its value has never been accessed
+     * <p>
+     * Since the value has never been accessed it cannot have been modified, so the raw data returned is guaranteed to be
+     * an exact representation of this payload and may be written out as-is by serializers.
+     * </p>
+     *
+     * @return Raw data, or {@code null} if not a lazy payload, or its value has been accessed
+     */
+    public synchronized byte[] getUnaccessedRawData() {
+        return this.accessed ? null : this.rawData;
+    }
+
+    private T computeValue() {
         if (this.error.isSet()) {
             throw wrappedError();
         }
@@ -163,11 +240,7 @@ public abstract class LazyPayload<T> {
             }
 
             try {
-                T deserialized = deserialize();
-                // Upon successful deserialisation clear the raw data as don't need a copy of that as well as the
-                // deserialised value we'll now be holding
-                clearRawData();
-                return deserialized;
+                return deserialize();
             } catch (Throwable e) {
                 // Upon failed deserialisation we set the error so that on subsequent attempts we simply return the
                 // error again
@@ -217,6 +290,8 @@ public abstract class LazyPayload<T> {
      */
     private void clearRawData() {
         // Once we've successfully deserialised can stop storing the raw bytes
-        this.rawData = null;
+        if (this.value.isSet()) {
+            this.rawData = null;
+        }
     }
 }
@@ -21,6 +21,8 @@ import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.RDFParserBuilder;
 import org.apache.jena.riot.WebContent;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.shared.JenaException;
 import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.DatasetGraphFactory;
@@ -149,24 +151,61 @@ public class RdfPayload extends LazyPayload<Either<DatasetGraph, RDFPatch>> {
         }
     }
 
+    /**
+     * Streams the quads of this payload directly from its raw data into the given destination, without materialising
+     * an in-memory {@link DatasetGraph}
+     * <p>
+     * This is only possible for a lazily deserialised dataset payload whose value has not yet been deserialised, or
+     * accessed, as otherwise the deserialised value is the authoritative representation of the payload.  When this
+     * returns {@code false} callers should fall back to {@link #getDataset()}.  Streaming does not count as accessing
+     * the value, so the payload remains unchanged and may still be accessed, or streamed, again subsequently.
+     * </p>
+     * <p>
+     * Note that as the raw data is parsed incrementally the destination may have received some quads prior to any parse
+     * error being thrown, callers that require all or nothing semantics <strong>MUST</strong> apply the stream within a
+     * transaction that they abort upon error.
+     * </p>
+     *
+     * @param destination Destination stream
+     * @return True if the payload was streamed into the destination, false if streaming is not possible for this
+     * payload
+     * @throws RdfPayloadException Thrown if the raw data for this payload cannot be parsed as valid RDF
+     */
+    public boolean streamDataset(StreamRDF destination) {
+        Objects.requireNonNull(destination, "Destination cannot be null");
+        if (isRdfPatchContentType() || this.isReady() || this.hasError()) {
+            return false;
+        }
+        byte[] rawData = this.getUnaccessedRawData();
+        if (rawData == null) {
+            return false;
+        }
+        parseDataset(rawData, destination);
+        return true;
+    }
+
     protected DatasetGraph deserializeDataset() {
         if (this.isReady() && this.getValue().isA()) {
             return this.getValue().getA();
         }
 
         // Otherwise try to deserialise into a DatasetGraph now
+        DatasetGraph dsg = DatasetGraphFactory.create();
+        parseDataset(this.getRawData(), StreamRDFLib.dataset(dsg));
+        // NB - We could just call toDatasetGraph() but that creates a much more expensive transactional dataset
+        //      graph which tanks performance in our test scenarios
+        return dsg;
+    }
+
+    private void parseDataset(byte[] rawData, StreamRDF destination) {
         Lang lang = RDFLanguages.contentTypeToLang(contentType);
         Lang selectedLang = lang != null ? lang : Lang.NQUADS;
         try {
-            DatasetGraph dsg = DatasetGraphFactory.create();
             RDFParserBuilder.create()
                             .lang(selectedLang)
-                            .source(new ByteArrayInputStream(this.getRawData()))
+                            .source(new ByteArrayInputStream(rawData))
                             .build()
-                            .parse(dsg);
-            // NB - We could just call toDatasetGraph() but that creates a much more expensive transactional dataset
-            //      graph which tanks performance in our test scenarios
-            return dsg;
+                            .parse(destination);
         } catch (JenaException e) {
             throw new RdfPayloadException(String.format(
                     "Failed to deserialise RDF Payload, selected RDF Language '%s' based on Content-Type header '%s', which could not successfully parse the provided RDF data",
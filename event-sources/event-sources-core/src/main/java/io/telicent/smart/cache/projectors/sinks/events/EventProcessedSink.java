@@ -74,6 +74,24 @@ public class EventProcessedSink<TKey, TValue> implements Sink<Event<TKey, TValue
         }
     }
 
+    @Override
+    public void sendAll(Collection<? extends Event<TKey, TValue>> items) {
+        if (this.batchSize != NO_BATCHING) {
+            Sink.super.sendAll(items);
+            return;
+        }
+
+        // When not batching a batch of events received together is still reported as processed together, with a single
+        // processed() call to each event source, rather than one call per event
+        Map<EventSource<?, ?>, List<Event<?, ?>>> processed = new LinkedHashMap<>();
+        for (Event<TKey, TValue> event : items) {
+            if (event.source() != null) {
+                processed.computeIfAbsent(event.source(), k -> new ArrayList<>()).add(event);
+            }
+        }
+        processed.forEach(EventSource::processed);
+    }
+
     /**
      * Gets the number of incomplete batches i.e. batches which have not been reported as processed to their respective
      * event sources
@@ -94,4 +94,9 @@ public class CapturingEventSource<TKey, TValue> implements EventSource<TKey, TVa
     public void processed(Collection<Event<?,?>> processedEvents) {
         this.underlying.processed(processedEvents);
     }
+
+    @Override
+    public boolean supportsOutOfOrderProcessing() {
+        return this.underlying.supportsOutOfOrderProcessing();
+    }
 }
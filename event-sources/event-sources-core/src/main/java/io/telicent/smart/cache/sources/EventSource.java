@@ -16,7 +16,10 @@
 package io.telicent.smart.cache.sources;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a source of events
@@ -95,6 +98,47 @@ public interface EventSource<TKey, TValue> {
      */
     Event<TKey, TValue> poll(Duration timeout);
 
+    /**
+     * Polls for a batch of events from the source, potentially blocking until at least one event is available.
+     * <p>
+     * This behaves as {@link #poll(Duration)} except that rather than returning a single event it returns up to
+     * {@code max} events.  It only blocks until the first event of the batch is available, any further events are only
+     * included in the batch if they are immediately available.  If no event is available within the given timeout then
+     * an empty list is returned.
+     * </p>
+     * <p>
+     * The default implementation is built upon {@link #poll(Duration)} and {@link #availableImmediately()}, however
+     * implementations which retrieve events from their underlying storage in batches are encouraged to override this
+     * with a more efficient implementation.
+     * </p>
+     *
+     * @param max     Maximum number of events to return, must be at least 1
+     * @param timeout Maximum time to wait for the first event before returning an empty list
+     * @return Batch of events, possibly empty if no events are currently available
+     * @throws IllegalArgumentException Thrown if {@code max} is less than 1
+     * @throws IllegalStateException    Thrown if this is called after the event source has been closed
+     * @throws EventSourceException     Thrown if the event source encounters an unrecoverable error
+     */
+    default List<Event<TKey, TValue>> pollBatch(int max, Duration timeout) {
+        if (max < 1) {
+            throw new IllegalArgumentException("Max must be >= 1");
+        }
+        Event<TKey, TValue> event = this.poll(timeout);
+        if (event == null) {
+            return Collections.emptyList();
+        }
+        List<Event<TKey, TValue>> batch = new ArrayList<>();
+        batch.add(event);
+        while (batch.size() < max && this.availableImmediately()) {
+            event = this.poll(Duration.ZERO);
+            if (event == null) {
+                break;
+            }
+            batch.add(event);
+        }
+        return batch;
+    }
+
     /**
      * Reports the total remaining events at the time of calling (if known).
      * <p>
@@ -127,6 +171,25 @@ public interface EventSource<TKey, TValue> {
      */
     void processed(Collection<Event<?, ?>> processedEvents);
 
+    /**
+     * Indicates whether events may safely be reported as processed, via {@link #processed(Collection)}, in a different
+     * order from that in which they were polled
+     * <p>
+     * A source that assumes reporting an event as processed implies that all earlier events were also processed, e.g.
+     * one that commits its position based upon the latest event reported, returns {@code false}.  Such a source
+     * <strong>MUST NOT</strong> be used by consumers that process events out of order, e.g. a projector driver that
+     * projects events in parallel, since it could record its position beyond events that are still being processed.
+     * </p>
+     * <p>
+     * Default implementation returns {@code true}, specific implementations should override this as appropriate.
+     * </p>
+     *
+     * @return True if events may be reported as processed out of order, false otherwise
+     */
+    default boolean supportsOutOfOrderProcessing() {
+        return true;
+    }
+
     /**
      * Interrupts the event source, this is typically used when an application is shutting down, or otherwise closing
      * and wants the event source to abort any blocking event retrieval operations it may be performing
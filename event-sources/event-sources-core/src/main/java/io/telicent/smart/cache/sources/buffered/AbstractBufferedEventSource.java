@@ -19,6 +19,9 @@ import io.telicent.smart.cache.sources.Event;
 import io.telicent.smart.cache.sources.EventSource;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -39,7 +42,9 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  *     <li>{@link #tryFillBuffer(Duration)} which is called after {@link #bufferExhausted()} and gives the
  *     implementation an opportunity to refill the buffer.</li>
  *     <li>{@link #decodeEvent(Object)} which is used to convert the intermediate event type into an actual concrete
- *     {@link Event} instance.</li>
+ *     {@link Event} instance.  When events are retrieved via {@link #pollBatch(int, Duration)} then
+ *     {@link #decodeEvents(List)} is used instead, which by default calls {@link #decodeEvent(Object)} for each event
+ *     but may be overridden if an implementation can decode a batch of events more efficiently.</li>
  * </ul>
  * <p>
  * Please see the Javadoc on each of those methods for more detailed discussion.  Implementators may also need to
@@ -102,16 +107,83 @@ public abstract class AbstractBufferedEventSource<TIntermediate, TKey, TValue> i
      */
     protected abstract Event<TKey, TValue> decodeEvent(TIntermediate internalEvent);
 
+    /**
+     * Decodes a batch of internal event representations into actual {@link Event} instances
+     * <p>
+     * The default implementation calls {@link #decodeEvent(Object)} for each internal event, omitting any for which it
+     * returns {@code null}.  Implementations may override this if they can decode a batch of events more efficiently,
+     * e.g. by performing some per-event bookkeeping only once per batch.
+     * </p>
+     *
+     * @param internalEvents Internal event representations, never empty
+     * @return Decoded events
+     */
+    protected List<Event<TKey, TValue>> decodeEvents(List<TIntermediate> internalEvents) {
+        List<Event<TKey, TValue>> decoded = new ArrayList<>(internalEvents.size());
+        for (TIntermediate internalEvent : internalEvents) {
+            Event<TKey, TValue> event = this.decodeEvent(internalEvent);
+            if (event != null) {
+                decoded.add(event);
+            }
+        }
+        return decoded;
+    }
+
     @Override
     public final Event<TKey, TValue> poll(Duration timeout) {
         if (this.closed) {
             throw new IllegalStateException("Event source has been closed");
         }
 
+        fillBuffer(timeout);
+
+        // Return the next buffered event, or null if no events available
+        return this.decodeEvent(events.poll());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * For a buffered event source this returns up to {@code max} events from the current buffer, only blocking to refill
+     * the buffer if it is currently empty.  So when the buffer is refilled in bulk, e.g. from a single fetch against the
+     * underlying storage, each batch typically corresponds to all, or part of, one such fetch.
+     * </p>
+     */
+    @Override
+    public final List<Event<TKey, TValue>> pollBatch(int max, Duration timeout) {
+        if (max < 1) {
+            throw new IllegalArgumentException("Max must be >= 1");
+        }
+        if (this.closed) {
+            throw new IllegalStateException("Event source has been closed");
+        }
+
+        fillBuffer(timeout);
+        if (events.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<TIntermediate> internalEvents = new ArrayList<>(Math.min(max, events.size()));
+        while (internalEvents.size() < max) {
+            TIntermediate internalEvent = events.poll();
+            if (internalEvent == null) {
+                break;
+            }
+            internalEvents.add(internalEvent);
+        }
+        return this.decodeEvents(internalEvents);
+    }
+
+    /**
+     * Refills the buffer if it is currently empty, blocking up to the given timeout to do so
+     *
+     * @param timeout Timeout
+     */
+    private void fillBuffer(Duration timeout) {
         // If we have some events buffered continue returning them, no need to worry about timeout as this should be
         // essentially immediate
         if (!events.isEmpty()) {
-            return this.decodeEvent(events.poll());
+            return;
         }
 
         // The buffer has now been exhausted, allow the derived implementation chance to do any state management it
@@ -126,16 +198,13 @@ public abstract class AbstractBufferedEventSource<TIntermediate, TKey, TValue> i
             if (tryFillBuffer(remainingTimeout)) {
                 // If tryFillBuffer() indicates it was interrupted/genuinely empty then return immediately regardless of
                 // whether we have remaining timeout
-                return this.decodeEvent(events.poll());
+                return;
             }
 
             if (events.isEmpty()) {
                 remainingTimeout = updateTimeout(start, timeout);
             }
         }
-
-        // Return the next buffered event, or null if no events available
-        return this.decodeEvent(events.poll());
     }
 
     /**
@@ -16,10 +16,14 @@
 package io.telicent.smart.cache.payloads;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.ToLongFunction;
 
 public class TestLazyJacksonPayload {
 
@@ -121,4 +125,16 @@ public class TestLazyJacksonPayload {
         Assert.assertFalse(lazy.hasRawData());
         Assert.assertFalse(lazy.hasError());
     }
+
+    @Test
+    public void givenEvents_whenSizingWithEventSizer_thenRawDataSizeUsed_andUnknownSizesAreZero() {
+        // Given
+        ToLongFunction<Event<String, LazyBody>> sizer = LazyPayload.eventSizer();
+        byte[] data = "{ \"value\": \"test\" }".getBytes(StandardCharsets.UTF_8);
+
+        // When and Then
+        Assert.assertEquals(sizer.applyAsLong(new SimpleEvent<>(List.of(), "a", new LazyBody(data))), data.length);
+        Assert.assertEquals(sizer.applyAsLong(new SimpleEvent<>(List.of(), "b", new LazyBody(ActualBody.builder().title("test").build()))), 0);
+        Assert.assertEquals(sizer.applyAsLong(new SimpleEvent<>(List.of(), "c", null)), 0);
+    }
 }
@@ -17,6 +17,8 @@ package io.telicent.smart.cache.payloads;
 
 import org.apache.jena.rdfpatch.RDFPatchOps;
 import org.apache.jena.riot.WebContent;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.DatasetGraphFactory;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -172,4 +174,84 @@ public class TestRdfPayload {
 
     }
 
+    @Test
+    public void givenLazyPayload_whenPreloading_thenRawDataRetainedUntilAccessed() {
+        // Given
+        RdfPayload payload = RdfPayload.of(WebContent.contentTypeNTriples, SINGLE_NTRIPLE_BYTES);
+        Assert.assertSame(payload.getUnaccessedRawData(), SINGLE_NTRIPLE_BYTES);
+
+        // When
+        boolean preloaded = payload.preload();
+
+        // Then
+        Assert.assertTrue(preloaded);
+        Assert.assertTrue(payload.isReady());
+        Assert.assertTrue(payload.hasRawData());
+        Assert.assertSame(payload.getUnaccessedRawData(), SINGLE_NTRIPLE_BYTES);
+        Assert.assertEquals(payload.getContentType(), WebContent.contentTypeNTriples);
+
+        // And
+        Assert.assertEquals(payload.getDataset().getDefaultGraph().size(), 1);
+        Assert.assertFalse(payload.hasRawData());
+        Assert.assertNull(payload.getUnaccessedRawData());
+    }
+
+    @Test
+    public void givenMalformedLazyPayload_whenPreloading_thenErrorCachedAndRawDataRetained() {
+        // Given
+        RdfPayload payload = RdfPayload.of(WebContent.contentTypeNTriples, JUNK_BYTES);
+
+        // When
+        boolean preloaded = payload.preload();
+
+        // Then
+        Assert.assertFalse(preloaded);
+        Assert.assertFalse(payload.preload());
+        Assert.assertTrue(payload.hasError());
+        Assert.assertSame(payload.getUnaccessedRawData(), JUNK_BYTES);
+        Assert.assertThrows(RdfPayloadException.class, payload::getDataset);
+        Assert.assertTrue(payload.hasRawData());
+        Assert.assertNull(payload.getUnaccessedRawData());
+    }
+
+    @Test
+    public void givenLazyDatasetPayload_whenStreaming_thenQuadsDeliveredAndPayloadUnaccessed() {
+        // Given
+        RdfPayload payload = RdfPayload.of(WebContent.contentTypeNTriples, SINGLE_NTRIPLE_BYTES);
+        DatasetGraph dsg = DatasetGraphFactory.create();
+
+        // When
+        boolean streamed = payload.streamDataset(StreamRDFLib.dataset(dsg));
+
+        // Then
+        Assert.assertTrue(streamed);
+        Assert.assertEquals(dsg.getDefaultGraph().size(), 1);
+        Assert.assertFalse(payload.isReady());
+        Assert.assertSame(payload.getUnaccessedRawData(), SINGLE_NTRIPLE_BYTES);
+    }
+
+    @Test
+    public void givenNonStreamablePayloads_whenStreaming_thenNotStreamed() {
+        // Given
+        RdfPayload eager = RdfPayload.of(DatasetGraphFactory.empty());
+        RdfPayload patch = RdfPayload.of(WebContent.contentTypePatch, "TX .\nTC .".getBytes(StandardCharsets.UTF_8));
+        RdfPayload preloaded = RdfPayload.of(WebContent.contentTypeNTriples, SINGLE_NTRIPLE_BYTES);
+        preloaded.preload();
+        RdfPayload accessed = RdfPayload.of(WebContent.contentTypeNTriples, SINGLE_NTRIPLE_BYTES);
+        accessed.getDataset();
+
+        // When and Then
+        for (RdfPayload payload : new RdfPayload[] { eager, patch, preloaded, accessed }) {
+            Assert.assertFalse(payload.streamDataset(StreamRDFLib.sinkNull()));
+        }
+    }
+
+    @Test(expectedExceptions = RdfPayloadException.class, expectedExceptionsMessageRegExp = "Failed to deserialise.*")
+    public void givenMalformedLazyPayload_whenStreaming_thenErrorIsThrown() {
+        // Given
+        RdfPayload payload = RdfPayload.of(WebContent.contentTypeNTriples, JUNK_BYTES);
+
+        // When and Then
+        payload.streamDataset(StreamRDFLib.sinkNull());
+    }
 }
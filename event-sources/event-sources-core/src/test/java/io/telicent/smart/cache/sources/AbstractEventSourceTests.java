@@ -278,6 +278,63 @@ public abstract class AbstractEventSourceTests<TKey, TValue> {
         }
     }
 
+    @Test(dataProvider = "sample-data-sizes")
+    public void givenPopulatedEventSource_whenPollingBatches_thenAllEventsAreReturnedInOrder(int size) {
+        // Given
+        List<Event<TKey, TValue>> sampleData = new ArrayList<>(createOrGetSampleData(size));
+        EventSource<TKey, TValue> source = createSource(sampleData);
+
+        try {
+            // When
+            List<Event<TKey, TValue>> polled = new ArrayList<>();
+            while (polled.size() < size) {
+                List<Event<TKey, TValue>> batch = source.pollBatch(37, Duration.ofSeconds(5));
+
+                // Then
+                Assert.assertFalse(batch.isEmpty(), "Expected a non-empty batch while events remain");
+                Assert.assertTrue(batch.size() <= 37, "Batch exceeded requested maximum size");
+                polled.addAll(batch);
+            }
+
+            // And
+            Assert.assertEquals(polled, sampleData);
+            Assert.assertFalse(source.availableImmediately());
+            Assert.assertNotEquals(source.isExhausted(), isUnbounded());
+        } finally {
+            verifySourceClosure(source);
+        }
+    }
+
+    @Test
+    public void givenEmptySource_whenPollingBatch_thenEmptyBatchIsReturned() {
+        // Given
+        EventSource<TKey, TValue> source = createEmptySource();
+
+        try {
+            // When
+            List<Event<TKey, TValue>> batch = source.pollBatch(100, Duration.ofMillis(10));
+
+            // Then
+            Assert.assertNotNull(batch);
+            Assert.assertTrue(batch.isEmpty());
+        } finally {
+            source.close();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void givenSource_whenPollingBatchWithInvalidMaximum_thenIllegalArgument() {
+        // Given
+        EventSource<TKey, TValue> source = createEmptySource();
+
+        try {
+            // When and Then
+            source.pollBatch(0, Duration.ofMillis(10));
+        } finally {
+            source.close();
+        }
+    }
+
     @Test
     public void givenEmptyEventSource_whenQueryingRemaining_thenZeroIsReturned() {
         // Given
@@ -24,6 +24,7 @@ import org.testng.annotations.Test;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 
 // java:S2925 - Thread.sleep is required when waiting on real Kafka/Docker in integration tests
 // java:S1124 - modifier order kept as-is
@@ -98,6 +99,81 @@ public class TestBufferedEventSource {
         }
     }
 
+    private static final class FillsInBulk extends DummySource {
+
+        private final int fillSize;
+        private int fills = 0;
+        private int decodedBatches = 0;
+
+        private FillsInBulk(int fillSize) {
+            this.fillSize = fillSize;
+        }
+
+        @Override
+        protected boolean tryFillBuffer(Duration timeout) {
+            this.fills++;
+            for (int i = 0; i < this.fillSize; i++) {
+                this.events.add(new SimpleEvent<>(null, i, "test"));
+            }
+            return false;
+        }
+
+        @Override
+        protected List<Event<Integer, String>> decodeEvents(List<SimpleEvent<Integer, String>> internalEvents) {
+            this.decodedBatches++;
+            return super.decodeEvents(internalEvents);
+        }
+    }
+
+    @Test
+    public void givenBulkFillingSource_whenPollingBatches_thenBatchesDrainBuffer_andBufferOnlyRefilledWhenEmpty() {
+        // Given
+        FillsInBulk source = new FillsInBulk(10);
+
+        // When
+        List<Event<Integer, String>> first = source.pollBatch(4, Duration.ofSeconds(1));
+        List<Event<Integer, String>> second = source.pollBatch(4, Duration.ofSeconds(1));
+        List<Event<Integer, String>> third = source.pollBatch(4, Duration.ofSeconds(1));
+
+        // Then
+        Assert.assertEquals(first.size(), 4);
+        Assert.assertEquals(second.size(), 4);
+        Assert.assertEquals(third.size(), 2);
+        Assert.assertEquals(first.get(0).key(), 0);
+        Assert.assertEquals(third.get(1).key(), 9);
+        Assert.assertEquals(source.fills, 1);
+        Assert.assertEquals(source.decodedBatches, 3);
+        Assert.assertFalse(source.availableImmediately());
+
+        // And
+        Assert.assertEquals(source.pollBatch(100, Duration.ofSeconds(1)).size(), 10);
+        Assert.assertEquals(source.fills, 2);
+    }
+
+    @Test
+    public void givenAlwaysEmptySource_whenPollingBatch_thenReturnsEmptyImmediately() {
+        // Given
+        EventSource<Integer, String> source = new AlwaysEmpty();
+
+        // When
+        long start = System.currentTimeMillis();
+        List<Event<Integer, String>> batch = source.pollBatch(10, Duration.ofSeconds(1));
+
+        // Then
+        Assert.assertTrue(batch.isEmpty());
+        verifyLessThanTimeoutElapsed(start);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void givenClosedSource_whenPollingBatch_thenIllegalState() {
+        // Given
+        EventSource<Integer, String> source = new FillsInBulk(10);
+        source.close();
+
+        // When and Then
+        source.pollBatch(10, Duration.ofSeconds(1));
+    }
+
     @Test
     public void givenAlwaysEmptySource_whenPolling_thenReturnsNullImmediately() {
         // Given
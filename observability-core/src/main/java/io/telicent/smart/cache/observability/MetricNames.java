@@ -53,6 +53,29 @@ public class MetricNames {
      */
     public static final String ITEMS_PROCESSING_RATE_DESCRIPTION = "How fast items are being processed";
 
+    /**
+     * Metric for the recent processing rate of items i.e. the rate over a sliding window
+     */
+    public static final String ITEMS_RECENT_PROCESSING_RATE = "items.recent_processing_rate";
+
+    /**
+     * Metric description for items recent processing rate
+     */
+    public static final String ITEMS_RECENT_PROCESSING_RATE_DESCRIPTION =
+            "How fast items have been processed recently i.e. over a sliding window";
+
+    /**
+     * Metric for the latency of processing items
+     */
+    public static final String ITEMS_PROCESSING_LATENCY = "items.processing_latency";
+
+    /**
+     * Metric description for items processing latency
+     */
+    public static final String ITEMS_PROCESSING_LATENCY_DESCRIPTION =
+            "How long items took to be processed i.e. the time between an item being received and being processed, " +
+            "observed once per group of items received together";
+
     /**
      * Metric for the number of items filtered out
      */
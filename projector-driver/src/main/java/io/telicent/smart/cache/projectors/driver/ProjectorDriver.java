@@ -20,6 +20,7 @@ import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.telicent.smart.cache.observability.TelicentMetrics;
+import io.telicent.smart.cache.projectors.BatchProjector;
 import io.telicent.smart.cache.projectors.Library;
 import io.telicent.smart.cache.projectors.Projector;
 import io.telicent.smart.cache.projectors.Sink;
@@ -33,7 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.Strings.CS;
@@ -45,6 +49,14 @@ import static org.apache.commons.lang3.Strings.CS;
  * events through a {@link Projector}.  It includes automated management of the polling loop alongside throughput
  * monitoring and reporting.
  * </p>
+ * <p>
+ * By default, events are polled, projected and sent to the output sink all on the drivers thread.  A driver may
+ * instead be configured with a {@code parallelism} greater than 1, in which case the drivers thread only polls events
+ * and dispatches them to one of several worker lanes based upon a lane key calculated for each event.  Each lane runs
+ * on its own thread with its own output sink, obtained from the configured sink supplier, so per-key ordering is
+ * preserved while projection of different keys proceeds in parallel.  In this mode the {@link Projector} is shared by
+ * all lanes and so <strong>MUST</strong> be thread-safe.
+ * </p>
  *
  * @param <TKey>    Event key type
  * @param <TValue>  Event value type
@@ -100,6 +112,13 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
     private volatile boolean shouldRun = true;
     private final Attributes metricAttributes;
     private final LongCounter stalls;
+    @Getter
+    private final int parallelism;
+    private final int laneQueueSize;
+    private final Function<Event<TKey, TValue>, ?> laneKey;
+    @Getter
+    private final int pollBatchSize;
+    private final BatchProjector<Event<TKey, TValue>, TOutput> batchProjector;
 
     /**
      * Creates a new driver
@@ -123,15 +142,39 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
      * @param processingSpeedWarnings Whether processing speed warnings are enabled for this driver, if the driver
      *                                expects to deal with a very low throughput topic then there is no value in these
      *                                warnings and they should be disabled
+     * @param parallelism             The number of lanes to project events on, a value of 1 means events are projected
+     *                                on the drivers own thread
+     * @param laneQueueSize           The maximum number of events that may be pending for each lane when
+     *                                {@code parallelism} is greater than 1
+     * @param laneKey                 Function that calculates the lane key for an event, events with the same lane key
+     *                                are always projected by the same lane.  If {@code null} then the event key is used.
+     * @param pollBatchSize           The maximum number of events to retrieve from the event source on each poll, a
+     *                                value of 1 means events are retrieved, and projected, one at a time
      */
     ProjectorDriver(EventSource<TKey, TValue> source, Duration pollTimeout,
                     Projector<Event<TKey, TValue>, TOutput> projector, Supplier<Sink<TOutput>> outputSinkSupplier,
                     long limit, long maxStalls, long reportBatchSize, String logLabel, String threadName,
-                    boolean processingSpeedWarnings) {
+                    boolean processingSpeedWarnings, int parallelism, int laneQueueSize,
+                    Function<Event<TKey, TValue>, ?> laneKey, int pollBatchSize) {
         Objects.requireNonNull(source, "Event Source cannot be null");
         Objects.requireNonNull(projector, "Projector cannot be null");
         Objects.requireNonNull(outputSinkSupplier, "Sink Supplier cannot be null");
         Objects.requireNonNull(pollTimeout, "Poll Timeout cannot be null");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be >= 1");
+        }
+        if (parallelism > 1 && !source.supportsOutOfOrderProcessing()) {
+            // Lanes report events as processed out of order so the source must not assume processed events are in order
+            throw new IllegalArgumentException(
+                    "Parallelism > 1 requires an Event Source that supports out of order processing, " + source +
+                    " does not");
+        }
+        if (laneQueueSize < 1) {
+            throw new IllegalArgumentException("Lane Queue Size must be >= 1");
+        }
+        if (pollBatchSize < 1) {
+            throw new IllegalArgumentException("Poll Batch Size must be >= 1");
+        }
 
         this.source = source;
         this.pollTimeout = pollTimeout;
@@ -142,12 +185,21 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
         this.logLabel = StringUtils.isNotBlank(logLabel) ? logLabel : "";
         this.threadName = StringUtils.isNotBlank(threadName) ? threadName : DEFAULT_THREAD_NAME;
         this.processingSpeedWarnings = processingSpeedWarnings;
+        this.parallelism = parallelism;
+        this.laneQueueSize = laneQueueSize;
+        this.laneKey = laneKey != null ? laneKey : Event::key;
+        this.pollBatchSize = pollBatchSize;
 
         if (this.projector instanceof StallAwareProjector<Event<TKey, TValue>, TOutput> stallAwareProjector) {
             this.stallAware = stallAwareProjector;
         } else {
             this.stallAware = null;
         }
+        if (this.projector instanceof BatchProjector<Event<TKey, TValue>, TOutput> batchCapableProjector) {
+            this.batchProjector = batchCapableProjector;
+        } else {
+            this.batchProjector = null;
+        }
 
         this.metricAttributes = TelicentMetrics.getMetricAttributes(ITEM_TYPE_EVENTS,
                                                                     TelicentMetrics.nextComponentId(
@@ -163,6 +215,8 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
                                               measure -> measure.record(getConsecutiveStalls(),
                                                                         this.metricAttributes));
 
+        // When projecting in parallel events complete out of order so the trackers pairing of processed events with
+        // received events would produce misleading latencies, hence latency tracking is disabled
         this.tracker = ThroughputTracker.create()
                                         .logger(LOGGER)
                                         .reportBatchSize(reportBatchSize)
@@ -170,6 +224,7 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
                                         .action("Projected")
                                         .itemsName(DEFAULT_ITEMS_NAME)
                                         .metricsLabel(ITEM_TYPE_EVENTS)
+                                        .latencyTracking(parallelism <= 1)
                                         .build();
     }
 
@@ -187,37 +242,11 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
     public void run() {
         setThreadName();
 
-        try (Sink<TOutput> sink = this.sinkSupplier.get()) {
-            this.tracker.start();
-
-            while (this.shouldRun) {
-                if (this.source.isClosed()) {
-                    LOGGER.warn("{}Event Source has been closed outside of our control, aborting projection",
-                                this.logLabel);
-                    throw new IllegalStateException("Event Source closed externally");
-                }
-
-                if (reachedEventLimit()) {
-                    break;
-                }
-
-                // NB - availableImmediately() is deliberately consulted before isExhausted() so that a source which
-                //      reports availability but then fails to deliver can be detected as a stall below
-                boolean expectToBlock = !this.source.availableImmediately();
-
-                if (sourceExhausted()) {
-                    break;
-                }
-
-                Event<TKey, TValue> event = this.source.poll(this.pollTimeout);
-
-                if (event == null) {
-                    if (!handleStall(sink, expectToBlock)) {
-                        break;
-                    }
-                } else {
-                    processEvent(event, sink);
-                }
+        try {
+            if (this.parallelism > 1) {
+                projectInParallel();
+            } else {
+                projectSequentially();
             }
         } catch (Throwable e) {
             // Log only if not some form of interrupt
@@ -234,6 +263,95 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
 
     }
 
+    /**
+     * Polls, projects and outputs events all on the driver thread
+     */
+    private void projectSequentially() {
+        try (Sink<TOutput> sink = this.sinkSupplier.get()) {
+            this.tracker.start();
+            pollLoop(sink, null);
+        }
+    }
+
+    /**
+     * Polls events on the driver thread and projects them across the configured number of lanes
+     * <p>
+     * Each lane obtains its own sink on its own thread, so the driver thread does not need a sink of its own.
+     * </p>
+     */
+    private void projectInParallel() {
+        LOGGER.info("{} Projecting events in parallel across {} lanes", this.logLabel, this.parallelism);
+        try (ProjectorLanes<TKey, TValue, TOutput> lanes = new ProjectorLanes<>(this.parallelism, this.laneQueueSize,
+                                                                                this.projector, this.sinkSupplier,
+                                                                                this.laneKey, this.tracker,
+                                                                                this.threadName)) {
+            this.tracker.start();
+            pollLoop(null, lanes);
+        }
+    }
+
+    /**
+     * The main polling loop
+     *
+     * @param sink  Output sink, {@code null} when projecting in parallel
+     * @param lanes Projection lanes, {@code null} when projecting sequentially
+     */
+    private void pollLoop(Sink<TOutput> sink, ProjectorLanes<TKey, TValue, TOutput> lanes) {
+        while (this.shouldRun) {
+            if (this.source.isClosed()) {
+                LOGGER.warn("{}Event Source has been closed outside of our control, aborting projection",
+                            this.logLabel);
+                throw new IllegalStateException("Event Source closed externally");
+            }
+
+            if (lanes != null) {
+                lanes.checkHealthy();
+            }
+
+            if (reachedEventLimit(lanes)) {
+                break;
+            }
+
+            // NB - availableImmediately() is deliberately consulted before isExhausted() so that a source which
+            //      reports availability but then fails to deliver can be detected as a stall below
+            boolean expectToBlock = !this.source.availableImmediately();
+
+            if (sourceExhausted()) {
+                break;
+            }
+
+            // A source with nothing immediately available is about to refill its buffer, which is also the point at
+            // which a source may commit its position, e.g. a KafkaEventSource with auto-commit enabled.  So when
+            // projecting in parallel wait for the lanes to finish projecting everything dispatched so far, otherwise
+            // the source could commit past events that are still queued in the lanes.
+            if (expectToBlock && lanes != null && !drainLanes(lanes)) {
+                break;
+            }
+
+            if (!pollAndProcess(sink, lanes, expectToBlock)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Waits for every lane to finish projecting all the events previously dispatched to it
+     *
+     * @param lanes Projection lanes
+     * @return True if projection should continue, false if interrupted while waiting
+     */
+    private boolean drainLanes(ProjectorLanes<TKey, TValue, TOutput> lanes) {
+        try {
+            lanes.signal(s -> {
+            });
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.shouldRun = false;
+            return false;
+        }
+    }
+
     /**
      * Names the driver thread, ignoring any failure to do so
      */
@@ -249,10 +367,13 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
     }
 
     /**
+     * @param lanes Projection lanes, {@code null} when projecting sequentially
      * @return True if a configured event limit has been reached, in which case the projection has been told to stop
      */
-    private boolean reachedEventLimit() {
-        if (this.limit >= 0 && this.tracker.processedCount() >= this.limit) {
+    private boolean reachedEventLimit(ProjectorLanes<TKey, TValue, TOutput> lanes) {
+        // NB - In parallel mode events are counted towards the limit as they are dispatched, otherwise we'd keep polling
+        //      and dispatching while the lanes catch up and overshoot the limit
+        if (this.limit >= 0 && projectedCount(lanes) >= this.limit) {
             FmtLog.info(LOGGER, "%s Reached configured event limit of %,d events", this.logLabel, this.limit);
             this.shouldRun = false;
             return true;
@@ -278,10 +399,12 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
      * Handles a poll that returned no event
      *
      * @param sink           Output sink, passed to a stall aware projector
+     * @param lanes          Projection lanes, {@code null} when projecting sequentially
      * @param expectToBlock  Whether the source indicated before the poll that it had no events immediately available
      * @return True if the projection should continue polling, false if it should stop
      */
-    private boolean handleStall(Sink<TOutput> sink, boolean expectToBlock) {
+    private boolean handleStall(Sink<TOutput> sink, ProjectorLanes<TKey, TValue, TOutput> lanes,
+                                boolean expectToBlock) {
         // Log timeout, whether we choose to abort depends on whether we were expecting to block or not i.e.
         // whether the source reliably reported the availability of further events
         LOGGER.debug("{} Timed out waiting for Event Source to return more events, waited {}",
@@ -306,23 +429,56 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
             return false;
         }
 
-        // If the projector is stall-aware inform it now
-        if (this.stallAware != null) {
-            if (this.consecutiveStallsCount == 1) {
-                // Only report the stall itself on the first consecutive stall as otherwise we might inform it too
-                // frequently, stalled() may trigger expensive work such as flushing sinks or emitting marker events
-                this.stallAware.stalled(sink);
+        if (this.consecutiveStallsCount == 1) {
+            // If the projector is stall-aware inform it now.  Only report the stall itself on the first consecutive stall
+            // as otherwise we might inform it too frequently, stalled() may trigger expensive work such as flushing sinks
+            // or emitting marker events
+            if (this.stallAware != null) {
+                notifyStallAware(sink, lanes, this.stallAware::stalled);
             }
-            // Whereas idle() is intended to be cheap and MUST be called on every poll that yields no events.  This is
-            // the only point at which a projector on a quiet topic regains control, so it's how it observes external
-            // state changes, e.g. a request from another thread that it pause at a safe point.
-            this.stallAware.idle(sink);
+
+            // Then flush the sink, so that any items it holds, e.g. a partially filled batch, including any emitted by the
+            // projector in response to the stall, are not unduly delayed while no new events are available
+            notifyStallAware(sink, lanes, Sink::flush);
+        }
+
+        // Whereas idle() is intended to be cheap and MUST be called on every poll that yields no events.  This is the only
+        // point at which a projector on a quiet topic regains control, so it's how it observes external state changes,
+        // e.g. a request from another thread that it pause at a safe point.
+        if (this.stallAware != null) {
+            notifyStallAware(sink, lanes, this.stallAware::idle);
         }
 
         reportRemainingEvents();
         return true;
     }
 
+    /**
+     * Notifies the stall aware projector, or the sink, of a stall
+     * <p>
+     * When running in parallel the notification is delivered to every lane, on that lanes thread and with that lanes
+     * sink, and this only returns once every lane has handled it.  Thus, as when running sequentially, no further events
+     * are polled until the notification has been handled.
+     * </p>
+     *
+     * @param sink         Output sink, {@code null} when running in parallel
+     * @param lanes        Projection lanes, {@code null} when running sequentially
+     * @param notification Notification to deliver
+     */
+    private void notifyStallAware(Sink<TOutput> sink, ProjectorLanes<TKey, TValue, TOutput> lanes,
+                                  Consumer<Sink<TOutput>> notification) {
+        if (lanes == null) {
+            notification.accept(sink);
+            return;
+        }
+        try {
+            lanes.signal(notification);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.shouldRun = false;
+        }
+    }
+
     /**
      * On the first consecutive stall, reports how many events the source believes remain, and warns if a slower
      * upstream producer appears to be limiting throughput
@@ -348,7 +504,10 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
 
         // Also if our current throughput is higher than the remaining events then we are being blocked
         // by a slower downstream producer and should highlight this
-        double overallRate = this.tracker.getOverallRate();
+        double overallRate;
+        synchronized (this.tracker) {
+            overallRate = this.tracker.getOverallRate();
+        }
         if (overallRate > remaining && this.processingSpeedWarnings) {
             FmtLog.warn(LOGGER,
                         "%s Overall processing rate (%.3f events/seconds) is greater than remaining events (%,d).  Application performance is being reduced by a slower upstream producer writing to %s",
@@ -360,13 +519,113 @@ public class ProjectorDriver<TKey, TValue, TOutput> implements Runnable {
      * Projects a single received event
      *
      * @param event Event to project
-     * @param sink  Output sink
+     * @param sink  Output sink, {@code null} when projecting in parallel
+     * @param lanes Projection lanes, {@code null} when projecting sequentially
      */
-    private void processEvent(Event<TKey, TValue> event, Sink<TOutput> sink) {
+    private void processEvent(Event<TKey, TValue> event, Sink<TOutput> sink,
+                              ProjectorLanes<TKey, TValue, TOutput> lanes) {
         this.consecutiveStallsCount = 0;
-        this.tracker.itemReceived();
-        this.projector.project(event, sink);
-        this.tracker.itemProcessed();
+        if (lanes == null) {
+            this.tracker.itemReceived();
+            this.projector.project(event, sink);
+            this.tracker.itemProcessed();
+            return;
+        }
+
+        // In parallel mode the event is projected, and counted as processed, by whichever lane it is dispatched to
+        synchronized (this.tracker) {
+            this.tracker.itemReceived();
+        }
+        try {
+            lanes.dispatch(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.shouldRun = false;
+        }
+    }
+
+    /**
+     * Polls the event source for the next event(s) and processes them
+     *
+     * @param sink          Output sink, {@code null} when projecting in parallel
+     * @param lanes         Projection lanes, {@code null} when projecting sequentially
+     * @param expectToBlock Whether the source indicated before the poll that it had no events immediately available
+     * @return True if projection should continue, false if it should be aborted
+     */
+    private boolean pollAndProcess(Sink<TOutput> sink, ProjectorLanes<TKey, TValue, TOutput> lanes,
+                                   boolean expectToBlock) {
+        if (this.pollBatchSize > 1) {
+            List<Event<TKey, TValue>> batch = this.source.pollBatch(nextBatchSize(lanes), this.pollTimeout);
+            if (batch.isEmpty()) {
+                return handleStall(sink, lanes, expectToBlock);
+            }
+            processBatch(batch, sink, lanes);
+        } else {
+            Event<TKey, TValue> event = this.source.poll(this.pollTimeout);
+            if (event == null) {
+                return handleStall(sink, lanes, expectToBlock);
+            }
+            processEvent(event, sink, lanes);
+        }
+        return true;
+    }
+
+    /**
+     * Calculates how many events to request in the next batch, never requesting more events than remain before the
+     * configured limit is reached
+     *
+     * @param lanes Projection lanes, {@code null} when projecting sequentially
+     * @return Next batch size
+     */
+    private int nextBatchSize(ProjectorLanes<TKey, TValue, TOutput> lanes) {
+        if (this.limit < 0) {
+            return this.pollBatchSize;
+        }
+        return (int) Math.min(this.pollBatchSize, this.limit - projectedCount(lanes));
+    }
+
+    /**
+     * Projects a batch of received events
+     *
+     * @param batch Events to project
+     * @param sink  Output sink, {@code null} when projecting in parallel
+     * @param lanes Projection lanes, {@code null} when projecting sequentially
+     */
+    private void processBatch(List<Event<TKey, TValue>> batch, Sink<TOutput> sink,
+                              ProjectorLanes<TKey, TValue, TOutput> lanes) {
+        if (lanes != null) {
+            // In parallel mode each event is individually dispatched to its lane
+            for (Event<TKey, TValue> event : batch) {
+                processEvent(event, sink, lanes);
+            }
+            return;
+        }
+
+        this.consecutiveStallsCount = 0;
+        this.tracker.itemsReceived(batch.size());
+        if (this.batchProjector != null) {
+            this.batchProjector.projectAll(batch, sink);
+        } else {
+            for (Event<TKey, TValue> event : batch) {
+                this.projector.project(event, sink);
+            }
+        }
+        this.tracker.itemsProcessed(batch.size());
+    }
+
+    /**
+     * Gets how many events count towards the configured limit
+     *
+     * @param lanes Projection lanes, {@code null} when projecting sequentially
+     * @return Projected event count
+     */
+    private long projectedCount(ProjectorLanes<TKey, TValue, TOutput> lanes) {
+        if (lanes == null) {
+            return this.tracker.processedCount();
+        }
+        synchronized (this.tracker) {
+            return this.tracker.receivedCount();
+        }
     }
 
     private void closeSource() {
@@ -23,6 +23,7 @@ import io.telicent.smart.cache.sources.EventSource;
 
 import java.time.Duration;
 import java.time.temporal.TemporalUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -46,6 +47,10 @@ public class ProjectorDriverBuilder<TKey, TValue, TOutput> {
     private String logLabel;
     private String threadName;
     private boolean processingSpeedWarnings = true;
+    private int parallelism = 1;
+    private int laneQueueSize = 1_000;
+    private Function<Event<TKey, TValue>, ?> laneKey;
+    private int pollBatchSize = 1;
 
     /**
      * Specifies the event source for the projector driver
@@ -260,6 +265,91 @@ public class ProjectorDriverBuilder<TKey, TValue, TOutput> {
         return this;
     }
 
+    /**
+     * Specifies the number of parallel lanes across which events are projected
+     * <p>
+     * The default of {@code 1} means that events are polled, projected and output on the drivers own thread.  Any
+     * greater value causes the driver thread to only poll events, dispatching each event to one of the lanes based upon
+     * its lane key, see {@link #laneKey(Function)}.  Each lane projects the events dispatched to it on its own thread,
+     * with its own output sink, so the configured destination <strong>MUST</strong> be a {@link Supplier} that creates
+     * a new sink on each call, unless the sink being supplied is itself thread-safe.  The configured projector is shared
+     * by all lanes so <strong>MUST</strong> be thread-safe.
+     * </p>
+     * <p>
+     * Events with the same lane key are always projected by the same lane, and therefore in the order they were received
+     * from the event source.  There is no ordering guarantee between events with different lane keys.
+     * </p>
+     * <p>
+     * Since events may therefore be reported as processed out of order a value greater than {@code 1} requires an event
+     * source whose {@link io.telicent.smart.cache.sources.EventSource#supportsOutOfOrderProcessing()} returns
+     * {@code true}, otherwise building the driver fails.
+     * </p>
+     *
+     * @param parallelism Number of lanes
+     * @return Builder
+     */
+    public ProjectorDriverBuilder<TKey, TValue, TOutput> parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Specifies the function used to calculate a lane key for each event when projecting events in parallel, see
+     * {@link #parallelism(int)}
+     * <p>
+     * If not specified then the event key is used as the lane key.  The lane key is hashed in order to select a lane for
+     * the event, so any events with a {@code null} lane key will all be projected by the same lane.  For Kafka based
+     * event sources a lane key function that selects the events partition may also be used to preserve per-partition
+     * ordering.
+     * </p>
+     *
+     * @param laneKey Lane key function
+     * @return Builder
+     */
+    public ProjectorDriverBuilder<TKey, TValue, TOutput> laneKey(Function<Event<TKey, TValue>, ?> laneKey) {
+        this.laneKey = laneKey;
+        return this;
+    }
+
+    /**
+     * Specifies the maximum number of events that may be pending for each lane when projecting events in parallel, see
+     * {@link #parallelism(int)}
+     * <p>
+     * If a lane has this many pending events then the driver blocks until the lane has space for further events.
+     * Defaults to {@code 1000}.
+     * </p>
+     *
+     * @param laneQueueSize Lane queue size
+     * @return Builder
+     */
+    public ProjectorDriverBuilder<TKey, TValue, TOutput> laneQueueSize(int laneQueueSize) {
+        this.laneQueueSize = laneQueueSize;
+        return this;
+    }
+
+    /**
+     * Specifies the maximum number of events the driver retrieves from the event source on each poll
+     * <p>
+     * The default of {@code 1} means that the driver retrieves a single event at a time via
+     * {@link EventSource#poll(Duration)}.  Any greater value causes the driver to instead retrieve up to this many events
+     * at a time via {@link EventSource#pollBatch(int, Duration)} and handle the whole batch in a single iteration of its
+     * polling loop, amortising the drivers per-event overheads across the batch.  If the configured projector is a
+     * {@link io.telicent.smart.cache.projectors.BatchProjector} then it is given the whole batch to project at once.
+     * </p>
+     * <p>
+     * Note that when a batch is being projected, the driver only checks for cancellation and event limits between
+     * batches.  However, the driver never requests a batch larger than the number of events remaining before any
+     * configured {@link #limit(long)} is reached.
+     * </p>
+     *
+     * @param pollBatchSize Poll batch size
+     * @return Builder
+     */
+    public ProjectorDriverBuilder<TKey, TValue, TOutput> pollBatchSize(int pollBatchSize) {
+        this.pollBatchSize = pollBatchSize;
+        return this;
+    }
+
     /**
      * Builds a new projector driver
      *
@@ -267,6 +357,7 @@ public class ProjectorDriverBuilder<TKey, TValue, TOutput> {
      */
     public ProjectorDriver<TKey, TValue, TOutput> build() {
         return new ProjectorDriver<>(source, pollTimeout, projector, sinkSupplier, limit, maxStalls, reportBatchSize,
-                                     logLabel, threadName, processingSpeedWarnings);
+                                     logLabel, threadName, processingSpeedWarnings, parallelism, laneQueueSize,
+                                     laneKey, pollBatchSize);
     }
 }
@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.driver;
+
+import io.telicent.smart.cache.projectors.Projector;
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.utils.ThroughputTracker;
+import io.telicent.smart.cache.sources.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The worker lanes used by a {@link ProjectorDriver} that has been configured for parallel projection
+ * <p>
+ * Each lane has its own thread, its own bounded queue of pending work and its own output sink obtained from the
+ * drivers sink supplier.  Events are assigned to a lane by hashing a lane key calculated for each event, so all events
+ * with the same lane key are always projected by the same lane, and thus in the order they were received from the
+ * event source.  The bounded lane queues provide back pressure, if a lane falls behind the driver thread blocks when
+ * dispatching further events to it.
+ * </p>
+ * <p>
+ * If any lane fails then the failure is captured and reported back to the driver thread the next time it interacts
+ * with the lanes, at which point the driver aborts the projection.
+ * </p>
+ *
+ * @param <TKey>    Event key type
+ * @param <TValue>  Event value type
+ * @param <TOutput> Output type
+ */
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+class ProjectorLanes<TKey, TValue, TOutput> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectorLanes.class);
+
+    /**
+     * How long to wait on lane operations before re-checking whether any lane has failed
+     */
+    private static final long CHECK_INTERVAL_MILLISECONDS = 100;
+
+    private final Consumer<Sink<TOutput>> stop = sink -> {
+    };
+    private final List<BlockingQueue<Consumer<Sink<TOutput>>>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Projector<Event<TKey, TValue>, TOutput> projector;
+    private final Function<Event<TKey, TValue>, ?> laneKey;
+    private final ThroughputTracker tracker;
+    private boolean closed = false;
+    private boolean failureReported = false;
+
+    /**
+     * Creates and starts the lanes
+     *
+     * @param lanes        Number of lanes
+     * @param queueSize    Maximum number of pending events per lane
+     * @param projector    Projector, shared by all lanes so <strong>MUST</strong> be thread-safe
+     * @param sinkSupplier Sink supplier, called once per lane on that lanes thread
+     * @param laneKey      Lane key function used to assign events to lanes
+     * @param tracker      Throughput tracker into which processed events are counted
+     * @param threadName   Base thread name, lane threads are named with a suffix identifying the lane
+     */
+    ProjectorLanes(int lanes, int queueSize, Projector<Event<TKey, TValue>, TOutput> projector,
+                   Supplier<Sink<TOutput>> sinkSupplier, Function<Event<TKey, TValue>, ?> laneKey,
+                   ThroughputTracker tracker, String threadName) {
+        this.projector = projector;
+        this.laneKey = laneKey;
+        this.tracker = tracker;
+
+        for (int i = 0; i < lanes; i++) {
+            BlockingQueue<Consumer<Sink<TOutput>>> queue = new ArrayBlockingQueue<>(queueSize);
+            this.queues.add(queue);
+            this.threads.add(Thread.ofPlatform()
+                                   .name(threadName + "-Lane-" + i)
+                                   .start(() -> runLane(queue, sinkSupplier)));
+        }
+    }
+
+    /**
+     * The main loop for a single lane
+     *
+     * @param queue        Lane queue
+     * @param sinkSupplier Sink supplier
+     */
+    private void runLane(BlockingQueue<Consumer<Sink<TOutput>>> queue, Supplier<Sink<TOutput>> sinkSupplier) {
+        try (Sink<TOutput> sink = sinkSupplier.get()) {
+            while (true) {
+                Consumer<Sink<TOutput>> task = queue.take();
+                if (task == this.stop) {
+                    break;
+                }
+                task.accept(sink);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            LOGGER.warn("Projector Driver lane {} failed: {}", Thread.currentThread().getName(), e.getMessage());
+            this.failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Selects the lane for an event
+     *
+     * @param event Event
+     * @return Lane queue
+     */
+    private BlockingQueue<Consumer<Sink<TOutput>>> laneFor(Event<TKey, TValue> event) {
+        return this.queues.get(Math.floorMod(Objects.hashCode(this.laneKey.apply(event)), this.queues.size()));
+    }
+
+    /**
+     * Dispatches an event to its lane for projection, blocking if that lane is currently full
+     *
+     * @param event Event
+     * @throws InterruptedException Thrown if interrupted while waiting for space in the lane
+     */
+    void dispatch(Event<TKey, TValue> event) throws InterruptedException {
+        submit(laneFor(event), sink -> {
+            this.projector.project(event, sink);
+            synchronized (this.tracker) {
+                this.tracker.itemProcessed();
+            }
+        });
+    }
+
+    /**
+     * Runs an action against every lanes sink, on the lanes own thread, waiting until all lanes have done so
+     * <p>
+     * Since lanes process their work in order this only returns once each lane has also finished projecting every event
+     * dispatched to it prior to this call.
+     * </p>
+     *
+     * @param action Action
+     * @throws InterruptedException Thrown if interrupted while waiting for the lanes
+     */
+    void signal(Consumer<Sink<TOutput>> action) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(this.queues.size());
+        for (BlockingQueue<Consumer<Sink<TOutput>>> queue : this.queues) {
+            submit(queue, sink -> {
+                try {
+                    action.accept(sink);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        while (!latch.await(CHECK_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+            checkHealthy();
+        }
+        checkHealthy();
+    }
+
+    private void submit(BlockingQueue<Consumer<Sink<TOutput>>> queue, Consumer<Sink<TOutput>> task) throws
+            InterruptedException {
+        while (!queue.offer(task, CHECK_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+            checkHealthy();
+        }
+    }
+
+    /**
+     * Checks that no lane has failed, rethrowing the first lane failure if one has
+     */
+    void checkHealthy() {
+        Throwable e = this.failure.get();
+        if (e == null) {
+            return;
+        }
+        this.failureReported = true;
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (e instanceof Error error) {
+            throw error;
+        } else {
+            throw new IllegalStateException("Projector Driver lane failed", e);
+        }
+    }
+
+    /**
+     * Stops the lanes, allowing each to finish projecting any events already dispatched to it and close its sink
+     * <p>
+     * If any lane failed then that failure is rethrown once all lanes have stopped.
+     * </p>
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try {
+            for (int i = 0; i < this.queues.size(); i++) {
+                BlockingQueue<Consumer<Sink<TOutput>>> queue = this.queues.get(i);
+                Thread thread = this.threads.get(i);
+                while (thread.isAlive() && !queue.offer(this.stop, CHECK_INTERVAL_MILLISECONDS,
+                                                        TimeUnit.MILLISECONDS)) {
+                    // Keep trying until the lane either accepts the stop signal or terminates due to a failure
+                    LOGGER.debug("Waiting for lane {} to accept stop signal", thread.getName());
+                }
+            }
+            for (Thread thread : this.threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.threads.forEach(Thread::interrupt);
+        }
+
+        // Only rethrow a failure here if it wasn't previously reported, otherwise we'd rethrow the same failure the driver
+        // is already propagating and try-with-resources does not permit an exception to suppress itself
+        if (!this.failureReported) {
+            checkHealthy();
+        }
+    }
+}
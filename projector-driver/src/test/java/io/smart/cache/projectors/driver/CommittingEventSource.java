@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smart.cache.projectors.driver;
+
+import io.telicent.smart.cache.sources.Event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * An infinite event source that mimics a buffered event source, such as Kafka, that delivers events in fixed size
+ * buffers and commits its position each time a buffer is exhausted
+ * <p>
+ * Every time it commits it records how many of the events it has yielded had not yet been projected, as reported by
+ * the supplied projected event counter, at that point.  Any non-zero value indicates that a real source would have
+ * committed past events that had not yet been projected.
+ * </p>
+ */
+public class CommittingEventSource extends InfiniteEventSource {
+
+    private final int bufferSize;
+    private final LongSupplier projected;
+    private final List<Long> unprojectedAtCommit = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Creates a new committing event source
+     *
+     * @param bufferSize How many events are delivered per buffer
+     * @param projected  Supplies how many events have been projected so far
+     */
+    public CommittingEventSource(int bufferSize, LongSupplier projected) {
+        super("Event %,d", 0);
+        this.bufferSize = bufferSize;
+        this.projected = projected;
+    }
+
+    @Override
+    public boolean availableImmediately() {
+        return super.availableImmediately() && eventsYielded() % this.bufferSize != 0;
+    }
+
+    @Override
+    public Event<Integer, String> poll(Duration timeout) {
+        if (eventsYielded() % this.bufferSize == 0) {
+            this.unprojectedAtCommit.add(eventsYielded() - this.projected.getAsLong());
+        }
+        return super.poll(timeout);
+    }
+
+    /**
+     * Gets how many yielded events had not been projected at each commit
+     *
+     * @return Unprojected events at each commit
+     */
+    public List<Long> unprojectedAtCommit() {
+        return this.unprojectedAtCommit;
+    }
+}
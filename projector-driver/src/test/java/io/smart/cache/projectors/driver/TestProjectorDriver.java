@@ -22,6 +22,7 @@ import io.telicent.smart.cache.projectors.NoOpProjector;
 import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.driver.ProjectorDriver;
 import io.telicent.smart.cache.projectors.sinks.NullSink;
+import io.telicent.smart.cache.projectors.sinks.Sinks;
 import io.telicent.smart.cache.sources.Event;
 import io.telicent.smart.cache.sources.EventSource;
 import io.telicent.smart.cache.sources.EventSourceException;
@@ -40,6 +41,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 // java:S2925 - Thread.sleep is required when waiting on real Kafka/Docker in integration tests
@@ -744,4 +746,41 @@ public class TestProjectorDriver {
             return !result.isSuccess() && result.getStatus() != ITestResult.SKIP;
         }
     }
+
+    @Test
+    public void givenBatchingSink_whenProjectionStalls_thenSinkFlushedOnce_andPartialBatchForwarded() {
+        // Given
+        List<List<Event<Integer, String>>> batches = new ArrayList<>();
+        AtomicInteger flushes = new AtomicInteger();
+        Sink<List<Event<Integer, String>>> batchDestination = new Sink<>() {
+            @Override
+            public void send(List<Event<Integer, String>> batch) {
+                batches.add(batch);
+            }
+
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(new ThenStallingEventSource(100, 0))
+                               .projector(new NoOpProjector<>())
+                               .destination(Sinks.<Event<Integer, String>>batch()
+                                                 .maxCount(1_000)
+                                                 .destination(batchDestination)
+                                                 .build())
+                               .pollTimeout(Duration.ofMillis(50))
+                               .maxStalls(3)
+                               .build();
+
+        // When
+        driver.run();
+
+        // Then
+        Assert.assertEquals(flushes.get(), 1);
+        Assert.assertEquals(batches.size(), 1);
+        Assert.assertEquals(batches.get(0).size(), 100);
+    }
 }
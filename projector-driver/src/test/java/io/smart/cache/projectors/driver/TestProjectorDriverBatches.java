@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smart.cache.projectors.driver;
+
+import io.telicent.smart.cache.projectors.NoOpProjector;
+import io.telicent.smart.cache.projectors.Projector;
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.driver.ProjectorDriver;
+import io.telicent.smart.cache.projectors.sinks.NullSink;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.InMemoryEventSource;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.awaitility.Awaitility;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class TestProjectorDriverBatches {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public void cleanup() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * A sink that records both the items it receives and how many batches it received them in
+     */
+    private static final class BatchRecordingSink implements Sink<Event<Integer, String>> {
+        private final List<Event<Integer, String>> items = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger batches = new AtomicInteger();
+
+        @Override
+        public void send(Event<Integer, String> item) {
+            this.items.add(item);
+        }
+
+        @Override
+        public void sendAll(Collection<? extends Event<Integer, String>> items) {
+            this.batches.incrementAndGet();
+            this.items.addAll(items);
+        }
+    }
+
+    private static List<Event<Integer, String>> createEvents(int size) {
+        List<Event<Integer, String>> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new SimpleEvent<>(Collections.emptyList(), i, Integer.toString(i)));
+        }
+        return events;
+    }
+
+    private static void awaitSuccess(Future<?> future) throws InterruptedException {
+        Awaitility.await("Projector Driver to finish").atMost(Duration.ofSeconds(10)).until(future::isDone);
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Assert.fail("Unexpected driver error: " + e.getCause());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Poll Batch Size.*")
+    public void givenZeroPollBatchSize_whenBuildingDriver_thenIllegalArgument() {
+        ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                       .source(new InMemoryEventSource<>(Collections.emptyList()))
+                       .projector(new NoOpProjector<>())
+                       .destination(NullSink.of())
+                       .pollBatchSize(0)
+                       .build();
+    }
+
+    @Test
+    public void givenBatchDriverWithBatchProjector_whenProjecting_thenAllEventsProjectedInOrder_inBatches() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(10_000);
+        BatchRecordingSink sink = new BatchRecordingSink();
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(new InMemoryEventSource<>(events))
+                               .projector(new NoOpProjector<>())
+                               .destination(sink)
+                               .pollBatchSize(256)
+                               .build();
+        Assert.assertEquals(driver.getPollBatchSize(), 256);
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertEquals(sink.items, events);
+        Assert.assertEquals(sink.batches.get(), (int) Math.ceil(events.size() / 256.0));
+    }
+
+    @Test
+    public void givenBatchDriverWithNonBatchProjector_whenProjecting_thenEachEventProjectedIndividually() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(1_000);
+        BatchRecordingSink sink = new BatchRecordingSink();
+        Projector<Event<Integer, String>, Event<Integer, String>> projector = (event, s) -> s.send(event);
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(new InMemoryEventSource<>(events))
+                               .projector(projector)
+                               .destination(sink)
+                               .pollBatchSize(100)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertEquals(sink.items, events);
+        Assert.assertEquals(sink.batches.get(), 0);
+    }
+
+    @Test
+    public void givenBatchDriverWithLimit_whenProjecting_thenExactlyLimitEventsPolled() throws InterruptedException {
+        // Given
+        InfiniteEventSource source = new InfiniteEventSource("Event %,d", 0);
+        BatchRecordingSink sink = new BatchRecordingSink();
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(source)
+                               .projector(new NoOpProjector<>())
+                               .destination(sink)
+                               .pollBatchSize(300)
+                               .limit(1_000)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertTrue(source.isClosed());
+        Assert.assertEquals(source.eventsYielded(), 1_000);
+        Assert.assertEquals(sink.items.size(), 1_000);
+        Assert.assertEquals(sink.batches.get(), 4);
+    }
+
+    @Test
+    public void givenBatchDriver_whenSourceStalls_thenProjectorInformedOfStalls_andDriverStops() throws
+            InterruptedException {
+        // Given
+        ThenStallingEventSource source = new ThenStallingEventSource(100, 0);
+        StallCountingProjector<Event<Integer, String>, Event<Integer, String>> projector =
+                new StallCountingProjector<>();
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(source)
+                               .projector(projector)
+                               .destination(NullSink.of())
+                               .pollBatchSize(64)
+                               .pollTimeout(Duration.ofMillis(50))
+                               .maxStalls(3)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertEquals(source.eventsYielded(), 100);
+        Assert.assertEquals(projector.getStalls(), 1L);
+        Assert.assertEquals(projector.getIdles(), 2L);
+        Assert.assertEquals(driver.getConsecutiveStalls(), 3L);
+    }
+
+    @Test
+    public void givenParallelBatchDriver_whenProjecting_thenAllEventsProjected() throws InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(10_000);
+        BatchRecordingSink sink = new BatchRecordingSink();
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(new InMemoryEventSource<>(events))
+                               .projector(new NoOpProjector<>())
+                               .destination(() -> sink)
+                               .pollBatchSize(128)
+                               .parallelism(4)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertEquals(sink.items.size(), events.size());
+        Assert.assertEquals(new HashSet<>(sink.items), new HashSet<>(events));
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smart.cache.projectors.driver;
+
+import io.telicent.smart.cache.projectors.NoOpProjector;
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import io.telicent.smart.cache.projectors.driver.ProjectorDriver;
+import io.telicent.smart.cache.projectors.sinks.NullSink;
+import io.telicent.smart.cache.sources.Event;
+import io.telicent.smart.cache.sources.memory.InMemoryEventSource;
+import io.telicent.smart.cache.sources.memory.SimpleEvent;
+import org.awaitility.Awaitility;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public class TestProjectorDriverParallel {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public void cleanup() {
+        this.executor.shutdownNow();
+    }
+
+    private static List<Event<Integer, String>> createEvents(int size, int distinctKeys) {
+        List<Event<Integer, String>> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            events.add(new SimpleEvent<>(Collections.emptyList(), i % distinctKeys, Integer.toString(i)));
+        }
+        return events;
+    }
+
+    private static void awaitSuccess(Future<?> future) throws InterruptedException {
+        Awaitility.await("Projector Driver to finish").atMost(Duration.ofSeconds(10)).until(future::isDone);
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Assert.fail("Unexpected driver error: " + e.getCause());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Parallelism > 1 requires.*")
+    public void givenSourceWithoutOutOfOrderProcessing_whenBuildingParallelDriver_thenIllegalArgument() {
+        // Given
+        InMemoryEventSource<Integer, String> source = new InMemoryEventSource<>(createEvents(10, 2)) {
+            @Override
+            public boolean supportsOutOfOrderProcessing() {
+                return false;
+            }
+        };
+
+        // When and Then
+        ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                       .source(source)
+                       .projector(new NoOpProjector<>())
+                       .destination(NullSink.of())
+                       .parallelism(2)
+                       .build();
+    }
+
+    @Test
+    public void givenSourceWithoutOutOfOrderProcessing_whenBuildingSequentialDriver_thenBuilt() {
+        // Given
+        InMemoryEventSource<Integer, String> source = new InMemoryEventSource<>(createEvents(10, 2)) {
+            @Override
+            public boolean supportsOutOfOrderProcessing() {
+                return false;
+            }
+        };
+
+        // When
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(source)
+                               .projector(new NoOpProjector<>())
+                               .destination(NullSink.of())
+                               .build();
+
+        // Then
+        Assert.assertNotNull(driver);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Parallelism.*")
+    public void givenZeroParallelism_whenBuildingDriver_thenIllegalArgument() {
+        ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                       .source(new InMemoryEventSource<>(Collections.emptyList()))
+                       .projector(new NoOpProjector<>())
+                       .destination(NullSink.of())
+                       .parallelism(0)
+                       .build();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Lane Queue Size.*")
+    public void givenZeroLaneQueueSize_whenBuildingDriver_thenIllegalArgument() {
+        ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                       .source(new InMemoryEventSource<>(Collections.emptyList()))
+                       .projector(new NoOpProjector<>())
+                       .destination(NullSink.of())
+                       .parallelism(2)
+                       .laneQueueSize(0)
+                       .build();
+    }
+
+    @Test
+    public void givenParallelDriver_whenProjecting_thenEachLaneHasOwnSink_andPerKeyOrderingIsPreserved() throws
+            InterruptedException {
+        // Given
+        List<Event<Integer, String>> events = createEvents(10_000, 17);
+        List<List<Event<Integer, String>>> laneOutputs = Collections.synchronizedList(new ArrayList<>());
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(new InMemoryEventSource<>(events))
+                               .projector(new NoOpProjector<>())
+                               .destination(() -> {
+                                   List<Event<Integer, String>> output = new ArrayList<>();
+                                   laneOutputs.add(output);
+                                   return output::add;
+                               })
+                               .parallelism(4)
+                               .laneQueueSize(10)
+                               .build();
+        Assert.assertEquals(driver.getParallelism(), 4);
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertEquals(laneOutputs.size(), 4);
+        Assert.assertEquals(laneOutputs.stream().mapToInt(List::size).sum(), events.size());
+        Map<Integer, Integer> keyToLane = new HashMap<>();
+        for (int lane = 0; lane < laneOutputs.size(); lane++) {
+            Map<Integer, Integer> lastValues = new HashMap<>();
+            for (Event<Integer, String> event : laneOutputs.get(lane)) {
+                Integer previousLane = keyToLane.putIfAbsent(event.key(), lane);
+                Assert.assertTrue(previousLane == null || previousLane == lane,
+                                  "Key " + event.key() + " was projected by multiple lanes");
+                int value = Integer.parseInt(event.value());
+                Integer last = lastValues.put(event.key(), value);
+                Assert.assertTrue(last == null || last < value, "Key " + event.key() + " was projected out of order");
+            }
+        }
+    }
+
+    @Test
+    public void givenParallelDriverWithLimit_whenProjecting_thenExactlyLimitEventsProjected() throws
+            InterruptedException {
+        // Given
+        InfiniteEventSource source = new InfiniteEventSource("Event %,d", 0);
+        List<Event<Integer, String>> output = Collections.synchronizedList(new ArrayList<>());
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(source)
+                               .projector(new NoOpProjector<>())
+                               .destination(() -> output::add)
+                               .parallelism(3)
+                               .laneKey(e -> e.value().length())
+                               .limit(5_000)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertTrue(source.isClosed());
+        Assert.assertEquals(source.eventsYielded(), 5_000);
+        Assert.assertEquals(output.size(), 5_000);
+    }
+
+    @Test
+    public void givenParallelDriver_whenLaneFails_thenDriverFailsWithLaneError() throws InterruptedException {
+        // Given
+        InfiniteEventSource source = new InfiniteEventSource("Event %,d", 0);
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(source)
+                               .projector(new NoOpProjector<>())
+                               .destination(() -> item -> {
+                                   if (item.key() == 1_234) {
+                                       throw new SinkException("Bad event");
+                                   }
+                               })
+                               .parallelism(2)
+                               .build();
+
+        // When
+        Future<?> future = this.executor.submit(driver);
+        Awaitility.await("Projector Driver to fail").atMost(Duration.ofSeconds(10)).until(future::isDone);
+
+        // Then
+        try {
+            future.get();
+            Assert.fail("Expected the driver to fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof SinkException);
+            Assert.assertEquals(e.getCause().getMessage(), "Bad event");
+        }
+        Assert.assertTrue(source.isClosed());
+    }
+
+    @Test
+    public void givenParallelDriver_whenStalled_thenEveryLaneNotified_andEveryLaneSinkClosed() throws
+            InterruptedException {
+        // Given
+        StallCountingProjector<Event<Integer, String>, Event<Integer, String>> projector =
+                new StallCountingProjector<>();
+        List<Boolean> closed = Collections.synchronizedList(new ArrayList<>());
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(new ThenStallingEventSource(100, 0))
+                               .projector(projector)
+                               .destination(() -> new Sink<>() {
+                                   @Override
+                                   public void send(Event<Integer, String> item) {
+                                       // Discard
+                                   }
+
+                                   @Override
+                                   public void close() {
+                                       closed.add(true);
+                                   }
+                               })
+                               .parallelism(3)
+                               .pollTimeout(Duration.ofMillis(50))
+                               .maxStalls(3)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        // Driver aborts on the 3rd consecutive stall, so each of the 3 lanes is informed of the stall once and of being
+        // idle twice
+        Assert.assertEquals(projector.getStalls(), 3L);
+        Assert.assertEquals(projector.getIdles(), 6L);
+        Assert.assertEquals(closed.size(), 3);
+    }
+
+    @Test
+    public void givenParallelDriver_whenSourceBufferExhausted_thenAllDispatchedEventsProjectedBeforeSourceCommits() throws
+            InterruptedException {
+        // Given
+        AtomicLong projected = new AtomicLong(0);
+        CommittingEventSource source = new CommittingEventSource(100, projected::get);
+        ProjectorDriver<Integer, String, Event<Integer, String>> driver =
+                ProjectorDriver.<Integer, String, Event<Integer, String>>create()
+                               .source(source)
+                               .projector(new NoOpProjector<>())
+                               .destination(() -> item -> {
+                                   // Slow lanes down so that they would lag behind the driver thread
+                                   LockSupport.parkNanos(100_000);
+                                   projected.incrementAndGet();
+                               })
+                               .parallelism(3)
+                               .laneQueueSize(50)
+                               .limit(1_000)
+                               .build();
+
+        // When
+        awaitSuccess(this.executor.submit(driver));
+
+        // Then
+        Assert.assertEquals(projected.get(), 1_000L);
+        Assert.assertFalse(source.unprojectedAtCommit().isEmpty());
+        for (Long unprojected : source.unprojectedAtCommit()) {
+            Assert.assertEquals(unprojected, 0L, "Source committed while dispatched events were still in the lanes");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors;
+
+import java.util.List;
+
+/**
+ * A projector that can project a batch of inputs at once
+ * <p>
+ * Where a projector can project a batch of inputs more efficiently than projecting each input individually, e.g. by
+ * amortising some per-input overhead across the batch, or by sending its outputs onwards via
+ * {@link Sink#sendAll(java.util.Collection)}, it should implement this interface.  Callers that receive inputs in
+ * batches, such as the {@code ProjectorDriver} when configured with a poll batch size, will then call
+ * {@link #projectAll(List, Sink)} rather than calling {@link #project(Object, Sink)} for each input.
+ * </p>
+ *
+ * @param <TInput>  Input type
+ * @param <TOutput> Output type
+ */
+// java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
+@SuppressWarnings("java:S119")
+public interface BatchProjector<TInput, TOutput> extends Projector<TInput, TOutput> {
+
+    /**
+     * Projects a batch of inputs to the output sink
+     * <p>
+     * Implementations <strong>MUST</strong> produce the same outputs, in the same order, as calling
+     * {@link #project(Object, Sink)} for each input in turn would.
+     * </p>
+     *
+     * @param inputs Inputs
+     * @param sink   Output sink
+     */
+    void projectAll(List<TInput> inputs, Sink<TOutput> sink);
+}
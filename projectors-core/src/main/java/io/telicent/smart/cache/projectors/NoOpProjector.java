@@ -15,6 +15,7 @@
  */
 package io.telicent.smart.cache.projectors;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -22,11 +23,18 @@ import java.util.Objects;
  *
  * @param <T> Input and Output type
  */
-public class NoOpProjector<T> implements Projector<T, T> {
+public class NoOpProjector<T> implements BatchProjector<T, T> {
     @Override
     public void project(T t, Sink<T> sink) {
         Objects.requireNonNull(t, "Input cannot be null");
         Objects.requireNonNull(sink, "Output sink cannot be null");
         sink.send(t);
     }
+
+    @Override
+    public void projectAll(List<T> inputs, Sink<T> sink) {
+        Objects.requireNonNull(inputs, "Inputs cannot be null");
+        Objects.requireNonNull(sink, "Output sink cannot be null");
+        sink.sendAll(inputs);
+    }
 }
@@ -15,6 +15,8 @@
  */
 package io.telicent.smart.cache.projectors;
 
+import java.util.Collection;
+
 /**
  * Interface for sinks that process items
  * <p>
@@ -39,6 +41,46 @@ public interface Sink<T> extends AutoCloseable {
      */
     void send(T item);
 
+    /**
+     * Sends a batch of items to the sink, throwing an error if any of them cannot be processed
+     * <p>
+     * The default implementation simply calls {@link #send(Object)} for each item in turn.  Sinks that can process a
+     * batch of items more efficiently than processing each item individually, e.g. by amortising some per-item overhead
+     * across the batch, should override this.  Implementations <strong>MUST</strong> preserve the ordering of the
+     * items.
+     * </p>
+     * <p>
+     * If an item in the batch cannot be processed then the items prior to it in the batch may have already been
+     * processed.
+     * </p>
+     *
+     * @param items Items
+     * @throws SinkException Thrown if an item cannot be processed
+     */
+    default void sendAll(Collection<? extends T> items) {
+        for (T item : items) {
+            this.send(item);
+        }
+    }
+
+    /**
+     * Requests that the sink forwards, or otherwise completes processing of, any items it is currently holding
+     * <p>
+     * Sinks that hold items for some time before processing them, e.g. to process them in batches, should override
+     * this to process their held items immediately.  Forwarding sinks should propagate this to their destination.  It
+     * is intended to be called when there may be no further items for some time, e.g. when a projection stalls because
+     * no new events are available, so held items are not unduly delayed.
+     * </p>
+     * <p>
+     * The default implementation does nothing.
+     * </p>
+     *
+     * @throws SinkException Thrown if held items cannot be processed
+     */
+    default void flush() {
+        // No-op by default
+    }
+
     @Override
     default void close() {
         // No-op by default
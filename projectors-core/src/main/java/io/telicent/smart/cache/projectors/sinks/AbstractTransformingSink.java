@@ -18,11 +18,21 @@ package io.telicent.smart.cache.projectors.sinks;
 import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.SinkException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * An abstract sink that transforms its input and forwards it onto another sink
+ * <p>
+ * Batches of items received via {@link #sendAll(Collection)} are transformed item by item and then forwarded onto the
+ * destination sink as a single batch, so batching is preserved through a chain of transforming sinks.  If a derived
+ * implementation overrides {@link #send(Object)} then, unless it also overrides {@link #sendAll(Collection)}, batches
+ * are instead passed to its {@link #send(Object)} item by item so that its logic is never bypassed, derived
+ * implementations should therefore override both methods if they wish to preserve batching.
+ * </p>
  */
 // java:S119 - TKey/TValue/TRequest generic naming convention is used across the codebase
 @SuppressWarnings("java:S119")
@@ -33,6 +43,21 @@ public abstract class AbstractTransformingSink<TInput, TOutput> implements Sink<
      */
     protected final Sink<TOutput> destination;
 
+    /**
+     * Caches whether a given sink class overrides {@link #send(Object)}
+     */
+    private static final ClassValue<Boolean> OVERRIDES_SEND = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                // Due to erasure, and bridge methods, any override of send() is visible as send(Object)
+                return type.getMethod("send", Object.class).getDeclaringClass() != AbstractTransformingSink.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     /**
      * Creates a new sink with an optional forwarding destination
      * <p>
@@ -55,6 +80,26 @@ public abstract class AbstractTransformingSink<TInput, TOutput> implements Sink<
         forward(output);
     }
 
+    @Override
+    public void sendAll(Collection<? extends TInput> items) throws SinkException {
+        if (OVERRIDES_SEND.get(this.getClass())) {
+            for (TInput item : items) {
+                this.send(item);
+            }
+            return;
+        }
+
+        List<TOutput> outputs = new ArrayList<>(items.size());
+        for (TInput item : items) {
+            if (shouldForward(item)) {
+                outputs.add(transform(item));
+            }
+        }
+        if (!outputs.isEmpty()) {
+            this.destination.sendAll(outputs);
+        }
+    }
+
     /**
      * Determines whether the derived implementation will forward this item on.
      * <p>
@@ -88,6 +133,12 @@ public abstract class AbstractTransformingSink<TInput, TOutput> implements Sink<
         this.destination.send(object);
     }
 
+    @Override
+    public void flush() {
+        // Pass onwards to destination sink
+        this.destination.flush();
+    }
+
     @Override
     public void close() {
         // Pass onwards to destination sink
@@ -0,0 +1,427 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sink that decouples the sending of items from their processing by the destination sink
+ * <p>
+ * Items sent to this sink are placed into a preallocated bounded ring buffer, and a dedicated consumer thread takes
+ * items from that buffer and forwards them on to the destination sink.  This allows the thread sending items, typically
+ * a {@code ProjectorDriver} thread, to continue with CPU bound work such as projection while the consumer thread
+ * handles the I/O bound work of a slow destination, e.g. writing to an external store, giving pipeline parallelism.  If
+ * the buffer is full the sending thread waits, per the configured {@link WaitStrategy}, for the consumer to make space.
+ * </p>
+ * <p>
+ * The ring buffer is single-producer/single-consumer, thus {@link #send(Object)} <strong>MUST NOT</strong> be called
+ * concurrently from multiple threads.  The destination sink is only ever used from the consumer thread, including when
+ * it is closed.
+ * </p>
+ * <p>
+ * If the destination sink fails then the consumer thread stops, and the failure is rethrown on the next call to
+ * {@link #send(Object)} or {@link #close()}.  Calling {@link #close()} waits for all previously sent items to be
+ * forwarded before closing the destination sink.
+ * </p>
+ * <p>
+ * Note that {@link #send(Object)} returns once an item is buffered, <strong>before</strong> the destination has
+ * processed it.  When reading events from a source that commits its position as it is polled, e.g. a Kafka source
+ * with auto-commit enabled, the source may commit events that are still buffered and so lose them if the application
+ * crashes.  In that case the source <strong>MUST</strong> instead be configured to only commit events once they are
+ * acknowledged via {@code EventSource.processed()}, and those acknowledgements made by the destination sink, e.g. an
+ * {@code EventProcessedSink}, on the consumer thread.
+ * </p>
+ * <p>
+ * The consumer thread is started when the sink is created, hence this class is {@code final} so that no subclass
+ * state can be observed by that thread before it is initialised.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+@ToString(callSuper = true, onlyExplicitlyIncluded = true)
+public final class AsyncSink<T> extends AbstractTransformingSink<T, T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSink.class);
+
+    /**
+     * Default size of the ring buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1_024;
+
+    /**
+     * Maximum time the {@link WaitStrategy#PARK} strategy parks a thread for before re-checking the buffer
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Marker placed into the buffer to request the consumer thread flush the destination sink
+     */
+    private static final Object FLUSH = new Object();
+
+    /**
+     * Strategies for how threads wait when the ring buffer is full (the sending thread) or empty (the consumer thread)
+     */
+    public enum WaitStrategy {
+        /**
+         * Busy spins, giving the lowest latency at the cost of fully occupying a CPU core while waiting
+         */
+        SPIN,
+        /**
+         * Yields the CPU to other threads while waiting, lower latency than parking but still keeps a CPU core busy
+         * when there are no other threads to run
+         */
+        YIELD,
+        /**
+         * Parks the waiting thread until signalled by the other thread, minimises CPU usage at the cost of higher
+         * latency for waking the waiting thread
+         */
+        PARK
+    }
+
+    private final Object[] buffer;
+    private final int mask;
+    @ToString.Include
+    @Getter
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedTail = 0;
+    private final Thread consumer;
+    private volatile Thread parkedProducer;
+    private volatile boolean consumerParked = false;
+    private volatile boolean closing = false;
+    private volatile Throwable failure;
+    private boolean failureReported = false;
+
+    /**
+     * Creates a new async sink
+     *
+     * @param destination  Destination sink
+     * @param bufferSize   Buffer size, rounded up to the next power of two
+     * @param waitStrategy Wait strategy
+     * @param threadName   Name for the consumer thread
+     */
+    AsyncSink(Sink<T> destination, int bufferSize, WaitStrategy waitStrategy, String threadName) {
+        super(destination);
+        if (bufferSize < 1 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("Buffer Size must be in the range 1 to " + (1 << 30));
+        }
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "Wait Strategy cannot be null");
+        int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.buffer = new Object[capacity];
+        this.mask = capacity - 1;
+        this.consumer = Thread.ofPlatform()
+                              .name(Objects.requireNonNullElse(threadName, "AsyncSink"))
+                              .daemon(true)
+                              .start(this::consume);
+    }
+
+    /**
+     * Gets the capacity of the ring buffer
+     *
+     * @return Capacity
+     */
+    @ToString.Include
+    public int getBufferSize() {
+        return this.buffer.length;
+    }
+
+    /**
+     * Gets the number of items currently buffered, i.e. sent but not yet taken by the consumer thread, including any
+     * pending flush requests
+     *
+     * @return Buffered items
+     */
+    public long getBuffered() {
+        return this.head.get() - this.tail.get();
+    }
+
+    @Override
+    public void send(T item) throws SinkException {
+        publish(item);
+    }
+
+    @Override
+    public void sendAll(Collection<? extends T> items) throws SinkException {
+        for (T item : items) {
+            publish(item);
+        }
+    }
+
+    /**
+     * Requests that the destination sink is flushed
+     * <p>
+     * Since the destination sink is only ever used from the consumer thread this places a flush request into the buffer,
+     * the destination is flushed once the consumer thread has forwarded all items sent prior to this call.  Thus, this
+     * may return before the destination has actually been flushed.
+     * </p>
+     */
+    @Override
+    public void flush() {
+        publish(FLUSH);
+    }
+
+    /**
+     * Publishes an item, or a flush request, into the buffer, waiting for space if necessary
+     *
+     * @param item Item
+     */
+    private void publish(Object item) {
+        if (this.closing) {
+            throw new SinkException("Sink is already closed");
+        }
+        ensureHealthy();
+
+        long sequence = this.head.get();
+        while (sequence - this.cachedTail >= this.buffer.length) {
+            this.cachedTail = this.tail.get();
+            if (sequence - this.cachedTail < this.buffer.length) {
+                break;
+            }
+            ensureHealthy();
+            waitAsProducer(sequence);
+        }
+        this.buffer[(int) (sequence & this.mask)] = item;
+        this.head.set(sequence + 1);
+        if (this.consumerParked) {
+            LockSupport.unpark(this.consumer);
+        }
+    }
+
+    @Override
+    protected T transform(T item) {
+        return item;
+    }
+
+    private void waitAsProducer(long sequence) {
+        switch (this.waitStrategy) {
+            case SPIN -> Thread.onSpinWait();
+            case YIELD -> Thread.yield();
+            default -> {
+                this.parkedProducer = Thread.currentThread();
+                // Re-check after advertising that we're parked, so we can't miss a signal from the consumer
+                if (sequence - this.tail.get() >= this.buffer.length) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                this.parkedProducer = null;
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new SinkException("Interrupted while waiting for space in async sink buffer");
+        }
+    }
+
+    private void waitAsConsumer(long sequence) {
+        switch (this.waitStrategy) {
+            case SPIN -> Thread.onSpinWait();
+            case YIELD -> Thread.yield();
+            default -> {
+                this.consumerParked = true;
+                // Re-check after advertising that we're parked, so we can't miss a signal from the producer
+                if (sequence == this.head.get() && !this.closing) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                this.consumerParked = false;
+            }
+        }
+    }
+
+    /**
+     * The consumer threads main loop, forwards items from the buffer to the destination until the sink is closed and
+     * the buffer fully drained, or the destination fails
+     */
+    @SuppressWarnings("unchecked")
+    private void consume() {
+        try {
+            long sequence = this.tail.get();
+            while (true) {
+                if (sequence == this.head.get()) {
+                    // NB - The producer publishes its final item before setting closing so if we're closing and the
+                    //      buffer is still empty after re-checking it then it has been fully drained
+                    if (this.closing && sequence == this.head.get()) {
+                        break;
+                    }
+                    waitAsConsumer(sequence);
+                    continue;
+                }
+                int index = (int) (sequence & this.mask);
+                Object item = this.buffer[index];
+                this.buffer[index] = null;
+                this.tail.set(++sequence);
+                Thread producer = this.parkedProducer;
+                if (producer != null) {
+                    LockSupport.unpark(producer);
+                }
+                if (item == FLUSH) {
+                    this.destination.flush();
+                } else {
+                    this.forward((T) item);
+                }
+            }
+        } catch (Throwable e) {
+            LOGGER.warn("Async sink destination failed: {}", e.getMessage());
+            this.failure = e;
+        } finally {
+            try {
+                this.destination.close();
+            } catch (Throwable e) {
+                if (this.failure == null) {
+                    this.failure = e;
+                } else {
+                    this.failure.addSuppressed(e);
+                }
+            }
+            Thread producer = this.parkedProducer;
+            if (producer != null) {
+                LockSupport.unpark(producer);
+            }
+        }
+    }
+
+    /**
+     * Ensures that the consumer thread has not failed, rethrowing its failure the first time this is detected and
+     * throwing a further error subsequently
+     */
+    private void ensureHealthy() {
+        checkHealthy();
+        if (this.failure != null) {
+            throw new SinkException("Async sink destination previously failed", this.failure);
+        }
+    }
+
+    /**
+     * Checks that the consumer thread has not failed, rethrowing its failure if it has and that failure was not already
+     * reported
+     */
+    private void checkHealthy() {
+        Throwable e = this.failure;
+        if (e == null || this.failureReported) {
+            return;
+        }
+        this.failureReported = true;
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (e instanceof Error error) {
+            throw error;
+        } else {
+            throw new SinkException("Async sink destination failed", e);
+        }
+    }
+
+    /**
+     * Closes the sink, waiting for all previously sent items to be forwarded on to the destination sink which is then
+     * closed
+     * <p>
+     * If the destination failed, and that failure was not already reported by {@link #send(Object)}, it is rethrown.
+     * </p>
+     */
+    @Override
+    public void close() {
+        if (this.closing) {
+            return;
+        }
+        this.closing = true;
+        LockSupport.unpark(this.consumer);
+
+        try {
+            this.consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.consumer.interrupt();
+            throw new SinkException("Interrupted while waiting for async sink to drain", e);
+        }
+        checkHealthy();
+    }
+
+    /**
+     * Creates a new builder for async sinks
+     *
+     * @param <TItem> Item type
+     * @return Builder
+     */
+    public static <TItem> Builder<TItem> create() {
+        return new Builder<>();
+    }
+
+    /**
+     * A builder for async sinks
+     *
+     * @param <TItem> Item type
+     */
+    public static class Builder<TItem>
+            extends AbstractForwardingSinkBuilder<TItem, TItem, AsyncSink<TItem>, Builder<TItem>> {
+
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private WaitStrategy waitStrategy = WaitStrategy.PARK;
+        private String threadName = "AsyncSink";
+
+        /**
+         * Sets the size of the ring buffer, this is rounded up to the next power of two
+         * <p>
+         * If not specified defaults to {@link AsyncSink#DEFAULT_BUFFER_SIZE}.
+         * </p>
+         *
+         * @param bufferSize Buffer size
+         * @return Builder
+         */
+        public Builder<TItem> bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the wait strategy used when the buffer is full or empty
+         * <p>
+         * If not specified defaults to {@link WaitStrategy#PARK}.
+         * </p>
+         *
+         * @param waitStrategy Wait strategy
+         * @return Builder
+         */
+        public Builder<TItem> waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        /**
+         * Sets the name of the consumer thread
+         *
+         * @param threadName Thread name
+         * @return Builder
+         */
+        public Builder<TItem> threadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        @Override
+        public AsyncSink<TItem> build() {
+            return new AsyncSink<>(this.getDestination(), this.bufferSize, this.waitStrategy, this.threadName);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A sink that accumulates items into batches, forwarding each batch as a {@link List} to its destination sink
+ * <p>
+ * A batch is forwarded once it reaches a maximum number of items, a maximum estimated size in bytes, as calculated by a
+ * pluggable sizer function, or has been open for a maximum linger time, whichever happens first.  Note that the linger
+ * time is only checked when items are sent, so any open batch is also forwarded when {@link #flush()} is called, which
+ * a {@code ProjectorDriver} does when its projection stalls, and when the sink is closed.
+ * </p>
+ * <p>
+ * This is intended as a building block for sinks that write to stores which are much faster when written to in bulk.
+ * Note that the open batch is carried across polls of the event source, so items that have been sent to this sink may
+ * not yet have been written when an event source that commits its position as it is polled, e.g. a Kafka source with
+ * auto-commit enabled, commits them.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+@ToString(callSuper = true, onlyExplicitlyIncluded = true)
+public class BatchSink<T> extends AbstractTransformingSink<T, List<T>> {
+
+    /**
+     * Default maximum number of items per batch
+     */
+    public static final int DEFAULT_MAX_COUNT = 1_000;
+
+    @ToString.Include
+    private final int maxCount;
+    @ToString.Include
+    private final long maxBytes;
+    private final ToLongFunction<T> sizer;
+    @ToString.Include
+    private final long maxLingerNanos;
+    private List<T> batch;
+    private long batchBytes = 0;
+    private long batchOpenedAt = 0;
+    private boolean closed = false;
+    /**
+     * The number of batches forwarded
+     */
+    @Getter
+    private long batchesForwarded = 0;
+
+    /**
+     * Creates a new batching sink
+     *
+     * @param destination Destination sink
+     * @param maxCount    Maximum number of items per batch
+     * @param maxBytes    Maximum estimated size in bytes of a batch, zero or negative for no size limit
+     * @param sizer       Function that estimates the size in bytes of an item, required if {@code maxBytes} is
+     *                    positive
+     * @param maxLinger   Maximum time a batch is held open for, {@code null} for no time limit
+     */
+    BatchSink(Sink<List<T>> destination, int maxCount, long maxBytes, ToLongFunction<T> sizer, Duration maxLinger) {
+        super(destination);
+        if (maxCount < 1) {
+            throw new IllegalArgumentException("Max Count must be >= 1");
+        }
+        if (maxBytes > 0) {
+            Objects.requireNonNull(sizer, "Sizer cannot be null when a max bytes limit is set");
+        }
+        if (maxLinger != null && maxLinger.compareTo(Duration.ZERO) < 1) {
+            throw new IllegalArgumentException("Max Linger must be a duration greater than zero");
+        }
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+        this.sizer = maxBytes > 0 ? sizer : null;
+        this.maxLingerNanos = maxLinger != null ? maxLinger.toNanos() : -1;
+        this.batch = newBatch();
+    }
+
+    private List<T> newBatch() {
+        return new ArrayList<>(Math.min(this.maxCount, 1_024));
+    }
+
+    /**
+     * Gets the number of items in the currently open batch
+     *
+     * @return Batched items
+     */
+    public int getBatched() {
+        return this.batch.size();
+    }
+
+    @Override
+    protected boolean shouldForward(T item) {
+        if (this.closed) {
+            throw new SinkException("Sink is already closed");
+        }
+
+        // Add the item to the open batch and forward it if any of our limits have now been reached
+        if (this.batch.isEmpty()) {
+            this.batchOpenedAt = System.nanoTime();
+        }
+        this.batch.add(item);
+        if (this.sizer != null) {
+            this.batchBytes += Math.max(0, this.sizer.applyAsLong(item));
+        }
+        return this.batch.size() >= this.maxCount
+               || (this.sizer != null && this.batchBytes >= this.maxBytes)
+               || (this.maxLingerNanos > 0 && System.nanoTime() - this.batchOpenedAt >= this.maxLingerNanos);
+    }
+
+    @Override
+    protected List<T> transform(T item) {
+        // NB - The item was already added to the batch in shouldForward() so we just hand off the whole batch
+        return takeBatch();
+    }
+
+    /**
+     * Takes the currently open batch, replacing it with a new empty batch
+     *
+     * @return Batch
+     */
+    private List<T> takeBatch() {
+        List<T> output = this.batch;
+        this.batch = newBatch();
+        this.batchBytes = 0;
+        this.batchesForwarded++;
+        return output;
+    }
+
+    /**
+     * Forwards the currently open batch, if non-empty
+     */
+    private void flushBatch() {
+        if (!this.batch.isEmpty()) {
+            this.forward(takeBatch());
+        }
+    }
+
+    /**
+     * Forwards the currently open batch, if non-empty, and then flushes the destination sink
+     */
+    @Override
+    public void flush() {
+        flushBatch();
+        super.flush();
+    }
+
+    /**
+     * Forwards the currently open batch, if non-empty, and then closes the destination sink
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            flushBatch();
+        } finally {
+            super.close();
+        }
+    }
+
+    /**
+     * Creates a new batching sink builder
+     *
+     * @param <TItem> Item type
+     * @return Builder
+     */
+    public static <TItem> Builder<TItem> create() {
+        return new Builder<>();
+    }
+
+    /**
+     * A builder for batching sinks
+     *
+     * @param <TItem> Item type
+     */
+    public static class Builder<TItem>
+            extends AbstractForwardingSinkBuilder<TItem, List<TItem>, BatchSink<TItem>, Builder<TItem>> {
+
+        private int maxCount = DEFAULT_MAX_COUNT;
+        private long maxBytes = -1;
+        private ToLongFunction<TItem> sizer;
+        private Duration maxLinger;
+
+        /**
+         * Sets the maximum number of items per batch
+         * <p>
+         * If not specified defaults to {@link BatchSink#DEFAULT_MAX_COUNT}.
+         * </p>
+         *
+         * @param maxCount Maximum items per batch
+         * @return Builder
+         */
+        public Builder<TItem> maxCount(int maxCount) {
+            this.maxCount = maxCount;
+            return this;
+        }
+
+        /**
+         * Sets the maximum estimated size in bytes of a batch
+         * <p>
+         * A batch is forwarded once the sum of the estimated sizes of its items reaches this limit, thus a batch may
+         * exceed the limit by up to the size of its final item.  Negative sizes returned by the sizer are treated as
+         * zero.
+         * </p>
+         *
+         * @param maxBytes Maximum batch size in bytes
+         * @param sizer    Function that estimates the size in bytes of an item
+         * @return Builder
+         */
+        public Builder<TItem> maxBytes(long maxBytes, ToLongFunction<TItem> sizer) {
+            this.maxBytes = maxBytes;
+            this.sizer = sizer;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a batch is held open for
+         * <p>
+         * This is only checked when further items are sent, so a batch may be held open longer than this if no further
+         * items arrive.  Pipelines should therefore ensure that {@link Sink#flush()} is called when no further items
+         * are expected for some time, as a {@code ProjectorDriver} does when its projection stalls.
+         * </p>
+         *
+         * @param maxLinger Maximum linger time
+         * @return Builder
+         */
+        public Builder<TItem> maxLinger(Duration maxLinger) {
+            this.maxLinger = maxLinger;
+            return this;
+        }
+
+        @Override
+        public BatchSink<TItem> build() {
+            return new BatchSink<>(this.getDestination(), this.maxCount, this.maxBytes, this.sizer, this.maxLinger);
+        }
+    }
+}
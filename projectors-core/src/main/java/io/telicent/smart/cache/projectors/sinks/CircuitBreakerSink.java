@@ -21,8 +21,14 @@ import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBu
 import lombok.Getter;
 import lombok.ToString;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * A circuit breaker sink is used, as the name implies, as a circuit breaker within a pipeline.
@@ -33,6 +39,11 @@ import java.util.concurrent.LinkedBlockingQueue;
  * {@link State#CLOSED} state.  When the circuit breaker is closed any temporarily held items are forwarded onto the
  * destination <strong>prior</strong> to any further items in order to retain item ordering.
  * </p>
+ * <p>
+ * Optionally a spillover file may be configured, see {@link Builder#spillover(Path, Function, Function)}, in which case
+ * items that would overflow the queue are instead appended to that file so the pipeline is not blocked.  Spilled items
+ * are forwarded, in order, after the queued items when the circuit breaker is closed.
+ * </p>
  *
  * @param <T> Item type
  */
@@ -60,6 +71,17 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
     protected volatile State state;
     @ToString.Exclude
     protected final LinkedBlockingQueue<T> queue;
+    protected final int queueSize;
+    @ToString.Exclude
+    private final SpilloverFile<T> spillover;
+    @ToString.Exclude
+    private final ReentrantLock lock = new ReentrantLock();
+    @ToString.Exclude
+    private final Condition notFull = this.lock.newCondition();
+    @ToString.Exclude
+    private final Condition drained = this.lock.newCondition();
+    @ToString.Exclude
+    private boolean draining = false;
 
     /**
      * Creates a new circuit breaker sink
@@ -71,31 +93,129 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
      *                       destination sink
      */
     CircuitBreakerSink(Sink<T> destination, State initialState, int queueSize, boolean propagateClose) {
+        this(destination, initialState, queueSize, propagateClose, null);
+    }
+
+    /**
+     * Creates a new circuit breaker sink
+     *
+     * @param destination    Destination sink
+     * @param initialState   Initial state
+     * @param queueSize      Queue size
+     * @param propagateClose Whether when the circuit breaker is open a {@link #close()} is propagated  to the
+     *                       destination sink
+     * @param spillover      Spillover file for items that overflow the queue, if {@code null} then sending blocks
+     *                       when the queue is full
+     */
+    CircuitBreakerSink(Sink<T> destination, State initialState, int queueSize, boolean propagateClose,
+                       SpilloverFile<T> spillover) {
         super(destination);
         if (queueSize < 1) throw new IllegalArgumentException("queueSize must be at least 1");
         this.state = Objects.requireNonNull(initialState, "initialState must not be null");
         this.queue = new LinkedBlockingQueue<>(queueSize);
+        this.queueSize = queueSize;
         this.propagateCloseWhenOpen = propagateClose;
+        this.spillover = spillover;
     }
 
     /**
      * Sets the state for the circuit breaker
+     * <p>
+     * If the circuit breaker transitions into the {@link State#CLOSED} state then any previously held items are
+     * forwarded on the calling thread before this method returns, unless the circuit breaker is opened again, or the
+     * sink closed, in the meantime.
+     * </p>
      *
      * @param state New state
      */
     public void setState(State state) {
-        this.state = Objects.requireNonNull(state);
-
-        // If we transitioned into the Closed state forward on any previously queued items
-        if (this.state == State.CLOSED) {
-            while (!this.queue.isEmpty() && !this.closed) {
-                // NB - If the queue is non-empty, and since we don't permit null items (see shouldForward()) we are
-                //      guaranteed to always poll() a non-null item to forward on at this point
-                this.forward(this.queue.poll());
+        Objects.requireNonNull(state);
+        this.lock.lock();
+        try {
+            this.state = state;
+            // Wake up any threads waiting on us so they re-evaluate in light of the new state
+            this.notFull.signalAll();
+            this.drained.signalAll();
+            if (state != State.CLOSED || this.draining) {
+                // Either now open, or another thread is already forwarding previously held items
+                return;
+            }
+            this.draining = true;
+        } finally {
+            this.lock.unlock();
+        }
+
+        // We transitioned into the Closed state so forward on any previously held items
+        boolean finished = false;
+        try {
+            while (!finished) {
+                T item;
+                while ((item = nextHeldItem()) != null) {
+                    this.forward(item);
+                }
+                finished = finishDraining(false);
+            }
+        } finally {
+            if (!finished) {
+                finishDraining(true);
             }
         }
     }
 
+    /**
+     * Attempts to finish forwarding held items
+     * <p>
+     * If the circuit breaker was briefly re-opened, and is now closed again, while we were forwarding held items then
+     * further items may have been held, in which case we must continue forwarding as any other thread that closed the
+     * circuit breaker in the meantime will have left that to us.
+     * </p>
+     *
+     * @param force Whether to finish regardless of whether there are further held items
+     * @return True if finished, false if further held items need forwarding
+     */
+    private boolean finishDraining(boolean force) {
+        this.lock.lock();
+        try {
+            if (!force && !this.closed && this.state == State.CLOSED && (!this.queue.isEmpty() || hasSpilledItems())) {
+                return false;
+            }
+            this.draining = false;
+            this.drained.signalAll();
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next held item to forward, queued items are taken before spilled items since they were held first
+     *
+     * @return Next held item, or {@code null} if there are no further held items to forward at this time
+     */
+    private T nextHeldItem() {
+        this.lock.lock();
+        try {
+            if (this.closed || this.state != State.CLOSED) {
+                return null;
+            }
+            // NB - Since we don't permit null items (see shouldForward()) a null here always means no further items
+            T item = this.queue.poll();
+            if (item != null) {
+                this.notFull.signalAll();
+                return item;
+            }
+            return this.spillover != null ? this.spillover.next() : null;
+        } catch (IOException e) {
+            throw new SinkException("Failed to read item from circuit breaker spillover file", e);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean hasSpilledItems() {
+        return this.spillover != null && this.spillover.pending() > 0;
+    }
+
     @Override
     protected boolean shouldForward(T item) {
         ensureNotClosed();
@@ -104,34 +224,53 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
             return false;
         }
 
-        switch (this.state) {
-            case OPEN:
-                // If we're open then we use our queue to hold items temporarily, this will block if our configured
-                // queue size has been reached
-                try {
-                    this.queue.put(item);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new SinkException("Interrupted while trying to add item to queue while circuit breaker was open", e);
-                }
-                return false;
-            case CLOSED:
-            default:
-                // If we're closed then pass the items on immediately unless there's stuff in the queue in which case
-                // wait for the queue to drain first.  This can happen if another thread has recently closed the circuit
-                // breaker and is still forwarding on the previously queued items
-                while (!this.queue.isEmpty() && !this.closed) {
-                    try {
-                        Thread.sleep(10);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        throw new SinkException("Interrupted while waiting for circuit breaker queue to drain", e);
+        this.lock.lock();
+        try {
+            while (true) {
+                ensureNotClosed();
+                if (this.state == State.OPEN) {
+                    // If we're open then we hold items temporarily, first in our queue and then, if configured, in our
+                    // spillover file.  Once anything has been spilled later items must also be spilled to retain item
+                    // ordering.  If our queue is full and there's no spillover we block until that changes.
+                    if (hasSpilledItems() || (this.queue.size() >= this.queueSize && this.spillover != null)) {
+                        spill(item);
+                        return false;
+                    } else if (this.queue.size() < this.queueSize) {
+                        this.queue.add(item);
+                        return false;
+                    }
+                    awaitSignal(this.notFull,
+                                "Interrupted while trying to add item to queue while circuit breaker was open");
+                } else {
+                    // If we're closed then pass the items on immediately unless there's held items in which case wait
+                    // for those to be forwarded first.  This can happen if another thread has recently closed the
+                    // circuit breaker and is still forwarding on the previously held items
+                    if (!this.draining && this.queue.isEmpty() && !hasSpilledItems()) {
+                        return true;
                     }
+                    awaitSignal(this.drained, "Interrupted while waiting for circuit breaker queue to drain");
                 }
-                // Double check we haven't been closed in the meantime
-                ensureNotClosed();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void spill(T item) {
+        try {
+            this.spillover.append(item);
+        } catch (IOException e) {
+            throw new SinkException("Failed to spill item to circuit breaker spillover file", e);
+        }
+    }
+
+    private void awaitSignal(Condition condition, String interruptedMessage) {
+        try {
+            condition.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SinkException(interruptedMessage, e);
         }
-        return true;
     }
 
     private void ensureNotClosed() {
@@ -140,6 +279,21 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
         }
     }
 
+    /**
+     * Sends each item individually
+     * <p>
+     * Since the circuit breaker may be opened part way through a batch, at which point later items in the batch are
+     * held, each item is forwarded as soon as it is accepted so items held while open are never forwarded ahead of
+     * earlier items in the same batch.
+     * </p>
+     */
+    @Override
+    public void sendAll(Collection<? extends T> items) throws SinkException {
+        for (T item : items) {
+            send(item);
+        }
+    }
+
     @Override
     protected T transform(T item) {
         return item;
@@ -147,22 +301,40 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
 
     @Override
     public void close() {
-        if (this.closed) {
-            return;
+        long held;
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            // Wake up any threads waiting on us so they observe that we are now closed
+            this.notFull.signalAll();
+            this.drained.signalAll();
+
+            held = this.queue.size() + (this.spillover != null ? this.spillover.pending() : 0);
+            this.queue.clear();
+            if (this.spillover != null) {
+                this.spillover.close();
+            }
+        } catch (IOException e) {
+            throw new SinkException("Failed to close circuit breaker spillover file", e);
+        } finally {
+            this.lock.unlock();
         }
-        this.closed = true;
 
         // Ensure our destination is also closed UNLESS we're open and configured not to do so
         if (this.state == State.CLOSED || this.propagateCloseWhenOpen) {
             this.destination.close();
         }
 
-        // If our queue was non-empty throw an error as this implies something went wrong if the circuit breaker was
-        // open when the sink was closed
-        if (!this.queue.isEmpty()) {
+        // If we held items throw an error as this implies something went wrong if the circuit breaker was open when the
+        // sink was closed
+        if (held > 0) {
             throw new SinkException(
                     String.format("Circuit breaker had %,d queued items when sink closed due to being in state %s",
-                                  this.queue.size(), this.state));
+                                  held, this.state));
         }
     }
 
@@ -186,6 +358,7 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
         private State state = State.CLOSED;
         private int queueSize = 100;
         private boolean propagateCloseWhenOpen = true;
+        private SpilloverFile<T> spillover;
 
         /**
          * Sets that the initial state of the circuit breaker will be {@link State#OPEN} i.e. it holds items until it is
@@ -213,8 +386,8 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
          * Sets the queue size for the circuit breaker
          * <p>
          * When the circuit breaker is {@link State#OPEN} this controls how many items it will enqueue before blocking
-         * the entire pipeline.  When the circuit breaker is returned to the {@link State#CLOSED} state then any queued
-         * items are forwarded on to the destination.
+         * the entire pipeline, or spilling items to its spillover file if one is configured.  When the circuit breaker
+         * is returned to the {@link State#CLOSED} state then any queued items are forwarded on to the destination.
          * </p>
          *
          * @param queueSize Queue size
@@ -243,10 +416,35 @@ public class CircuitBreakerSink<T> extends AbstractTransformingSink<T, T> {
             return this;
         }
 
+        /**
+         * Sets a spillover file for the circuit breaker
+         * <p>
+         * When the circuit breaker is {@link State#OPEN} and its queue is full, rather than blocking the pipeline,
+         * further items are serialized and appended to this file.  When the circuit breaker is returned to the
+         * {@link State#CLOSED} state the spilled items are read back and forwarded on to the destination, in order,
+         * after any queued items.  This allows a pipeline to keep running through a prolonged outage of some external
+         * service, limited only by available disk space.
+         * </p>
+         * <p>
+         * The spillover file is purely an overflow buffer, <strong>NOT</strong> a durable store, any existing contents
+         * are discarded when it is first used, and it is deleted once all spilled items have been forwarded or when the
+         * sink is closed.
+         * </p>
+         *
+         * @param file         Spillover file
+         * @param serializer   Function that serializes an item into bytes
+         * @param deserializer Function that deserializes bytes back into an item
+         * @return Builder
+         */
+        public Builder<T> spillover(Path file, Function<T, byte[]> serializer, Function<byte[], T> deserializer) {
+            this.spillover = new SpilloverFile<>(file, serializer, deserializer);
+            return this;
+        }
+
         @Override
         public CircuitBreakerSink<T> build() {
             return new CircuitBreakerSink<T>(this.getDestination(), this.state, this.queueSize,
-                                             this.propagateCloseWhenOpen);
+                                             this.propagateCloseWhenOpen, this.spillover);
         }
     }
 }
@@ -21,6 +21,7 @@ import io.telicent.smart.cache.projectors.SinkException;
 import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -45,6 +46,11 @@ public class CollectorSink<T> implements Sink<T> {
         collection.add(item);
     }
 
+    @Override
+    public void sendAll(Collection<? extends T> items) {
+        collection.addAll(items);
+    }
+
     /**
      * Gets the items collected by this sink
      *
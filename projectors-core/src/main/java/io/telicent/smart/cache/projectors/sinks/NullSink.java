@@ -19,6 +19,8 @@ import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.sinks.builder.SinkBuilder;
 import lombok.ToString;
 
+import java.util.Collection;
+
 /**
  * A sink that simply throws away all items it receives
  * <p>
@@ -46,6 +48,11 @@ public class NullSink<T> implements Sink<T> {
         this.counter++;
     }
 
+    @Override
+    public void sendAll(Collection<? extends T> items) {
+        this.counter += items.size();
+    }
+
     @Override
     public void close() {
         // Reset the counter
@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A sink that controls the rate at which items are forwarded to its destination sink
+ * <p>
+ * Items may be limited to a maximum number of items per second and/or a maximum number of bytes per second, as
+ * calculated by a pluggable sizer function.  Each limit is enforced via a token bucket that permits short bursts, by
+ * default of up to 1 second's worth of items/bytes, after which the sending thread is paused as necessary so the
+ * limit is respected.
+ * </p>
+ * <p>
+ * Optionally the sink may also be time scaled, in which case items are forwarded according to their original
+ * timestamps, as extracted by a timestamp function, sped up by a given multiplier.  For example with a multiplier of
+ * {@code 10} an item whose timestamp is 1 minute after that of the first item will be forwarded 6 seconds after the
+ * first item was forwarded.  Items with no timestamp, or whose timestamp is earlier than that of the first item, are
+ * forwarded immediately.  Any rate limits apply in addition to the time scaling.
+ * </p>
+ * <p>
+ * This is primarily intended for replaying previously captured items in a way that reproduces, or stresses, the traffic
+ * shape of a real system.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+@ToString(callSuper = true, onlyExplicitlyIncluded = true)
+public class RateLimitSink<T> extends AbstractTransformingSink<T, T> {
+
+    /**
+     * Default burst duration i.e. how many seconds worth of items/bytes may be forwarded without pausing
+     */
+    public static final Duration DEFAULT_BURST = Duration.ofSeconds(1);
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    @ToString.Include
+    private final TokenBucket itemLimit;
+    @ToString.Include
+    private final TokenBucket byteLimit;
+    private final ToLongFunction<T> sizer;
+    private final ToLongFunction<T> timestampFunction;
+    @ToString.Include
+    private final double speedup;
+    private long firstTimestamp = -1;
+    private long firstForwardedAt;
+    /**
+     * The total time, in nanoseconds, for which sending threads have been paused by this sink
+     */
+    @Getter
+    private long pausedNanos = 0;
+
+    /**
+     * Creates a new rate limiting sink
+     *
+     * @param destination        Destination sink
+     * @param maxItemsPerSecond  Maximum items per second, zero or negative for no limit
+     * @param maxBytesPerSecond  Maximum bytes per second, zero or negative for no limit
+     * @param sizer              Function that calculates the size in bytes of an item, required if
+     *                           {@code maxBytesPerSecond} is positive
+     * @param burst              Burst duration
+     * @param timestampFunction  Function that extracts the original timestamp of an item, in milliseconds since the
+     *                           epoch, returning a negative value if an item has no timestamp, {@code null} to disable
+     *                           time scaling
+     * @param speedup            Time scaling multiplier, must be greater than zero if time scaling is enabled
+     */
+    RateLimitSink(Sink<T> destination, double maxItemsPerSecond, long maxBytesPerSecond, ToLongFunction<T> sizer,
+                  Duration burst, ToLongFunction<T> timestampFunction, double speedup) {
+        super(destination);
+        Objects.requireNonNull(burst, "Burst cannot be null");
+        if (burst.compareTo(Duration.ZERO) < 1) {
+            throw new IllegalArgumentException("Burst must be a duration greater than zero");
+        }
+        if (maxBytesPerSecond > 0) {
+            Objects.requireNonNull(sizer, "Sizer cannot be null when a max bytes per second limit is set");
+        }
+        if (timestampFunction != null && !(speedup > 0)) {
+            throw new IllegalArgumentException("Speedup must be greater than zero");
+        }
+        this.itemLimit = maxItemsPerSecond > 0 ? new TokenBucket(maxItemsPerSecond, burst) : null;
+        this.byteLimit = maxBytesPerSecond > 0 ? new TokenBucket(maxBytesPerSecond, burst) : null;
+        this.sizer = maxBytesPerSecond > 0 ? sizer : null;
+        this.timestampFunction = timestampFunction;
+        this.speedup = timestampFunction != null ? speedup : 0;
+    }
+
+    @Override
+    protected boolean shouldForward(T item) {
+        if (this.timestampFunction != null) {
+            pauseUntilScheduled(item);
+        }
+        long now = System.nanoTime();
+        long wait = 0;
+        if (this.itemLimit != null) {
+            wait = this.itemLimit.acquire(1, now);
+        }
+        if (this.byteLimit != null) {
+            wait = Math.max(wait, this.byteLimit.acquire(Math.max(0, this.sizer.applyAsLong(item)), now));
+        }
+        pause(wait);
+        return true;
+    }
+
+    private void pauseUntilScheduled(T item) {
+        long timestamp = this.timestampFunction.applyAsLong(item);
+        if (timestamp < 0) {
+            return;
+        }
+        if (this.firstTimestamp < 0) {
+            this.firstTimestamp = timestamp;
+            this.firstForwardedAt = System.nanoTime();
+            return;
+        }
+        long elapsed = timestamp - this.firstTimestamp;
+        if (elapsed <= 0) {
+            return;
+        }
+        long scheduledAt = this.firstForwardedAt + (long) ((elapsed * NANOS_PER_MILLI) / this.speedup);
+        pause(scheduledAt - System.nanoTime());
+    }
+
+    private void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+            this.pausedNanos += nanos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SinkException("Interrupted while waiting to forward an item");
+        }
+    }
+
+    @Override
+    protected T transform(T item) {
+        return item;
+    }
+
+    /**
+     * A token bucket, implemented as a Generic Cell Rate Algorithm, that calculates how long a caller must wait before
+     * consuming some tokens such that the long term consumption rate does not exceed a limit
+     */
+    @ToString(onlyExplicitlyIncluded = true)
+    static final class TokenBucket {
+        @ToString.Include
+        private final double perSecond;
+        private final double nanosPerToken;
+        private final double burstNanos;
+        private double theoreticalArrival = Double.NEGATIVE_INFINITY;
+
+        TokenBucket(double perSecond, Duration burst) {
+            this.perSecond = perSecond;
+            this.nanosPerToken = 1_000_000_000d / perSecond;
+            this.burstNanos = burst.toNanos();
+        }
+
+        /**
+         * Consumes the given number of tokens
+         *
+         * @param tokens Tokens to consume
+         * @param now    Current time in nanoseconds, as given by {@link System#nanoTime()}
+         * @return Number of nanoseconds the caller must wait before proceeding, zero if it may proceed immediately
+         */
+        long acquire(long tokens, long now) {
+            this.theoreticalArrival = Math.max(this.theoreticalArrival, now) + tokens * this.nanosPerToken;
+            return Math.max(0, (long) (this.theoreticalArrival - this.burstNanos) - now);
+        }
+    }
+
+    /**
+     * Creates a new rate limiting sink builder
+     *
+     * @param <TItem> Item type
+     * @return Builder
+     */
+    public static <TItem> Builder<TItem> create() {
+        return new Builder<>();
+    }
+
+    /**
+     * A builder for rate limiting sinks
+     *
+     * @param <TItem> Item type
+     */
+    public static class Builder<TItem>
+            extends AbstractForwardingSinkBuilder<TItem, TItem, RateLimitSink<TItem>, Builder<TItem>> {
+
+        private double maxItemsPerSecond = -1;
+        private long maxBytesPerSecond = -1;
+        private ToLongFunction<TItem> sizer;
+        private Duration burst = DEFAULT_BURST;
+        private ToLongFunction<TItem> timestampFunction;
+        private double speedup = 1;
+
+        /**
+         * Sets the maximum number of items per second
+         *
+         * @param maxItemsPerSecond Maximum items per second, zero or negative for no limit
+         * @return Builder
+         */
+        public Builder<TItem> maxItemsPerSecond(double maxItemsPerSecond) {
+            this.maxItemsPerSecond = maxItemsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of bytes per second
+         *
+         * @param maxBytesPerSecond Maximum bytes per second, zero or negative for no limit
+         * @param sizer             Function that calculates the size in bytes of an item
+         * @return Builder
+         */
+        public Builder<TItem> maxBytesPerSecond(long maxBytesPerSecond, ToLongFunction<TItem> sizer) {
+            this.maxBytesPerSecond = maxBytesPerSecond;
+            this.sizer = sizer;
+            return this;
+        }
+
+        /**
+         * Sets the burst duration i.e. how many seconds worth of items/bytes may be forwarded without pausing after a
+         * period where the sink has been idle, or sending slower than its limits
+         * <p>
+         * If not specified defaults to {@link RateLimitSink#DEFAULT_BURST}.
+         * </p>
+         *
+         * @param burst Burst duration
+         * @return Builder
+         */
+        public Builder<TItem> burst(Duration burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Sets that the sink is time scaled i.e. items are forwarded according to their original timestamps sped up
+         * by the given multiplier
+         *
+         * @param timestampFunction Function that extracts the original timestamp of an item, in milliseconds since the
+         *                          epoch, returning a negative value if an item has no timestamp
+         * @param speedup           Multiplier, e.g. {@code 1} to forward items at their original pace, {@code 10} to
+         *                          forward them ten times faster
+         * @return Builder
+         */
+        public Builder<TItem> timeScaled(ToLongFunction<TItem> timestampFunction, double speedup) {
+            this.timestampFunction = timestampFunction;
+            this.speedup = speedup;
+            return this;
+        }
+
+        @Override
+        public RateLimitSink<TItem> build() {
+            return new RateLimitSink<>(this.getDestination(), this.maxItemsPerSecond, this.maxBytesPerSecond,
+                                       this.sizer, this.burst, this.timestampFunction, this.speedup);
+        }
+    }
+}
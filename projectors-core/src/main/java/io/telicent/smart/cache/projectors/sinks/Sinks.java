@@ -123,6 +123,36 @@ public class Sinks {
         return SuppressUnmodifiedSink.create();
     }
 
+    /**
+     * Creates a new async sink builder
+     *
+     * @param <T> Item type
+     * @return Async sink builder
+     */
+    public static <T> AsyncSink.Builder<T> async() {
+        return AsyncSink.create();
+    }
+
+    /**
+     * Creates a new batching sink builder
+     *
+     * @param <T> Item type
+     * @return Batching sink builder
+     */
+    public static <T> BatchSink.Builder<T> batch() {
+        return BatchSink.create();
+    }
+
+    /**
+     * Creates a new rate limiting sink builder
+     *
+     * @param <T> Item type
+     * @return Rate limiting sink builder
+     */
+    public static <T> RateLimitSink.Builder<T> rateLimit() {
+        return RateLimitSink.create();
+    }
+
     /**
      * Creates a new throughput tracking sink builder
      *
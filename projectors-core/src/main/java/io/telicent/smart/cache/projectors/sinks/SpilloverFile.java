@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An append-only spillover file used by a {@link CircuitBreakerSink} to hold items that overflow its in-memory queue
+ * <p>
+ * Items are appended as length prefixed records and read back in the order they were appended.  Once every appended
+ * item has been read back the file is deleted, it is truncated when next appended to, so any items left in the file by
+ * a previous process are discarded.
+ * </p>
+ * <p>
+ * This class is <strong>NOT</strong> thread-safe, callers are responsible for synchronising access to it.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+final class SpilloverFile<T> implements Closeable {
+
+    private final Path file;
+    private final Function<T, byte[]> serializer;
+    private final Function<byte[], T> deserializer;
+    private DataOutputStream output;
+    private DataInputStream input;
+    private boolean unflushed = false;
+    private long pending = 0;
+
+    /**
+     * Creates a new spillover file
+     *
+     * @param file         File
+     * @param serializer   Function that serializes an item into bytes
+     * @param deserializer Function that deserializes bytes back into an item
+     */
+    SpilloverFile(Path file, Function<T, byte[]> serializer, Function<byte[], T> deserializer) {
+        this.file = Objects.requireNonNull(file, "Spillover file cannot be null");
+        this.serializer = Objects.requireNonNull(serializer, "Serializer cannot be null");
+        this.deserializer = Objects.requireNonNull(deserializer, "Deserializer cannot be null");
+    }
+
+    /**
+     * Appends an item to the file
+     *
+     * @param item Item
+     * @throws IOException Thrown if the item cannot be appended
+     */
+    void append(T item) throws IOException {
+        if (this.output == null) {
+            this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.file)));
+        }
+        byte[] data = this.serializer.apply(item);
+        this.output.writeInt(data.length);
+        this.output.write(data);
+        this.unflushed = true;
+        this.pending++;
+    }
+
+    /**
+     * Gets the number of items that have been appended but not yet read back
+     *
+     * @return Pending items
+     */
+    long pending() {
+        return this.pending;
+    }
+
+    /**
+     * Reads back the next item
+     *
+     * @return Next item, or {@code null} if there are no pending items
+     * @throws IOException Thrown if the item cannot be read
+     */
+    T next() throws IOException {
+        if (this.pending == 0) {
+            return null;
+        }
+        if (this.unflushed) {
+            this.output.flush();
+            this.unflushed = false;
+        }
+        if (this.input == null) {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.file)));
+        }
+        byte[] data = new byte[this.input.readInt()];
+        this.input.readFully(data);
+        this.pending--;
+        if (this.pending == 0) {
+            // Everything has been read back so discard the file contents
+            close();
+        }
+        return this.deserializer.apply(data);
+    }
+
+    /**
+     * Closes the file, discarding any pending items, and deletes it
+     *
+     * @throws IOException Thrown if the file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        this.pending = 0;
+        this.unflushed = false;
+        try {
+            if (this.output != null) {
+                this.output.close();
+            }
+            if (this.input != null) {
+                this.input.close();
+            }
+        } finally {
+            this.output = null;
+            this.input = null;
+            Files.deleteIfExists(this.file);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import io.telicent.smart.cache.observability.TelicentMetrics;
 import io.telicent.smart.cache.projectors.Library;
 import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
+import io.telicent.smart.cache.projectors.utils.FingerprintCacheSet;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.atlas.lib.CacheFactory;
@@ -32,12 +33,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 /**
  * A sink that performs duplicate item suppression by using an LRU Cache to avoid forwarding items that have recently
  * been seen
+ * <p>
+ * By default the cache holds the items themselves, optionally a {@link FingerprintCacheSet} may be used instead which
+ * holds only compact fingerprints of the items, see {@link Builder#fingerprintStore(Function)}.
+ * </p>
  *
  * @param <T> Item type
  */
@@ -71,6 +78,21 @@ public class SuppressDuplicatesSink<T> extends AbstractTransformingSink<T, T> {
     SuppressDuplicatesSink(Sink<T> destination, int cacheSize, String metricsLabel,
                            Function<T, Boolean> invalidateCache, Supplier<Boolean> invalidateWholeCache,
                            Duration expireCacheAfter) {
+        this(destination, cacheSize, CacheFactory::createCacheSet, metricsLabel, invalidateCache, invalidateWholeCache,
+             expireCacheAfter);
+    }
+
+    /**
+     * Creates a new sink
+     *
+     * @param destination     Destination sink
+     * @param cacheSize       Cache size
+     * @param cacheFactory    Factory that creates the cache of recently seen items given the cache size
+     * @param invalidateCache Whether to invalidate cache
+     */
+    SuppressDuplicatesSink(Sink<T> destination, int cacheSize, IntFunction<CacheSet<T>> cacheFactory,
+                           String metricsLabel, Function<T, Boolean> invalidateCache,
+                           Supplier<Boolean> invalidateWholeCache, Duration expireCacheAfter) {
         super(destination);
         this.invalidateCache = invalidateCache != null ? invalidateCache : x -> false;
         this.invalidateWholeCache = invalidateWholeCache != null ? invalidateWholeCache : () -> false;
@@ -83,7 +105,7 @@ public class SuppressDuplicatesSink<T> extends AbstractTransformingSink<T, T> {
             throw new IllegalArgumentException("Cache Size must be >= 1");
         }
 
-        this.cache = CacheFactory.createCacheSet(cacheSize);
+        this.cache = Objects.requireNonNull(cacheFactory, "Cache factory cannot be null").apply(cacheSize);
         if (StringUtils.isNotBlank(metricsLabel)) {
             Meter meter = TelicentMetrics.getMeter(Library.NAME);
             //@formatter:off
@@ -180,6 +202,7 @@ public class SuppressDuplicatesSink<T> extends AbstractTransformingSink<T, T> {
         private Duration expireCacheAfter;
         private Supplier<Boolean> invalidateWholeCache;
         private Function<TItem, Boolean> invalidateCache;
+        private IntFunction<CacheSet<TItem>> cacheFactory = CacheFactory::createCacheSet;
 
         /**
          * Sets a metrics label to use for collecting metrics on the number of suppressed items
@@ -206,6 +229,49 @@ public class SuppressDuplicatesSink<T> extends AbstractTransformingSink<T, T> {
             return this;
         }
 
+        /**
+         * Sets that a compact fingerprint store is used for suppressing duplicates instead of caching the items
+         * themselves
+         * <p>
+         * Each item is converted into bytes via the given function and only a 128-bit fingerprint of those bytes is
+         * remembered, so memory usage depends only on the {@link #cacheSize(int)} and not on the size of the items.
+         * Items are considered duplicates if their bytes are identical, the items own {@code equals()} and
+         * {@code hashCode()} are not used.  See {@link #fingerprintStore(Function, boolean, boolean)} for more control
+         * over the store.
+         * </p>
+         *
+         * @param toBytes Function that converts an item into the bytes from which its fingerprint is calculated
+         * @return Builder
+         */
+        public Builder<TItem> fingerprintStore(Function<TItem, byte[]> toBytes) {
+            return fingerprintStore(toBytes, true, false);
+        }
+
+        /**
+         * Sets that a compact fingerprint store is used for suppressing duplicates instead of caching the items
+         * themselves
+         * <p>
+         * The store remembers at least the {@link #cacheSize(int)} most recently seen fingerprints, and uses a fixed
+         * amount of memory of between 21 and 43 bytes per entry of cache size for 64-bit fingerprints, as table sizes
+         * are rounded up to a power of two, twice that for 128-bit fingerprints, plus 2 to 4 bytes per entry when a
+         * Bloom filter is enabled.  64-bit fingerprints halve memory usage but increase the, still very small,
+         * probability that a distinct item is incorrectly considered a duplicate due to a fingerprint collision.
+         * </p>
+         *
+         * @param toBytes          Function that converts an item into the bytes from which its fingerprint is
+         *                         calculated
+         * @param wideFingerprints Whether to store full 128-bit fingerprints, if false 64-bit fingerprints are stored
+         * @param bloomFilter      Whether to place a Bloom filter in front of the fingerprint store, this can speed up
+         *                         lookups for items that have not been seen when the store is large
+         * @return Builder
+         */
+        public Builder<TItem> fingerprintStore(Function<TItem, byte[]> toBytes, boolean wideFingerprints,
+                                               boolean bloomFilter) {
+            Objects.requireNonNull(toBytes, "toBytes function cannot be null");
+            this.cacheFactory = size -> new FingerprintCacheSet<>(size, toBytes, wideFingerprints, bloomFilter);
+            return this;
+        }
+
         /**
          * Sets whether to invalidate the cache entry for a specific item
          *
@@ -252,8 +318,9 @@ public class SuppressDuplicatesSink<T> extends AbstractTransformingSink<T, T> {
          */
         @Override
         public SuppressDuplicatesSink<TItem> build() {
-            return new SuppressDuplicatesSink<>(this.getDestination(), this.cacheSize, this.metricsLabel,
-                                                this.invalidateCache, this.invalidateWholeCache, this.expireCacheAfter);
+            return new SuppressDuplicatesSink<>(this.getDestination(), this.cacheSize, this.cacheFactory,
+                                                this.metricsLabel, this.invalidateCache, this.invalidateWholeCache,
+                                                this.expireCacheAfter);
         }
     }
 }
@@ -23,6 +23,8 @@ import io.telicent.smart.cache.observability.TelicentMetrics;
 import io.telicent.smart.cache.projectors.Library;
 import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
+import io.telicent.smart.cache.projectors.utils.Fingerprint;
+import io.telicent.smart.cache.projectors.utils.FingerprintMap;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.atlas.lib.Cache;
@@ -31,6 +33,12 @@ import org.apache.jena.atlas.logging.FmtLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.Comparator;
 import java.util.Objects;
@@ -45,6 +53,12 @@ import java.util.function.Supplier;
  * around what items to forward.  In particular this is useful where the preferred way to calculate equality <strong>is
  * not</strong> expressed via the types own equality implementation.
  * </p>
+ * <p>
+ * Optionally the sink may cache only fingerprints of the keys and values, rather than the keys and values themselves, see
+ * {@link Builder#valueHashes(Function, Function, boolean)}.  This bounds the memory used by the cache regardless of the
+ * size of the values, allowing it to cover many more keys.  In this mode the sink may also persist its state, so that it
+ * continues to suppress unmodified items after a restart, see {@link Builder#persistentState(Path, Function, Function)}.
+ * </p>
  *
  * @param <T> Item type
  */
@@ -55,7 +69,17 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SuppressUnmodifiedSink.class);
 
+    /**
+     * Default interval at which persistent state is checkpointed
+     */
+    public static final Duration DEFAULT_CHECKPOINT_INTERVAL = Duration.ofMinutes(1);
+
     private final Cache<TKey, TValue> cache;
+    private final FingerprintMap hashes;
+    private final ValueHashes<T> valueHashes;
+    @ToString.Include
+    private long lastCheckpointAt;
+    private boolean closed = false;
     private final Function<T, TKey> keyFunction;
     private final Function<T, TValue> valueFunction;
     private final Comparator<TValue> valueComparator;
@@ -88,6 +112,30 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
                            Function<T, TValue> valueFunction, Comparator<TValue> valueComparator,
                            Function<T, Boolean> invalidateCache, Supplier<Boolean> invalidateWholeCache,
                            Duration expireCacheAfter) {
+        this(destination, cacheSize, metricsLabel, keyFunction, valueFunction, valueComparator, invalidateCache,
+             invalidateWholeCache, expireCacheAfter, null);
+    }
+
+    /**
+     * Creates a new sink
+     *
+     * @param destination          Destination sink
+     * @param cacheSize            Cache size
+     * @param keyFunction          Function that calculates a key for an item, not required if using value hashes
+     * @param valueFunction        Function that calculates a value for an item, not required if using value hashes
+     * @param valueComparator      Comparator that determines whether an items value has changed versus its previously
+     *                             cached value, not required if using value hashes
+     * @param invalidateCache      Function that calculates whether to invalidate the cache entry for a specific item
+     * @param invalidateWholeCache Supplier that indicates whether to invalidate the whole cache
+     * @param expireCacheAfter     Duration after which the whole cache will be considered expired
+     * @param valueHashes          Value hashes configuration, if non-null only fingerprints of item keys and values are
+     *                             cached
+     */
+    SuppressUnmodifiedSink(Sink<T> destination, int cacheSize, String metricsLabel,
+                           Function<T, TKey> keyFunction,
+                           Function<T, TValue> valueFunction, Comparator<TValue> valueComparator,
+                           Function<T, Boolean> invalidateCache, Supplier<Boolean> invalidateWholeCache,
+                           Duration expireCacheAfter, ValueHashes<T> valueHashes) {
         super(destination);
         this.invalidateCache = invalidateCache != null ? invalidateCache : x -> false;
         this.invalidateWholeCache = invalidateWholeCache != null ? invalidateWholeCache : () -> false;
@@ -99,11 +147,19 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
         if (cacheSize < 1) {
             throw new IllegalArgumentException("Cache Size must be >= 1");
         }
-        Objects.requireNonNull(keyFunction, "Key Function cannot be null");
-        Objects.requireNonNull(valueFunction, "Value Function cannot be null");
-        Objects.requireNonNull(valueComparator, "Value Comparator cannot be null");
-
-        this.cache = CacheFactory.createCache(cacheSize);
+        this.valueHashes = valueHashes;
+        if (valueHashes != null) {
+            this.cache = null;
+            this.hashes = new FingerprintMap(cacheSize, valueHashes.wideFingerprints());
+            loadState();
+        } else {
+            Objects.requireNonNull(keyFunction, "Key Function cannot be null");
+            Objects.requireNonNull(valueFunction, "Value Function cannot be null");
+            Objects.requireNonNull(valueComparator, "Value Comparator cannot be null");
+            this.cache = CacheFactory.createCache(cacheSize);
+            this.hashes = null;
+        }
+        this.lastCheckpointAt = System.currentTimeMillis();
         this.valueFunction = valueFunction;
         this.keyFunction = keyFunction;
         this.valueComparator = valueComparator;
@@ -128,16 +184,25 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
         // Check for whole cache invalidation
         if (Boolean.TRUE.equals(this.invalidateWholeCache.get())) {
             LOGGER.info("Invalidated unmodified suppression cache");
-            this.cache.clear();
+            clearCache();
         } else if (this.expireCacheAfter != -1 && this.lastCacheOperationAt > -1) {
             long timeSinceLastCacheOperation = System.currentTimeMillis() - this.lastCacheOperationAt;
             if (timeSinceLastCacheOperation > this.expireCacheAfter) {
                 LOGGER.info("Invalidated unmodified suppression cache due to prolonged inactivity");
-                this.cache.clear();
+                clearCache();
             }
         }
         this.lastCacheOperationAt = System.currentTimeMillis();
 
+        if (this.hashes != null) {
+            if (this.valueHashes.stateFile() != null
+                && this.lastCacheOperationAt - this.lastCheckpointAt >= this.valueHashes.checkpointInterval()
+                                                                                        .toMillis()) {
+                checkpoint();
+            }
+            return shouldForwardHashed(item);
+        }
+
         TKey key = this.keyFunction.apply(item);
         TValue value = this.valueFunction.apply(item);
         TValue currentValue = this.cache.getIfPresent(key);
@@ -160,6 +225,92 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
         return true;
     }
 
+    private void clearCache() {
+        if (this.hashes != null) {
+            this.hashes.clear();
+        } else {
+            this.cache.clear();
+        }
+    }
+
+    /**
+     * Determines whether an item should be forwarded when only fingerprints of keys and values are cached
+     *
+     * @param item Item
+     * @return True if item should be forwarded, false otherwise
+     */
+    private boolean shouldForwardHashed(T item) {
+        Fingerprint key = Fingerprint.of(this.valueHashes.keyBytes().apply(item));
+        if (Boolean.TRUE.equals(this.invalidateCache.apply(item))) {
+            this.hashes.remove(key);
+            return true;
+        }
+
+        Fingerprint value = Fingerprint.of(this.valueHashes.valueBytes().apply(item));
+        if (this.hashes.matches(key, value)) {
+            this.suppressed++;
+            if (this.suppressedMetric != null) {
+                this.suppressedMetric.add(1, this.metricAttributes);
+            }
+            return false;
+        }
+        this.hashes.put(key, value);
+        return true;
+    }
+
+    /**
+     * Loads previously persisted state, if any
+     * <p>
+     * Since the state only serves to avoid forwarding unmodified items, if it cannot be loaded for any reason then the
+     * sink simply starts with empty state.
+     * </p>
+     */
+    private void loadState() {
+        Path stateFile = this.valueHashes.stateFile();
+        if (stateFile == null || !Files.exists(stateFile)) {
+            return;
+        }
+        try (InputStream input = Files.newInputStream(stateFile)) {
+            this.hashes.read(input);
+            FmtLog.info(LOGGER, "Loaded %,d unmodified suppression cache entries from %s", this.hashes.size(),
+                        stateFile);
+        } catch (IOException e) {
+            FmtLog.warn(LOGGER, "Failed to load unmodified suppression cache state from %s, starting from empty: %s",
+                        stateFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Checkpoints the sink's state to its persistent state file, if persistent state was configured via
+     * {@link Builder#persistentState(Path, Function, Function)}
+     * <p>
+     * The sink automatically checkpoints at its configured checkpoint interval, and when it is closed, applications may
+     * also call this explicitly e.g. immediately after committing their read offsets so that the persisted state is
+     * in step with those offsets.  The state is first written to a temporary file which then atomically replaces the
+     * previous state file, so a failed checkpoint never corrupts the previous checkpoint.  As the state only serves to
+     * avoid forwarding unmodified items a failed checkpoint is logged rather than failing the sink.
+     * </p>
+     */
+    public void checkpoint() {
+        if (this.hashes == null || this.valueHashes.stateFile() == null) {
+            return;
+        }
+        Path stateFile = this.valueHashes.stateFile();
+        Path tmpFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(tmpFile)) {
+                this.hashes.write(output);
+            }
+            Files.move(tmpFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Checkpointed {} unmodified suppression cache entries to {}", this.hashes.size(), stateFile);
+        } catch (IOException e) {
+            FmtLog.warn(LOGGER, "Failed to checkpoint unmodified suppression cache state to %s: %s", stateFile,
+                        e.getMessage());
+        } finally {
+            this.lastCheckpointAt = System.currentTimeMillis();
+        }
+    }
+
     @Override
     protected T transform(T input) {
         return input;
@@ -167,13 +318,17 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
 
     @Override
     public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            checkpoint();
+        }
         super.close();
 
         if (this.suppressed > 0) {
             FmtLog.info(LOGGER, "Suppressed %,d unmodified duplicates", this.suppressed);
         }
 
-        this.cache.clear();
+        clearCache();
         this.suppressed = 0;
     }
 
@@ -186,6 +341,41 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
         return this.suppressed;
     }
 
+    /**
+     * Gets the approximate memory used by the cache when in value hashes mode, this is fixed at construction time
+     *
+     * @return Memory usage in bytes, or {@code -1} if not in value hashes mode as the memory usage then depends upon the
+     * cached keys and values
+     */
+    public long getCacheMemoryUsage() {
+        return this.hashes != null ? this.hashes.memoryUsage() : -1;
+    }
+
+    /**
+     * Configuration for caching only fingerprints of item keys and values, rather than the keys and values themselves
+     *
+     * @param keyBytes           Function that converts an item into the bytes from which its key fingerprint is
+     *                           calculated
+     * @param valueBytes         Function that converts an item into the bytes from which its value fingerprint is
+     *                           calculated
+     * @param wideFingerprints   Whether to store full 128-bit fingerprints, or only 64-bit fingerprints
+     * @param stateFile          File to which the state is persisted, if any
+     * @param checkpointInterval Interval at which state is checkpointed to the state file
+     * @param <T>                Item type
+     */
+    record ValueHashes<T>(Function<T, byte[]> keyBytes, Function<T, byte[]> valueBytes, boolean wideFingerprints,
+                          Path stateFile, Duration checkpointInterval) {
+        ValueHashes {
+            Objects.requireNonNull(keyBytes, "Key bytes function cannot be null");
+            Objects.requireNonNull(valueBytes, "Value bytes function cannot be null");
+            if (checkpointInterval == null) {
+                checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+            } else if (checkpointInterval.compareTo(Duration.ZERO) < 1) {
+                throw new IllegalArgumentException("Checkpoint interval must be a duration greater than zero");
+            }
+        }
+    }
+
     /**
      * Creates a builder for an unmodified suppressing sink
      *
@@ -217,6 +407,11 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
         private Function<TItem, Boolean> invalidateCache;
         private Duration expireCacheAfter;
         private Supplier<Boolean> invalidateWholeCache;
+        private Path stateFile;
+        private Function<TItem, byte[]> keyBytes;
+        private Function<TItem, byte[]> valueBytes;
+        private boolean wideFingerprints = true;
+        private Duration checkpointInterval;
 
         /**
          * Sets a metrics label used to collect metrics on the number of unmodified items suppressed
@@ -318,6 +513,98 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
             return this;
         }
 
+        /**
+         * Sets that the sink caches only 128-bit fingerprints of each items key and value, rather than the keys and
+         * values themselves
+         * <p>
+         * See {@link #valueHashes(Function, Function, boolean)} for more details.
+         * </p>
+         *
+         * @param keyBytes   Function that converts an item into the bytes from which its key fingerprint is calculated
+         * @param valueBytes Function that converts an item into the bytes from which its value fingerprint is
+         *                   calculated
+         * @return Builder
+         */
+        public Builder<TItem, TKey, TValue> valueHashes(Function<TItem, byte[]> keyBytes,
+                                                        Function<TItem, byte[]> valueBytes) {
+            return valueHashes(keyBytes, valueBytes, true);
+        }
+
+        /**
+         * Sets that the sink caches only fingerprints of each items key and value, rather than the keys and values
+         * themselves
+         * <p>
+         * Fingerprints are calculated from the bytes produced by the given functions, so the cache holds a fixed size
+         * entry per key regardless of the size of the values, and comparing values becomes a comparison of their
+         * fingerprints.  When this is configured the {@link #keyFunction(Function)}, {@link #valueFunction(Function)}
+         * and {@link #comparator(Comparator)} are not required, and are ignored if specified, an items value is
+         * considered unmodified if its bytes are identical to the previously seen bytes for its key.  Therefore, the
+         * value bytes function should produce a canonical form of the value, i.e. values that are considered equal
+         * should always produce identical bytes.
+         * </p>
+         * <p>
+         * Note that fingerprints are not cryptographic hashes, while accidental collisions are vanishingly unlikely this
+         * mode <strong>MUST NOT</strong> be used where an adversary could deliberately craft items that collide.
+         * </p>
+         *
+         * @param keyBytes         Function that converts an item into the bytes from which its key fingerprint is
+         *                         calculated
+         * @param valueBytes       Function that converts an item into the bytes from which its value fingerprint is
+         *                         calculated
+         * @param wideFingerprints Whether to store full 128-bit fingerprints, if false only 64-bit fingerprints are
+         *                         stored halving memory usage at the cost of a higher, though still very low,
+         *                         probability of fingerprint collisions
+         * @return Builder
+         */
+        public Builder<TItem, TKey, TValue> valueHashes(Function<TItem, byte[]> keyBytes,
+                                                        Function<TItem, byte[]> valueBytes, boolean wideFingerprints) {
+            this.keyBytes = Objects.requireNonNull(keyBytes, "Key bytes function cannot be null");
+            this.valueBytes = Objects.requireNonNull(valueBytes, "Value bytes function cannot be null");
+            this.wideFingerprints = wideFingerprints;
+            return this;
+        }
+
+        /**
+         * Sets that the sink's state is persisted to the given file, allowing it to continue suppressing unmodified items
+         * after a restart
+         * <p>
+         * Persistent state requires that the sink caches only fingerprints of each items key and value, so this
+         * implicitly configures {@link #valueHashes(Function, Function)} with the given functions, preserving any
+         * previously configured fingerprint width.
+         * </p>
+         * <p>
+         * Any existing state in the file is loaded when the sink is built.  The state is checkpointed to the file at the
+         * configured {@link #checkpointInterval(Duration)}, and when the sink is closed, applications may also call
+         * {@link SuppressUnmodifiedSink#checkpoint()} explicitly e.g. after committing their read offsets.
+         * </p>
+         *
+         * @param stateFile  State file
+         * @param keyBytes   Function that converts an item into the bytes from which its key fingerprint is calculated
+         * @param valueBytes Function that converts an item into the bytes from which its value fingerprint is
+         *                   calculated
+         * @return Builder
+         */
+        public Builder<TItem, TKey, TValue> persistentState(Path stateFile, Function<TItem, byte[]> keyBytes,
+                                                            Function<TItem, byte[]> valueBytes) {
+            this.stateFile = Objects.requireNonNull(stateFile, "State file cannot be null");
+            return valueHashes(keyBytes, valueBytes, this.wideFingerprints);
+        }
+
+        /**
+         * Sets the interval at which persistent state is checkpointed, only applies if
+         * {@link #persistentState(Path, Function, Function)} is configured.
+         * <p>
+         * If not specified defaults to {@link SuppressUnmodifiedSink#DEFAULT_CHECKPOINT_INTERVAL}.
+         * </p>
+         *
+         * @param interval Checkpoint interval
+         * @return Builder
+         */
+        public Builder<TItem, TKey, TValue> checkpointInterval(Duration interval) {
+            this.checkpointInterval = interval;
+            return this;
+        }
+
         /**
          * Builds a new unmodified suppressing sink
          *
@@ -325,9 +612,13 @@ public class SuppressUnmodifiedSink<T, TKey, TValue> extends AbstractTransformin
          */
         @Override
         public SuppressUnmodifiedSink<TItem, TKey, TValue> build() {
+            ValueHashes<TItem> hashes = this.keyBytes != null ?
+                                        new ValueHashes<>(this.keyBytes, this.valueBytes, this.wideFingerprints,
+                                                          this.stateFile, this.checkpointInterval) : null;
             return new SuppressUnmodifiedSink<>(this.getDestination(), this.cacheSize, this.metricsLabel,
                                                 this.keyFunction, this.valueFunction, this.valueComparator,
-                                                this.invalidateCache, this.invalidateWholeCache, this.expireCacheAfter);
+                                                this.invalidateCache, this.invalidateWholeCache, this.expireCacheAfter,
+                                                hashes);
         }
     }
 }
@@ -18,12 +18,16 @@ package io.telicent.smart.cache.projectors.sinks;
 import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.SinkException;
 import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
+import io.telicent.smart.cache.projectors.utils.LatencyHistogram;
 import io.telicent.smart.cache.projectors.utils.ThroughputTracker;
 import io.telicent.smart.cache.projectors.utils.ThroughputTrackerBuilder;
 import lombok.ToString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -92,6 +96,7 @@ public class ThroughputSink<T> extends AbstractTransformingSink<T, T> {
         this.tracker.itemReceived();
 
         if (!this.shouldForward(item)) {
+            this.tracker.itemDiscarded();
             return;
         }
         this.forward(this.transform(item));
@@ -99,6 +104,30 @@ public class ThroughputSink<T> extends AbstractTransformingSink<T, T> {
         this.tracker.itemProcessed();
     }
 
+    @Override
+    public void sendAll(Collection<? extends T> items) throws SinkException {
+        if (items.isEmpty()) {
+            return;
+        }
+        this.tracker.itemsReceived(items.size());
+
+        List<T> forwarded = new ArrayList<>(items.size());
+        for (T item : items) {
+            if (this.shouldForward(item)) {
+                forwarded.add(this.transform(item));
+            }
+        }
+        if (forwarded.size() < items.size()) {
+            this.tracker.itemsDiscarded(items.size() - forwarded.size());
+        }
+        if (forwarded.isEmpty()) {
+            return;
+        }
+        this.destination.sendAll(forwarded);
+
+        this.tracker.itemsProcessed(forwarded.size());
+    }
+
     @Override
     protected T transform(T t) {
         return t;
@@ -158,6 +187,25 @@ public class ThroughputSink<T> extends AbstractTransformingSink<T, T> {
         return this.tracker.getLastTime();
     }
 
+    /**
+     * Gets the recent processing rate of this sink, see {@link ThroughputTracker#getRecentRate()}
+     *
+     * @return Recent processing rate
+     */
+    public double getRecentRate() {
+        return this.tracker.getRecentRate();
+    }
+
+    /**
+     * Gets the histogram of latencies, in nanoseconds, for items processed by this sink since throughput was last
+     * reported, see {@link ThroughputTracker#getLatencies()}
+     *
+     * @return Latency histogram
+     */
+    public LatencyHistogram getLatencies() {
+        return this.tracker.getLatencies();
+    }
+
     /**
      * Creates a new throughput tracking sink builder
      *
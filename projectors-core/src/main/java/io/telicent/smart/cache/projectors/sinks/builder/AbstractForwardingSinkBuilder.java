@@ -177,6 +177,26 @@ public abstract class AbstractForwardingSinkBuilder<TInput, TOutput, TSink exten
         return this.destination(f.apply(Sinks.throughput()).build());
     }
 
+    /**
+     * Sets the destination for this sink to be an async sink
+     *
+     * @param f Builder function that can be used to build the async sink
+     * @return Builder
+     */
+    public TBuilder async(Function<AsyncSink.Builder<TOutput>, SinkBuilder<TOutput, AsyncSink<TOutput>>> f) {
+        return this.destination(f.apply(Sinks.async()).build());
+    }
+
+    /**
+     * Sets the destination for this sink to be a batching sink
+     *
+     * @param f Builder function that can be used to build the batching sink
+     * @return Builder
+     */
+    public TBuilder batch(Function<BatchSink.Builder<TOutput>, SinkBuilder<TOutput, BatchSink<TOutput>>> f) {
+        return this.destination(f.apply(Sinks.batch()).build());
+    }
+
     /**
      * Gets the destination, possibly {@code null} if none configured.
      * <p>
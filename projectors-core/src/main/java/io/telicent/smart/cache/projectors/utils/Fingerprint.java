@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * A compact 128-bit fingerprint of some data, calculated using the
+ * <a href="https://github.com/aappleby/smhasher/wiki/MurmurHash3">MurmurHash3</a> x64 128-bit hash function
+ * <p>
+ * Fingerprints allow large items to be compared, or remembered, cheaply by comparing, or storing, only their
+ * fingerprints rather than the items themselves.  MurmurHash3 is not a cryptographic hash, so fingerprints
+ * <strong>MUST NOT</strong> be used where an adversary might deliberately craft colliding inputs, however for
+ * non-adversarial inputs the probability of two distinct inputs colliding is negligible.
+ * </p>
+ *
+ * @param high High 64 bits of the fingerprint
+ * @param low  Low 64 bits of the fingerprint
+ */
+public record Fingerprint(long high, long low) {
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * Calculates the fingerprint of the given data
+     *
+     * @param data Data
+     * @return Fingerprint
+     */
+    public static Fingerprint of(byte[] data) {
+        Objects.requireNonNull(data, "Data cannot be null");
+        final int length = data.length;
+        final int blocks = length >>> 4;
+        long h1 = 0;
+        long h2 = 0;
+
+        for (int i = 0; i < blocks; i++) {
+            h1 ^= mixK1((long) LONG_VIEW.get(data, i << 4));
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2((long) LONG_VIEW.get(data, (i << 4) + 8));
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // Mix in any remaining bytes that didn't form a complete block
+        final int tail = blocks << 4;
+        final int remaining = length & 15;
+        if (remaining > 8) {
+            h2 ^= mixK2(littleEndian(data, tail + 8, remaining - 8));
+        }
+        if (remaining > 0) {
+            h1 ^= mixK1(littleEndian(data, tail, Math.min(remaining, 8)));
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = finalMix(h1);
+        h2 = finalMix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new Fingerprint(h1, h2);
+    }
+
+    private static long littleEndian(byte[] data, int offset, int length) {
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long finalMix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
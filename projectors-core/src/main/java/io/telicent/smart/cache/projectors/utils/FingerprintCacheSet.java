@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import org.apache.jena.atlas.lib.CacheSet;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A {@link CacheSet} that remembers only the {@link Fingerprint}s of items, rather than the items themselves
+ * <p>
+ * Items are converted into bytes via a caller supplied function, and those bytes fingerprinted, so memory usage depends
+ * only on the configured capacity and not on the size of the items.  Equally items are considered equal if their bytes
+ * are equal, their own {@link Object#equals(Object)} and {@link Object#hashCode()} are not used.  See
+ * {@link FingerprintSet} for details of how the fingerprints are stored and how the set is bounded.
+ * </p>
+ * <p>
+ * This class is <strong>NOT</strong> thread-safe.
+ * </p>
+ *
+ * @param <T> Item type
+ */
+public class FingerprintCacheSet<T> implements CacheSet<T> {
+
+    private final Function<T, byte[]> toBytes;
+    private final FingerprintSet fingerprints;
+    private T lastItem;
+    private Fingerprint lastFingerprint;
+
+    /**
+     * Creates a new fingerprint cache set
+     *
+     * @param capacity         Capacity, the set remembers at least this many of the most recently added items
+     * @param toBytes          Function that converts an item into the bytes from which its fingerprint is calculated
+     * @param wideFingerprints Whether to store full 128-bit fingerprints, or only 64-bits of each
+     * @param bloomFilter      Whether to use Bloom filters in front of the fingerprint tables
+     */
+    public FingerprintCacheSet(int capacity, Function<T, byte[]> toBytes, boolean wideFingerprints,
+                               boolean bloomFilter) {
+        this.toBytes = Objects.requireNonNull(toBytes, "toBytes function cannot be null");
+        this.fingerprints = new FingerprintSet(capacity, wideFingerprints, bloomFilter);
+    }
+
+    private Fingerprint fingerprint(T item) {
+        return Fingerprint.of(this.toBytes.apply(item));
+    }
+
+    @Override
+    public void add(T item) {
+        // Callers typically check whether an item is present and then immediately add it if not, so reuse the
+        // fingerprint calculated by that check rather than converting the same item into bytes twice
+        Fingerprint fingerprint = item == this.lastItem && this.lastFingerprint != null ? this.lastFingerprint :
+                                  fingerprint(item);
+        this.lastItem = null;
+        this.lastFingerprint = null;
+        this.fingerprints.add(fingerprint);
+    }
+
+    @Override
+    public void clear() {
+        this.fingerprints.clear();
+        this.lastItem = null;
+        this.lastFingerprint = null;
+    }
+
+    @Override
+    public boolean contains(T item) {
+        this.lastFingerprint = fingerprint(item);
+        this.lastItem = item;
+        return this.fingerprints.contains(this.lastFingerprint);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.fingerprints.isEmpty();
+    }
+
+    @Override
+    public void remove(T item) {
+        this.lastItem = null;
+        this.lastFingerprint = null;
+        this.fingerprints.remove(fingerprint(item));
+    }
+
+    @Override
+    public long size() {
+        return this.fingerprints.size();
+    }
+
+    /**
+     * Gets the approximate memory used by this set, this is fixed at construction time
+     *
+     * @return Memory usage in bytes
+     */
+    public long memoryUsage() {
+        return this.fingerprints.memoryUsage();
+    }
+}
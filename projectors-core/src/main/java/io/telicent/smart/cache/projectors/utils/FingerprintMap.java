@@ -0,0 +1,259 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import java.io.*;
+
+/**
+ * A bounded map from key {@link Fingerprint}s to value {@link Fingerprint}s held in primitive open addressing hash
+ * tables
+ * <p>
+ * This allows callers to track whether the value associated with some key has changed while storing only fixed size
+ * fingerprints of the keys and values, rather than the keys and values themselves.  Either full 128-bit fingerprints
+ * may be stored, or just the high 64 bits of each.  Like {@link FingerprintSet} the map is bounded by splitting it into
+ * two generations each holding up to {@code capacity} entries, thus it always remembers at least the {@code capacity}
+ * most recently put keys, and at most twice that.
+ * </p>
+ * <p>
+ * The map may be written to, and read from, a stream via {@link #write(OutputStream)} and {@link #read(InputStream)}
+ * allowing it to be persisted.
+ * </p>
+ * <p>
+ * This class is <strong>NOT</strong> thread-safe.
+ * </p>
+ */
+public class FingerprintMap {
+
+    /**
+     * Largest permitted capacity, this ensures that table sizes remain within the bounds of Java arrays
+     */
+    public static final int MAX_CAPACITY = FingerprintTable.MAX_CAPACITY;
+
+    private static final int MAGIC = 0x46504d50;
+    private static final int FORMAT_VERSION = 1;
+
+    private final int capacity;
+    private final int words;
+    private FingerprintTable current;
+    private FingerprintTable previous;
+
+    /**
+     * Creates a new fingerprint map
+     *
+     * @param capacity         Number of entries held per generation
+     * @param wideFingerprints Whether to store full 128-bit fingerprints, if false only 64-bits of each key and value
+     *                         fingerprint are stored halving memory usage at the cost of a higher, though still very
+     *                         low, probability of fingerprint collisions
+     */
+    public FingerprintMap(int capacity, boolean wideFingerprints) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be in the range 1 to " + MAX_CAPACITY);
+        }
+        this.capacity = capacity;
+        this.words = wideFingerprints ? 2 : 1;
+        this.current = new FingerprintTable(capacity, this.words, this.words, false);
+        this.previous = new FingerprintTable(capacity, this.words, this.words, false);
+    }
+
+    /**
+     * Gets whether the map contains the given key with the given value
+     *
+     * @param key   Key fingerprint
+     * @param value Value fingerprint
+     * @return True if the key is present and its current value matches the given value, false otherwise
+     */
+    public boolean matches(Fingerprint key, Fingerprint value) {
+        long high = FingerprintTable.normalise(key.high());
+        int slot = this.current.find(high, key.low());
+        if (slot >= 0) {
+            return valueMatches(this.current, slot, value);
+        }
+        slot = this.previous.find(high, key.low());
+        return slot >= 0 && valueMatches(this.previous, slot, value);
+    }
+
+    private boolean valueMatches(FingerprintTable table, int slot, Fingerprint value) {
+        return table.value(slot, 0) == value.high() && (this.words == 1 || table.value(slot, 1) == value.low());
+    }
+
+    /**
+     * Gets whether the map contains the given key
+     *
+     * @param key Key fingerprint
+     * @return True if present, false otherwise
+     */
+    public boolean containsKey(Fingerprint key) {
+        long high = FingerprintTable.normalise(key.high());
+        return this.current.find(high, key.low()) >= 0 || this.previous.find(high, key.low()) >= 0;
+    }
+
+    /**
+     * Puts a key and its value into the map, replacing any existing value for that key
+     *
+     * @param key   Key fingerprint
+     * @param value Value fingerprint
+     */
+    public void put(Fingerprint key, Fingerprint value) {
+        put(FingerprintTable.normalise(key.high()), key.low(), value.high(), value.low());
+    }
+
+    private void put(long keyHigh, long keyLow, long valueHigh, long valueLow) {
+        int slot = this.current.find(keyHigh, keyLow);
+        if (slot < 0) {
+            // If present in the previous generation then promote into the current generation
+            this.previous.remove(keyHigh, keyLow);
+            if (this.current.size() >= this.capacity) {
+                rotate();
+            }
+            slot = this.current.insert(keyHigh, keyLow);
+        }
+        this.current.setValue(slot, 0, valueHigh);
+        if (this.words == 2) {
+            this.current.setValue(slot, 1, valueLow);
+        }
+    }
+
+    /**
+     * Removes a key, and its value, from the map
+     *
+     * @param key Key fingerprint
+     * @return True if removed, false if not present
+     */
+    public boolean remove(Fingerprint key) {
+        long high = FingerprintTable.normalise(key.high());
+        return this.current.remove(high, key.low()) || this.previous.remove(high, key.low());
+    }
+
+    /**
+     * Removes all entries from the map
+     */
+    public void clear() {
+        this.current.clear();
+        this.previous.clear();
+    }
+
+    /**
+     * Gets the number of entries currently in the map
+     *
+     * @return Size
+     */
+    public long size() {
+        return (long) this.current.size() + this.previous.size();
+    }
+
+    /**
+     * Gets whether the map is empty
+     *
+     * @return True if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Gets the approximate memory used by the map's tables, this is fixed at construction time
+     *
+     * @return Memory usage in bytes
+     */
+    public long memoryUsage() {
+        return this.current.memoryUsage() + this.previous.memoryUsage();
+    }
+
+    private void rotate() {
+        FingerprintTable discarded = this.previous;
+        discarded.clear();
+        this.previous = this.current;
+        this.current = discarded;
+    }
+
+    /**
+     * Writes the entries of the map to the given output stream
+     * <p>
+     * Entries from the previous generation are written before those from the current generation so that reading them
+     * back in via {@link #read(InputStream)} preserves which entries are the most recent.  The caller is responsible
+     * for closing the stream.
+     * </p>
+     *
+     * @param output Output stream
+     * @throws IOException Thrown if the entries cannot be written
+     */
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(this.words);
+        data.writeLong(this.size());
+        writeEntries(data, this.previous);
+        writeEntries(data, this.current);
+        data.flush();
+    }
+
+    private void writeEntries(DataOutputStream data, FingerprintTable table) throws IOException {
+        for (int slot = 0; slot < table.slotCount(); slot++) {
+            if (!table.occupied(slot)) {
+                continue;
+            }
+            for (int i = 0; i < this.words; i++) {
+                data.writeLong(table.key(slot, i));
+            }
+            for (int i = 0; i < this.words; i++) {
+                data.writeLong(table.value(slot, i));
+            }
+        }
+    }
+
+    /**
+     * Reads entries previously written via {@link #write(OutputStream)} from the given input stream, replacing the
+     * current contents of the map
+     * <p>
+     * If more entries are read than the map has capacity for then only the most recent entries are retained.  If the
+     * entries cannot be read then the map is left empty.  The caller is responsible for closing the stream.
+     * </p>
+     *
+     * @param input Input stream
+     * @throws IOException Thrown if the entries cannot be read, including if they were written by a map with a different
+     *                     fingerprint width
+     */
+    public void read(InputStream input) throws IOException {
+        this.clear();
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a fingerprint map");
+        }
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported fingerprint map format version " + version);
+        }
+        int entryWords = data.readInt();
+        if (entryWords != this.words) {
+            throw new IOException("Fingerprint map has " + (entryWords * Long.SIZE) + "-bit fingerprints but " + (
+                    this.words * Long.SIZE) + "-bit fingerprints are required");
+        }
+        long entries = data.readLong();
+        try {
+            for (long i = 0; i < entries; i++) {
+                long keyHigh = data.readLong();
+                long keyLow = this.words == 2 ? data.readLong() : 0;
+                long valueHigh = data.readLong();
+                long valueLow = this.words == 2 ? data.readLong() : 0;
+                put(FingerprintTable.normalise(keyHigh), keyLow, valueHigh, valueLow);
+            }
+        } catch (IOException e) {
+            this.clear();
+            throw e;
+        }
+    }
+}
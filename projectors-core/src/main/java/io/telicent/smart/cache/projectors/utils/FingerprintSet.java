@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+/**
+ * A bounded set of {@link Fingerprint}s held in primitive open addressing hash tables
+ * <p>
+ * This stores only the fingerprints themselves, either the full 128 bits or just the high 64 bits, so memory usage is
+ * fixed at construction time and is independent of the size of the items that were fingerprinted, and lookups do not
+ * allocate.
+ * </p>
+ * <p>
+ * To bound the set it is split into two generations each holding up to {@code capacity} fingerprints.  New
+ * fingerprints are added to the current generation, when that is full the previous generation is discarded and the
+ * current generation becomes the previous generation.  Fingerprints found in the previous generation are promoted back
+ * into the current generation when added again.  Thus the set always remembers at least the {@code capacity} most
+ * recently added fingerprints, and at most twice that, approximating the behaviour of an LRU cache.
+ * </p>
+ * <p>
+ * Optionally each generation may also have a Bloom filter in front of it, these are much smaller than the tables so
+ * are more likely to be CPU cache resident, allowing most lookups for fingerprints that are not present to be answered
+ * without probing the tables.
+ * </p>
+ * <p>
+ * This class is <strong>NOT</strong> thread-safe.
+ * </p>
+ */
+public class FingerprintSet {
+
+    /**
+     * Largest permitted capacity, this ensures that table sizes remain within the bounds of Java arrays
+     */
+    public static final int MAX_CAPACITY = FingerprintTable.MAX_CAPACITY;
+
+    private final int capacity;
+    private FingerprintTable current;
+    private FingerprintTable previous;
+
+    /**
+     * Creates a new fingerprint set
+     *
+     * @param capacity         Number of fingerprints held per generation
+     * @param wideFingerprints Whether to store full 128-bit fingerprints, if false only 64-bits of each fingerprint are
+     *                         stored halving memory usage at the cost of a higher, though still very low, probability of
+     *                         fingerprint collisions
+     * @param bloomFilter      Whether to place a Bloom filter in front of each generation
+     */
+    public FingerprintSet(int capacity, boolean wideFingerprints, boolean bloomFilter) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be in the range 1 to " + MAX_CAPACITY);
+        }
+        this.capacity = capacity;
+        int keyWords = wideFingerprints ? 2 : 1;
+        this.current = new FingerprintTable(capacity, keyWords, 0, bloomFilter);
+        this.previous = new FingerprintTable(capacity, keyWords, 0, bloomFilter);
+    }
+
+    /**
+     * Gets whether the set contains the given fingerprint
+     *
+     * @param fingerprint Fingerprint
+     * @return True if present, false otherwise
+     */
+    public boolean contains(Fingerprint fingerprint) {
+        return contains(fingerprint.high(), fingerprint.low());
+    }
+
+    /**
+     * Gets whether the set contains the given fingerprint
+     *
+     * @param high High 64 bits of the fingerprint
+     * @param low  Low 64 bits of the fingerprint
+     * @return True if present, false otherwise
+     */
+    public boolean contains(long high, long low) {
+        high = FingerprintTable.normalise(high);
+        return this.current.find(high, low) >= 0 || this.previous.find(high, low) >= 0;
+    }
+
+    /**
+     * Adds a fingerprint to the set
+     *
+     * @param fingerprint Fingerprint
+     * @return True if the fingerprint was added, false if it was already present
+     */
+    public boolean add(Fingerprint fingerprint) {
+        return add(fingerprint.high(), fingerprint.low());
+    }
+
+    /**
+     * Adds a fingerprint to the set
+     *
+     * @param high High 64 bits of the fingerprint
+     * @param low  Low 64 bits of the fingerprint
+     * @return True if the fingerprint was added, false if it was already present
+     */
+    public boolean add(long high, long low) {
+        high = FingerprintTable.normalise(high);
+        if (this.current.find(high, low) >= 0) {
+            return false;
+        }
+        // If present in the previous generation then promote into the current generation
+        boolean promoted = this.previous.remove(high, low);
+        if (this.current.size() >= this.capacity) {
+            rotate();
+        }
+        this.current.insert(high, low);
+        return !promoted;
+    }
+
+    /**
+     * Removes a fingerprint from the set
+     *
+     * @param fingerprint Fingerprint
+     * @return True if the fingerprint was removed, false if it was not present
+     */
+    public boolean remove(Fingerprint fingerprint) {
+        return remove(fingerprint.high(), fingerprint.low());
+    }
+
+    /**
+     * Removes a fingerprint from the set
+     *
+     * @param high High 64 bits of the fingerprint
+     * @param low  Low 64 bits of the fingerprint
+     * @return True if the fingerprint was removed, false if it was not present
+     */
+    public boolean remove(long high, long low) {
+        high = FingerprintTable.normalise(high);
+        return this.current.remove(high, low) || this.previous.remove(high, low);
+    }
+
+    /**
+     * Removes all fingerprints from the set
+     */
+    public void clear() {
+        this.current.clear();
+        this.previous.clear();
+    }
+
+    /**
+     * Gets the number of fingerprints currently in the set
+     *
+     * @return Size
+     */
+    public long size() {
+        return (long) this.current.size() + this.previous.size();
+    }
+
+    /**
+     * Gets whether the set is empty
+     *
+     * @return True if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Gets the approximate memory used by the set's tables and Bloom filters, this is fixed at construction time
+     *
+     * @return Memory usage in bytes
+     */
+    public long memoryUsage() {
+        return this.current.memoryUsage() + this.previous.memoryUsage();
+    }
+
+    private void rotate() {
+        FingerprintTable discarded = this.previous;
+        discarded.clear();
+        this.previous = this.current;
+        this.current = discarded;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import java.util.Arrays;
+
+/**
+ * A bounded linear probing hash table keyed by {@link Fingerprint}s, used as a single generation of a
+ * {@link FingerprintSet} or {@link FingerprintMap}
+ * <p>
+ * Each slot occupies a fixed number of consecutive words of a single primitive array, the first one or two words hold
+ * the key fingerprint and any remaining words hold a value associated with that key.  Since fingerprints are already
+ * uniformly distributed hashes they are used directly to index into the table.  A slot whose first word is zero is
+ * empty, so callers <strong>MUST</strong> first {@link #normalise(long)} the high bits of key fingerprints.
+ * </p>
+ * <p>
+ * Optionally a Bloom filter may be placed in front of the table, this is much smaller than the table so is more likely
+ * to be CPU cache resident, allowing most lookups for keys that are not present to be answered without probing the
+ * table.
+ * </p>
+ */
+final class FingerprintTable {
+
+    /**
+     * Largest permitted capacity, this ensures that tables remain within the bounds of Java arrays
+     */
+    static final int MAX_CAPACITY = 1 << 27;
+    /**
+     * Maximum load factor of the table
+     */
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    /**
+     * Bloom filter bits per entry, with {@link #BLOOM_HASHES} hash functions this gives a ~2.4% false positive rate when
+     * the table is full
+     */
+    private static final int BLOOM_BITS_PER_ENTRY = 8;
+    private static final int BLOOM_HASHES = 4;
+
+    private final long[] slots;
+    private final long[] bloom;
+    private final int keyWords;
+    private final int width;
+    private final int mask;
+    private final int bloomMask;
+    private int size;
+
+    /**
+     * Creates a new table
+     *
+     * @param capacity    Number of entries the table must be able to hold
+     * @param keyWords    Words of each key fingerprint that are stored, either 1 or 2
+     * @param valueWords  Words of value stored with each key
+     * @param bloomFilter Whether to place a Bloom filter in front of the table
+     */
+    FingerprintTable(int capacity, int keyWords, int valueWords, boolean bloomFilter) {
+        int slotCount = tableSize((long) Math.ceil(capacity / MAX_LOAD_FACTOR));
+        this.keyWords = keyWords;
+        this.width = keyWords + valueWords;
+        this.mask = slotCount - 1;
+        this.slots = new long[Math.multiplyExact(slotCount, this.width)];
+        if (bloomFilter) {
+            int bloomBits = tableSize((long) capacity * BLOOM_BITS_PER_ENTRY);
+            this.bloom = new long[Math.max(1, bloomBits >>> 6)];
+            this.bloomMask = bloomBits - 1;
+        } else {
+            this.bloom = null;
+            this.bloomMask = 0;
+        }
+    }
+
+    private static int tableSize(long minimum) {
+        long size = Long.highestOneBit(Math.max(2, minimum - 1)) << 1;
+        return (int) Math.min(size, 1 << 30);
+    }
+
+    /**
+     * Normalises the high bits of a key fingerprint, since zero marks an empty slot a fingerprint with zero high bits is
+     * treated as if its high bits were one
+     *
+     * @param high High bits
+     * @return Normalised high bits
+     */
+    static long normalise(long high) {
+        return high == 0 ? 1 : high;
+    }
+
+    /**
+     * Finds the slot holding the given key
+     *
+     * @param high Normalised high bits of the key fingerprint
+     * @param low  Low bits of the key fingerprint
+     * @return Slot, or {@code -1} if not present
+     */
+    int find(long high, long low) {
+        if (!mightContain(low)) {
+            return -1;
+        }
+        int slot = (int) high & this.mask;
+        while (true) {
+            int offset = slot * this.width;
+            long candidate = this.slots[offset];
+            if (candidate == 0) {
+                return -1;
+            }
+            if (candidate == high && (this.keyWords == 1 || this.slots[offset + 1] == low)) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Inserts a key that is known to not already be present, callers <strong>MUST</strong> ensure that the table is not
+     * already full
+     *
+     * @param high Normalised high bits of the key fingerprint
+     * @param low  Low bits of the key fingerprint
+     * @return Slot the key was inserted into
+     */
+    int insert(long high, long low) {
+        int slot = (int) high & this.mask;
+        while (this.slots[slot * this.width] != 0) {
+            slot = (slot + 1) & this.mask;
+        }
+        int offset = slot * this.width;
+        this.slots[offset] = high;
+        if (this.keyWords == 2) {
+            this.slots[offset + 1] = low;
+        }
+        this.size++;
+
+        if (this.bloom != null) {
+            int h1 = (int) low;
+            int h2 = (int) (low >>> 32) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (h1 + i * h2) & this.bloomMask;
+                this.bloom[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return slot;
+    }
+
+    private boolean mightContain(long low) {
+        if (this.size == 0) {
+            return false;
+        }
+        if (this.bloom == null) {
+            return true;
+        }
+        int h1 = (int) low;
+        int h2 = (int) (low >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & this.bloomMask;
+            if ((this.bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a key, and its value, if present
+     *
+     * @param high Normalised high bits of the key fingerprint
+     * @param low  Low bits of the key fingerprint
+     * @return True if removed, false if not present
+     */
+    boolean remove(long high, long low) {
+        int gap = find(high, low);
+        if (gap < 0) {
+            return false;
+        }
+
+        // Backward shift deletion, move any subsequent entries in the probe sequence that could legitimately occupy the
+        // gap into it so that no tombstones are needed.  NB - Bloom filters don't support removal so the key remains
+        // set there, which just means a future lookup for it probes the table unnecessarily.
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & this.mask;
+            long candidate = this.slots[slot * this.width];
+            if (candidate == 0) {
+                break;
+            }
+            int home = (int) candidate & this.mask;
+            if (((slot - home) & this.mask) >= ((slot - gap) & this.mask)) {
+                System.arraycopy(this.slots, slot * this.width, this.slots, gap * this.width, this.width);
+                gap = slot;
+            }
+        }
+        Arrays.fill(this.slots, gap * this.width, (gap + 1) * this.width, 0);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Gets a word of the value held in a slot
+     *
+     * @param slot Slot
+     * @param word Value word
+     * @return Value word
+     */
+    long value(int slot, int word) {
+        return this.slots[slot * this.width + this.keyWords + word];
+    }
+
+    /**
+     * Sets a word of the value held in a slot
+     *
+     * @param slot  Slot
+     * @param word  Value word
+     * @param value Value word
+     */
+    void setValue(int slot, int word, long value) {
+        this.slots[slot * this.width + this.keyWords + word] = value;
+    }
+
+    /**
+     * Gets a word of the key held in a slot
+     *
+     * @param slot Slot
+     * @param word Key word
+     * @return Key word
+     */
+    long key(int slot, int word) {
+        return this.slots[slot * this.width + word];
+    }
+
+    /**
+     * Gets whether a slot is occupied
+     *
+     * @param slot Slot
+     * @return True if occupied, false if empty
+     */
+    boolean occupied(int slot) {
+        return this.slots[slot * this.width] != 0;
+    }
+
+    /**
+     * Gets the number of slots in the table, this is greater than its capacity
+     *
+     * @return Slot count
+     */
+    int slotCount() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Gets the number of entries in the table
+     *
+     * @return Size
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes all entries from the table
+     */
+    void clear() {
+        Arrays.fill(this.slots, 0);
+        if (this.bloom != null) {
+            Arrays.fill(this.bloom, 0);
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Gets the memory used by the table and its Bloom filter
+     *
+     * @return Memory usage in bytes
+     */
+    long memoryUsage() {
+        long words = this.slots.length;
+        if (this.bloom != null) {
+            words += this.bloom.length;
+        }
+        return words * Long.BYTES;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies, or any other non-negative long values, with fixed relative precision
+ * <p>
+ * Values are counted into log-linear buckets in the style of an HDR Histogram, values below 128 are counted exactly
+ * while larger values are counted into buckets whose width is at most 1/64th of the values they hold.  Thus any value
+ * reported by the histogram is within roughly 1.6% of the true value, across the entire range of positive longs, using
+ * a fixed 3,712 buckets i.e. around 29KB of memory.
+ * </p>
+ * <p>
+ * Recording a value is a single atomic increment and never allocates, so this may be safely recorded into from
+ * multiple threads while other threads read from it.  Reads are not atomic snapshots, a read that races with
+ * concurrent recording may see only some of those recordings.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a value
+     *
+     * @param value Value, negative values are recorded as zero
+     */
+    public void record(long value) {
+        this.counts.incrementAndGet(bucketFor(value));
+    }
+
+    /**
+     * Records a value multiple times
+     *
+     * @param value Value, negative values are recorded as zero
+     * @param count How many times to record the value
+     */
+    public void record(long value, long count) {
+        if (count > 0) {
+            this.counts.addAndGet(bucketFor(value), count);
+        }
+    }
+
+    /**
+     * Gets the total count of values recorded
+     *
+     * @return Count
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += this.counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Gets whether any values have been recorded
+     *
+     * @return True if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (this.counts.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the value at the given percentile i.e. the value that the given percentage of recorded values are less than
+     * or equal to
+     * <p>
+     * The value returned is the highest value that is equivalent, within the precision of the histogram, to the value
+     * at that percentile.
+     * </p>
+     *
+     * @param percentile Percentile, in the range 0 to 100
+     * @return Value at the percentile, or zero if no values have been recorded
+     * @throws IllegalArgumentException Thrown if the percentile is not in the range 0 to 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in the range 0 to 100");
+        }
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil((percentile / 100.0) * total));
+        long seen = 0;
+        int last = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = this.counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            seen += count;
+            last = i;
+            if (seen >= target) {
+                return highestValueIn(i);
+            }
+        }
+        // Only reachable if values were concurrently removed by reset()
+        return highestValueIn(last);
+    }
+
+    /**
+     * Gets the maximum value recorded, within the precision of the histogram
+     *
+     * @return Maximum value, or zero if no values have been recorded
+     */
+    public long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (this.counts.get(i) != 0) {
+                return highestValueIn(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Resets the histogram discarding all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Formats a latency in nanoseconds for human consumption, using the largest time unit in which it is at least 1
+     *
+     * @param nanos Latency in nanoseconds
+     * @return Formatted latency
+     */
+    public static String formatNanos(long nanos) {
+        if (nanos >= TimeUnit.SECONDS.toNanos(1)) {
+            return String.format(Locale.ROOT, "%.3f s", nanos / (double) TimeUnit.SECONDS.toNanos(1));
+        } else if (nanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            return String.format(Locale.ROOT, "%.3f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        } else if (nanos >= TimeUnit.MICROSECONDS.toNanos(1)) {
+            return String.format(Locale.ROOT, "%.3f µs", nanos / (double) TimeUnit.MICROSECONDS.toNanos(1));
+        }
+        return String.format(Locale.ROOT, "%,d ns", nanos);
+    }
+
+    /**
+     * Calculates the bucket for a value
+     * <p>
+     * Values below {@link #SUB_BUCKETS} map directly to their own bucket.  Larger values are shifted right such that
+     * only their top {@link #SUB_BUCKET_BITS} bits remain, giving a sub-bucket in the upper half of the range, and the
+     * shift itself selects which run of {@link #HALF_SUB_BUCKETS} buckets that sub-bucket falls into.
+     * </p>
+     *
+     * @param value Value
+     * @return Bucket index
+     */
+    static int bucketFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Calculates the highest value that maps to the given bucket
+     *
+     * @param bucket Bucket index
+     * @return Highest value
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        long subBucket = bucket - (long) shift * HALF_SUB_BUCKETS;
+        // NB - For the very last bucket the shift overflows to Long.MIN_VALUE so subtracting one yields Long.MAX_VALUE
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -16,6 +16,7 @@
 package io.telicent.smart.cache.projectors.utils;
 
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableDoubleGauge;
@@ -27,12 +28,30 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.atlas.logging.FmtLog;
 import org.slf4j.Logger;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for tracking the throughput of various components
+ * <p>
+ * As well as counting items the tracker measures the latency of each item i.e. the time between it being received and
+ * being processed, recording these into a {@link LatencyHistogram}, and the recent processing rate over a sliding
+ * window.  Latency is measured by pairing each processed item with the oldest received item that has not yet been
+ * processed, so where items complete out of order, e.g. when processed in parallel, individual latencies are
+ * approximate.  In that case latency tracking may be disabled entirely via
+ * {@link ThroughputTrackerBuilder#latencyTracking(boolean)}.
+ * </p>
+ * <p>
+ * When metrics are enabled latencies are also exported via the {@link MetricNames#ITEMS_PROCESSING_LATENCY} histogram.
+ * Unlike the {@link LatencyHistogram}, which is weighted by the number of items, this histogram receives a single
+ * observation per group of items received together, e.g. via {@link #itemsReceived(long)}.  Therefore, where items are
+ * received in batches of varying sizes, its percentiles are per receipt and may differ from the per item percentiles
+ * reported in the log output.
+ * </p>
  */
 @ToString(onlyExplicitlyIncluded = true)
 // java:S131 - switch is a deliberate partial guard, not exhaustive dispatch
@@ -40,6 +59,8 @@ import java.util.concurrent.TimeUnit;
 public class ThroughputTracker implements AutoCloseable {
 
     private final ObservableDoubleGauge rateMetric;
+    private final ObservableDoubleGauge recentRateMetric;
+    private final DoubleHistogram latencyMetric;
 
     /**
      * Creates a new {@link ThroughputTracker} builder to use to build a new tracker
@@ -63,6 +84,27 @@ public class ThroughputTracker implements AutoCloseable {
      * Error message issued when the tracker is used incorrectly
      */
     public static final String TRACKING_MISMATCH_ERROR = "Must call itemReceived prior to itemProcessed";
+    /**
+     * Default window over which the recent processing rate is calculated
+     */
+    public static final Duration DEFAULT_RATE_WINDOW = Duration.ofMinutes(1);
+
+    /**
+     * Number of slots the rate window is divided into, the window slides forward one slot at a time
+     */
+    private static final int RATE_WINDOW_SLOTS = 10;
+    /**
+     * Maximum number of distinct receipts awaiting processing that are tracked for latency purposes, beyond this
+     * further receipts are merged into the most recent receipt
+     */
+    private static final int MAX_PENDING_RECEIPTS = 1_024;
+    /**
+     * Histogram bucket boundaries, in seconds, advised for the latency metric
+     */
+    private static final List<Double> LATENCY_BUCKETS =
+            List.of(0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0,
+                    10.0);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
 
     private final Logger logger;
     @ToString.Include
@@ -85,6 +127,18 @@ public class ThroughputTracker implements AutoCloseable {
     private final LongCounter receivedMetric;
     private final Attributes metricAttributes;
 
+    private final boolean latencyTracking;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final long[] pendingTimes = new long[MAX_PENDING_RECEIPTS];
+    private final long[] pendingCounts = new long[MAX_PENDING_RECEIPTS];
+    private int pendingHead = 0;
+    private int pendingSize = 0;
+
+    private final long rateSlotNanos;
+    private final long[] rateSlotEpochs = new long[RATE_WINDOW_SLOTS];
+    private final long[] rateSlotCounts = new long[RATE_WINDOW_SLOTS];
+    private long firstNanos;
+
     /**
      * Creates a new throughput tracker
      *
@@ -95,9 +149,26 @@ public class ThroughputTracker implements AutoCloseable {
      * @param itemsName       Reported items name i.e. how the items are referred to in the logging
      * @param metricsLabel    Label to use in reporting metrics, leave blank to disable metrics
      */
-    @SuppressWarnings("resource")
     ThroughputTracker(Logger logger, long reportBatchSize, TimeUnit reportTimeUnit, String action, String itemsName,
                       String metricsLabel) {
+        this(logger, reportBatchSize, reportTimeUnit, action, itemsName, metricsLabel, DEFAULT_RATE_WINDOW, true);
+    }
+
+    /**
+     * Creates a new throughput tracker
+     *
+     * @param logger          Logger to which throughput should be reported
+     * @param reportBatchSize Reporting batch size i.e. after how many items should throughput be reported
+     * @param reportTimeUnit  Reporting time unit i.e. controls in what time unit elapsed time and rate are displayed
+     * @param action          Reporting action i.e. how the throughput is referred to in the logging
+     * @param itemsName       Reported items name i.e. how the items are referred to in the logging
+     * @param metricsLabel    Label to use in reporting metrics, leave blank to disable metrics
+     * @param rateWindow      Window over which the recent processing rate is calculated
+     * @param latencyTracking Whether item latencies are measured
+     */
+    @SuppressWarnings("resource")
+    ThroughputTracker(Logger logger, long reportBatchSize, TimeUnit reportTimeUnit, String action, String itemsName,
+                      String metricsLabel, Duration rateWindow, boolean latencyTracking) {
         Objects.requireNonNull(logger, "Logger cannot be null");
         if (reportBatchSize < 0) {
             throw new IllegalArgumentException("Reporting interval must be >= 1");
@@ -107,6 +178,10 @@ public class ThroughputTracker implements AutoCloseable {
             case MICROSECONDS, NANOSECONDS ->
                     throw new IllegalArgumentException("Reporting time unit maximum precision is milliseconds");
         }
+        Objects.requireNonNull(rateWindow, "Rate window cannot be null");
+        if (rateWindow.compareTo(Duration.ZERO) < 1) {
+            throw new IllegalArgumentException("Rate window must be a duration greater than zero");
+        }
 
         this.logger = logger;
         this.reportBatchSize = reportBatchSize;
@@ -114,6 +189,9 @@ public class ThroughputTracker implements AutoCloseable {
         this.reportTimeUnit = reportTimeUnit;
         this.action = StringUtils.isNotBlank(action) ? action : DEFAULT_ACTION;
         this.itemsName = StringUtils.isNotBlank(itemsName) ? itemsName : DEFAULT_ITEMS_NAME;
+        this.latencyTracking = latencyTracking;
+        this.rateSlotNanos = Math.max(1, rateWindow.toNanos() / RATE_WINDOW_SLOTS);
+        Arrays.fill(this.rateSlotEpochs, Long.MIN_VALUE);
 
         // Get the instances of our metrics that we're going to update
         this.metricsEnabled = StringUtils.isNotBlank(metricsLabel);
@@ -133,12 +211,24 @@ public class ThroughputTracker implements AutoCloseable {
                                    .setDescription(MetricNames.ITEMS_PROCESSING_RATE_DESCRIPTION)
                                    .buildWithCallback(measurement -> measurement.record(getOverallRate(),
                                                                                         this.metricAttributes));
+            this.recentRateMetric = meter.gaugeBuilder(MetricNames.ITEMS_RECENT_PROCESSING_RATE)
+                                         .setDescription(MetricNames.ITEMS_RECENT_PROCESSING_RATE_DESCRIPTION)
+                                         .buildWithCallback(measurement -> measurement.record(getRecentRate(),
+                                                                                              this.metricAttributes));
+            this.latencyMetric = latencyTracking ?
+                                 meter.histogramBuilder(MetricNames.ITEMS_PROCESSING_LATENCY)
+                                      .setDescription(MetricNames.ITEMS_PROCESSING_LATENCY_DESCRIPTION)
+                                      .setUnit("seconds")
+                                      .setExplicitBucketBoundariesAdvice(LATENCY_BUCKETS)
+                                      .build() : null;
             //@formatter:on
         } else {
             this.metricAttributes = null;
             this.receivedMetric = null;
             this.processedMetric = null;
             this.rateMetric = null;
+            this.recentRateMetric = null;
+            this.latencyMetric = null;
         }
     }
 
@@ -162,6 +252,7 @@ public class ThroughputTracker implements AutoCloseable {
     public void start() {
         if (this.first == -1) {
             this.first = System.currentTimeMillis();
+            this.firstNanos = System.nanoTime();
         } else {
             throw new IllegalStateException("start() called on an already started tracker");
         }
@@ -179,6 +270,113 @@ public class ThroughputTracker implements AutoCloseable {
         if (this.metricsEnabled) {
             this.receivedMetric.add(1, this.metricAttributes);
         }
+        addPendingReceipt(1);
+    }
+
+    /**
+     * Should be called when multiple items are received e.g. via batch processing, but before they are processed
+     *
+     * @param items Number of items that have been received
+     * @throws IllegalArgumentException Thrown if the {@code items} parameter is less than 1
+     */
+    public void itemsReceived(int items) {
+        if (items < 1) {
+            throw new IllegalArgumentException("Items must be >= 1");
+        }
+        if (this.first == -1) {
+            this.start();
+        }
+        this.received += items;
+        if (this.metricsEnabled) {
+            this.receivedMetric.add(items, this.metricAttributes);
+        }
+        addPendingReceipt(items);
+    }
+
+    /**
+     * Should be called when a received item will not be processed, e.g. it was filtered out, so that it is not
+     * considered when measuring latency
+     * <p>
+     * This does not change the received or processed counts.
+     * </p>
+     */
+    public void itemDiscarded() {
+        itemsDiscarded(1);
+    }
+
+    /**
+     * Should be called when multiple received items will not be processed, e.g. they were filtered out, so that they
+     * are not considered when measuring latency
+     * <p>
+     * The most recently received items are the ones considered to have been discarded.  This does not change the
+     * received or processed counts.
+     * </p>
+     *
+     * @param items Number of items that have been discarded
+     * @throws IllegalArgumentException Thrown if the {@code items} parameter is less than 1
+     */
+    public void itemsDiscarded(int items) {
+        if (items < 1) {
+            throw new IllegalArgumentException("Items must be >= 1");
+        }
+        if (!this.latencyTracking) return;
+        long remaining = items;
+        while (remaining > 0 && this.pendingSize > 0) {
+            int tail = (this.pendingHead + this.pendingSize - 1) % MAX_PENDING_RECEIPTS;
+            long discarded = Math.min(remaining, this.pendingCounts[tail]);
+            this.pendingCounts[tail] -= discarded;
+            if (this.pendingCounts[tail] == 0) {
+                this.pendingSize--;
+            }
+            remaining -= discarded;
+        }
+    }
+
+    private void addPendingReceipt(long items) {
+        if (!this.latencyTracking) return;
+        long now = System.nanoTime();
+        if (this.pendingSize == MAX_PENDING_RECEIPTS) {
+            // Too many receipts awaiting processing, e.g. if a caller only ever tracks received items, so merge into the
+            // most recent receipt.  This slightly overstates the latency of these items but keeps memory bounded.
+            this.pendingCounts[(this.pendingHead + this.pendingSize - 1) % MAX_PENDING_RECEIPTS] += items;
+            return;
+        }
+        int tail = (this.pendingHead + this.pendingSize) % MAX_PENDING_RECEIPTS;
+        this.pendingTimes[tail] = now;
+        this.pendingCounts[tail] = items;
+        this.pendingSize++;
+    }
+
+    private void recordProcessed(long items) {
+        long now = System.nanoTime();
+
+        // Pair the processed items with the oldest pending receipts to calculate their latencies.  The latency metric
+        // has no notion of a weight so is recorded once per receipt, rather than once per item, as otherwise recording
+        // a large batch would be as expensive as recording each of its items individually.
+        long remaining = items;
+        while (remaining > 0 && this.pendingSize > 0) {
+            long processedItems = Math.min(remaining, this.pendingCounts[this.pendingHead]);
+            long latency = now - this.pendingTimes[this.pendingHead];
+            this.latencies.record(latency, processedItems);
+            if (this.latencyMetric != null) {
+                this.latencyMetric.record(latency / NANOS_PER_SECOND, this.metricAttributes);
+            }
+            this.pendingCounts[this.pendingHead] -= processedItems;
+            if (this.pendingCounts[this.pendingHead] == 0) {
+                this.pendingHead = (this.pendingHead + 1) % MAX_PENDING_RECEIPTS;
+                this.pendingSize--;
+            }
+            remaining -= processedItems;
+        }
+
+        // Count the processed items into the current slot of the rate window
+        long epoch = Math.floorDiv(now, this.rateSlotNanos);
+        int slot = (int) Math.floorMod(epoch, RATE_WINDOW_SLOTS);
+        if (this.rateSlotEpochs[slot] != epoch) {
+            this.rateSlotEpochs[slot] = epoch;
+            this.rateSlotCounts[slot] = 0;
+        }
+        this.rateSlotCounts[slot] += items;
     }
 
     /**
@@ -200,6 +398,7 @@ public class ThroughputTracker implements AutoCloseable {
             this.processedMetric.add(1, this.metricAttributes);
         }
         this.last = System.currentTimeMillis();
+        recordProcessed(1);
 
         if (this.processed % this.reportBatchSize == 0) reportThroughput();
     }
@@ -228,6 +427,7 @@ public class ThroughputTracker implements AutoCloseable {
             this.processedMetric.add(items, this.metricAttributes);
         }
         this.last = System.currentTimeMillis();
+        recordProcessed(items);
 
         // NB - When this is being called we can't guarantee that it'll be called with nice increments that end up
         //      aligning with our configured reporting batch size.  So need to check that we either exactly hit the
@@ -237,13 +437,29 @@ public class ThroughputTracker implements AutoCloseable {
 
     /**
      * Reports the current throughput statistics
+     * <p>
+     * As well as the overall rate this reports the recent rate, and the latency percentiles of items processed since
+     * the previous report.
+     * </p>
      */
     public void reportThroughput() {
         // If not started, or we've been reset and cleared our counters, we can't report throughput
         if (this.first == -1 || this.processed == 0) return;
 
         long elapsed = this.last - this.first;
-        calculateAndLogRate(this.logger, this.action, elapsed, this.reportTimeUnit, this.processed, this.itemsName);
+        String unit = this.reportTimeUnit.toString().toLowerCase(Locale.ROOT);
+        StringBuilder details = new StringBuilder();
+        details.append(String.format(" (recent %.3f %s/%s)", getRecentRate(), this.itemsName, unit));
+        if (!this.latencies.isEmpty()) {
+            details.append(String.format(", latency p50 %s, p99 %s, p999 %s, max %s",
+                                         LatencyHistogram.formatNanos(this.latencies.getValueAtPercentile(50)),
+                                         LatencyHistogram.formatNanos(this.latencies.getValueAtPercentile(99)),
+                                         LatencyHistogram.formatNanos(this.latencies.getValueAtPercentile(99.9)),
+                                         LatencyHistogram.formatNanos(this.latencies.getMax())));
+            this.latencies.reset();
+        }
+        logRate(this.logger, this.action, elapsed, this.reportTimeUnit, this.processed, this.itemsName,
+                details.toString());
 
         // If we've reached/exceeded our batch boundary then increment it for future checks
         // Note that we don't always increment this because this method is public and could be called directly, rather
@@ -277,13 +493,18 @@ public class ThroughputTracker implements AutoCloseable {
      */
     public static double calculateAndLogRate(Logger logger, String action, long elapsed, TimeUnit reportTimeUnit,
                                              long count, String itemsName) {
+        return logRate(logger, action, elapsed, reportTimeUnit, count, itemsName, "");
+    }
+
+    private static double logRate(Logger logger, String action, long elapsed, TimeUnit reportTimeUnit, long count,
+                                  String itemsName, String details) {
         if (reportTimeUnit != TimeUnit.MILLISECONDS) {
             elapsed = reportTimeUnit.convert(elapsed, TimeUnit.MILLISECONDS);
         }
         double rate = calculateRate(count, elapsed);
-        FmtLog.info(logger, "%s %,d %s in %,d %s at %.3f %s/%s", action, count, itemsName, elapsed,
+        FmtLog.info(logger, "%s %,d %s in %,d %s at %.3f %s/%s%s", action, count, itemsName, elapsed,
                     reportTimeUnit.toString().toLowerCase(Locale.ROOT), rate, itemsName,
-                    reportTimeUnit.toString().toLowerCase(Locale.ROOT));
+                    reportTimeUnit.toString().toLowerCase(Locale.ROOT), details);
 
         return rate;
     }
@@ -341,6 +562,53 @@ public class ThroughputTracker implements AutoCloseable {
         return calculateRate(this.processed, elapsed);
     }
 
+    /**
+     * Gets the recent processing rate observed by this tracker i.e. the rate over the configured rate window, or since
+     * the tracker started if that was more recent.
+     * <p>
+     * Unlike {@link #getOverallRate()} this reflects changes in throughput quickly, e.g. if processing degrades, or
+     * stops, then this rate falls accordingly.  As with {@link #getOverallRate()} this is calculated in terms of the
+     * configured reporting time unit.
+     * </p>
+     *
+     * @return Recent processing rate
+     */
+    public double getRecentRate() {
+        if (this.first == -1) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long epoch = Math.floorDiv(now, this.rateSlotNanos);
+        long count = 0;
+        for (int i = 0; i < RATE_WINDOW_SLOTS; i++) {
+            long slotEpoch = this.rateSlotEpochs[i];
+            if (slotEpoch > epoch - RATE_WINDOW_SLOTS && slotEpoch <= epoch) {
+                count += this.rateSlotCounts[i];
+            }
+        }
+        // The window covers the full slots prior to the current slot, plus however much of the current slot has
+        // elapsed, but if we started more recently than that then only the time since we started
+        long elapsed = Math.min((RATE_WINDOW_SLOTS - 1) * this.rateSlotNanos + (now - epoch * this.rateSlotNanos),
+                                now - this.firstNanos);
+        if (elapsed <= 0) {
+            return count;
+        }
+        return count / ((double) elapsed / this.reportTimeUnit.toNanos(1));
+    }
+
+    /**
+     * Gets the histogram of item latencies, in nanoseconds, i.e. the time between items being received and processed
+     * <p>
+     * This only holds the latencies of items processed since throughput was last reported, as the histogram is reset
+     * each time that throughput is reported via {@link #reportThroughput()}.
+     * </p>
+     *
+     * @return Latency histogram
+     */
+    public LatencyHistogram getLatencies() {
+        return this.latencies;
+    }
+
     /**
      * Resets the tracker
      */
@@ -349,6 +617,11 @@ public class ThroughputTracker implements AutoCloseable {
         this.processed = 0;
         this.received = 0;
         this.last = -1;
+        this.pendingHead = 0;
+        this.pendingSize = 0;
+        this.latencies.reset();
+        Arrays.fill(this.rateSlotEpochs, Long.MIN_VALUE);
+        Arrays.fill(this.rateSlotCounts, 0);
     }
 
     @Override
@@ -356,5 +629,8 @@ public class ThroughputTracker implements AutoCloseable {
         if (this.rateMetric != null) {
             this.rateMetric.close();
         }
+        if (this.recentRateMetric != null) {
+            this.recentRateMetric.close();
+        }
     }
 }
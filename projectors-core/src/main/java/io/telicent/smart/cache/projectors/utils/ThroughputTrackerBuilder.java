@@ -18,6 +18,7 @@ package io.telicent.smart.cache.projectors.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -31,6 +32,8 @@ public class ThroughputTrackerBuilder {
     private String itemsName;
     private String action;
     private String metricsLabel;
+    private Duration rateWindow = ThroughputTracker.DEFAULT_RATE_WINDOW;
+    private boolean latencyTracking = true;
 
     /**
      * Creates a new builder
@@ -161,6 +164,36 @@ public class ThroughputTrackerBuilder {
         return this;
     }
 
+    /**
+     * Sets the window over which the tracker calculates its recent processing rate.
+     * <p>
+     * If not set then {@link ThroughputTracker#DEFAULT_RATE_WINDOW} is used.
+     * </p>
+     *
+     * @param window Rate window
+     * @return Builder
+     */
+    public ThroughputTrackerBuilder rateWindow(Duration window) {
+        this.rateWindow = window;
+        return this;
+    }
+
+    /**
+     * Sets whether the tracker measures the latency of items i.e. the time between them being received and processed.
+     * <p>
+     * Latency is measured by pairing each processed item with the oldest received item that has not yet been
+     * processed, so it should be disabled where items are routinely processed out of order, e.g. when processed in
+     * parallel, as the measured latencies would be misleading.  If not set then latency tracking is enabled.
+     * </p>
+     *
+     * @param enabled Whether latency tracking is enabled
+     * @return Builder
+     */
+    public ThroughputTrackerBuilder latencyTracking(boolean enabled) {
+        this.latencyTracking = enabled;
+        return this;
+    }
+
     /**
      * Builds a throughput tracker
      *
@@ -170,7 +203,8 @@ public class ThroughputTrackerBuilder {
      */
     public ThroughputTracker build() {
         return new ThroughputTracker(this.logger, this.reportBatchSize, this.reportTimeUnit, this.action,
-                                     this.itemsName, this.metricsLabel);
+                                     this.itemsName, this.metricsLabel, this.rateWindow,
+                                     this.latencyTracking);
     }
 
 
@@ -15,8 +15,12 @@
  */
 package io.telicent.smart.cache.projectors;
 
+import io.telicent.smart.cache.projectors.sinks.CollectorSink;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 @Test
 public class TestNoOpProjector extends AbstractProjectorTests<String, String> {
 
@@ -29,4 +33,28 @@ public class TestNoOpProjector extends AbstractProjectorTests<String, String> {
     protected String getSampleInput() {
         return "test";
     }
+
+    @Test
+    public void givenBatchOfInputs_whenProjectingAll_thenAllInputsOutputInOrder() {
+        // Given
+        NoOpProjector<String> projector = new NoOpProjector<>();
+        List<String> inputs = List.of("a", "b", "c");
+
+        try (CollectorSink<String> sink = CollectorSink.of()) {
+            // When
+            projector.projectAll(inputs, sink);
+
+            // Then
+            Assert.assertEquals(sink.get(), inputs);
+        }
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void givenNullSink_whenProjectingAll_thenNPE() {
+        // Given
+        NoOpProjector<String> projector = new NoOpProjector<>();
+
+        // When and Then
+        projector.projectAll(List.of("a"), null);
+    }
 }
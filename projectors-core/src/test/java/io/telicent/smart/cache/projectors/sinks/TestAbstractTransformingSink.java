@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TestAbstractTransformingSink {
+
+    private static class UpperCaseSink extends AbstractTransformingSink<String, String> {
+
+        UpperCaseSink(Sink<String> destination) {
+            super(destination);
+        }
+
+        @Override
+        protected String transform(String input) {
+            return input.toUpperCase();
+        }
+    }
+
+    private static class CountingUpperCaseSink extends UpperCaseSink {
+        private final List<String> sent = new ArrayList<>();
+
+        CountingUpperCaseSink(Sink<String> destination) {
+            super(destination);
+        }
+
+        @Override
+        public void send(String item) throws SinkException {
+            this.sent.add(item);
+            super.send(item);
+        }
+    }
+
+    private static final class BatchRecordingSink implements Sink<String> {
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final CollectorSink<String> collector = CollectorSink.of();
+
+        @Override
+        public void send(String item) {
+            this.batchSizes.add(1);
+            this.collector.send(item);
+        }
+
+        @Override
+        public void sendAll(Collection<? extends String> items) {
+            this.batchSizes.add(items.size());
+            this.collector.sendAll(items);
+        }
+
+        @Override
+        public void close() {
+            this.collector.close();
+        }
+    }
+
+    @Test
+    public void givenTransformingSink_whenSendingBatch_thenTransformedItemsForwardedAsSingleBatch() {
+        // Given
+        BatchRecordingSink destination = new BatchRecordingSink();
+        try (UpperCaseSink sink = new UpperCaseSink(destination)) {
+            // When
+            sink.sendAll(List.of("a", "b", "c"));
+
+            // Then
+            Assert.assertEquals(destination.batchSizes, List.of(3));
+            Assert.assertEquals(destination.collector.get(), List.of("A", "B", "C"));
+        }
+    }
+
+    @Test
+    public void givenTransformingSinkOverridingSend_whenSendingBatch_thenEachItemPassesThroughSend() {
+        // Given
+        BatchRecordingSink destination = new BatchRecordingSink();
+        try (CountingUpperCaseSink sink = new CountingUpperCaseSink(destination)) {
+            // When
+            sink.sendAll(List.of("a", "b", "c"));
+
+            // Then
+            Assert.assertEquals(sink.sent, List.of("a", "b", "c"));
+            Assert.assertEquals(destination.batchSizes, List.of(1, 1, 1));
+            Assert.assertEquals(destination.collector.get(), List.of("A", "B", "C"));
+        }
+    }
+
+    @Test
+    public void givenAnonymousTransformingSinkOverridingSend_whenSendingBatch_thenEachItemPassesThroughSend() {
+        // Given
+        List<Integer> sent = new ArrayList<>();
+        CollectorSink<String> collector = CollectorSink.of();
+        try (Sink<Integer> sink = new AbstractTransformingSink<Integer, String>(collector) {
+            @Override
+            public void send(Integer item) throws SinkException {
+                sent.add(item);
+                super.send(item);
+            }
+
+            @Override
+            protected String transform(Integer input) {
+                return Integer.toString(input * 2);
+            }
+        }) {
+            // When
+            sink.sendAll(List.of(1, 2, 3));
+
+            // Then
+            Assert.assertEquals(sent, List.of(1, 2, 3));
+            Assert.assertEquals(collector.get(), List.of("2", "4", "6"));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestAsyncSink {
+
+    @DataProvider(name = "waitStrategies")
+    public Object[][] waitStrategies() {
+        return new Object[][] {
+                { AsyncSink.WaitStrategy.SPIN }, { AsyncSink.WaitStrategy.YIELD }, { AsyncSink.WaitStrategy.PARK }
+        };
+    }
+
+    @Test(dataProvider = "badBufferSizes", expectedExceptions = IllegalArgumentException.class)
+    public void givenBadBufferSize_whenBuildingAsyncSink_thenIllegalArgument(int bufferSize) {
+        // Given, When and Then
+        Sinks.<String>async().bufferSize(bufferSize).discard().build();
+    }
+
+    @DataProvider(name = "badBufferSizes")
+    public Object[][] badBufferSizes() {
+        return new Object[][] { { 0 }, { -1 }, { Integer.MAX_VALUE } };
+    }
+
+    @Test
+    public void givenBufferSize_whenBuildingAsyncSink_thenRoundedUpToPowerOfTwo() {
+        // Given, When and Then
+        try (AsyncSink<String> sink = Sinks.<String>async().bufferSize(1).discard().build()) {
+            Assert.assertEquals(sink.getBufferSize(), 1);
+        }
+        try (AsyncSink<String> sink = Sinks.<String>async().bufferSize(1_000).discard().build()) {
+            Assert.assertEquals(sink.getBufferSize(), 1_024);
+        }
+        try (AsyncSink<String> sink = Sinks.<String>async().bufferSize(1_024).discard().build()) {
+            Assert.assertEquals(sink.getBufferSize(), 1_024);
+        }
+    }
+
+    @Test(dataProvider = "waitStrategies")
+    public void givenAsyncSink_whenSendingItems_thenForwardedInOrderOnConsumerThread(
+            AsyncSink.WaitStrategy waitStrategy) {
+        // Given
+        List<Integer> output = new ArrayList<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Sink<Integer> destination = new Sink<>() {
+            @Override
+            public void send(Integer item) {
+                threads.add(Thread.currentThread().getName());
+                output.add(item);
+            }
+
+            @Override
+            public void close() {
+                threads.add(Thread.currentThread().getName());
+                closed.set(true);
+            }
+        };
+        AsyncSink<Integer> sink = Sinks.<Integer>async()
+                                       .bufferSize(16)
+                                       .waitStrategy(waitStrategy)
+                                       .threadName("Consumer")
+                                       .destination(destination)
+                                       .build();
+        Assert.assertEquals(sink.getWaitStrategy(), waitStrategy);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            sink.send(i);
+        }
+        sink.close();
+
+        // Then
+        Assert.assertTrue(closed.get());
+        Assert.assertEquals(threads, Set.of("Consumer"));
+        Assert.assertEquals(output.size(), 100_000);
+        for (int i = 0; i < 100_000; i++) {
+            Assert.assertEquals(output.get(i), i);
+        }
+        Assert.assertEquals(sink.getBuffered(), 0);
+    }
+
+    @Test
+    public void givenSlowDestination_whenClosing_thenAllBufferedItemsDrainedBeforeClose() {
+        // Given
+        List<Integer> output = new ArrayList<>();
+        AsyncSink<Integer> sink = Sinks.<Integer>async()
+                                       .bufferSize(100)
+                                       .destination(new DelaySink<>(output::add, 1))
+                                       .build();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            sink.send(i);
+        }
+        Assert.assertTrue(sink.getBuffered() > 0);
+        sink.close();
+
+        // Then
+        Assert.assertEquals(output.size(), 100);
+        Assert.assertEquals(sink.getBuffered(), 0);
+    }
+
+    @Test
+    public void givenFullBuffer_whenSending_thenSenderWaitsForSpace() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> output = new ArrayList<>();
+        AsyncSink<Integer> sink = Sinks.<Integer>async().bufferSize(4).destination(item -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new SinkException(e);
+            }
+            output.add(item);
+        }).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When
+            Future<?> future = executor.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    sink.send(i);
+                }
+            });
+
+            // Then
+            Assert.assertThrows(TimeoutException.class, () -> future.get(500, TimeUnit.MILLISECONDS));
+            Assert.assertEquals(sink.getBuffered(), 4);
+            release.countDown();
+            future.get(3, TimeUnit.SECONDS);
+            sink.close();
+            Assert.assertEquals(output, List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenFailingDestination_whenSending_thenFailurePropagated_andSubsequentSendsFail() {
+        // Given
+        AsyncSink<Integer> sink = Sinks.<Integer>async()
+                                       .bufferSize(4)
+                                       .destination(new ErrorSink<>(() -> new SinkException("Bad item")))
+                                       .build();
+
+        // When
+        SinkException failure = null;
+        for (int i = 0; i < 1_000 && failure == null; i++) {
+            try {
+                sink.send(i);
+            } catch (SinkException e) {
+                failure = e;
+            }
+        }
+
+        // Then
+        Assert.assertNotNull(failure);
+        Assert.assertEquals(failure.getMessage(), "Bad item");
+        SinkException subsequent = Assert.expectThrows(SinkException.class, () -> sink.send(1));
+        Assert.assertEquals(subsequent.getCause().getMessage(), "Bad item");
+        // Failure was already reported so close() does not rethrow it
+        sink.close();
+    }
+
+    @Test
+    public void givenFailingDestination_whenClosing_thenFailurePropagated() {
+        // Given
+        AsyncSink<Integer> sink = Sinks.<Integer>async()
+                                       .destination(new ErrorSink<>(() -> new SinkException("Bad item")))
+                                       .build();
+        sink.send(1);
+
+        // When and Then
+        SinkException e = Assert.expectThrows(SinkException.class, sink::close);
+        Assert.assertEquals(e.getMessage(), "Bad item");
+    }
+
+    @Test(expectedExceptions = SinkException.class, expectedExceptionsMessageRegExp = ".*already closed")
+    public void givenClosedAsyncSink_whenSending_thenFails() {
+        // Given
+        AsyncSink<Integer> sink = Sinks.<Integer>async().discard().build();
+        sink.close();
+        sink.close();
+
+        // When and Then
+        sink.send(1);
+    }
+
+    @Test
+    public void givenForwardingSinkBuilder_whenAddingAsyncDestination_thenItemsForwardedAsynchronously() {
+        // Given
+        List<String> output = new ArrayList<>();
+        try (Sink<String> sink = Sinks.<String>filter()
+                                      .predicate(s -> s.startsWith("a"))
+                                      .async(a -> a.bufferSize(8).destination(output::add))
+                                      .build()) {
+            // When
+            List.of("a", "b", "ab", "c", "abc").forEach(sink::send);
+        }
+
+        // Then
+        Assert.assertEquals(output, List.of("a", "ab", "abc"));
+    }
+
+    @Test
+    public void givenAsyncSink_whenFlushing_thenDestinationFlushedOnConsumerThreadAfterPriorItems() {
+        // Given
+        List<String> events = new ArrayList<>();
+        Sink<Integer> destination = new Sink<>() {
+            @Override
+            public void send(Integer item) {
+                events.add(Thread.currentThread().getName() + ":" + item);
+            }
+
+            @Override
+            public void flush() {
+                events.add(Thread.currentThread().getName() + ":flush");
+            }
+        };
+        AsyncSink<Integer> sink = Sinks.<Integer>async().threadName("Consumer").destination(destination).build();
+
+        // When
+        sink.send(1);
+        sink.flush();
+        sink.send(2);
+        sink.close();
+
+        // Then
+        Assert.assertEquals(events, List.of("Consumer:1", "Consumer:flush", "Consumer:2"));
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.Sink;
+import io.telicent.smart.cache.projectors.SinkException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestBatchSink {
+
+    private static final class BatchCollector<T> implements Sink<List<T>> {
+        private final List<List<T>> batches = new ArrayList<>();
+        private int flushes = 0;
+        private boolean closed = false;
+
+        @Override
+        public void send(List<T> batch) {
+            this.batches.add(batch);
+        }
+
+        @Override
+        public void flush() {
+            this.flushes++;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Max Count.*")
+    public void givenBadMaxCount_whenBuildingBatchSink_thenIllegalArgument() {
+        // Given, When and Then
+        Sinks.<String>batch().maxCount(0).build();
+    }
+
+    @Test(expectedExceptions = NullPointerException.class, expectedExceptionsMessageRegExp = "Sizer.*")
+    public void givenMaxBytesWithoutSizer_whenBuildingBatchSink_thenNPE() {
+        // Given, When and Then
+        Sinks.<String>batch().maxBytes(100, null).build();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Max Linger.*")
+    public void givenBadMaxLinger_whenBuildingBatchSink_thenIllegalArgument() {
+        // Given, When and Then
+        Sinks.<String>batch().maxLinger(Duration.ZERO).build();
+    }
+
+    @Test
+    public void givenMaxCount_whenSendingItems_thenForwardedInBatchesOfMaxCount_andRemainderForwardedOnClose() {
+        // Given
+        BatchCollector<Integer> collector = new BatchCollector<>();
+        BatchSink<Integer> sink = Sinks.<Integer>batch().maxCount(10).destination(collector).build();
+
+        // When
+        for (int i = 0; i < 25; i++) {
+            sink.send(i);
+        }
+
+        // Then
+        Assert.assertEquals(collector.batches.size(), 2);
+        Assert.assertEquals(collector.batches.get(0), List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        Assert.assertEquals(collector.batches.get(1).size(), 10);
+        Assert.assertEquals(sink.getBatched(), 5);
+
+        // And
+        sink.close();
+        Assert.assertEquals(collector.batches.size(), 3);
+        Assert.assertEquals(collector.batches.get(2), List.of(20, 21, 22, 23, 24));
+        Assert.assertEquals(sink.getBatchesForwarded(), 3);
+        Assert.assertTrue(collector.closed);
+    }
+
+    @Test
+    public void givenMaxBytes_whenSendingItems_thenForwardedOnceSizeReached() {
+        // Given
+        BatchCollector<String> collector = new BatchCollector<>();
+        try (BatchSink<String> sink = Sinks.<String>batch()
+                                           .maxCount(1_000)
+                                           .maxBytes(10, String::length)
+                                           .destination(collector)
+                                           .build()) {
+            // When
+            List.of("abcd", "efgh", "ij", "k", "lmnopqrstuvwxyz", "z").forEach(sink::send);
+
+            // Then
+            Assert.assertEquals(collector.batches,
+                                List.of(List.of("abcd", "efgh", "ij"), List.of("k", "lmnopqrstuvwxyz")));
+            Assert.assertEquals(sink.getBatched(), 1);
+        }
+    }
+
+    @Test
+    public void givenMaxLinger_whenSendingItemsSlowly_thenForwardedOnceLingerExpired() throws InterruptedException {
+        // Given
+        BatchCollector<Integer> collector = new BatchCollector<>();
+        try (BatchSink<Integer> sink = Sinks.<Integer>batch()
+                                            .maxLinger(Duration.ofMillis(50))
+                                            .destination(collector)
+                                            .build()) {
+            // When
+            sink.send(1);
+            sink.send(2);
+            Assert.assertTrue(collector.batches.isEmpty());
+            Thread.sleep(100);
+            sink.send(3);
+
+            // Then
+            Assert.assertEquals(collector.batches, List.of(List.of(1, 2, 3)));
+        }
+    }
+
+    @Test
+    public void givenOpenBatch_whenFlushing_thenBatchForwarded_andDestinationFlushed() {
+        // Given
+        BatchCollector<Integer> collector = new BatchCollector<>();
+        try (BatchSink<Integer> sink = Sinks.<Integer>batch().destination(collector).build()) {
+            sink.send(1);
+
+            // When
+            sink.flush();
+            sink.flush();
+
+            // Then
+            Assert.assertEquals(collector.batches, List.of(List.of(1)));
+            Assert.assertEquals(collector.flushes, 2);
+        }
+    }
+
+    @Test(expectedExceptions = SinkException.class, expectedExceptionsMessageRegExp = ".*already closed")
+    public void givenClosedBatchSink_whenSending_thenFails() {
+        // Given
+        BatchSink<Integer> sink = Sinks.<Integer>batch().discard().build();
+        sink.close();
+        sink.close();
+
+        // When and Then
+        sink.send(1);
+    }
+
+    @Test
+    public void givenForwardingSinkBuilder_whenFlushing_thenFlushPropagatesToBatchSink() {
+        // Given
+        AtomicInteger batches = new AtomicInteger();
+        try (Sink<String> sink = Sinks.<String>filter()
+                                      .predicate(s -> s.startsWith("a"))
+                                      .batch(b -> b.maxCount(100).destination(batch -> batches.incrementAndGet()))
+                                      .build()) {
+            List.of("a", "b", "ab").forEach(sink::send);
+            Assert.assertEquals(batches.get(), 0);
+
+            // When
+            sink.flush();
+
+            // Then
+            Assert.assertEquals(batches.get(), 1);
+        }
+    }
+}
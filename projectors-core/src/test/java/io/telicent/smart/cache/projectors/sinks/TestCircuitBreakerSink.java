@@ -20,6 +20,10 @@ import io.telicent.smart.cache.projectors.SinkException;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -488,4 +492,122 @@ public class TestCircuitBreakerSink {
             }
         }
     }
+
+    private static CircuitBreakerSink<Integer> spillingCircuitBreaker(Sink<Integer> destination, Path spillFile) {
+        return CircuitBreakerSink.<Integer>create()
+                                 .queueSize(10)
+                                 .opened()
+                                 .spillover(spillFile, i -> ByteBuffer.allocate(Integer.BYTES).putInt(i).array(),
+                                            b -> ByteBuffer.wrap(b).getInt())
+                                 .destination(destination)
+                                 .build();
+    }
+
+    @Test
+    public void givenCircuitBreakerWithSpilloverInOpenState_whenSendingMoreItemsThanQueue_thenNotBlocked_andAllSentInOrderOnceClosed() throws
+            IOException {
+        // Given
+        Path spillFile = Files.createTempFile("circuit-breaker", ".spill");
+        try (CollectorSink<Integer> collector = CollectorSink.of()) {
+            try (CircuitBreakerSink<Integer> sink = spillingCircuitBreaker(collector, spillFile)) {
+                // When
+                sendItems(sink, 10_000);
+
+                // Then
+                verifyEvents(collector, 0);
+                Assert.assertTrue(Files.size(spillFile) > 0);
+
+                // And
+                sink.setState(CircuitBreakerSink.State.CLOSED);
+                verifyEvents(collector, 10_000);
+                Assert.assertFalse(Files.exists(spillFile));
+
+                // And
+                sendItems(sink, 10_000, 10);
+                verifyEvents(collector, 10_010);
+            }
+        } finally {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    @Test
+    public void givenCircuitBreakerWithSpillover_whenOpenedAndClosedRepeatedly_thenAllSentInOrder() throws
+            IOException {
+        // Given
+        Path spillFile = Files.createTempFile("circuit-breaker", ".spill");
+        Files.writeString(spillFile, "stale data from a previous run");
+        try (CollectorSink<Integer> collector = CollectorSink.of()) {
+            try (CircuitBreakerSink<Integer> sink = spillingCircuitBreaker(collector, spillFile)) {
+                // When
+                for (int i = 0; i < 5; i++) {
+                    sink.setState(CircuitBreakerSink.State.OPEN);
+                    sendItems(sink, i * 100, 100);
+                    sink.setState(CircuitBreakerSink.State.CLOSED);
+                }
+
+                // Then
+                verifyEvents(collector, 500);
+            }
+        } finally {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    @Test(expectedExceptions = SinkException.class, expectedExceptionsMessageRegExp = ".*1,000 queued items.*")
+    public void givenCircuitBreakerWithSpilloverInOpenState_whenClosingSink_thenSpilledItemsCounted_andFileDeleted() throws
+            IOException {
+        // Given
+        Path spillFile = Files.createTempFile("circuit-breaker", ".spill");
+        try (CircuitBreakerSink<Integer> sink = spillingCircuitBreaker(NullSink.of(), spillFile)) {
+            sendItems(sink, 1_000);
+
+            // When and Then
+            try {
+                sink.close();
+            } finally {
+                Assert.assertFalse(Files.exists(spillFile));
+            }
+        } finally {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    @Test
+    public void givenCircuitBreakerInOpenStateWithFullQueue_whenSinkClosed_thenBlockedSenderReleased() throws
+            InterruptedException {
+        // Given
+        CircuitBreakerSink<Integer> sink = CircuitBreakerSink.<Integer>create()
+                                                             .queueSize(10)
+                                                             .opened()
+                                                             .destination(NullSink.of())
+                                                             .build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch queueFilled = new CountDownLatch(10);
+            Future<?> future = executor.submit(() -> {
+                for (int i = 1; i <= 100; i++) {
+                    sink.send(i);
+                    queueFilled.countDown();
+                }
+            });
+            Assert.assertTrue(queueFilled.await(3, TimeUnit.SECONDS));
+
+            // When
+            Assert.assertThrows(SinkException.class, sink::close);
+
+            // Then
+            try {
+                future.get(3, TimeUnit.SECONDS);
+                Assert.fail("Expected blocked sender to fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof SinkException);
+                Assert.assertTrue(CS.contains(e.getCause().getMessage(), "already closed"));
+            } catch (TimeoutException e) {
+                Assert.fail("Blocked sender was not released when sink closed");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -76,4 +76,19 @@ public class TestCollectorSink extends AbstractSinkTests {
             Assert.assertEquals(sink.get().size(), 0);
         }
     }
+
+    @Test
+    public void givenItems_whenSendingAllToCollectorSink_thenItemsAreCollectedInOrder() {
+        // Given
+        List<String> values = Arrays.asList("a", "b", "c");
+
+        try (CollectorSink<String> sink = CollectorSink.of()) {
+            // When
+            sink.send("z");
+            sink.sendAll(values);
+
+            // Then
+            Assert.assertEquals(sink.get(), Arrays.asList("z", "a", "b", "c"));
+        }
+    }
 }
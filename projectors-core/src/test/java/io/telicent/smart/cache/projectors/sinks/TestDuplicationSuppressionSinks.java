@@ -23,6 +23,7 @@ import io.opentelemetry.api.common.Attributes;
 import io.telicent.smart.cache.observability.AttributeNames;
 import io.telicent.smart.cache.observability.MetricNames;
 import io.telicent.smart.cache.observability.metrics.MetricTestUtils;
+import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.TestLoggerUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -30,8 +31,13 @@ import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
@@ -72,6 +78,73 @@ public class TestDuplicationSuppressionSinks {
         suppressUnmodifiedLogger.clear();
     }
 
+    @DataProvider(name = "fingerprintStores")
+    public Object[][] fingerprintStores() {
+        return new Object[][] { { false, false }, { true, false }, { false, true }, { true, true } };
+    }
+
+    @Test(dataProvider = "fingerprintStores")
+    public void givenFingerprintStore_whenSuppressingDuplicates_thenDuplicatesSuppressed(boolean wide, boolean bloom) {
+        // Given
+        CollectorSink<String> collector = CollectorSink.of();
+        List<String> values = Arrays.asList("a", "b", "a", "c", "b", "d", "a");
+        try (SuppressDuplicatesSink<String> sink = SuppressDuplicatesSink.<String>create()
+                                                                         .cacheSize(10)
+                                                                         .fingerprintStore(
+                                                                                 s -> s.getBytes(StandardCharsets.UTF_8),
+                                                                                 wide, bloom)
+                                                                         .destination(collector)
+                                                                         .build()) {
+            // When
+            values.forEach(sink::send);
+
+            // Then
+            verifyCollectedValues(collector, Arrays.asList("a", "b", "c", "d"));
+            Assert.assertEquals(sink.getSuppressed(), 3);
+        }
+    }
+
+    @Test
+    public void givenFingerprintStore_whenItemsHaveSameBytes_thenConsideredDuplicates() {
+        // Given
+        CollectorSink<StringBuilder> collector = CollectorSink.of();
+        Function<StringBuilder, byte[]> toBytes = s -> s.toString().getBytes(StandardCharsets.UTF_8);
+        try (SuppressDuplicatesSink<StringBuilder> sink = SuppressDuplicatesSink.<StringBuilder>create()
+                                                                                .cacheSize(10)
+                                                                                .fingerprintStore(toBytes)
+                                                                                .destination(collector)
+                                                                                .build()) {
+            // When
+            // NB - StringBuilder uses identity equality so the default store would never consider these duplicates
+            sink.send(new StringBuilder("a"));
+            sink.send(new StringBuilder("a"));
+
+            // Then
+            Assert.assertEquals(collector.get().size(), 1);
+            Assert.assertEquals(sink.getSuppressed(), 1);
+        }
+    }
+
+    @Test
+    public void givenFingerprintStoreWithInvalidation_whenSuppressingDuplicates_thenInvalidatedItemsForwarded() {
+        // Given
+        CollectorSink<String> collector = CollectorSink.of();
+        List<String> values = Arrays.asList("a", "b", "a", "b");
+        try (SuppressDuplicatesSink<String> sink = SuppressDuplicatesSink.<String>create()
+                                                                         .cacheSize(10)
+                                                                         .fingerprintStore(
+                                                                                 s -> s.getBytes(StandardCharsets.UTF_8))
+                                                                         .invalidateWhen("b"::equals)
+                                                                         .destination(collector)
+                                                                         .build()) {
+            // When
+            values.forEach(sink::send);
+
+            // Then
+            verifyCollectedValues(collector, Arrays.asList("a", "b", "b"));
+        }
+    }
+
     @SuppressWarnings("resource")
     @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*>= 1")
     public void suppress_duplicates_bad_01() {
@@ -547,4 +620,195 @@ public class TestDuplicationSuppressionSinks {
         Assert.assertEquals(suppressUnmodifiedLogger.getLoggingEvents().size(), 1);
         TestLoggerUtils.formattedLogMessages(suppressUnmodifiedLogger).forEach(m -> Assert.assertTrue(m.startsWith("Suppressed 4"), "Expected message to indicate 4 suppressed duplicates"));
     }
+
+    private static SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> persistentSink(
+            Sink<Map.Entry<String, String>> destination, Path stateFile) {
+        return SuppressUnmodifiedSink.<Map.Entry<String, String>, String, String>create()
+                                     .cacheSize(100)
+                                     .persistentState(stateFile,
+                                                      e -> e.getKey().getBytes(StandardCharsets.UTF_8),
+                                                      e -> e.getValue().getBytes(StandardCharsets.UTF_8))
+                                     .destination(destination)
+                                     .build();
+    }
+
+    @Test
+    public void givenPersistentState_whenRestartingSink_thenUnmodifiedItemsStillSuppressed() throws IOException {
+        // Given
+        Path stateFile = Files.createTempFile("unmodified", ".state");
+        Files.delete(stateFile);
+        try {
+            CollectorSink<Map.Entry<String, String>> collector = CollectorSink.of();
+            try (SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> sink = persistentSink(collector,
+                                                                                                         stateFile)) {
+                sink.send(Map.entry("a", "1"));
+                sink.send(Map.entry("b", "1"));
+                sink.send(Map.entry("a", "1"));
+                Assert.assertEquals(sink.getSuppressed(), 1);
+            }
+            Assert.assertTrue(Files.exists(stateFile));
+
+            // When
+            try (SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> sink = persistentSink(collector,
+                                                                                                         stateFile)) {
+                sink.send(Map.entry("a", "1"));
+                sink.send(Map.entry("b", "2"));
+                sink.send(Map.entry("c", "1"));
+
+                // Then
+                Assert.assertEquals(sink.getSuppressed(), 1);
+                Assert.assertEquals(collector.get(), List.of(Map.entry("b", "2"), Map.entry("c", "1")));
+            }
+        } finally {
+            Files.deleteIfExists(stateFile);
+        }
+    }
+
+    @Test
+    public void givenPersistentState_whenCheckpointingExplicitly_thenStateFileReflectsCheckpoint() throws IOException {
+        // Given
+        Path stateFile = Files.createTempFile("unmodified", ".state");
+        Files.delete(stateFile);
+        try (SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> sink = persistentSink(NullSink.of(),
+                                                                                                     stateFile)) {
+            sink.send(Map.entry("a", "1"));
+            Assert.assertFalse(Files.exists(stateFile));
+
+            // When
+            sink.checkpoint();
+
+            // Then
+            Assert.assertTrue(Files.exists(stateFile));
+            Assert.assertFalse(Files.exists(stateFile.resolveSibling(stateFile.getFileName() + ".tmp")));
+            try (SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> other = persistentSink(
+                    NullSink.of(), stateFile)) {
+                other.send(Map.entry("a", "1"));
+                Assert.assertEquals(other.getSuppressed(), 1);
+            }
+        } finally {
+            Files.deleteIfExists(stateFile);
+        }
+    }
+
+    @Test
+    public void givenCorruptStateFile_whenCreatingSink_thenStartsEmpty() throws IOException {
+        // Given
+        Path stateFile = Files.createTempFile("unmodified", ".state");
+        Files.writeString(stateFile, "garbage");
+        try {
+            CollectorSink<Map.Entry<String, String>> collector = CollectorSink.of();
+
+            // When
+            try (SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> sink = persistentSink(collector,
+                                                                                                         stateFile)) {
+                sink.send(Map.entry("a", "1"));
+                sink.send(Map.entry("a", "1"));
+
+                // Then
+                Assert.assertEquals(sink.getSuppressed(), 1);
+                Assert.assertEquals(collector.get().size(), 1);
+            }
+            Assert.assertTrue(TestLoggerUtils.formattedLogMessages(suppressUnmodifiedLogger)
+                                             .anyMatch(m -> CS.contains(m, "Failed to load")));
+        } finally {
+            Files.deleteIfExists(stateFile);
+        }
+    }
+
+    @SuppressWarnings("resource")
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*duration greater than zero")
+    public void givenZeroCheckpointInterval_whenBuildingSink_thenIllegalArgument() {
+        // Given, When and Then
+        SuppressUnmodifiedSink.<String, String, String>create()
+                              .persistentState(Path.of("state"), String::getBytes, String::getBytes)
+                              .checkpointInterval(Duration.ZERO)
+                              .destination(NullSink.of())
+                              .build();
+    }
+
+    @DataProvider(name = "fingerprintWidths")
+    public Object[][] fingerprintWidths() {
+        return new Object[][] { { true }, { false } };
+    }
+
+    @Test(dataProvider = "fingerprintWidths")
+    public void givenValueHashes_whenSendingItems_thenUnmodifiedItemsSuppressed(boolean wide) {
+        // Given
+        List<Map.Entry<String, String>> values =
+                List.of(Map.entry("a", "1"), Map.entry("b", "1"), Map.entry("a", "1"), Map.entry("a", "2"),
+                        Map.entry("b", "1"), Map.entry("a", "1"));
+        CollectorSink<Map.Entry<String, String>> collector = CollectorSink.of();
+        try (SuppressUnmodifiedSink<Map.Entry<String, String>, String, String> sink =
+                     SuppressUnmodifiedSink.<Map.Entry<String, String>, String, String>create()
+                                           .cacheSize(100)
+                                           .withMetrics("value-hashes")
+                                           .valueHashes(e -> e.getKey().getBytes(StandardCharsets.UTF_8),
+                                                        e -> e.getValue().getBytes(StandardCharsets.UTF_8), wide)
+                                           .destination(collector)
+                                           .build()) {
+            // When
+            values.forEach(sink::send);
+
+            // Then
+            Assert.assertEquals(collector.get(),
+                                List.of(Map.entry("a", "1"), Map.entry("b", "1"), Map.entry("a", "2"),
+                                        Map.entry("a", "1")));
+            Assert.assertEquals(sink.getSuppressed(), 2);
+        }
+    }
+
+    @Test
+    public void givenValueHashesWithInvalidation_whenSendingItems_thenInvalidatedItemsForwarded() {
+        // Given
+        CollectorSink<String> collector = CollectorSink.of();
+        try (SuppressUnmodifiedSink<String, String, String> sink =
+                     SuppressUnmodifiedSink.<String, String, String>create()
+                                           .cacheSize(100)
+                                           .valueHashes(v -> v.substring(0, 1).getBytes(StandardCharsets.UTF_8),
+                                                        v -> v.getBytes(StandardCharsets.UTF_8))
+                                           .invalidateWhen(v -> v.endsWith("!"))
+                                           .destination(collector)
+                                           .build()) {
+            // When
+            List.of("a", "a", "a!", "a").forEach(sink::send);
+
+            // Then
+            Assert.assertEquals(collector.get(), List.of("a", "a!", "a"));
+        }
+    }
+
+    private static SuppressUnmodifiedSink<String, String, String> valueHashesSink(boolean wide) {
+        return SuppressUnmodifiedSink.<String, String, String>create()
+                                     .cacheSize(100_000)
+                                     .valueHashes(String::getBytes, String::getBytes, wide)
+                                     .destination(NullSink.of())
+                                     .build();
+    }
+
+    @Test
+    public void givenValueHashes_whenQueryingMemoryUsage_thenFixedByCacheSize_andHalvedByNarrowFingerprints() {
+        // Given
+        try (SuppressUnmodifiedSink<String, String, String> wide = valueHashesSink(true);
+             SuppressUnmodifiedSink<String, String, String> narrow = valueHashesSink(false);
+             SuppressUnmodifiedSink<String, String, String> plain =
+                     SuppressUnmodifiedSink.<String, String, String>create()
+                                           .cacheSize(100)
+                                           .keyFunction(k -> k)
+                                           .valueFunction(v -> v)
+                                           .comparator(Comparator.naturalOrder())
+                                           .destination(NullSink.of())
+                                           .build()) {
+            // When
+            long wideUsage = wide.getCacheMemoryUsage();
+            for (int i = 0; i < 10_000; i++) {
+                wide.send(Integer.toString(i));
+            }
+
+            // Then
+            Assert.assertTrue(wideUsage > 0);
+            Assert.assertEquals(wide.getCacheMemoryUsage(), wideUsage);
+            Assert.assertEquals(narrow.getCacheMemoryUsage(), wideUsage / 2);
+            Assert.assertEquals(plain.getCacheMemoryUsage(), -1);
+        }
+    }
 }
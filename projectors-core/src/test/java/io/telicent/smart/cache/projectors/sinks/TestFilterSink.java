@@ -20,6 +20,7 @@ import io.opentelemetry.api.common.Attributes;
 import io.telicent.smart.cache.observability.AttributeNames;
 import io.telicent.smart.cache.observability.MetricNames;
 import io.telicent.smart.cache.observability.metrics.MetricTestUtils;
+import io.telicent.smart.cache.projectors.Sink;
 import io.telicent.smart.cache.projectors.SinkException;
 import io.telicent.smart.cache.projectors.sinks.builder.AbstractForwardingSinkBuilder;
 import org.apache.commons.lang3.StringUtils;
@@ -28,7 +29,9 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -234,4 +237,32 @@ public class TestFilterSink extends AbstractSinkTests {
                                         })""");
         }
     }
+
+    @Test
+    public void givenFilterSink_whenSendingBatch_thenFilteredItemsForwardedAsSingleBatch() {
+        // Given
+        List<Integer> batchSizes = new ArrayList<>();
+        CollectorSink<String> collector = CollectorSink.of();
+        Sink<String> destination = new Sink<>() {
+            @Override
+            public void send(String item) {
+                Assert.fail("Expected items to be forwarded as a batch");
+            }
+
+            @Override
+            public void sendAll(Collection<? extends String> items) {
+                batchSizes.add(items.size());
+                collector.sendAll(items);
+            }
+        };
+        try (FilterSink<String> sink = new FilterSink<>(destination, x -> CS.startsWith(x, "f"))) {
+            // When
+            sink.sendAll(Arrays.asList("foo", "bar", "faz"));
+            sink.sendAll(List.of("bar"));
+
+            // Then
+            Assert.assertEquals(batchSizes, List.of(2));
+            Assert.assertEquals(collector.get(), Arrays.asList("foo", "faz"));
+        }
+    }
 }
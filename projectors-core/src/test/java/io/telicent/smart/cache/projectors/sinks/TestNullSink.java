@@ -78,4 +78,17 @@ public class TestNullSink extends AbstractSinkTests {
             Assert.assertEquals(sink.count(), 0);
         }
     }
+
+    @Test
+    public void givenItems_whenSendingAllToNull_thenCountIsCorrect() {
+        // Given
+        try (NullSink<String> sink = NullSink.of()) {
+            // When
+            sink.send("z");
+            sink.sendAll(Arrays.asList("a", "b", "c"));
+
+            // Then
+            Assert.assertEquals(sink.count(), 4);
+        }
+    }
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.sinks;
+
+import io.telicent.smart.cache.projectors.SinkException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TestRateLimitSink {
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Burst.*")
+    public void givenZeroBurst_whenBuildingRateLimitSink_thenIllegalArgument() {
+        // Given, When and Then
+        Sinks.<String>rateLimit().maxItemsPerSecond(10).burst(Duration.ZERO).build();
+    }
+
+    @Test(expectedExceptions = NullPointerException.class, expectedExceptionsMessageRegExp = "Sizer.*")
+    public void givenMaxBytesWithoutSizer_whenBuildingRateLimitSink_thenNPE() {
+        // Given, When and Then
+        Sinks.<String>rateLimit().maxBytesPerSecond(100, null).build();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Speedup.*")
+    public void givenZeroSpeedup_whenBuildingRateLimitSink_thenIllegalArgument() {
+        // Given, When and Then
+        Sinks.<Long>rateLimit().timeScaled(l -> l, 0).build();
+    }
+
+    @Test
+    public void givenNoLimits_whenSendingItems_thenForwardedImmediately() {
+        // Given
+        CollectorSink<Integer> collector = CollectorSink.of();
+        RateLimitSink<Integer> sink = Sinks.<Integer>rateLimit().destination(collector).build();
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            sink.send(i);
+        }
+
+        // Then
+        Assert.assertEquals(collector.get().size(), 1_000);
+        Assert.assertEquals(sink.getPausedNanos(), 0);
+    }
+
+    @Test
+    public void givenMaxItemsPerSecond_whenSendingItems_thenRateIsLimited() {
+        // Given
+        CollectorSink<Integer> collector = CollectorSink.of();
+        RateLimitSink<Integer> sink = Sinks.<Integer>rateLimit()
+                                           .maxItemsPerSecond(100)
+                                           .burst(Duration.ofMillis(100))
+                                           .destination(collector)
+                                           .build();
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 60; i++) {
+            sink.send(i);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        // 60 items at 100 items per second, less the 100ms burst, should take at least 500ms
+        Assert.assertEquals(collector.get().size(), 60);
+        Assert.assertTrue(elapsed >= 450, "Expected rate limiting to take at least 450ms but took " + elapsed + "ms");
+        Assert.assertTrue(sink.getPausedNanos() > 0);
+    }
+
+    @Test
+    public void givenMaxBytesPerSecond_whenSendingItems_thenRateIsLimited() {
+        // Given
+        CollectorSink<String> collector = CollectorSink.of();
+        RateLimitSink<String> sink = Sinks.<String>rateLimit()
+                                          .maxBytesPerSecond(1_000, String::length)
+                                          .burst(Duration.ofMillis(100))
+                                          .destination(collector)
+                                          .build();
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            sink.send("a".repeat(50));
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        // 500 bytes at 1,000 bytes per second, less the 100ms burst, should take at least 400ms
+        Assert.assertEquals(collector.get().size(), 10);
+        Assert.assertTrue(elapsed >= 350, "Expected rate limiting to take at least 350ms but took " + elapsed + "ms");
+    }
+
+    @Test
+    public void givenTimeScaled_whenSendingItems_thenOriginalTimingIsReproducedAtScale() {
+        // Given
+        CollectorSink<Long> collector = CollectorSink.of();
+        RateLimitSink<Long> sink = Sinks.<Long>rateLimit().timeScaled(l -> l, 2).destination(collector).build();
+
+        // When
+        long start = System.nanoTime();
+        for (long timestamp : List.of(1_000L, 1_100L, 1_200L, 1_500L)) {
+            sink.send(timestamp);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        // 500ms of original time at double speed should take at least 250ms
+        Assert.assertEquals(collector.get(), List.of(1_000L, 1_100L, 1_200L, 1_500L));
+        Assert.assertTrue(elapsed >= 240, "Expected time scaling to take at least 240ms but took " + elapsed + "ms");
+        Assert.assertTrue(elapsed < 2_000, "Expected time scaling to take less than 2s but took " + elapsed + "ms");
+    }
+
+    @Test
+    public void givenTimeScaled_whenSendingItemsWithNoOrEarlierTimestamps_thenForwardedImmediately() {
+        // Given
+        CollectorSink<Long> collector = CollectorSink.of();
+        RateLimitSink<Long> sink = Sinks.<Long>rateLimit().timeScaled(l -> l, 1).destination(collector).build();
+
+        // When
+        sink.send(-1L);
+        sink.send(10_000L);
+        sink.send(-1L);
+        sink.send(5_000L);
+
+        // Then
+        Assert.assertEquals(collector.get().size(), 4);
+        Assert.assertEquals(sink.getPausedNanos(), 0);
+    }
+
+    @Test(expectedExceptions = SinkException.class, expectedExceptionsMessageRegExp = "Interrupted.*")
+    public void givenInterruptedThread_whenSendingRateLimitedItems_thenSinkException() {
+        // Given
+        RateLimitSink<Integer> sink = Sinks.<Integer>rateLimit()
+                                           .maxItemsPerSecond(1)
+                                           .burst(Duration.ofMillis(1))
+                                           .destination(NullSink.of())
+                                           .build();
+
+        // When and Then
+        Thread.currentThread().interrupt();
+        try {
+            sink.send(1);
+        } finally {
+            Assert.assertTrue(Thread.interrupted());
+        }
+    }
+}
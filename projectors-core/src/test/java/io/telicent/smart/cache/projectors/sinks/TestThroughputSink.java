@@ -343,4 +343,39 @@ public class TestThroughputSink {
                                         }, tracker=ThroughputTracker(processed=0, received=2430, reportBatchSize=100, action=Processed, itemsName=items))""");
         }
     }
+
+    @Test
+    public void givenThroughputSink_whenSendingBatches_thenBatchesForwarded_andCountsAreCorrect() {
+        // Given
+        CollectorSink<String> collector = CollectorSink.of();
+        try (ThroughputSink<String> sink = Sinks.<String>throughput()
+                                                .tracker(t -> t.reportBatchSize(500)
+                                                               .reportTimeUnit(TimeUnit.MILLISECONDS))
+                                                .destination(collector)
+                                                .build()) {
+            // When
+            sink.sendAll(List.of());
+            sink.sendAll(DEFAULT_TEST_VALUES);
+            sink.sendAll(DEFAULT_TEST_VALUES);
+
+            // Then
+            Assert.assertEquals(sink.receivedCount(), DEFAULT_TEST_VALUES.size() * 2L);
+            Assert.assertEquals(sink.processedCount(), DEFAULT_TEST_VALUES.size() * 2L);
+            Assert.assertEquals(collector.get().size(), DEFAULT_TEST_VALUES.size() * 2);
+            Assert.assertEquals(collector.get().subList(0, DEFAULT_TEST_VALUES.size()), DEFAULT_TEST_VALUES);
+        }
+    }
+
+    @Test
+    public void givenDiscardingThroughputSink_whenSendingBatches_thenNothingForwarded_andOnlyReceivedCounted() {
+        // Given
+        try (ThroughputSink<String> sink = new DiscardingThroughputSink<>(null, 100)) {
+            // When
+            sink.sendAll(DEFAULT_TEST_VALUES);
+
+            // Then
+            Assert.assertEquals(sink.receivedCount(), DEFAULT_TEST_VALUES.size());
+            Assert.assertEquals(sink.processedCount(), 0);
+        }
+    }
 }
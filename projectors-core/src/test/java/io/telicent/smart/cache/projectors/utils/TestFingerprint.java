@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class TestFingerprint {
+
+    @DataProvider(name = "vectors")
+    public Object[][] vectors() {
+        // Reference values from the MurmurHash3 x64 128-bit reference implementation, chosen to cover inputs that
+        // consist of no blocks, only tail bytes, exactly one block and a block plus tail bytes
+        return new Object[][] {
+                { "", 0x0000000000000000L, 0x0000000000000000L },
+                { "a", 0x85555565f6597889L, 0xe6b53a48510e895aL },
+                { "hello", 0xcbd8a7b341bd9b02L, 0x5b1e906a48ae1d19L },
+                { "0123456789abcdef", 0x4be06d94cf4ad1a7L, 0x87c35b5c63a708daL },
+                { "0123456789abcdefX", 0xcdebd2acb570d6f7L, 0x8f72119782104b27L },
+                { "The quick brown fox jumps over the lazy dog", 0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L }
+        };
+    }
+
+    @Test(dataProvider = "vectors")
+    public void givenData_whenFingerprinting_thenMatchesReferenceImplementation(String data, long high, long low) {
+        // Given
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Fingerprint fingerprint = Fingerprint.of(bytes);
+
+        // Then
+        Assert.assertEquals(fingerprint, new Fingerprint(high, low));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void givenNullData_whenFingerprinting_thenNPE() {
+        // Given, When and Then
+        Fingerprint.of(null);
+    }
+}
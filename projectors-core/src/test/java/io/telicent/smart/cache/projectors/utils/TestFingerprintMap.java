@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class TestFingerprintMap {
+
+    private static Fingerprint fingerprint(int i) {
+        return Fingerprint.of(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+    }
+
+    private static Fingerprint value(int i) {
+        return Fingerprint.of(("value-" + i).getBytes());
+    }
+
+    private static byte[] write(FingerprintMap map) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        map.write(output);
+        return output.toByteArray();
+    }
+
+    @DataProvider(name = "widths")
+    public Object[][] widths() {
+        return new Object[][] { { true }, { false } };
+    }
+
+    @Test(dataProvider = "capacities", expectedExceptions = IllegalArgumentException.class)
+    public void givenBadCapacity_whenCreatingMap_thenIllegalArgument(int capacity) {
+        // Given, When and Then
+        new FingerprintMap(capacity, true);
+    }
+
+    @DataProvider(name = "capacities")
+    public Object[][] capacities() {
+        return new Object[][] { { 0 }, { -1 }, { FingerprintMap.MAX_CAPACITY + 1 } };
+    }
+
+    @Test(dataProvider = "widths")
+    public void givenEntries_whenPuttingAndRemoving_thenMapBehavesCorrectly(boolean wide) {
+        // Given
+        FingerprintMap map = new FingerprintMap(1_000, wide);
+        Assert.assertTrue(map.isEmpty());
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            map.put(fingerprint(i), value(i));
+        }
+
+        // Then
+        Assert.assertEquals(map.size(), 1_000);
+        for (int i = 0; i < 1_000; i++) {
+            Assert.assertTrue(map.containsKey(fingerprint(i)));
+            Assert.assertTrue(map.matches(fingerprint(i), value(i)));
+            Assert.assertFalse(map.matches(fingerprint(i), value(i + 1)));
+        }
+        Assert.assertFalse(map.containsKey(fingerprint(1_000)));
+        Assert.assertTrue(map.remove(fingerprint(500)));
+        Assert.assertFalse(map.remove(fingerprint(500)));
+        Assert.assertFalse(map.containsKey(fingerprint(500)));
+        Assert.assertEquals(map.size(), 999);
+    }
+
+    @Test
+    public void givenExistingEntry_whenPuttingNewValue_thenValueReplaced() {
+        // Given
+        FingerprintMap map = new FingerprintMap(10, true);
+        map.put(fingerprint(1), value(1));
+
+        // When
+        map.put(fingerprint(1), value(2));
+
+        // Then
+        Assert.assertEquals(map.size(), 1);
+        Assert.assertFalse(map.matches(fingerprint(1), value(1)));
+        Assert.assertTrue(map.matches(fingerprint(1), value(2)));
+    }
+
+    @Test
+    public void givenFullMap_whenPuttingMore_thenOldestGenerationDiscarded() {
+        // Given
+        FingerprintMap map = new FingerprintMap(100, true);
+        for (int i = 0; i < 200; i++) {
+            map.put(fingerprint(i), value(i));
+        }
+        Assert.assertEquals(map.size(), 200);
+
+        // When
+        map.put(fingerprint(200), value(200));
+
+        // Then
+        Assert.assertEquals(map.size(), 101);
+        Assert.assertFalse(map.containsKey(fingerprint(0)));
+        Assert.assertTrue(map.containsKey(fingerprint(100)));
+        Assert.assertTrue(map.containsKey(fingerprint(200)));
+    }
+
+    @Test
+    public void givenFullMap_whenUpdatingOlderEntry_thenPromotedAndRetained() {
+        // Given
+        FingerprintMap map = new FingerprintMap(100, true);
+        for (int i = 0; i < 200; i++) {
+            map.put(fingerprint(i), value(i));
+        }
+
+        // When
+        map.put(fingerprint(0), value(0));
+        map.put(fingerprint(200), value(200));
+
+        // Then
+        Assert.assertTrue(map.matches(fingerprint(0), value(0)));
+        Assert.assertFalse(map.containsKey(fingerprint(1)));
+    }
+
+    @Test(dataProvider = "widths")
+    public void givenMap_whenWrittenAndReadBack_thenEntriesPreserved(boolean wide) throws IOException {
+        // Given
+        FingerprintMap map = new FingerprintMap(100, wide);
+        for (int i = 0; i < 150; i++) {
+            map.put(fingerprint(i), value(i));
+        }
+
+        // When
+        FingerprintMap copy = new FingerprintMap(100, wide);
+        copy.put(fingerprint(-1), value(-1));
+        copy.read(new ByteArrayInputStream(write(map)));
+
+        // Then
+        Assert.assertEquals(copy.size(), 150);
+        Assert.assertFalse(copy.containsKey(fingerprint(-1)));
+        for (int i = 0; i < 150; i++) {
+            Assert.assertTrue(copy.matches(fingerprint(i), value(i)));
+        }
+    }
+
+    @Test
+    public void givenLargerMap_whenReadIntoSmallerMap_thenMostRecentEntriesRetained() throws IOException {
+        // Given
+        FingerprintMap map = new FingerprintMap(100, true);
+        for (int i = 0; i < 200; i++) {
+            map.put(fingerprint(i), value(i));
+        }
+
+        // When
+        FingerprintMap copy = new FingerprintMap(50, true);
+        copy.read(new ByteArrayInputStream(write(map)));
+
+        // Then
+        Assert.assertEquals(copy.size(), 100);
+        Assert.assertFalse(copy.containsKey(fingerprint(99)));
+        for (int i = 100; i < 200; i++) {
+            Assert.assertTrue(copy.matches(fingerprint(i), value(i)));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = ".*64-bit fingerprints but 128-bit.*")
+    public void givenNarrowMap_whenReadIntoWideMap_thenFails() throws IOException {
+        // Given
+        FingerprintMap map = new FingerprintMap(10, false);
+        map.put(fingerprint(1), value(1));
+
+        // When and Then
+        new FingerprintMap(10, true).read(new ByteArrayInputStream(write(map)));
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Not a fingerprint map")
+    public void givenGarbage_whenReading_thenFails() throws IOException {
+        // Given, When and Then
+        new FingerprintMap(10, true).read(new ByteArrayInputStream("not a fingerprint map".getBytes()));
+    }
+
+    @Test
+    public void givenTruncatedData_whenReading_thenFails_andMapLeftEmpty() throws IOException {
+        // Given
+        FingerprintMap map = new FingerprintMap(10, true);
+        for (int i = 0; i < 10; i++) {
+            map.put(fingerprint(i), value(i));
+        }
+        byte[] data = write(map);
+        FingerprintMap copy = new FingerprintMap(10, true);
+
+        // When
+        try {
+            copy.read(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 8)));
+            Assert.fail("Expected read to fail");
+        } catch (IOException e) {
+            // Expected
+        }
+
+        // Then
+        Assert.assertTrue(copy.isEmpty());
+    }
+}
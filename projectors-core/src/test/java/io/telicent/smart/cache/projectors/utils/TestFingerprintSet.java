@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class TestFingerprintSet {
+
+    @DataProvider(name = "configurations")
+    public Object[][] configurations() {
+        return new Object[][] {
+                { false, false }, { true, false }, { false, true }, { true, true }
+        };
+    }
+
+    private static Fingerprint fingerprint(int i) {
+        return Fingerprint.of(ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+    }
+
+    @Test(dataProvider = "capacities", expectedExceptions = IllegalArgumentException.class)
+    public void givenBadCapacity_whenCreatingSet_thenIllegalArgument(int capacity) {
+        // Given, When and Then
+        new FingerprintSet(capacity, true, false);
+    }
+
+    @DataProvider(name = "capacities")
+    public Object[][] capacities() {
+        return new Object[][] { { 0 }, { -1 }, { FingerprintSet.MAX_CAPACITY + 1 } };
+    }
+
+    @Test(dataProvider = "configurations")
+    public void givenFingerprints_whenAddingAndRemoving_thenSetBehavesCorrectly(boolean wide, boolean bloom) {
+        // Given
+        FingerprintSet set = new FingerprintSet(1_000, wide, bloom);
+        Assert.assertTrue(set.isEmpty());
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            Assert.assertTrue(set.add(fingerprint(i)));
+        }
+
+        // Then
+        Assert.assertEquals(set.size(), 1_000);
+        for (int i = 0; i < 1_000; i++) {
+            Assert.assertTrue(set.contains(fingerprint(i)));
+            Assert.assertFalse(set.add(fingerprint(i)));
+        }
+        for (int i = 1_000; i < 2_000; i++) {
+            Assert.assertFalse(set.contains(fingerprint(i)));
+        }
+
+        // And
+        for (int i = 0; i < 1_000; i += 2) {
+            Assert.assertTrue(set.remove(fingerprint(i)));
+            Assert.assertFalse(set.remove(fingerprint(i)));
+        }
+        Assert.assertEquals(set.size(), 500);
+        for (int i = 0; i < 1_000; i++) {
+            Assert.assertEquals(set.contains(fingerprint(i)), i % 2 == 1, "Wrong membership for " + i);
+        }
+    }
+
+    @Test
+    public void givenFullSet_whenAddingMore_thenOldestGenerationDiscarded() {
+        // Given
+        FingerprintSet set = new FingerprintSet(100, true, false);
+        for (int i = 0; i < 200; i++) {
+            set.add(fingerprint(i));
+        }
+        Assert.assertEquals(set.size(), 200);
+
+        // When
+        set.add(fingerprint(200));
+
+        // Then
+        Assert.assertEquals(set.size(), 101);
+        Assert.assertFalse(set.contains(fingerprint(0)));
+        Assert.assertFalse(set.contains(fingerprint(99)));
+        Assert.assertTrue(set.contains(fingerprint(100)));
+        Assert.assertTrue(set.contains(fingerprint(200)));
+    }
+
+    @Test
+    public void givenFingerprintInPreviousGeneration_whenAddedAgain_thenPromotedAndRetained() {
+        // Given
+        FingerprintSet set = new FingerprintSet(100, true, true);
+        for (int i = 0; i < 200; i++) {
+            set.add(fingerprint(i));
+        }
+
+        // When
+        Assert.assertFalse(set.add(fingerprint(0)));
+        for (int i = 200; i < 300; i++) {
+            set.add(fingerprint(i));
+        }
+
+        // Then
+        Assert.assertTrue(set.contains(fingerprint(0)));
+        Assert.assertFalse(set.contains(fingerprint(1)));
+    }
+
+    @Test
+    public void givenZeroFingerprint_whenAdding_thenStoredCorrectly() {
+        // Given
+        FingerprintSet set = new FingerprintSet(10, false, false);
+        Fingerprint empty = Fingerprint.of(new byte[0]);
+        Assert.assertEquals(empty.high(), 0L);
+
+        // When
+        Assert.assertTrue(set.add(empty));
+
+        // Then
+        Assert.assertTrue(set.contains(empty));
+        Assert.assertFalse(set.contains(Fingerprint.of("a".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void givenSet_whenClearing_thenEmptyAndMemoryUsageUnchanged() {
+        // Given
+        FingerprintSet set = new FingerprintSet(1_000, false, true);
+        long memory = set.memoryUsage();
+        for (int i = 0; i < 1_000; i++) {
+            set.add(fingerprint(i));
+        }
+
+        // When
+        set.clear();
+
+        // Then
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertFalse(set.contains(fingerprint(1)));
+        Assert.assertEquals(set.memoryUsage(), memory);
+        Assert.assertTrue(memory < new FingerprintSet(1_000, true, true).memoryUsage());
+    }
+}
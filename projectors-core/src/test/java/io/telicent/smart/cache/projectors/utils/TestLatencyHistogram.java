@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) Telicent Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.telicent.smart.cache.projectors.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void givenEmptyHistogram_whenQuerying_thenZeroes() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When and Then
+        Assert.assertTrue(histogram.isEmpty());
+        Assert.assertEquals(histogram.getCount(), 0L);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 0L);
+        Assert.assertEquals(histogram.getMax(), 0L);
+    }
+
+    @Test
+    public void givenValues_whenMappingToBuckets_thenBucketsAreMonotonic_andWithinPrecision() {
+        // Given
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value += value < 1_000 ? 1 : 997) {
+            // When
+            int bucket = LatencyHistogram.bucketFor(value);
+            long highest = LatencyHistogram.highestValueIn(bucket);
+
+            // Then
+            Assert.assertTrue(bucket >= previous, "Buckets should increase with value");
+            Assert.assertTrue(highest >= value, "Bucket should hold the value");
+            Assert.assertTrue(highest - value <= value / 64, "Bucket should be within precision for " + value);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    public void givenExtremeValues_whenRecording_thenCountedInBoundaryBuckets() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        histogram.record(-10);
+        histogram.record(Long.MAX_VALUE);
+
+        // Then
+        Assert.assertEquals(histogram.getCount(), 2L);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 0L);
+        Assert.assertEquals(histogram.getMax(), Long.MAX_VALUE);
+    }
+
+    @DataProvider(name = "percentiles")
+    public Object[][] percentiles() {
+        return new Object[][] { { 0.0 }, { 50.0 }, { 90.0 }, { 99.0 }, { 99.9 }, { 100.0 } };
+    }
+
+    @Test(dataProvider = "percentiles")
+    public void givenUniformValues_whenQueryingPercentile_thenWithinPrecision(double percentile) {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        // When
+        long actual = histogram.getValueAtPercentile(percentile);
+
+        // Then
+        long expected = Math.max(1, (long) Math.ceil((percentile / 100.0) * 100_000)) * 1_000;
+        Assert.assertTrue(actual >= expected && actual <= expected + expected / 64,
+                          "Percentile " + percentile + " was " + actual + " but expected ~" + expected);
+    }
+
+    @Test
+    public void givenRepeatedValue_whenRecordingWithCount_thenCounted() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        histogram.record(500, 10);
+        histogram.record(100_000, 0);
+
+        // Then
+        Assert.assertEquals(histogram.getCount(), 10L);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), histogram.getValueAtPercentile(0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Percentile.*")
+    public void givenHistogram_whenQueryingBadPercentile_thenIllegalArgument() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When and Then
+        histogram.getValueAtPercentile(100.1);
+    }
+
+    @Test
+    public void givenPopulatedHistogram_whenReset_thenEmpty() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_234);
+
+        // When
+        histogram.reset();
+
+        // Then
+        Assert.assertTrue(histogram.isEmpty());
+    }
+
+    @Test
+    public void givenMultipleThreads_whenRecording_thenNoValuesLost() throws ExecutionException,
+            InterruptedException {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // When
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        histogram.record(i % 1_000);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // Then
+            Assert.assertEquals(histogram.getCount(), 400_000L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DataProvider(name = "formats")
+    public Object[][] formats() {
+        return new Object[][] {
+                { 999L, "999 ns" },
+                { 1_500L, "1.500 µs" },
+                { 2_250_000L, "2.250 ms" },
+                { 3_000_000_000L, "3.000 s" }
+        };
+    }
+
+    @Test(dataProvider = "formats")
+    public void givenLatency_whenFormatting_thenLargestSuitableUnitUsed(long nanos, String expected) {
+        // Given, When and Then
+        Assert.assertEquals(LatencyHistogram.formatNanos(nanos), expected);
+    }
+}
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -88,6 +89,31 @@ public class TestThroughputTracker {
         tracker.itemsProcessed(-1);
     }
 
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*>= 1")
+    public void givenTracker_whenReceivedIsZero_thenIllegalArgument() {
+        // Given
+        ThroughputTracker tracker = new ThroughputTracker(LOGGER, 100, TimeUnit.SECONDS, null, null, null);
+
+        // When and Then
+        tracker.itemsReceived(0);
+    }
+
+    @Test
+    public void givenTracker_whenTrackingBatches_thenCountsAreCorrect() {
+        // Given
+        ThroughputTracker tracker = new ThroughputTracker(LOGGER, 100, TimeUnit.SECONDS, null, null, null);
+
+        // When
+        tracker.itemsReceived(150);
+        tracker.itemsProcessed(150);
+        tracker.itemsReceived(50);
+
+        // Then
+        Assert.assertEquals(tracker.receivedCount(), 200);
+        Assert.assertEquals(tracker.processedCount(), 150);
+        Assert.assertNotEquals(tracker.getFirstTime(), -1);
+    }
+
     @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ThroughputTracker.TRACKING_MISMATCH_ERROR)
     public void givenTracker_whenProcessedCalledWithoutCorrespondingReceived_thenIllegalState() {
         // Given
@@ -466,4 +492,200 @@ public class TestThroughputTracker {
             Assert.assertEquals(testLogger.getLoggingEvents().size(), 0);
         }
     }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Rate window.*")
+    public void givenZeroRateWindow_whenBuilding_thenIllegalArgument() {
+        // Given, When and Then
+        ThroughputTracker.create().logger(LOGGER).rateWindow(Duration.ZERO).build();
+    }
+
+    @Test
+    public void givenTracker_whenItemsTakeTimeToProcess_thenLatenciesRecorded() throws InterruptedException {
+        // Given
+        ThroughputTracker tracker = ThroughputTracker.create().logger(LOGGER).reportBatchSize(100).build();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            tracker.itemReceived();
+            Thread.sleep(5);
+            tracker.itemProcessed();
+        }
+
+        // Then
+        LatencyHistogram latencies = tracker.getLatencies();
+        Assert.assertEquals(latencies.getCount(), 3L);
+        Assert.assertTrue(latencies.getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    public void givenTracker_whenBatchesReceivedAndProcessedInPieces_thenLatencyRecordedForEveryItem() {
+        // Given
+        ThroughputTracker tracker = ThroughputTracker.create().logger(LOGGER).reportBatchSize(1_000).build();
+
+        // When
+        tracker.itemsReceived(10);
+        tracker.itemsReceived(5);
+        tracker.itemsProcessed(3);
+        tracker.itemsProcessed(12);
+
+        // Then
+        Assert.assertEquals(tracker.getLatencies().getCount(), 15L);
+    }
+
+    @Test
+    public void givenTracker_whenItemDiscarded_thenNotCountedTowardsLatency() throws InterruptedException {
+        // Given
+        ThroughputTracker tracker = ThroughputTracker.create().logger(LOGGER).reportBatchSize(100).build();
+        tracker.itemReceived();
+        tracker.itemDiscarded();
+        Thread.sleep(50);
+
+        // When
+        tracker.itemReceived();
+        tracker.itemProcessed();
+
+        // Then
+        Assert.assertEquals(tracker.receivedCount(), 2L);
+        Assert.assertEquals(tracker.processedCount(), 1L);
+        Assert.assertEquals(tracker.getLatencies().getCount(), 1L);
+        Assert.assertTrue(tracker.getLatencies().getMax() < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void givenTracker_whenReportingThroughput_thenLatenciesAndRecentRateLogged_andLatenciesReset() {
+        // Given
+        ThroughputTracker tracker = ThroughputTracker.create().logger(LOGGER).reportBatchSize(10).build();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            tracker.itemReceived();
+            tracker.itemProcessed();
+        }
+
+        // Then
+        Assert.assertEquals(testLogger.getLoggingEvents().size(), 1);
+        String message = testLogger.getLoggingEvents().get(0).getFormattedMessage();
+        Assert.assertTrue(message.contains("recent"), "Log message should report recent rate: " + message);
+        Assert.assertTrue(message.contains("latency p50"), "Log message should report latency: " + message);
+        Assert.assertTrue(message.contains("p999"), "Log message should report latency: " + message);
+        Assert.assertTrue(tracker.getLatencies().isEmpty());
+    }
+
+    @Test
+    public void givenTracker_whenProcessingStops_thenRecentRateFalls_whileOverallRateDoesNot() throws
+            InterruptedException {
+        // Given
+        ThroughputTracker tracker = ThroughputTracker.create()
+                                                     .logger(LOGGER)
+                                                     .reportBatchSize(1_000_000)
+                                                     .rateWindow(Duration.ofMillis(100))
+                                                     .build();
+        Assert.assertEquals(tracker.getRecentRate(), 0.0);
+        for (int i = 0; i < 1_000; i++) {
+            tracker.itemReceived();
+            tracker.itemProcessed();
+        }
+        Assert.assertTrue(tracker.getRecentRate() > 0);
+        double overall = tracker.getOverallRate();
+
+        // When
+        Thread.sleep(250);
+
+        // Then
+        Assert.assertEquals(tracker.getRecentRate(), 0.0);
+        Assert.assertEquals(tracker.getOverallRate(), overall);
+    }
+
+    @Test
+    public void givenTrackerWithMetricsEnabled_whenTrackingItems_thenLatencyAndRecentRateMetricsEmitted() {
+        // Given
+        String metricsLabel = "with_metrics_latency";
+        ThroughputTracker tracker =
+                ThroughputTracker.create().logger(LOGGER).reportBatchSize(1_000).metricsLabel(metricsLabel).build();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            tracker.itemReceived();
+            tracker.itemProcessed();
+        }
+
+        // Then
+        double latencies = MetricTestUtils.getReportedMetric(MetricNames.ITEMS_PROCESSING_LATENCY + ".count",
+                                                             AttributeNames.ITEMS_TYPE, metricsLabel);
+        Assert.assertEquals(latencies, 100.0);
+        MetricTestUtils.verifyReported(MetricNames.ITEMS_RECENT_PROCESSING_RATE);
+    }
+
+    @Test
+    public void givenTrackerWithMetricsEnabled_whenTrackingBatches_thenLatencyMetricRecordedOncePerReceipt() {
+        // Given
+        String metricsLabel = "with_metrics_batch_latency";
+        ThroughputTracker tracker =
+                ThroughputTracker.create().logger(LOGGER).reportBatchSize(1_000).metricsLabel(metricsLabel).build();
+
+        // When
+        tracker.itemsReceived(100);
+        tracker.itemsReceived(50);
+        tracker.itemsProcessed(150);
+
+        // Then
+        double latencies = MetricTestUtils.getReportedMetric(MetricNames.ITEMS_PROCESSING_LATENCY + ".count",
+                                                             AttributeNames.ITEMS_TYPE, metricsLabel);
+        Assert.assertEquals(latencies, 2.0);
+        Assert.assertEquals(tracker.getLatencies().getCount(), 150L);
+    }
+
+    @Test
+    public void givenTrackerWithMetricsEnabled_whenTrackingBatchesOfDifferentSizes_thenLatencyMetricIsPerReceipt() throws
+            InterruptedException {
+        // Given
+        String metricsLabel = "with_metrics_per_receipt_latency";
+        ThroughputTracker tracker =
+                ThroughputTracker.create().logger(LOGGER).reportBatchSize(1_000).metricsLabel(metricsLabel).build();
+
+        // When
+        tracker.itemReceived();
+        Thread.sleep(50);
+        tracker.itemsReceived(99);
+        tracker.itemsProcessed(100);
+
+        // Then
+        double count = MetricTestUtils.getReportedMetric(MetricNames.ITEMS_PROCESSING_LATENCY + ".count",
+                                                         AttributeNames.ITEMS_TYPE, metricsLabel);
+        double sum = MetricTestUtils.getReportedMetric(MetricNames.ITEMS_PROCESSING_LATENCY, AttributeNames.ITEMS_TYPE,
+                                                       metricsLabel);
+        Assert.assertEquals(count, 2.0);
+        Assert.assertEquals(tracker.getLatencies().getCount(), 100L);
+        // The slow single item carries the same weight as the batch of 99 in the exported histogram, but only 1% of
+        // the weight in the internal histogram
+        Assert.assertTrue(sum / count >= 0.025, "Exported mean latency should be per receipt: " + sum / count);
+        Assert.assertTrue(tracker.getLatencies().getValueAtPercentile(50) < TimeUnit.MILLISECONDS.toNanos(25),
+                          "Internal p50 latency should be per item");
+    }
+
+    @Test
+    public void givenTrackerWithLatencyTrackingDisabled_whenTrackingItems_thenNoLatenciesRecorded() {
+        // Given
+        ThroughputTracker tracker = ThroughputTracker.create()
+                                                     .logger(LOGGER)
+                                                     .reportBatchSize(10)
+                                                     .latencyTracking(false)
+                                                     .build();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            tracker.itemReceived();
+            tracker.itemProcessed();
+        }
+        tracker.itemsReceived(5);
+        tracker.itemsDiscarded(5);
+
+        // Then
+        Assert.assertEquals(tracker.receivedCount(), 15L);
+        Assert.assertEquals(tracker.processedCount(), 10L);
+        Assert.assertTrue(tracker.getLatencies().isEmpty());
+        Assert.assertEquals(testLogger.getLoggingEvents().size(), 1);
+        String message = testLogger.getLoggingEvents().get(0).getFormattedMessage();
+        Assert.assertFalse(message.contains("latency"), "Log message should not report latency: " + message);
+    }
 }